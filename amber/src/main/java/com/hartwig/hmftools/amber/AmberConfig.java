@@ -69,6 +69,7 @@ public class AmberConfig
     public final ValidationStringency BamStringency;
     public final int Threads;
     public final boolean SkipBafSegmentation;
+    public final boolean JavaSegmentation;
 
     public final List<String> SpecificChromosomes;
 
@@ -89,6 +90,7 @@ public class AmberConfig
     private static final String WRITE_UNFILTERED_GERMLINE = "write_unfiltered_germline";
     private static final String POSITION_GAP = "position_gap";
     private static final String SKIP_BAF_SEGMENTATION = "skip_baf_segmentation";
+    private static final String JAVA_SEGMENTATION = "java_segmentation";
 
     public AmberConfig(final ConfigBuilder configBuilder)
     {
@@ -140,6 +142,7 @@ public class AmberConfig
         PositionGap = configBuilder.getInteger(POSITION_GAP);
 
         SkipBafSegmentation = configBuilder.hasFlag(SKIP_BAF_SEGMENTATION);
+        JavaSegmentation = configBuilder.hasFlag(JAVA_SEGMENTATION);
 
         WriteUnfilteredGermline = configBuilder.hasFlag(WRITE_UNFILTERED_GERMLINE);
 
@@ -191,6 +194,7 @@ public class AmberConfig
         configBuilder.addDecimal(MAX_HIT_AT_PERC, "Max heterozygous AF%", DEFAULT_MAX_HET_AF_PERCENTAGE);
 
         configBuilder.addFlag(SKIP_BAF_SEGMENTATION, "Skip BAF segmentation");
+        configBuilder.addFlag(JAVA_SEGMENTATION, "Run BAF PCF segmentation in Java instead of R");
 
         configBuilder.addFlag(WRITE_UNFILTERED_GERMLINE, "Write all (unfiltered) germline points");
 
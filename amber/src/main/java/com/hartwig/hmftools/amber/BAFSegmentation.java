@@ -1,14 +1,26 @@
 package com.hartwig.hmftools.amber;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmenter;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 
 public class BAFSegmentation
 {
     private final String mOutputDir;
 
+    private static final int BAF_PCF_GAMMA = 100;
+    private static final String PCF_SAMPLE_COLUMN = "tumorModifiedBAF";
+
     public BAFSegmentation(final String outputDir)
     {
         mOutputDir = outputDir;
@@ -23,4 +35,45 @@ public class BAFSegmentation
             throw new IOException("R execution failed. Unable to complete segmentation.");
         }
     }
+
+    public void applySegmentation(final String tumor, final List<AmberBAF> bafs, int threads) throws IOException
+    {
+        Map<String,List<AmberBAF>> chromosomeBafs = new LinkedHashMap<>();
+
+        for(AmberBAF baf : bafs)
+        {
+            chromosomeBafs.computeIfAbsent(baf.Chromosome, k -> Lists.newArrayList()).add(baf);
+        }
+
+        // fast PCF, as per the R script's call to copynumber's pcf with its default fast = TRUE
+        PCFSegmenter segmenter = new PCFSegmenter(BAF_PCF_GAMMA, true);
+
+        for(Map.Entry<String,List<AmberBAF>> entry : chromosomeBafs.entrySet())
+        {
+            List<AmberBAF> chrBafs = entry.getValue();
+            int[] positions = new int[chrBafs.size()];
+            double[] values = new double[chrBafs.size()];
+
+            for(int i = 0; i < chrBafs.size(); ++i)
+            {
+                positions[i] = chrBafs.get(i).Position;
+                values[i] = writtenValue(chrBafs.get(i).tumorModifiedBAF());
+            }
+
+            segmenter.addChromosome(entry.getKey(), positions, values);
+        }
+
+        List<PCFSegment> segments = segmenter.segment(threads);
+
+        if(segments == null)
+            throw new IOException("unable to complete segmentation");
+
+        PCFFile.write(PCFFile.generateBAFFilename(mOutputDir, tumor), PCF_SAMPLE_COLUMN, segments);
+    }
+
+    private static double writtenValue(double value)
+    {
+        // segment the values as written to the BAF file, as the R routine does
+        return new BigDecimal(value).setScale(4, RoundingMode.HALF_EVEN).doubleValue();
+    }
 }
@@ -40,7 +40,12 @@ public class ResultsWriter
         if(mConfig.TumorId != null && !mConfig.SkipBafSegmentation)
         {
             AMB_LOGGER.info("applying pcf segmentation");
-            new BAFSegmentation(mConfig.OutputDir).applySegmentation(mConfig.TumorId, filename);
+            BAFSegmentation bafSegmentation = new BAFSegmentation(mConfig.OutputDir);
+
+            if(mConfig.JavaSegmentation)
+                bafSegmentation.applySegmentation(mConfig.TumorId, result, mConfig.Threads);
+            else
+                bafSegmentation.applySegmentation(mConfig.TumorId, filename);
         }
     }
 
@@ -1,31 +1,43 @@
 package com.hartwig.hmftools.bamtools.metrics;
 
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.APP_NAME;
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
 import static com.hartwig.hmftools.common.region.PartitionUtils.partitionChromosome;
 import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsStr;
-import static com.hartwig.hmftools.common.utils.TaskExecutor.runThreadTasks;
 
-import java.util.ArrayList;
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
-import com.hartwig.hmftools.bamtools.common.PartitionTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.bam.BamReadFanOut;
+import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyser;
+import com.hartwig.hmftools.common.cobalt.ReadDepthAccumulator;
+import com.hartwig.hmftools.common.cobalt.ReadDepthConsumer;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
 import com.hartwig.hmftools.common.region.BaseRegion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
+import htsjdk.samtools.SamReaderFactory;
+
 public class BamMetrics
 {
     private final MetricsConfig mConfig;
 
+    // read depth is collected as per COBALT's defaults
+    private static final int READ_DEPTH_WINDOW_SIZE = 1000;
+    private static final int READ_DEPTH_MIN_MAP_QUAL = 10;
+
     public BamMetrics(final ConfigBuilder configBuilder)
     {
         mConfig = new MetricsConfig(configBuilder);
@@ -87,44 +99,82 @@ public class BamMetrics
             Collections.sort(allRegions);
         }
 
-        Queue<PartitionTask> partitions = new ConcurrentLinkedQueue<>();
-
-        int taskId = 0;
-        for(int i = 0; i < allRegions.size(); ++i)
-        {
-            partitions.add(new PartitionTask(allRegions.get(i), taskId++));
-        }
-
         CombinedStats combinedStats = new CombinedStats(mConfig.MaxCoverage);
 
         MetricsWriter metricsWriter = new MetricsWriter(mConfig);
 
-        if(allRegions.size() == 1 || mConfig.Threads <= 1)
+        int threadCount = max(min(allRegions.size(), mConfig.Threads), 1);
+
+        if(threadCount > 1)
+            BT_LOGGER.info("splitting {} regions across {} threads", allRegions.size(), threadCount);
+
+        // jitter and read depth are collected from the same BAM pass as metrics if configured
+        BamReadFanOut bamReadFanOut = new BamReadFanOut();
+        bamReadFanOut.registerConsumer(new MetricsReadConsumer(mConfig, combinedStats, metricsWriter, allRegions.size()));
+
+        JitterAnalyser jitterAnalyser = null;
+
+        if(mConfig.JitterMsiFile != null)
         {
-            PartitionThread partitionThread = new PartitionThread(mConfig, partitions, combinedStats, metricsWriter);
-            partitionThread.run();
+            jitterAnalyser = new JitterAnalyser(mConfig.jitterConfig(), BT_LOGGER);
+            bamReadFanOut.registerConsumer(jitterAnalyser.bamReadConsumer());
         }
-        else
-        {
-            BT_LOGGER.info("splitting {} regions across {} threads", allRegions.size(), mConfig.Threads);
 
-            List<Thread> workers = new ArrayList<>();
+        List<String> depthChromosomes = allRegions.stream().map(x -> x.Chromosome).distinct().collect(Collectors.toList());
+        ReadDepthAccumulator readDepthAccumulator = mConfig.WriteReadDepth ? new ReadDepthAccumulator(READ_DEPTH_WINDOW_SIZE) : null;
+
+        if(readDepthAccumulator != null)
+        {
+            RefGenomeCoordinates refGenomeCoords = mConfig.RefGenVersion.is37() ? RefGenomeCoordinates.COORDS_37 : RefGenomeCoordinates.COORDS_38;
 
-            for(int i = 0; i < min(allRegions.size(), mConfig.Threads); ++i)
+            for(String chromosome : depthChromosomes)
             {
-                PartitionThread partitionThread = new PartitionThread(mConfig, partitions, combinedStats, metricsWriter);
-                partitionThread.start();
-                workers.add(partitionThread);
+                readDepthAccumulator.addChromosome(chromosome, refGenomeCoords.length(chromosome));
             }
 
-            if(!runThreadTasks(workers))
-                System.exit(1);
+            bamReadFanOut.registerConsumer(new ReadDepthConsumer(READ_DEPTH_MIN_MAP_QUAL, false, readDepthAccumulator));
+        }
+
+        SamReaderFactory readerFactory = SamReaderFactory.makeDefault().referenceSequence(new File(mConfig.RefGenomeFile));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                threadCount, new ThreadFactoryBuilder().setNameFormat("worker-%d").build());
+
+        try
+        {
+            bamReadFanOut.queryAsync(new File(mConfig.BamFile), readerFactory, allRegions, executorService).get();
+        }
+        catch(Exception e)
+        {
+            BT_LOGGER.error("failed to process BAM: {}", e.toString());
+            e.printStackTrace();
+            System.exit(1);
+        }
+        finally
+        {
+            executorService.shutdown();
         }
 
         BT_LOGGER.info("all regions complete");
 
         metricsWriter.close();
 
+        if(readDepthAccumulator != null)
+            MetricsWriter.writeReadDepths(readDepthAccumulator, depthChromosomes, mConfig);
+
+        if(jitterAnalyser != null)
+        {
+            try
+            {
+                jitterAnalyser.writeAnalysisOutput();
+            }
+            catch(Exception e)
+            {
+                BT_LOGGER.error("failed to write jitter analysis: {}", e.toString());
+                System.exit(1);
+            }
+        }
+
         combinedStats.coverageMetrics().finalise(mConfig.ExcludeZeroCoverage);
         MetricsWriter.writeResults(combinedStats, mConfig);
 
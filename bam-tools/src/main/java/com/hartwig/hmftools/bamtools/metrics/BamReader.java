@@ -20,7 +20,6 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
-import com.hartwig.hmftools.common.bam.BamSlicer;
 import com.hartwig.hmftools.common.bam.SamRecordUtils;
 import com.hartwig.hmftools.common.bam.SupplementaryReadData;
 import com.hartwig.hmftools.common.sv.SvUtils;
@@ -28,16 +27,12 @@ import com.hartwig.hmftools.common.utils.PerformanceCounter;
 
 import htsjdk.samtools.CigarElement;
 import htsjdk.samtools.SAMRecord;
-import htsjdk.samtools.SamReader;
 
 public class BamReader
 {
     private final MetricsConfig mConfig;
     private final ChrBaseRegion mRegion;
 
-    private final SamReader mSamReader;
-    private final BamSlicer mBamSlicer;
-
     private final BaseCoverage mBaseCoverage;
     private final FragmentLengths mFragmentLengths;
     private final Map<String, ReadGroup> mReadGroupMap; // keyed by readId
@@ -51,17 +46,12 @@ public class BamReader
     private final PerformanceCounter mPerfCounter;
     private boolean mLogReadIds;
 
-    public BamReader(
-            final ChrBaseRegion region, final MetricsConfig config, final SamReader samReader, final BamSlicer bamSlicer,
-            final CombinedStats combinedStats)
+    public BamReader(final ChrBaseRegion region, final MetricsConfig config, final CombinedStats combinedStats)
     {
         mConfig = config;
         mRegion = region;
         mCombinedStats = combinedStats;
 
-        mSamReader = samReader;
-        mBamSlicer = bamSlicer;
-
         mReadGroupMap = Maps.newHashMap();
 
         mTargetRegionStats = Lists.newArrayList();
@@ -82,44 +72,18 @@ public class BamReader
         mFlagStats = new FlagStats();
         mFragmentLengths = new FragmentLengths();
 
-        mPerfCounter = new PerformanceCounter("Slice");
+        mPerfCounter = new PerformanceCounter("Region");
         mLogReadIds = !mConfig.LogReadIds.isEmpty();
     }
 
     public List<TargetRegionStats> targetRegionStats() { return mTargetRegionStats; }
     public OffTargetFragments offTargetFragments() { return mOffTargetFragments; }
 
-    public void run()
-    {
-        BT_LOGGER.debug("processing region({})", mRegion);
-
-        mPerfCounter.start(mConfig.PerfDebug ? mRegion.toString() : null);
-        mBamSlicer.slice(mSamReader, mRegion, this::processSamRecord);
-        mPerfCounter.stop();
-
-        // BT_LOGGER.debug("completed region({})", mRegion);
-
-        postSliceProcess();
-    }
-
-    @VisibleForTesting
-    protected void postSliceProcess()
-    {
-        // process overlapping groups
-        for(ReadGroup readGroup : mReadGroupMap.values())
-        {
-            // determine overlapping bases and factor this into the coverage calcs
-            processReadGroup(readGroup);
-        }
-
-        CoverageMetrics metrics = mBaseCoverage.createMetrics();
-
-        mCombinedStats.addStats(
-                metrics, mFragmentLengths, mReadCounts, mFlagStats,
-                mOffTargetFragments != null ? mOffTargetFragments.fragmentOverlapCounts() : Collections.EMPTY_MAP, mPerfCounter);
-    }
+    public ChrBaseRegion region() { return mRegion; }
+    public PerformanceCounter perfCounter() { return mPerfCounter; }
 
-    private void processSamRecord(final SAMRecord read)
+    // the region's reads are passed in by the caller, which can time them with the region's performance counter
+    public void processRead(final SAMRecord read)
     {
         int readStart = read.getAlignmentStart();
 
@@ -194,6 +158,24 @@ public class BamReader
         mBaseCoverage.processRead(read, null, isConsensusRead);
     }
 
+    public void regionComplete()
+    {
+        // process overlapping groups
+        for(ReadGroup readGroup : mReadGroupMap.values())
+        {
+            // determine overlapping bases and factor this into the coverage calcs
+            processReadGroup(readGroup);
+        }
+
+        mPerfCounter.stop();
+
+        CoverageMetrics metrics = mBaseCoverage.createMetrics();
+
+        mCombinedStats.addStats(
+                metrics, mFragmentLengths, mReadCounts, mFlagStats,
+                mOffTargetFragments != null ? mOffTargetFragments.fragmentOverlapCounts() : Collections.EMPTY_MAP, mPerfCounter);
+    }
+
     private void checkTargetRegions(final SAMRecord read, boolean isConsensus, boolean isDualStrand, int readMateEnd)
     {
         if(mTargetRegionStats.isEmpty() && mOffTargetFragments == null)
@@ -376,12 +358,6 @@ public class BamReader
         }
     }
 
-    @VisibleForTesting
-    public void processRead(final SAMRecord read)
-    {
-        processSamRecord(read);
-    }
-
     @VisibleForTesting
     public BaseCoverage baseCoverage() { return mBaseCoverage; }
 
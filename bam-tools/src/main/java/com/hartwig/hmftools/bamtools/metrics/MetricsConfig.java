@@ -7,6 +7,10 @@ import static com.hartwig.hmftools.bamtools.common.CommonUtils.DEFAULT_CHR_PARTI
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.PARTITION_SIZE;
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.REGIONS_FILE;
 import static com.hartwig.hmftools.bamtools.common.CommonUtils.checkFileExists;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.JITTER_MSI_SITES_FILE;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.DEFAULT_MIN_MAPPING_QUALITY;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.DEFAULT_NUM_SITES_PER_TYPE;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.JITTER_MSI_SITES_FILE_DESC;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.REF_GENOME;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.addRefGenomeFile;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.addRefGenomeVersion;
@@ -44,6 +48,7 @@ import java.util.stream.Collectors;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig;
 import com.hartwig.hmftools.common.genome.bed.BedFileReader;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.metrics.BamMetricsSummary;
@@ -75,6 +80,10 @@ public class MetricsConfig
     public final boolean WriteOffTarget;
     public final int HighFragmentOverlapThreshold;
 
+    // other collectors sharing the BAM pass
+    public final String JitterMsiFile;
+    public final boolean WriteReadDepth;
+
     public final String OutputDir;
     public final String OutputId;
 
@@ -96,6 +105,7 @@ public class MetricsConfig
 
     private static final String OFF_TARGET_FRAG_OVERLAP_THRESHOLD = "off_target_frag_overlap_threshold";
     private static final String WRITE_OFF_TARGET = "write_off_target";
+    private static final String WRITE_READ_DEPTH = "write_read_depth";
 
     private static final int DEFAULT_MAP_QUAL_THRESHOLD = 20;
     private static final int DEFAULT_BASE_QUAL_THRESHOLD = 10;
@@ -140,6 +150,9 @@ public class MetricsConfig
         WriteOffTarget = configBuilder.hasFlag(WRITE_OFF_TARGET);
         HighFragmentOverlapThreshold = configBuilder.getInteger(OFF_TARGET_FRAG_OVERLAP_THRESHOLD);
 
+        JitterMsiFile = configBuilder.getValue(JITTER_MSI_SITES_FILE);
+        WriteReadDepth = configBuilder.hasFlag(WRITE_READ_DEPTH);
+
         TargetRegions = loadChrBaseRegions(configBuilder.getValue(REGIONS_FILE));
         OnlyTargetRegions = !TargetRegions.isEmpty() && configBuilder.hasFlag(ONLY_TARGET);
 
@@ -163,9 +176,20 @@ public class MetricsConfig
             return false;
 
         mIsValid = checkFileExists(BamFile) && checkFileExists(RefGenomeFile);
+
+        if(JitterMsiFile != null)
+            mIsValid &= checkFileExists(JitterMsiFile);
+
         return mIsValid;
     }
 
+    public JitterAnalyserConfig jitterConfig()
+    {
+        return new JitterAnalyserConfig(
+                SampleId, RefGenVersion, RefGenomeFile, JitterMsiFile, OutputDir, DEFAULT_MIN_MAPPING_QUALITY, DEFAULT_NUM_SITES_PER_TYPE,
+                Threads, false);
+    }
+
     private void loadUnmappableRegions()
     {
         String filename = RefGenVersion.is37() ? "/genome_unmappable_regions.37.bed" : "/genome_unmappable_regions.38.bed";
@@ -222,6 +246,9 @@ public class MetricsConfig
 
         configBuilder.addFlag(EXCLUDE_ZERO_COVERAGE, "Exclude bases with zero coverage");
         configBuilder.addFlag(WRITE_OFF_TARGET, "Write off-target data");
+
+        configBuilder.addPath(JITTER_MSI_SITES_FILE, false, JITTER_MSI_SITES_FILE_DESC + ", fits jitter models in the same BAM pass");
+        configBuilder.addFlag(WRITE_READ_DEPTH, "Write read depth and GC content per 1K window from the same BAM pass");
         configBuilder.addConfigItem(LOG_READ_IDS, LOG_READ_IDS_DESC);
         configBuilder.addFlag(PERF_DEBUG, PERF_DEBUG_DESC);
 
@@ -249,6 +276,8 @@ public class MetricsConfig
         MaxCoverage = maxCoveage;
         ExcludeZeroCoverage = false;
         WriteOffTarget = false;
+        JitterMsiFile = null;
+        WriteReadDepth = false;
 
         SpecificChrRegions = new SpecificRegions();
         LogReadIds = Collections.emptyList();
@@ -0,0 +1,93 @@
+package com.hartwig.hmftools.bamtools.metrics;
+
+import static com.hartwig.hmftools.bamtools.common.CommonUtils.BT_LOGGER;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.hartwig.hmftools.common.bam.BamReadConsumer;
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import htsjdk.samtools.SAMRecord;
+
+// collects metrics per partition from a shared BAM pass, with each partition's reads handled by one thread at a time
+public class MetricsReadConsumer implements BamReadConsumer
+{
+    private final MetricsConfig mConfig;
+    private final CombinedStats mCombinedStats;
+    private final MetricsWriter mMetricsWriter;
+    private final BamSlicerFilter mFilter;
+
+    private final Map<ChrBaseRegion,BamReader> mPartitionReaders;
+    private final int mPartitionCount;
+    private final AtomicInteger mCompletedPartitions;
+
+    public MetricsReadConsumer(
+            final MetricsConfig config, final CombinedStats combinedStats, final MetricsWriter metricsWriter, int partitionCount)
+    {
+        mConfig = config;
+        mCombinedStats = combinedStats;
+        mMetricsWriter = metricsWriter;
+
+        mFilter = new BamSlicerFilter(0, true, true, true);
+        mFilter.setKeepUnmapped();
+
+        mPartitionReaders = new ConcurrentHashMap<>();
+        mPartitionCount = partitionCount;
+        mCompletedPartitions = new AtomicInteger();
+    }
+
+    @Override
+    public BamSlicerFilter filter() { return mFilter; }
+
+    @Override
+    public void processRead(final SAMRecord record, final ChrBaseRegion partition)
+    {
+        // only the time spent on metrics is attributed to the region, not that of other consumers sharing the BAM pass
+        BamReader bamReader = partitionReader(partition);
+        bamReader.perfCounter().resume();
+        bamReader.processRead(record);
+        bamReader.perfCounter().pause();
+    }
+
+    @Override
+    public void partitionComplete(final ChrBaseRegion partition)
+    {
+        // a partition without reads still contributes its zero-coverage bases
+        BamReader bamReader = partitionReader(partition);
+        mPartitionReaders.remove(partition);
+
+        bamReader.perfCounter().resume();
+        bamReader.regionComplete();
+
+        TargetRegionStats.writeStatistics(mMetricsWriter.targetRegionsWriter(), bamReader.targetRegionStats());
+
+        if(mMetricsWriter.offTargetHighFragmentOverlapWriter() != null)
+        {
+            OffTargetFragments.writeEnrichedRegions(
+                    mMetricsWriter.offTargetHighFragmentOverlapWriter(), bamReader.offTargetFragments().enrichedFragmentSites());
+        }
+
+        int completed = mCompletedPartitions.incrementAndGet();
+
+        if((completed % 10) == 0)
+        {
+            BT_LOGGER.info("processed partitions({}), remaining({})", completed, mPartitionCount - completed);
+        }
+    }
+
+    private BamReader partitionReader(final ChrBaseRegion partition)
+    {
+        return mPartitionReaders.computeIfAbsent(partition, x -> createPartitionReader(x));
+    }
+
+    private BamReader createPartitionReader(final ChrBaseRegion partition)
+    {
+        BamReader bamReader = new BamReader(partition, mConfig, mCombinedStats);
+        bamReader.perfCounter().start(mConfig.PerfDebug ? partition.toString() : null);
+        bamReader.perfCounter().pause();
+        return bamReader;
+    }
+}
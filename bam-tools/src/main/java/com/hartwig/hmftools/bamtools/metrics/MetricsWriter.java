@@ -30,9 +30,12 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBuffe
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.cobalt.ReadDepth;
+import com.hartwig.hmftools.common.cobalt.ReadDepthAccumulator;
 import com.hartwig.hmftools.common.metrics.BamMetricsSummary;
 import com.hartwig.hmftools.common.metrics.ImmutableBamMetricsSummary;
 
@@ -270,4 +273,34 @@ public class MetricsWriter
             BT_LOGGER.error("failed to write frag lengths file: {}", e.toString());
         }
     }
+
+    public static void writeReadDepths(
+            final ReadDepthAccumulator readDepthAccumulator, final Collection<String> chromosomes, final MetricsConfig config)
+    {
+        try
+        {
+            String filename = config.formFilename("read_depth");
+
+            BufferedWriter writer = createBufferedWriter(filename, false);
+
+            writer.write("Chromosome\tPosition\tReadDepth\tReadGcContent");
+            writer.newLine();
+
+            for(String chromosome : chromosomes)
+            {
+                for(ReadDepth readDepth : readDepthAccumulator.getChromosomeReadDepths(chromosome))
+                {
+                    writer.write(format("%s\t%d\t%.4f\t%.4f",
+                            readDepth.Chromosome, readDepth.StartPosition, readDepth.ReadDepth, readDepth.ReadGcContent));
+                    writer.newLine();
+                }
+            }
+
+            writer.close();
+        }
+        catch(IOException e)
+        {
+            BT_LOGGER.error("failed to write read depth file: {}", e.toString());
+        }
+    }
 }
@@ -32,6 +32,7 @@ import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
 import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMReadGroupRecord;
@@ -62,7 +63,10 @@ public class BamToFastq
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("thread-%0" + numDigits + "d").build();
         ExecutorService executorService = Executors.newFixedThreadPool(mConfig.Threads, namedThreadFactory);
 
-        final ThreadData threadData = new ThreadData(mConfig, remoteReadHandler);
+        // compress output blocks on their own pool, since partition tasks keep the main pool busy
+        ExecutorService compressionExecutor = createCompressionExecutor();
+
+        final ThreadData threadData = new ThreadData(mConfig, remoteReadHandler, compressionExecutor);
 
         BT_LOGGER.debug("splitting {} partitions across {} threads", partitions.size(), mConfig.Threads);
 
@@ -88,6 +92,9 @@ public class BamToFastq
         threadData.closePartitionReaders();
         threadData.closeFastqWriters();
 
+        if(compressionExecutor != null)
+            compressionExecutor.shutdown();
+
         // might need to combine the fastq files of all the threads
         mergeThreadFastqFiles(threadData.getAllThreadFastqWriterCaches(), executorService);
 
@@ -112,6 +119,17 @@ public class BamToFastq
                 totalReads, runTimeMinsStr(startTimeMs));
     }
 
+    @Nullable
+    private ExecutorService createCompressionExecutor()
+    {
+        if(mConfig.Threads <= 1)
+            return null;
+
+        int compressionThreads = Math.max(mConfig.Threads / 2, 1);
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("compress-%d").build();
+        return Executors.newFixedThreadPool(compressionThreads, threadFactory);
+    }
+
     private List<ChrBaseRegion> createPartitions()
     {
         final SAMFileHeader fileHeader;
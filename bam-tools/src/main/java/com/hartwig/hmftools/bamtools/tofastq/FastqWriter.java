@@ -12,6 +12,7 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBuffe
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
 
 import com.hartwig.hmftools.common.codon.Nucleotides;
 
@@ -31,6 +32,9 @@ public class FastqWriter
 
     @Nullable private BufferedWriter mWriterUnpaired;
 
+    // compresses gzipped output blocks on a dedicated thread pool
+    @Nullable private final ExecutorService mCompressionExecutor;
+
     public String getFastqR1() { return mFastqR1; }
 
     public String getFastqR2() { return mFastqR2; }
@@ -38,8 +42,10 @@ public class FastqWriter
     @Nullable
     public String getFastqUnpaired() { return mFastqUnpaired; }
 
-    public FastqWriter(final String filePrefix)
+    public FastqWriter(final String filePrefix, @Nullable final ExecutorService compressionExecutor)
     {
+        mCompressionExecutor = compressionExecutor;
+
         mFastqR1 = formFilename(filePrefix, R1);
         mWriterR1 = initialise(mFastqR1);
 
@@ -53,7 +59,7 @@ public class FastqWriter
     {
         try
         {
-            return createBufferedWriter(filename);
+            return createBufferedWriter(filename, mCompressionExecutor);
         }
         catch(IOException e)
         {
@@ -3,10 +3,32 @@ package com.hartwig.hmftools.bamtools.metrics;
 import static com.hartwig.hmftools.bamtools.metrics.CoverageTest.TEST_CIGAR;
 import static com.hartwig.hmftools.bamtools.metrics.CoverageTest.TEST_READ_BASES;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.addConsensusReadAttribute;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.DEFAULT_MIN_MAPPING_QUALITY;
+import static com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig.DEFAULT_NUM_SITES_PER_TYPE;
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.V37;
 import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.SAM_DICTIONARY_V37;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.bam.BamReadFanOut;
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
+import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig;
+import com.hartwig.hmftools.common.basequal.jitter.MicrosatelliteSiteAnalyser;
+import com.hartwig.hmftools.common.basequal.jitter.RefGenomeMicrosatellite;
+import com.hartwig.hmftools.common.basequal.jitter.SampleBamProcessor;
+import com.hartwig.hmftools.common.basequal.jitter.SampleReadProcessor;
+import com.hartwig.hmftools.common.cobalt.ReadDepth;
+import com.hartwig.hmftools.common.cobalt.ReadDepthAccumulator;
+import com.hartwig.hmftools.common.cobalt.ReadDepthConsumer;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.bam.UmiReadType;
 import com.hartwig.hmftools.common.test.ReadIdGenerator;
@@ -14,7 +36,12 @@ import com.hartwig.hmftools.common.test.SamRecordTestUtils;
 
 import org.junit.Test;
 
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
 import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
 
 public class MetricsTest
 {
@@ -33,7 +60,7 @@ public class MetricsTest
         CombinedStats combinedStats = new CombinedStats(mConfig.MaxCoverage);
 
         BamReader bamReader = new BamReader(new ChrBaseRegion(
-                CHR_1, 1, 1000), mConfig, null, null, combinedStats);
+                CHR_1, 1, 1000), mConfig, combinedStats);
 
         // a primary, non-consensus
         SAMRecord read = SamRecordTestUtils.createSamRecord(
@@ -67,7 +94,7 @@ public class MetricsTest
 
         bamReader.processRead(read);
 
-        bamReader.postSliceProcess();
+        bamReader.regionComplete();
         assertEquals(3, combinedStats.readCounts().Total);
         assertEquals(1, combinedStats.readCounts().Duplicates);
         assertEquals(3, combinedStats.flagStats().passCount(FlagStatType.PRIMARY));
@@ -81,7 +108,7 @@ public class MetricsTest
         CombinedStats combinedStats = new CombinedStats(mConfig.MaxCoverage);
 
         BamReader bamReader = new BamReader(new ChrBaseRegion(
-                CHR_1, 1, 1000), mConfig, null, null, combinedStats);
+                CHR_1, 1, 1000), mConfig, combinedStats);
 
         // supplementary with a duplicate
         SAMRecord read = SamRecordTestUtils.createSamRecord(
@@ -108,7 +135,7 @@ public class MetricsTest
 
         bamReader.processRead(read);
 
-        bamReader.postSliceProcess();
+        bamReader.regionComplete();
         assertEquals(2, combinedStats.readCounts().Total);
         assertEquals(1, combinedStats.readCounts().Duplicates);
         assertEquals(1, combinedStats.readCounts().DualStrand);
@@ -117,4 +144,94 @@ public class MetricsTest
         assertEquals(0, combinedStats.flagStats().passCount(FlagStatType.PRIMARY_DUPLICATE));
         assertEquals(2, combinedStats.flagStats().passCount(FlagStatType.SUPPLEMENTARY));
     }
+
+    @Test
+    public void testSharedBamPass() throws Exception
+    {
+        // metrics, jitter and read depth are collected from a single pass over the BAM
+        File tempDir = Files.createTempDirectory("bam_metrics").toFile();
+        tempDir.deleteOnExit();
+
+        String readBases = "CGTCGTCGTC" + "A".repeat(15) + "CGTCGTCGTC".repeat(2) + "CGTCG";
+
+        List<SAMRecord> reads = Lists.newArrayList();
+
+        for(int i = 0; i < 4; ++i)
+        {
+            reads.add(SamRecordTestUtils.createSamRecordUnpaired(mReadIdGen.nextId(), CHR_1, 100, readBases, "50M", false, false, null));
+        }
+
+        reads.get(3).setDuplicateReadFlag(true);
+
+        reads.add(SamRecordTestUtils.createSamRecordUnpaired(mReadIdGen.nextId(), CHR_1, 5101, readBases, "50M", false, false, null));
+
+        File bamFile = writeBam(tempDir, reads);
+
+        ChrBaseRegion partition = new ChrBaseRegion(CHR_1, 1, 10000);
+
+        CombinedStats combinedStats = new CombinedStats(mConfig.MaxCoverage);
+        MetricsReadConsumer metricsConsumer = new MetricsReadConsumer(mConfig, combinedStats, new MetricsWriter(mConfig), 1);
+
+        RefGenomeMicrosatellite microsatellite = new RefGenomeMicrosatellite(CHR_1, 110, 124, (byte)'A');
+        SampleReadProcessor sampleReadProcessor = new SampleReadProcessor(List.of(microsatellite));
+
+        JitterAnalyserConfig jitterConfig = new JitterAnalyserConfig(
+                mConfig.SampleId, V37, null, null, null, DEFAULT_MIN_MAPPING_QUALITY, DEFAULT_NUM_SITES_PER_TYPE, 1, false);
+
+        SampleBamProcessor jitterConsumer = new SampleBamProcessor(
+                jitterConfig, new BamSlicerFilter(DEFAULT_MIN_MAPPING_QUALITY, false, false, false), sampleReadProcessor);
+
+        ReadDepthAccumulator readDepthAccumulator = new ReadDepthAccumulator(1000);
+        readDepthAccumulator.addChromosome(CHR_1, 10000);
+
+        BamReadFanOut bamReadFanOut = new BamReadFanOut();
+        bamReadFanOut.registerConsumer(metricsConsumer);
+        bamReadFanOut.registerConsumer(jitterConsumer);
+        bamReadFanOut.registerConsumer(new ReadDepthConsumer(10, false, readDepthAccumulator));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(1);
+
+        bamReadFanOut.queryAsync(
+                bamFile, SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT), List.of(partition),
+                executorService).get();
+
+        executorService.shutdown();
+
+        // metrics count every read, including the duplicate
+        assertEquals(5, combinedStats.readCounts().Total);
+        assertEquals(1, combinedStats.readCounts().Duplicates);
+        assertEquals(1, combinedStats.perfCounter().getIntervalCount());
+
+        // jitter only uses the non-duplicate reads covering the microsatellite
+        MicrosatelliteSiteAnalyser siteAnalyser = jitterConsumer.getMicrosatelliteSiteAnalysers().iterator().next();
+        assertEquals(3, siteAnalyser.readCount());
+
+        // depth excludes the duplicate
+        List<ReadDepth> readDepths = readDepthAccumulator.getChromosomeReadDepths(CHR_1);
+        assertEquals(0.15, readDepths.get(0).ReadDepth, 1e-6);
+        assertEquals(0.05, readDepths.get(5).ReadDepth, 1e-6);
+        assertEquals(0, readDepths.get(1).ReadDepth, 1e-6);
+    }
+
+    private static File writeBam(final File tempDir, final List<SAMRecord> records) throws IOException
+    {
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(SAM_DICTIONARY_V37);
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        File bamFile = new File(tempDir, "test.bam");
+
+        try(SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, bamFile))
+        {
+            for(SAMRecord record : records)
+            {
+                record.setHeader(header);
+                writer.addAlignment(record);
+            }
+        }
+
+        bamFile.deleteOnExit();
+        new File(tempDir, "test.bai").deleteOnExit();
+        return bamFile;
+    }
 }
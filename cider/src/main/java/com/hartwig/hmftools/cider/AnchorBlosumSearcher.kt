@@ -45,7 +45,9 @@ interface IAnchorBlosumSearcher
 // looks like an anchor
 class AnchorBlosumSearcher(
     val ciderGeneDatastore: ICiderGeneDatastore,
-    minPartialAnchorAminoAcidLength: Int) : IAnchorBlosumSearcher
+    minPartialAnchorAminoAcidLength: Int,
+    // if set, only templates which share an amino acid k-mer with the sequence are scored
+    private val anchorKmerIndex: AnchorKmerIndex? = null) : IAnchorBlosumSearcher
 {
     val minPartialAnchorBaseLength = minPartialAnchorAminoAcidLength * 3
 
@@ -71,9 +73,21 @@ class AnchorBlosumSearcher(
 
         var bestMatch: AnchorBlosumMatch? = null
 
+        val kmerMatchedAnchorSeqs: Map<VJGeneType, Set<String>>? = anchorKmerIndex?.findMatchingAnchorSequences(sequence)
+
+        if (kmerMatchedAnchorSeqs != null && kmerMatchedAnchorSeqs.isEmpty())
+            return null
+
         for (targetAnchorGeneType in targetAnchorGeneTypes)
         {
-            val templateAnchorSequences : Set<String> = ciderGeneDatastore.getAnchorSequenceSet(targetAnchorGeneType)
+            var templateAnchorSequences : Collection<String> = ciderGeneDatastore.getAnchorSequenceSet(targetAnchorGeneType)
+
+            if (kmerMatchedAnchorSeqs != null)
+            {
+                // keep the datastore order so that ties resolve the same way
+                val matchedSeqs = kmerMatchedAnchorSeqs[targetAnchorGeneType] ?: continue
+                templateAnchorSequences = templateAnchorSequences.filter { seq -> seq in matchedSeqs }
+            }
 
             // We match each template anchor against the input DNA
             for (i in startOffset  until endOffset)
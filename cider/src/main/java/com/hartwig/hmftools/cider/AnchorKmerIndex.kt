@@ -0,0 +1,124 @@
+package com.hartwig.hmftools.cider
+
+import com.hartwig.hmftools.common.codon.Codons
+import org.apache.logging.log4j.LogManager
+import java.util.EnumMap
+
+// index of the amino acid k-mers in the V / J anchor templates. It is used to skip blosum scoring of a sequence
+// against templates which share no k-mer with any of its three reading frames.
+// Note that this is a heuristic: a sequence with scattered conservative amino acid changes can still have a positive
+// blosum similarity while sharing no k-mer with the template
+class AnchorKmerIndex(ciderGeneDatastore: ICiderGeneDatastore, val kmerLength: Int)
+{
+    // k-mer key -> anchor template sequences which contain it
+    private val mKmerAnchorSequences: Map<Long, List<Pair<VJGeneType, String>>>
+
+    init
+    {
+        require(kmerLength in 1..MAX_KMER_LENGTH)
+
+        val kmerAnchorSequences = HashMap<Long, MutableList<Pair<VJGeneType, String>>>()
+
+        for (geneType in VJGeneType.values())
+        {
+            for (anchorSeq in ciderGeneDatastore.getAnchorSequenceSet(geneType))
+            {
+                val anchorAA = Codons.aminoAcidFromBases(anchorSeq)
+
+                for (i in 0 .. anchorAA.length - kmerLength)
+                {
+                    val key = kmerKey(anchorAA, i) ?: continue
+                    val anchorSeqs = kmerAnchorSequences.computeIfAbsent(key) { ArrayList() }
+                    val entry = Pair(geneType, anchorSeq)
+
+                    if (!anchorSeqs.contains(entry))
+                        anchorSeqs.add(entry)
+                }
+            }
+        }
+
+        mKmerAnchorSequences = kmerAnchorSequences
+
+        sLogger.info("built anchor k-mer index, k-mer length({}) k-mers({})", kmerLength, mKmerAnchorSequences.size)
+    }
+
+    // find the anchor template sequences which share a k-mer with any reading frame of the DNA sequence
+    fun findMatchingAnchorSequences(dnaSeq: String): Map<VJGeneType, Set<String>>
+    {
+        val matchedAnchorSeqs: MutableMap<VJGeneType, MutableSet<String>> = EnumMap(VJGeneType::class.java)
+        val aminoAcids = CharArray(kmerLength)
+
+        for (frame in 0 until 3)
+        {
+            var aaCount = 0
+            var codonStart = frame
+
+            while (codonStart + 3 <= dnaSeq.length)
+            {
+                val aa = Codons.codonToAminoAcid(dnaSeq, codonStart)
+                codonStart += 3
+
+                if (aa == Codons.UNKNOWN)
+                {
+                    aaCount = 0
+                    continue
+                }
+
+                // keep the last k amino acids in a ring buffer
+                aminoAcids[aaCount % kmerLength] = aa
+                ++aaCount
+
+                if (aaCount < kmerLength)
+                    continue
+
+                val key = ringBufferKmerKey(aminoAcids, aaCount)
+                val anchorSeqs = mKmerAnchorSequences[key] ?: continue
+
+                for ((geneType, anchorSeq) in anchorSeqs)
+                {
+                    matchedAnchorSeqs.computeIfAbsent(geneType) { HashSet() }.add(anchorSeq)
+                }
+            }
+        }
+
+        return matchedAnchorSeqs
+    }
+
+    private fun kmerKey(aminoAcids: String, start: Int): Long?
+    {
+        var key = 0L
+
+        for (i in start until start + kmerLength)
+        {
+            if (aminoAcids[i] == Codons.UNKNOWN)
+                return null
+
+            key = (key shl AA_BITS) or aminoAcidCode(aminoAcids[i])
+        }
+
+        return key
+    }
+
+    private fun ringBufferKmerKey(aminoAcids: CharArray, aaCount: Int): Long
+    {
+        var key = 0L
+
+        // the oldest amino acid is at the position which will be overwritten next
+        for (i in 0 until kmerLength)
+        {
+            key = (key shl AA_BITS) or aminoAcidCode(aminoAcids[(aaCount + i) % kmerLength])
+        }
+
+        return key
+    }
+
+    companion object
+    {
+        private const val AA_BITS = 5
+        const val MAX_KMER_LENGTH = 12
+
+        private fun aminoAcidCode(aa: Char): Long = ((aa - 'A') and 0x1F).toLong()
+
+        private val sLogger = LogManager.getLogger(AnchorKmerIndex::class.java)
+    }
+}
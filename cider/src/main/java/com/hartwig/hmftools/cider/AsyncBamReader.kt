@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.cider
 
 import com.hartwig.hmftools.common.genome.region.GenomeRegion
+import com.hartwig.hmftools.common.utils.MetricsRegistry
 import htsjdk.samtools.SAMRecord
 import htsjdk.samtools.SAMRecordIterator
 import htsjdk.samtools.SamReader
@@ -8,13 +9,25 @@ import htsjdk.samtools.SamReaderFactory
 import org.apache.logging.log4j.LogManager
 import java.io.File
 import java.io.IOException
-import java.util.*
+import java.util.concurrent.ArrayBlockingQueue
 import java.util.concurrent.BlockingQueue
-import java.util.concurrent.LinkedBlockingDeque
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 
 object AsyncBamReader
 {
     private const val MAX_BAM_RECORD_Q_SIZE = 100000
+
+    // records are handed to the consumers in batches, and the bounded queue of batches blocks the reader
+    // as soon as it is full, so it resumes as soon as a consumer takes a batch
+    private const val RECORD_BATCH_SIZE = 1000
+    private const val MAX_BATCH_Q_SIZE = MAX_BAM_RECORD_Q_SIZE / RECORD_BATCH_SIZE
+
+    // an empty batch signals the consumers to finish
+    private val END_OF_RECORDS: List<SAMRecord> = emptyList()
+
+    private const val NANOS_PER_SECOND = 1_000_000_000.0
+
     private val logger = LogManager.getLogger(AsyncBamReader::class.java)
 
     @JvmStatic
@@ -24,31 +37,45 @@ object AsyncBamReader
         samReaderFactory: SamReaderFactory,
         genomeRegions: Collection<GenomeRegion>,
         asyncRecordHandler: (SAMRecord) -> Unit,
-        threadCount: Int
+        threadCount: Int,
+        metrics: MetricsRegistry
     )
     {
-        logger.debug("Processing {} potential sites in bam {}", genomeRegions.size, bamFile)
+        processBam(bamFile, samReaderFactory, genomeRegions, asyncRecordHandler, threadCount, metrics, RECORD_BATCH_SIZE, MAX_BATCH_Q_SIZE)
+    }
 
-        // create genome regions from the loci
-        // val taskCompletion = BamTaskCompletion(taskQ.size)
+    @Throws(InterruptedException::class)
+    internal fun processBam(
+        bamFile: String,
+        samReaderFactory: SamReaderFactory,
+        genomeRegions: Collection<GenomeRegion>,
+        asyncRecordHandler: (SAMRecord) -> Unit,
+        threadCount: Int,
+        metrics: MetricsRegistry,
+        batchSize: Int,
+        maxBatchQSize: Int
+    ): QueueStats
+    {
+        logger.debug("Processing {} potential sites in bam {}", genomeRegions.size, bamFile)
 
-        val bamRecordQ: BlockingQueue<Optional<SAMRecord>> = LinkedBlockingDeque()
+        val batchQ: BlockingQueue<List<SAMRecord>> = ArrayBlockingQueue(maxBatchQSize)
+        val queueStats = QueueStats()
 
         // create the bam record consumers
         val recordConsumers = ArrayList<BamRecordConsumerThread>()
 
         for (i in 0 until Math.max(threadCount, 1))
         {
-            val t = BamRecordConsumerThread(bamRecordQ, asyncRecordHandler)
+            val t = BamRecordConsumerThread(batchQ, asyncRecordHandler, queueStats)
             t.name = String.format("worker-%d", i)
             t.start()
             recordConsumers.add(t)
         }
         logger.info("{} bam record consumer threads started", recordConsumers.size)
 
-        val bamReader = BamReader(bamFile, samReaderFactory, genomeRegions, bamRecordQ)
+        val bamReader = BamReader(bamFile, samReaderFactory, genomeRegions, batchQ, batchSize, queueStats)
         bamReader.run()
-        bamRecordQ.put(Optional.empty()) // signals consumer to finish
+        batchQ.put(END_OF_RECORDS) // signals consumer to finish
 
         for (t in recordConsumers)
         {
@@ -56,15 +83,46 @@ object AsyncBamReader
         }
 
         logger.info("{} bam reader threads finished", recordConsumers.size)
+
+        logger.info("bam record batches({}) max queue depth({}/{}) reader stalls({}) reader stall({}s) consumer wait({}s)",
+            queueStats.batchCount.get(), queueStats.maxQueueDepth.get(), maxBatchQSize, queueStats.readerStallCount.get(),
+            String.format("%.1f", queueStats.readerStallNanos.get() / NANOS_PER_SECOND),
+            String.format("%.1f", queueStats.consumerWaitNanos.get() / NANOS_PER_SECOND))
+
+        queueStats.register(metrics)
+        return queueStats
+    }
+
+    internal class QueueStats
+    {
+        val batchCount = AtomicLong()
+        val maxQueueDepth = AtomicInteger()
+
+        // time the reader was blocked on a full queue, and total time consumers waited on an empty one
+        val readerStallCount = AtomicLong()
+        val readerStallNanos = AtomicLong()
+        val consumerWaitNanos = AtomicLong()
+
+        fun register(metrics: MetricsRegistry)
+        {
+            metrics.addCount("BamRecordBatches", batchCount.get())
+            metrics.addCount("BamReaderStalls", readerStallCount.get())
+            metrics.registerGauge("BamRecordQueueMaxDepth") { maxQueueDepth.get() }
+            metrics.recordTime("BamReaderStall", readerStallNanos.get() / NANOS_PER_SECOND)
+            metrics.recordTime("BamConsumerWait", consumerWaitNanos.get() / NANOS_PER_SECOND)
+        }
     }
 
     internal class BamReader(
         bamFile: String,
         samReaderFactory: SamReaderFactory,
         private val genomeRegionList: Collection<GenomeRegion>,
-        private val outputRecordQ: Queue<Optional<SAMRecord>>)
+        private val outputBatchQ: BlockingQueue<List<SAMRecord>>,
+        private val batchSize: Int,
+        private val queueStats: QueueStats)
     {
         private val mSamReader: SamReader = samReaderFactory.open(File(bamFile))
+        private var mCurrentBatch = ArrayList<SAMRecord>(batchSize)
 
         fun run()
         {
@@ -80,6 +138,8 @@ object AsyncBamReader
             // we do not process unmapped reads
             // mSamReader.queryUnmapped().use({ iterator -> processRecords(iterator) })
 
+            publishBatch()
+
             try
             {
                 mSamReader.close()
@@ -106,39 +166,39 @@ object AsyncBamReader
                 // we don't want to check the alignment region, reason is that we intentionally
                 // want to process unmapped read where mate pairs are mapped to an interesting region
                 // the downstream processing will take care of it.
-                outputRecordQ.add(Optional.of(record))
+                mCurrentBatch.add(record)
 
-                // important: we want to take a break if we are going to flood the output queue
-                checkAndWaitForConsumer()
+                if (mCurrentBatch.size >= batchSize)
+                    publishBatch()
             }
         }
 
-        private fun checkAndWaitForConsumer()
+        private fun publishBatch()
         {
-            if (outputRecordQ.size >= MAX_BAM_RECORD_Q_SIZE)
-            {
-                logger.info("bam record Q size: {}, max size reached, pausing bam reader", outputRecordQ.size)
+            if (mCurrentBatch.isEmpty())
+                return
 
-                // drain at least 80% of the queue before going back to work
-                while (outputRecordQ.size * 5 >= MAX_BAM_RECORD_Q_SIZE)
-                {
-                    try
-                    {
-                        Thread.sleep(1000)
-                    }
-                    catch (ex: InterruptedException)
-                    {
-                        Thread.currentThread().interrupt()
-                    }
-                }
-                logger.info("finished sleeping, bam record Q size: {}", outputRecordQ.size)
+            val batch = mCurrentBatch
+            mCurrentBatch = ArrayList(batchSize)
+
+            if (!outputBatchQ.offer(batch))
+            {
+                // queue is full, block until a consumer takes a batch
+                val stallStart = System.nanoTime()
+                queueStats.readerStallCount.incrementAndGet()
+                outputBatchQ.put(batch)
+                queueStats.readerStallNanos.addAndGet(System.nanoTime() - stallStart)
             }
+
+            queueStats.batchCount.incrementAndGet()
+            queueStats.maxQueueDepth.accumulateAndGet(outputBatchQ.size, Math::max)
         }
     }
 
     internal class BamRecordConsumerThread(
-        private val bamRecordQ: BlockingQueue<Optional<SAMRecord>>,
-        private val samRecordHandler: (SAMRecord) -> Unit
+        private val batchQ: BlockingQueue<List<SAMRecord>>,
+        private val samRecordHandler: (SAMRecord) -> Unit,
+        private val queueStats: QueueStats
     ) : Thread()
     {
         override fun run()
@@ -146,25 +206,35 @@ object AsyncBamReader
             logger.debug("bam record consumer thread start")
             while (true)
             {
-                val record: Optional<SAMRecord> = try
+                val batch: List<SAMRecord> = try
                 {
-                    bamRecordQ.take()
+                    batchQ.poll() ?: run {
+                        // nothing ready, record how long this consumer is starved for
+                        val waitStart = System.nanoTime()
+                        val nextBatch = batchQ.take()
+                        queueStats.consumerWaitNanos.addAndGet(System.nanoTime() - waitStart)
+                        nextBatch
+                    }
                 }
                 catch (e: InterruptedException)
                 {
                     break
                 }
-                if (record.isEmpty)
+                if (batch.isEmpty())
                 {
-                    // if record is empty, it signals consumer to stop
+                    // if batch is empty, it signals consumer to stop
                     // we want to put it back so other consumer threads
                     // will also know to stop
-                    bamRecordQ.put(record)
+                    batchQ.put(batch)
                     break
                 }
-                samRecordHandler(record.get())
+
+                for (record in batch)
+                {
+                    samRecordHandler(record)
+                }
             }
             logger.debug("bam record consumer thread finish")
         }
     }
-}
\ No newline at end of file
+}
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.cider.genes.IgTcrConstantDiversityRegion
 import com.hartwig.hmftools.cider.primer.*
 import com.hartwig.hmftools.common.genome.region.GenomeRegion
 import com.hartwig.hmftools.common.genome.region.GenomeRegions
+import com.hartwig.hmftools.common.utils.MetricsRegistry
 import com.hartwig.hmftools.common.utils.config.DeclaredOrderParameterComparator
 import com.hartwig.hmftools.common.utils.config.LoggingOptions
 import com.hartwig.hmftools.common.utils.file.FileWriterUtils
@@ -45,6 +46,8 @@ class CiderApplication
     @ParametersDelegate
     private val mLoggingOptions = LoggingOptions()
 
+    private var mMetrics = MetricsRegistry.disabled("Cider")
+
     @Throws(IOException::class, InterruptedException::class)
     fun run(args: Array<String>): Int
     {
@@ -68,13 +71,20 @@ class CiderApplication
         FileWriterUtils.checkCreateOutputDir(mParams.outputDir)
         val start = Instant.now()
 
+        mMetrics = MetricsRegistry("Cider", mParams.perfMetrics, mParams.perfMetricsInterval)
+        mMetrics.startResourceSampling()
+
         val ciderGeneDatastore: ICiderGeneDatastore = CiderGeneDatastore(
             CiderGeneDataLoader.loadAnchorTemplates(mParams.refGenomeVersion),
             CiderGeneDataLoader.loadConstantDiversityRegions(mParams.refGenomeVersion))
 
+        // the k-mer prefilter is only used when screening reads, where most of them do not contain an anchor
+        val anchorKmerIndex = if (mParams.anchorKmerLength > 0) AnchorKmerIndex(ciderGeneDatastore, mParams.anchorKmerLength) else null
+
         val candidateBlosumSearcher = AnchorBlosumSearcher(
             ciderGeneDatastore,
-            CiderConstants.CANDIDATE_MIN_PARTIAL_ANCHOR_AA_LENGTH)
+            CiderConstants.CANDIDATE_MIN_PARTIAL_ANCHOR_AA_LENGTH,
+            anchorKmerIndex)
 
         val readProcessor = CiderReadScreener(
             ciderGeneDatastore,
@@ -143,6 +153,8 @@ class CiderApplication
 
         val finish: Instant = Instant.now()
         val seconds: Long = Duration.between(start, finish).seconds
+        mMetrics.writeMetrics(FileWriterUtils.checkAddDirSeparator(mParams.outputDir), mParams.sampleId)
+
         sLogger.info("CIDER run complete. Time taken: {}m {}s", seconds / 60, seconds % 60)
         return 0
     }
@@ -177,7 +189,7 @@ class CiderApplication
                 region.genomeLocation.posEnd + mParams.approxMaxFragmentLength))
         }
 
-        processBam(mParams.bamPath, readerFactory, genomeRegions, asyncBamRecordHander, mParams.threadCount)
+        processBam(mParams.bamPath, readerFactory, genomeRegions, asyncBamRecordHander, mParams.threadCount, mMetrics)
         sLogger.info("found {} VJ read records", readProcessor.allMatchedReads.size)
     }
 
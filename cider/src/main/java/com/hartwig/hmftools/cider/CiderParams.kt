@@ -3,6 +3,7 @@ package com.hartwig.hmftools.cider
 import com.beust.jcommander.Parameter
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion
+import com.hartwig.hmftools.common.utils.MetricsRegistry
 import com.hartwig.hmftools.common.utils.config.RefGenomeVersionConverter
 import org.apache.logging.log4j.LogManager
 
@@ -63,6 +64,11 @@ class CiderParams
         description = "Maximum number of reads per gene. If number of reads exceed this limit, they are downsampled.")
     var maxReadCountPerGene = DEFAULT_MAX_READ_COUNT_PER_GENE
 
+    @Parameter(names = ["-anchor_kmer_length"],
+        description = "Amino acid k-mer length used to prefilter reads before blosum anchor search. " +
+                "Reads sharing no k-mer with an anchor template are not scored against it. 0 to disable")
+    var anchorKmerLength = 0
+
     @Parameter(names = ["-primer_csv"], description = "Path to csv file containing primers")
     var primerCsv: String? = null
 
@@ -75,6 +81,12 @@ class CiderParams
     @Parameter(names = ["-blast_db"], description = "Location of blast database")
     var blastDb: String? = null
 
+    @Parameter(names = ["-" + MetricsRegistry.PERF_METRICS], description = MetricsRegistry.PERF_METRICS_DESC)
+    var perfMetrics = false
+
+    @Parameter(names = ["-" + MetricsRegistry.PERF_METRICS_INTERVAL], description = MetricsRegistry.PERF_METRICS_INTERVAL_DESC)
+    var perfMetricsInterval = MetricsRegistry.DEFAULT_SAMPLE_INTERVAL_SECONDS
+
     val isValid: Boolean get()
     {
         if (blast != null && blastDb == null)
@@ -87,6 +99,11 @@ class CiderParams
             sLogger.error("invalid parameters: requires -blast if -blast_db is configured")
             return false
         }
+        if (anchorKmerLength < 0 || anchorKmerLength > AnchorKmerIndex.MAX_KMER_LENGTH)
+        {
+            sLogger.error("invalid parameters: -anchor_kmer_length must be between 0 and {}", AnchorKmerIndex.MAX_KMER_LENGTH)
+            return false
+        }
         return true
     }
 
@@ -4,6 +4,8 @@ import kotlin.test.Test
 import kotlin.test.assertEquals
 import kotlin.test.assertNotEquals
 import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
 
 class AnchorBlosumSearcherTest
 {
@@ -149,4 +151,34 @@ class AnchorBlosumSearcherTest
         assertEquals(vAnchorSeq.drop(1), testSeq.substring(anchorBlosumMatch.anchorStart, anchorBlosumMatch.anchorEnd))
         //assertEquals(9, anchorBlosumMatch.similarityScore)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testKmerPrefilter()
+    {
+        val anchorKmerIndex = AnchorKmerIndex(vjGeneStore, 4)
+        val anchorBlosumSearcher = AnchorBlosumSearcher(vjGeneStore, 8)
+        val prefilterBlosumSearcher = AnchorBlosumSearcher(vjGeneStore, 8, anchorKmerIndex)
+
+        // shares amino acid k-mers with the IGHJ6 template
+        val jAnchorSeq = "TGGGGCCAAGGGACCACGGTCACCGTCTCC"
+        val testSeq = "GCGAGACCGAAATTTTATAGTAATGGCTTGGCGGGTATGGACGTC" + jAnchorSeq + "CCAGCATAAAACACGATGGAAGTGATA"
+
+        val matchedSeqs = anchorKmerIndex.findMatchingAnchorSequences(testSeq)
+        assertEquals(setOf(VJGeneType.IGHJ), matchedSeqs.keys)
+        assertTrue(ighJ6.anchorSequence in matchedSeqs[VJGeneType.IGHJ]!!)
+
+        val anchorBlosumMatch = anchorBlosumSearcher.searchForAnchor(
+            testSeq, listOf(VJGeneType.IGHJ), IAnchorBlosumSearcher.Mode.ALLOW_NEG_SIMILARITY)
+        val prefilterMatch = prefilterBlosumSearcher.searchForAnchor(
+            testSeq, listOf(VJGeneType.IGHJ), IAnchorBlosumSearcher.Mode.ALLOW_NEG_SIMILARITY)
+
+        assertNotNull(prefilterMatch)
+        assertEquals(anchorBlosumMatch, prefilterMatch)
+
+        // a sequence with no k-mer in common with any anchor is not scored
+        val unrelatedSeq = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"
+        assertTrue(anchorKmerIndex.findMatchingAnchorSequences(unrelatedSeq).isEmpty())
+        assertNull(prefilterBlosumSearcher.searchForAnchor(unrelatedSeq, IAnchorBlosumSearcher.Mode.ALLOW_NEG_SIMILARITY))
+        assertNotNull(anchorBlosumSearcher.searchForAnchor(unrelatedSeq, IAnchorBlosumSearcher.Mode.ALLOW_NEG_SIMILARITY))
+    }
+}
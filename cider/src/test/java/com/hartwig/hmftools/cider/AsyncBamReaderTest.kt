@@ -0,0 +1,136 @@
+package com.hartwig.hmftools.cider
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegions
+import com.hartwig.hmftools.common.utils.MetricsRegistry
+import htsjdk.samtools.SAMFileHeader
+import htsjdk.samtools.SAMFileWriterFactory
+import htsjdk.samtools.SAMRecord
+import htsjdk.samtools.SAMSequenceRecord
+import htsjdk.samtools.SamReaderFactory
+import junit.framework.TestCase
+import org.junit.Test
+import java.io.File
+import java.nio.file.Files
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+class AsyncBamReaderTest
+{
+    companion object
+    {
+        const val CHROMOSOME = "1"
+        const val READ_COUNT = 20
+        const val DUPLICATE_READ_ID = "READ_DUP"
+    }
+
+    @Test
+    fun testEachRecordDeliveredOnceWithBlockingQueue()
+    {
+        val bamFile = writeTestBam()
+
+        val batchSize = 2
+        val maxBatchQSize = 1
+        val threadCount = 3
+
+        val readCounts = ConcurrentHashMap<String, AtomicInteger>()
+        val consumerThreads = ConcurrentHashMap.newKeySet<Thread>()
+        val blockedConsumers = AtomicInteger()
+        val releaseConsumers = CountDownLatch(1)
+
+        val recordHandler: (SAMRecord) -> Unit = { record: SAMRecord ->
+            // hold each consumer on its first record so that the batches back up into the queue
+            if (consumerThreads.add(Thread.currentThread()))
+            {
+                blockedConsumers.incrementAndGet()
+                releaseConsumers.await()
+            }
+
+            readCounts.computeIfAbsent(record.readName) { AtomicInteger() }.incrementAndGet()
+        }
+
+        val metrics = MetricsRegistry("Cider", true, 0)
+        val queueStats = AtomicReference<AsyncBamReader.QueueStats>()
+
+        val readerThread = Thread {
+            queueStats.set(AsyncBamReader.processBam(
+                bamFile.absolutePath, SamReaderFactory.makeDefault(),
+                listOf(GenomeRegions.create(CHROMOSOME, 1, 100_000)),
+                recordHandler, threadCount, metrics, batchSize, maxBatchQSize))
+        }
+
+        readerThread.start()
+
+        // with every consumer blocked and the queue full, the reader must block on the queue rather than keep reading
+        val deadline = System.currentTimeMillis() + 10_000
+        while (System.currentTimeMillis() < deadline
+            && (blockedConsumers.get() < threadCount || readerThread.state != Thread.State.WAITING))
+        {
+            Thread.sleep(10)
+        }
+
+        TestCase.assertEquals(threadCount, blockedConsumers.get())
+        TestCase.assertEquals(Thread.State.WAITING, readerThread.state)
+        TestCase.assertTrue(readCounts.isEmpty())
+
+        releaseConsumers.countDown()
+        readerThread.join(TimeUnit.SECONDS.toMillis(10))
+
+        TestCase.assertFalse(readerThread.isAlive)
+        TestCase.assertEquals(threadCount, consumerThreads.size)
+        consumerThreads.forEach { t -> t.join(TimeUnit.SECONDS.toMillis(10)); TestCase.assertFalse(t.isAlive) }
+
+        // every non-duplicate record is delivered exactly once
+        TestCase.assertEquals(READ_COUNT, readCounts.size)
+        TestCase.assertFalse(readCounts.containsKey(DUPLICATE_READ_ID))
+        readCounts.values.forEach { count -> TestCase.assertEquals(1, count.get()) }
+
+        val stats = queueStats.get()
+        TestCase.assertEquals((READ_COUNT / batchSize).toLong(), stats.batchCount.get())
+        TestCase.assertTrue(stats.readerStallCount.get() >= 1)
+        TestCase.assertEquals(maxBatchQSize, stats.maxQueueDepth.get())
+
+        TestCase.assertEquals(READ_COUNT / batchSize.toLong(), metrics.count("BamRecordBatches"))
+        TestCase.assertEquals(stats.readerStallCount.get(), metrics.count("BamReaderStalls"))
+
+        bamFile.parentFile.deleteRecursively()
+    }
+
+    private fun writeTestBam(): File
+    {
+        val header = SAMFileHeader()
+        header.sortOrder = SAMFileHeader.SortOrder.coordinate
+        header.addSequence(SAMSequenceRecord(CHROMOSOME, 1_000_000))
+
+        val bamFile = File(Files.createTempDirectory("cider_test").toFile(), "test.bam")
+
+        SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bamFile).use { writer ->
+            for (i in 0 until READ_COUNT)
+            {
+                writer.addAlignment(createRecord(header, "READ_$i", 1000 + i * 100, false))
+
+                // a duplicate is dropped by the reader before batching
+                if (i == READ_COUNT / 2)
+                    writer.addAlignment(createRecord(header, DUPLICATE_READ_ID, 1000 + i * 100, true))
+            }
+        }
+
+        return bamFile
+    }
+
+    private fun createRecord(header: SAMFileHeader, readName: String, alignmentStart: Int, isDuplicate: Boolean): SAMRecord
+    {
+        val record = SAMRecord(header)
+        record.readName = readName
+        record.referenceName = CHROMOSOME
+        record.alignmentStart = alignmentStart
+        record.cigarString = "50M"
+        record.readString = "A".repeat(50)
+        record.baseQualityString = "F".repeat(50)
+        record.mappingQuality = 60
+        record.duplicateReadFlag = isDuplicate
+        return record
+    }
+}
@@ -44,6 +44,7 @@ public class CobaltConfig
     private static final String PCF_GAMMA = "pcf_gamma";
     private static final String TARGET_REGION_NORM_FILE = "target_region";
     private static final String INCLUDE_DUPLICATES = "include_duplicates";
+    private static final String JAVA_SEGMENTATION = "java_segmentation";
 
 
     public final String ReferenceId;
@@ -60,6 +61,7 @@ public class CobaltConfig
 
     public final int MinMappingQuality;
     public final int PcfGamma;
+    public final boolean JavaSegmentation;
 
     public final ValidationStringency BamStringency;
     public final boolean IncludeDuplicates;
@@ -85,6 +87,7 @@ public class CobaltConfig
         
         MinMappingQuality = configBuilder.getInteger(MIN_MAPPING_QUALITY);
         PcfGamma = configBuilder.getInteger(PCF_GAMMA);
+        JavaSegmentation = configBuilder.hasFlag(JAVA_SEGMENTATION);
         IncludeDuplicates = configBuilder.hasFlag(INCLUDE_DUPLICATES);
 
         BamStringency = BamUtils.validationStringency(configBuilder);
@@ -108,6 +111,7 @@ public class CobaltConfig
 
         configBuilder.addInteger(MIN_MAPPING_QUALITY, "Min map quality", DEFAULT_MIN_MAPPING_QUALITY);
         configBuilder.addInteger(PCF_GAMMA, "Gamma value for copy number PCF", DEFAULT_PCF_GAMMA);
+        configBuilder.addFlag(JAVA_SEGMENTATION, "Run ratio PCF segmentation in Java instead of R");
         configBuilder.addFlag(INCLUDE_DUPLICATES, "Include duplicate reads in depth counts");
 
         addOutputDir(configBuilder);
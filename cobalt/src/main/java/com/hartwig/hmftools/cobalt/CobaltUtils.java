@@ -1,9 +1,14 @@
 package com.hartwig.hmftools.cobalt;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.cobalt.ImmutableCobaltRatio;
@@ -11,6 +16,8 @@ import com.hartwig.hmftools.common.cobalt.ImmutableReadRatio;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
+import org.apache.commons.math3.stat.StatUtils;
+
 import tech.tablesaw.api.*;
 import tech.tablesaw.columns.Column;
 
@@ -22,6 +29,119 @@ public class CobaltUtils
         return table.replaceColumn(columnName, newColumn.setName(columnName));
     }
 
+    // builds a table from the given rows, in the order given, gathering each column directly rather than via a selection
+    public static Table selectRows(final Table table, final int[] rows)
+    {
+        return Table.create(table.name(), table.columns().stream().map(x -> x.subset(rows)));
+    }
+
+    // gathers each chromosome's rows in a single pass, in order of first appearance
+    public static Map<String,int[]> chromosomeRows(final StringColumn chromosomeColumn)
+    {
+        Map<String,ChromosomeRows> chrRows = Maps.newLinkedHashMap();
+
+        for(int i = 0; i < chromosomeColumn.size(); ++i)
+        {
+            chrRows.computeIfAbsent(chromosomeColumn.get(i), k -> new ChromosomeRows()).add(i);
+        }
+
+        Map<String,int[]> rowsByChromosome = Maps.newLinkedHashMap();
+        chrRows.forEach((chr, rows) -> rowsByChromosome.put(chr, rows.toArray()));
+        return rowsByChromosome;
+    }
+
+    private static class ChromosomeRows
+    {
+        private int[] mRows = new int[16];
+        private int mCount = 0;
+
+        void add(int row)
+        {
+            if(mCount == mRows.length)
+                mRows = Arrays.copyOf(mRows, mCount * 2);
+
+            mRows[mCount++] = row;
+        }
+
+        int[] toArray() { return Arrays.copyOf(mRows, mCount); }
+    }
+
+    // orders rows by encoded chromosome position, which the input will usually have already
+    public static int[] sortRowsByPosition(final int[] rows, final LongColumn encodedPositions)
+    {
+        boolean isSorted = true;
+
+        for(int i = 1; i < rows.length && isSorted; ++i)
+        {
+            isSorted = encodedPositions.getLong(rows[i - 1]) <= encodedPositions.getLong(rows[i]);
+        }
+
+        if(isSorted)
+            return rows;
+
+        return IntStream.of(rows).boxed()
+                .sorted(Comparator.comparingLong(encodedPositions::getLong))
+                .mapToInt(x -> x).toArray();
+    }
+
+    // inner joins two tables on their unique encoded chromosome positions by merging their position-ordered rows, keeping the left
+    // table's columns followed by the right table's other columns, in position order
+    public static Table joinOnEncodedPosition(final Table left, final Table right)
+    {
+        LongColumn leftPositions = left.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        LongColumn rightPositions = right.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+
+        int[] leftRows = sortRowsByPosition(IntStream.range(0, left.rowCount()).toArray(), leftPositions);
+        int[] rightRows = sortRowsByPosition(IntStream.range(0, right.rowCount()).toArray(), rightPositions);
+
+        int[] matchedLeftRows = new int[Math.min(leftRows.length, rightRows.length)];
+        int[] matchedRightRows = new int[matchedLeftRows.length];
+        int matchCount = 0;
+
+        int leftIndex = 0;
+        int rightIndex = 0;
+
+        while(leftIndex < leftRows.length && rightIndex < rightRows.length)
+        {
+            long leftPosition = leftPositions.getLong(leftRows[leftIndex]);
+            long rightPosition = rightPositions.getLong(rightRows[rightIndex]);
+
+            if(leftPosition < rightPosition)
+            {
+                ++leftIndex;
+            }
+            else if(leftPosition > rightPosition)
+            {
+                ++rightIndex;
+            }
+            else
+            {
+                matchedLeftRows[matchCount] = leftRows[leftIndex++];
+                matchedRightRows[matchCount] = rightRows[rightIndex++];
+                ++matchCount;
+            }
+        }
+
+        int[] joinedLeftRows = Arrays.copyOf(matchedLeftRows, matchCount);
+        int[] joinedRightRows = Arrays.copyOf(matchedRightRows, matchCount);
+
+        Table joined = selectRows(left, joinedLeftRows);
+
+        for(Column<?> column : right.columns())
+        {
+            if(!joined.containsColumn(column.name()))
+                joined.addColumns(column.subset(joinedRightRows));
+        }
+
+        return joined;
+    }
+
+    public static double median(final double[] values)
+    {
+        // matches the tablesaw median aggregate function
+        return StatUtils.percentile(values, 50);
+    }
+
     public static Multimap<com.hartwig.hmftools.common.genome.chromosome.Chromosome, ReadRatio> toCommonChromosomeMap(
             Table input)
     {
@@ -3,13 +3,23 @@ package com.hartwig.hmftools.cobalt;
 import static com.hartwig.hmftools.cobalt.CobaltConfig.CB_LOGGER;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmenter;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 
 public class RatioSegmentation
@@ -50,4 +60,70 @@ public class RatioSegmentation
 
         return null;
     }
+
+    public static void applyRatioSegmentation(
+            final List<CobaltRatio> ratios, final String outputDir, final String reference, final String tumor, int gamma, int threads)
+            throws IOException
+    {
+        // segment in the same order as the ratios are written to file
+        List<CobaltRatio> sortedRatios = new ArrayList<>(ratios);
+        Collections.sort(sortedRatios);
+
+        if(reference != null)
+            ratioSegmentation(sortedRatios, outputDir, reference, CobaltRatio::referenceGCDiploidRatio, gamma, threads);
+
+        if(tumor != null)
+            ratioSegmentation(sortedRatios, outputDir, tumor, CobaltRatio::tumorGCRatio, gamma, threads);
+
+        CB_LOGGER.info("Segmentation Complete");
+    }
+
+    private static final String PCF_SAMPLE_COLUMN = "S1";
+    private static final double MIN_RATIO = 0.001;
+
+    private static void ratioSegmentation(
+            final List<CobaltRatio> ratios, final String outputDir, final String sample, final ToDoubleFunction<CobaltRatio> ratioFunction,
+            int gamma, int threads) throws IOException
+    {
+        // applies the same filters and log transform to the ratios as the R routine
+        Map<String,List<CobaltRatio>> chromosomeRatios = new LinkedHashMap<>();
+
+        for(CobaltRatio ratio : ratios)
+        {
+            if(writtenValue(ratioFunction.applyAsDouble(ratio)) >= 0)
+                chromosomeRatios.computeIfAbsent(ratio.chromosome(), k -> Lists.newArrayList()).add(ratio);
+        }
+
+        // fast PCF, as per the R script's call to copynumber's pcf with its default fast = TRUE
+        PCFSegmenter segmenter = new PCFSegmenter(gamma, true);
+
+        for(Map.Entry<String,List<CobaltRatio>> entry : chromosomeRatios.entrySet())
+        {
+            List<CobaltRatio> chrRatios = entry.getValue();
+            int[] positions = new int[chrRatios.size()];
+            double[] values = new double[chrRatios.size()];
+
+            for(int i = 0; i < chrRatios.size(); ++i)
+            {
+                double ratio = Math.max(writtenValue(ratioFunction.applyAsDouble(chrRatios.get(i))), MIN_RATIO);
+                positions[i] = chrRatios.get(i).position();
+                values[i] = Math.log(ratio) / Math.log(2);
+            }
+
+            segmenter.addChromosome(entry.getKey(), positions, values);
+        }
+
+        List<PCFSegment> segments = segmenter.segment(threads);
+
+        if(segments == null)
+            throw new IOException("unable to complete segmentation");
+
+        PCFFile.write(PCFFile.generateRatioFilename(outputDir, sample), PCF_SAMPLE_COLUMN, segments);
+    }
+
+    private static double writtenValue(double value)
+    {
+        // segment the ratios as written to the ratio file, as the R routine does
+        return Double.isFinite(value) ? new BigDecimal(value).setScale(4, RoundingMode.HALF_EVEN).doubleValue() : value;
+    }
 }
@@ -2,32 +2,30 @@ package com.hartwig.hmftools.cobalt.count;
 
 import static com.hartwig.hmftools.cobalt.CobaltConfig.CB_LOGGER;
 import static com.hartwig.hmftools.cobalt.CobaltConstants.PARTITION_SIZE;
-import static com.hartwig.hmftools.common.bam.SamRecordUtils.CONSENSUS_READ_ATTRIBUTE;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 import com.hartwig.hmftools.cobalt.Chromosome;
 import com.hartwig.hmftools.cobalt.ChromosomePositionCodec;
 import com.hartwig.hmftools.cobalt.CobaltColumns;
 import com.hartwig.hmftools.cobalt.CobaltConfig;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.bam.BamReadFanOut;
+import com.hartwig.hmftools.common.cobalt.ReadDepthAccumulator;
+import com.hartwig.hmftools.common.cobalt.ReadDepthConsumer;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
-import com.hartwig.hmftools.common.bam.BamSlicer;
 
 import org.apache.commons.lang3.Validate;
 import org.jetbrains.annotations.Nullable;
 
-import htsjdk.samtools.AlignmentBlock;
-import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.SamReader;
@@ -81,25 +79,24 @@ public class BamReadCounter
 
         mChromosomes = loadChromosomes(mReaderFactory, referenceBam, tumorBam);
 
-        List<Future<?>> tasks = new ArrayList<>();
-        List<SamReader> samReaders = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> bamQueries = new ArrayList<>();
 
         if(tumorBam != null)
         {
             CB_LOGGER.info("calculating read depths from {}", tumorBam);
-            tasks.addAll(createFutures(tumorBam, mTumorReadDepthAccumulator, samReaders));
+            bamQueries.add(queryReadDepths(tumorBam, mTumorReadDepthAccumulator));
         }
 
         if(referenceBam != null)
         {
             CB_LOGGER.info("calculating read depths from {}", referenceBam);
-            tasks.addAll(createFutures(referenceBam, mRefReadDepthAccumulator, samReaders));
+            bamQueries.add(queryReadDepths(referenceBam, mRefReadDepthAccumulator));
         }
 
-        // wait for all tasks to complete
-        for(Future<?> f : tasks)
+        // wait for all tasks to complete, after which the BAM readers have been closed
+        for(CompletableFuture<Void> bamQuery : bamQueries)
         {
-            f.get();
+            bamQuery.get();
         }
 
         if(tumorBam != null)
@@ -112,16 +109,10 @@ public class BamReadCounter
             mReferenceDepths = generateDepths(mRefReadDepthAccumulator);
         }
 
-        // close all sam readers
-        for(SamReader samReader : samReaders)
-        {
-            samReader.close();
-        }
-
         CB_LOGGER.info("read Depth Complete");
     }
 
-    private List<Future<?>> createFutures(final String bamFilePath, final ReadDepthAccumulator readDepthCounter, List<SamReader> samReaderList)
+    private CompletableFuture<Void> queryReadDepths(final String bamFilePath, final ReadDepthAccumulator readDepthCounter)
     {
         // add all the chromosomes
         for(Chromosome chromosome : mChromosomes)
@@ -129,104 +120,38 @@ public class BamReadCounter
             readDepthCounter.addChromosome(chromosome.contig, chromosome.length);
         }
 
-        final File bamFile = new File(bamFilePath);
+        // each BAM is read on its own here, whereas BamMetrics can collect read depth in a pass shared with metrics and jitter
+        BamReadFanOut bamReadFanOut = new BamReadFanOut();
+        bamReadFanOut.registerConsumer(new ReadDepthConsumer(mMinMappingQuality, mIncludeDuplicates, readDepthCounter));
 
-        // One bam reader per thread instead of one per task
-        final ThreadLocal<SamReader> threadBamReader = ThreadLocal.withInitial(() -> {
-            SamReader samReader = mReaderFactory.open(bamFile);
-            samReaderList.add(samReader);
-            return samReader;
-        });
-
-        final List<ChrBaseRegion> partitions = partitionGenome();
-        final List<Future<?>> futures = new ArrayList<>();
-        for(ChrBaseRegion baseRegion : partitions)
-        {
-            Runnable task = () -> sliceRegionTask(threadBamReader, baseRegion, readDepthCounter);
-            futures.add(mExecutorService.submit(task));
-        }
-
-        return futures;
+        return bamReadFanOut.queryAsync(new File(bamFilePath), mReaderFactory, partitionGenome(), mExecutorService);
     }
 
-    private void sliceRegionTask(ThreadLocal<SamReader> samReaderSupplier, ChrBaseRegion region, ReadDepthAccumulator readDepthAccumulator)
+    private Table generateDepths(ReadDepthAccumulator readDepthAccumulator)
     {
-        CB_LOGGER.debug("region({}) accumulating read depth", region);
-
-        final SamReader reader = samReaderSupplier.get();
+        // build the table's columns directly from primitive arrays rather than appending a row per window
+        int totalWindows = mChromosomes.stream().mapToInt(x -> readDepthAccumulator.windowCount(x.contig)).sum();
 
-        BamSlicer bamSlicer = new BamSlicer(mMinMappingQuality, mIncludeDuplicates, false, false);
-
-        bamSlicer.slice(reader, region, samRecord -> processRead(samRecord, region, readDepthAccumulator));
-
-        CB_LOGGER.debug("region({}) complete", region);
-    }
-
-    private void processRead(final SAMRecord record, ChrBaseRegion region, ReadDepthAccumulator readDepthAccumulator)
-    {
-        if(mIncludeDuplicates)
-        {
-            // revert to only analysing the raw reads
-            if(record.hasAttribute(CONSENSUS_READ_ATTRIBUTE))
-                return;
-        }
-        else
-        {
-            if(record.getDuplicateReadFlag())
-                return;
-        }
+        String[] chromosomes = new String[totalWindows];
+        int[] positions = new int[totalWindows];
+        double[] readDepths = new double[totalWindows];
+        double[] gcContents = new double[totalWindows];
 
-        Validate.isTrue(record.getContig().equals(region.Chromosome));
+        int offset = 0;
 
-        for(AlignmentBlock currentBlock : record.getAlignmentBlocks())
-        {
-            accumulateAlignmentBlock(region, readDepthAccumulator, currentBlock.getReadStart(), currentBlock.getReferenceStart(),
-                    currentBlock.getLength(), record.getReadBases());
-        }
-    }
-
-    static void accumulateAlignmentBlock(
-            final ChrBaseRegion region, final ReadDepthAccumulator readDepthAccumulator,
-            final int alignmentBlockReadStart, final int alignmentBlockReferenceStart, final int alignmentBlockLength,
-            byte[] readBases)
-    {
-        // NOTE: we need to adjust start and end to avoid adding counts to regions that belongs to another task
-        // as if we do that they will be double counted
-        int genomeStart = Math.max(alignmentBlockReferenceStart, region.start());
-        int length = Math.min(alignmentBlockReferenceStart + alignmentBlockLength, region.end() + 1) - genomeStart;
-
-        if(length <= 0)
+        for(Chromosome chromosome : mChromosomes)
         {
-            return;
+            int windowCount = readDepthAccumulator.windowCount(chromosome.contig);
+            readDepthAccumulator.populateChromosomeReadDepths(chromosome.contig, offset, positions, readDepths, gcContents);
+            Arrays.fill(chromosomes, offset, offset + windowCount, chromosome.contig);
+            offset += windowCount;
         }
 
-        // use 0 based index here such that we can use it with java string
-        int readStartIndex = alignmentBlockReadStart - 1;
-        readStartIndex += (genomeStart - alignmentBlockReferenceStart);
-        readDepthAccumulator.addReadAlignmentToCounts(region.Chromosome, genomeStart, length, readBases, readStartIndex);
-    }
-
-    private Table generateDepths(ReadDepthAccumulator readDepthAccumulator)
-    {
         final Table readDepthTable = Table.create("readDepths",
-                StringColumn.create(CobaltColumns.CHROMOSOME),
-                IntColumn.create(CobaltColumns.POSITION),
-                DoubleColumn.create(CobaltColumns.READ_DEPTH),
-                DoubleColumn.create(CobaltColumns.READ_GC_CONTENT));
-
-        for (Chromosome chromosome : mChromosomes)
-        {
-            List<ReadDepth> readDepths = readDepthAccumulator.getChromosomeReadDepths(chromosome.contig);
-            Objects.requireNonNull(readDepths);
-            for (ReadDepth readDepth : readDepths)
-            {
-                Row row = readDepthTable.appendRow();
-                row.setString(CobaltColumns.CHROMOSOME, chromosome.contig);
-                row.setInt(CobaltColumns.POSITION, readDepth.StartPosition);
-                row.setDouble(CobaltColumns.READ_DEPTH, readDepth.ReadDepth);
-                row.setDouble(CobaltColumns.READ_GC_CONTENT, readDepth.ReadGcContent);
-            }
-        }
+                StringColumn.create(CobaltColumns.CHROMOSOME, chromosomes),
+                IntColumn.create(CobaltColumns.POSITION, positions),
+                DoubleColumn.create(CobaltColumns.READ_DEPTH, readDepths),
+                DoubleColumn.create(CobaltColumns.READ_GC_CONTENT, gcContents));
 
         mChromosomePosCodec.addEncodedChrPosColumn(readDepthTable, false);
 
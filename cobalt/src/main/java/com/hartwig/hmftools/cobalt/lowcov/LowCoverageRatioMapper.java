@@ -1,12 +1,14 @@
 package com.hartwig.hmftools.cobalt.lowcov;
 
 import static com.hartwig.hmftools.cobalt.CobaltConfig.CB_LOGGER;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.chromosomeRows;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -21,7 +23,6 @@ import org.apache.commons.lang3.Validate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import tech.tablesaw.aggregate.AggregateFunctions;
 import tech.tablesaw.api.*;
 
 public class LowCoverageRatioMapper implements RatioMapper
@@ -69,35 +70,30 @@ public class LowCoverageRatioMapper implements RatioMapper
     @SuppressWarnings("UnstableApiUsage")
     private Table populateLowCoverageRatio(final Table rawRatios, Multimap<String, LowCovBucket> consolidateBoundaries)
     {
+        LongColumn encodedChrPosColumn = rawRatios.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        DoubleColumn ratioColumn = rawRatios.doubleColumn(CobaltColumns.RATIO);
+        DoubleColumn gcContentColumn = rawRatios.doubleColumn(CobaltColumns.GC_CONTENT);
+        BooleanColumn isAutosomeColumn = rawRatios.booleanColumn(CobaltColumns.IS_AUTOSOME);
+
         // make sure the ratios chromosome code are sorted
-        Validate.isTrue(Comparators.isInStrictOrder(rawRatios.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS).asList(),
-                Comparator.naturalOrder()));
+        Validate.isTrue(Comparators.isInStrictOrder(encodedChrPosColumn.asList(), Comparator.naturalOrder()));
+
+        // the mean ratio and GC content of each bucket is accumulated in a single pass over the rows
+        List<BucketRatio> bucketRatios = new ArrayList<>();
 
         String chromosome = "";
         Iterator<LowCovBucket> bucketItr = null;
-        LowCovBucket bucket = null;
-        int bucketId = 0;
-
-        IntColumn bucketIdCol = IntColumn.create(BUCKET_ID_COLUMN, rawRatios.rowCount());
-
-        // also create a table of the bucket themselves
-        Table bucketTable = Table.create(
-                IntColumn.create(BUCKET_ID_COLUMN),
-                StringColumn.create(CobaltColumns.CHROMOSOME),
-                IntColumn.create(CobaltColumns.POSITION),
-                BooleanColumn.create("isAutosome"));
+        BucketRatio bucketRatio = null;
 
-        // first step we give each row a lowCovBucketId
-        for (int i = 0; i < rawRatios.rowCount(); ++i)
+        for(int i = 0; i < rawRatios.rowCount(); ++i)
         {
-            Row row = rawRatios.row(i);
-            long encodedChrPos = row.getLong(CobaltColumns.ENCODED_CHROMOSOME_POS);
+            long encodedChrPos = encodedChrPosColumn.getLong(i);
             String rowChr = mChromosomePositionCodec.decodeChromosome(encodedChrPos);
             int pos = mChromosomePositionCodec.decodePosition(encodedChrPos);
 
             if(rowChr.isEmpty())
             {
-                CB_LOGGER.error("chr is empty, row: {}", row);
+                CB_LOGGER.error("chr is empty, row: {}", rawRatios.row(i));
                 throw new RuntimeException();
             }
 
@@ -110,80 +106,82 @@ public class LowCoverageRatioMapper implements RatioMapper
                 if(!bucketItr.hasNext())
                 {
                     CB_LOGGER.error("low cov bucket for chromosome {} not found", chromosome);
-                    bucket = null;
+                    bucketRatio = null;
                     assert false;
                     continue;
                 }
 
-                bucket = bucketItr.next();
-                ++bucketId;
-                Row bucketRow = bucketTable.appendRow();
-                bucketRow.setInt(BUCKET_ID_COLUMN, bucketId);
-                bucketRow.setString(CobaltColumns.CHROMOSOME, chromosome);
-                bucketRow.setInt(CobaltColumns.POSITION, bucket.BucketPosition);
-                bucketRow.setBoolean("isAutosome", row.getBoolean("isAutosome"));
+                bucketRatio = new BucketRatio(chromosome, bucketItr.next(), isAutosomeColumn.get(i));
+                bucketRatios.add(bucketRatio);
             }
 
-            if(bucket == null)
+            if(bucketRatio == null)
             {
                 // no bucket for whole chromosome, or we already finished last bucket
                 continue;
             }
 
-            if(row.getDouble(CobaltColumns.RATIO) >= 0)
+            // rows with negative ratio are not assigned a bucket, we do not want them in the mean
+            double ratio = ratioColumn.getDouble(i);
+
+            if(ratio >= 0)
             {
-                if(pos > bucket.EndPosition)
+                if(pos > bucketRatio.Bucket.EndPosition)
                 {
                     if(bucketItr.hasNext())
                     {
                         // move to next bucket
-                        bucket = bucketItr.next();
-                        ++bucketId;
-                        Row bucketRow = bucketTable.appendRow();
-                        bucketRow.setInt(BUCKET_ID_COLUMN, bucketId);
-                        bucketRow.setString(CobaltColumns.CHROMOSOME, chromosome);
-                        bucketRow.setInt(CobaltColumns.POSITION, bucket.BucketPosition);
-                        bucketRow.setBoolean("isAutosome", row.getBoolean("isAutosome"));
+                        bucketRatio = new BucketRatio(chromosome, bucketItr.next(), isAutosomeColumn.get(i));
+                        bucketRatios.add(bucketRatio);
                     }
                     else
                     {
                         // no more bucket for this chromosome. Setting bucket to null will let us skip through
                         // the rest of the chromosome
-                        bucket = null;
+                        bucketRatio = null;
                         continue;
                     }
                 }
 
-                // we do not assign bucket id for rows that have negative ratio, we do not want them
-                // to be in the summarize call
-                bucketIdCol.set(i, bucketId);
+                bucketRatio.add(ratio, gcContentColumn.getDouble(i));
             }
         }
 
-        // now we assign a bucket id per row, we can do with it
-        rawRatios.addColumns(bucketIdCol);
-
-        //
-        Table lowCovRatio = rawRatios.summarize(
-                CobaltColumns.RATIO,
-                CobaltColumns.GC_CONTENT,
-                AggregateFunctions.mean).by(BUCKET_ID_COLUMN);
+        // buckets without any assigned rows have no ratio and are dropped
+        bucketRatios.removeIf(x -> x.RatioCount == 0);
 
-        CB_LOGGER.debug("low cov table: {}", lowCovRatio);
+        int bucketCount = bucketRatios.size();
+        int[] bucketIds = new int[bucketCount];
+        double[] ratios = new double[bucketCount];
+        double[] gcContents = new double[bucketCount];
+        String[] chromosomes = new String[bucketCount];
+        int[] positions = new int[bucketCount];
+        boolean[] isAutosome = new boolean[bucketCount];
 
-        //
-        // lowCovBucketId  |   Mean [gcContent]    |  Mean [bucketEncodedChrPos]  |      Mean [ratio]
-        // fix up the column names
-        lowCovRatio.column("Mean [gcContent]").setName(CobaltColumns.GC_CONTENT);
-        lowCovRatio.column("Mean [ratio]").setName(CobaltColumns.RATIO);
+        for(int i = 0; i < bucketCount; ++i)
+        {
+            BucketRatio bucket = bucketRatios.get(i);
+            bucketIds[i] = i + 1;
+            ratios[i] = bucket.RatioTotal / bucket.RatioCount;
+            gcContents[i] = bucket.GcContentCount > 0 ? bucket.GcContentTotal / bucket.GcContentCount : Double.NaN;
+            chromosomes[i] = bucket.Chromosome;
+            positions[i] = bucket.Bucket.BucketPosition;
+            isAutosome[i] = bucket.IsAutosome;
+        }
 
         // add is mappable column, we are not sure if this is needed yet. But if we want to pass
         // consolidated ratios to gc normalisation this is needed.
-        lowCovRatio.addColumns(BooleanColumn.create(CobaltColumns.IS_MAPPABLE,
-                Collections.nCopies(lowCovRatio.rowCount(), true)));
-
-        // merge in the bucket, this is required to get the bucket position
-        lowCovRatio = lowCovRatio.joinOn(BUCKET_ID_COLUMN).inner(bucketTable);
+        boolean[] isMappable = new boolean[bucketCount];
+        Arrays.fill(isMappable, true);
+
+        Table lowCovRatio = Table.create(
+                IntColumn.create(BUCKET_ID_COLUMN, bucketIds),
+                DoubleColumn.create(CobaltColumns.RATIO, ratios),
+                DoubleColumn.create(CobaltColumns.GC_CONTENT, gcContents),
+                BooleanColumn.create(CobaltColumns.IS_MAPPABLE, isMappable),
+                StringColumn.create(CobaltColumns.CHROMOSOME, chromosomes),
+                IntColumn.create(CobaltColumns.POSITION, positions),
+                BooleanColumn.create(CobaltColumns.IS_AUTOSOME, isAutosome));
 
         // add the encoded chromosome pos columns
         mChromosomePositionCodec.addEncodedChrPosColumn(lowCovRatio, false);
@@ -193,6 +191,38 @@ public class LowCoverageRatioMapper implements RatioMapper
         return lowCovRatio;
     }
 
+    private static class BucketRatio
+    {
+        public final String Chromosome;
+        public final LowCovBucket Bucket;
+        public final boolean IsAutosome;
+
+        public double RatioTotal = 0;
+        public int RatioCount = 0;
+        public double GcContentTotal = 0;
+        public int GcContentCount = 0;
+
+        public BucketRatio(final String chromosome, final LowCovBucket bucket, boolean isAutosome)
+        {
+            Chromosome = chromosome;
+            Bucket = bucket;
+            IsAutosome = isAutosome;
+        }
+
+        public void add(double ratio, double gcContent)
+        {
+            RatioTotal += ratio;
+            ++RatioCount;
+
+            // a missing GC content is left out of the mean
+            if(!Double.isNaN(gcContent))
+            {
+                GcContentTotal += gcContent;
+                ++GcContentCount;
+            }
+        }
+    }
+
     @Nullable
     public static Multimap<String, LowCovBucket> calcConsolidateBuckets(final Table rawRatios, final double medianReadDepth)
     {
@@ -220,14 +250,25 @@ public class LowCoverageRatioMapper implements RatioMapper
 
         ArrayListMultimap<String, LowCovBucket> boundaries = ArrayListMultimap.create();
 
-        for (String chromosome : rawRatios.stringColumn(CobaltColumns.CHROMOSOME).unique())
+        DoubleColumn ratioColumn = rawRatios.doubleColumn(CobaltColumns.RATIO);
+        IntColumn positionColumn = rawRatios.intColumn(CobaltColumns.POSITION);
+
+        for(Map.Entry<String,int[]> entry : chromosomeRows(rawRatios.stringColumn(CobaltColumns.CHROMOSOME)).entrySet())
         {
-            List<Integer> nonMaskedPositions = rawRatios.where(
-                    rawRatios.stringColumn(CobaltColumns.CHROMOSOME).isEqualTo(chromosome)
-                    .and(rawRatios.doubleColumn(CobaltColumns.RATIO).isNonNegative()))
-                    .intColumn(CobaltColumns.POSITION).asList();
+            String chromosome = entry.getKey();
+            int[] rows = entry.getValue();
 
-            List<LowCovBucket> consolidatedBuckets = consolidateIntoBuckets(nonMaskedPositions, consolidationCount);
+            int[] nonMaskedPositions = new int[rows.length];
+            int positionCount = 0;
+
+            for(int row : rows)
+            {
+                if(ratioColumn.getDouble(row) >= 0)
+                    nonMaskedPositions[positionCount++] = positionColumn.getInt(row);
+            }
+
+            List<LowCovBucket> consolidatedBuckets = consolidateIntoBuckets(
+                    Arrays.copyOf(nonMaskedPositions, positionCount), consolidationCount);
 
             boundaries.putAll(chromosome, consolidatedBuckets);
 
@@ -264,25 +305,27 @@ public class LowCoverageRatioMapper implements RatioMapper
     }
 
     // given the list of non masked windows, get the list of consolidated buckets
-    @SuppressWarnings("UnstableApiUsage")
-    static List<LowCovBucket> consolidateIntoBuckets(List<Integer> windowPositions, int consolidationCount)
+    static List<LowCovBucket> consolidateIntoBuckets(final int[] windowPositions, int consolidationCount)
     {
         // make sure position is sorted
-        Validate.isTrue(Comparators.isInStrictOrder(windowPositions, Comparator.naturalOrder()));
+        for(int i = 1; i < windowPositions.length; ++i)
+        {
+            Validate.isTrue(windowPositions[i - 1] < windowPositions[i]);
+        }
 
         List<LowCovBucket> buckets = new ArrayList<>();
 
-        if(windowPositions.isEmpty())
+        if(windowPositions.length == 0)
         {
             return buckets;
         }
 
         int windowCount = 0;
-        int bucketStart = windowPositions.get(0);
+        int bucketStart = windowPositions[0];
 
-        for (int i = 0; i < windowPositions.size(); ++i)
+        for (int i = 0; i < windowPositions.length; ++i)
         {
-            int position = windowPositions.get(i);
+            int position = windowPositions[i];
 
             if((position - bucketStart) >= CobaltConstants.MAX_SPARSE_CONSOLIDATE_DISTANCE)
             {
@@ -291,7 +334,7 @@ public class LowCoverageRatioMapper implements RatioMapper
                 // use the last bucket
                 if(i > 0)
                 {
-                    int lastPosition = windowPositions.get(i - 1);
+                    int lastPosition = windowPositions[i - 1];
                     int bucketEnd = lastPosition + CobaltConstants.WINDOW_SIZE;
                     int bucketPos = roundDownToWindowBoundary((bucketStart + bucketEnd) * 0.5);
                     buckets.add(new LowCovBucket(bucketStart, bucketEnd, bucketPos));
@@ -308,7 +351,7 @@ public class LowCoverageRatioMapper implements RatioMapper
             if(windowCount == consolidationCount)
             {
                 // we want to put the bucket boundary in the middle of the two windows
-                int lastPosition = windowPositions.get(i - 1);
+                int lastPosition = windowPositions[i - 1];
                 int bucketEnd = roundDownToWindowBoundary((lastPosition + position) * 0.5);
 
                 // bucket position is at the middle
@@ -329,7 +372,7 @@ public class LowCoverageRatioMapper implements RatioMapper
         // add a final window
         if(windowCount > 0)
         {
-            int bucketEnd = windowPositions.get(windowPositions.size() - 1) + CobaltConstants.WINDOW_SIZE;
+            int bucketEnd = windowPositions[windowPositions.length - 1] + CobaltConstants.WINDOW_SIZE;
 
             // bucket position is at the middle
             int bucketPos = roundDownToWindowBoundary((bucketStart + bucketEnd) * 0.5);
@@ -2,8 +2,12 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static com.hartwig.hmftools.cobalt.CobaltConstants.ROLLING_MEDIAN_MAX_DISTANCE;
 import static com.hartwig.hmftools.cobalt.CobaltConstants.ROLLING_MEDIAN_MIN_COVERAGE;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.chromosomeRows;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.selectRows;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import com.hartwig.hmftools.cobalt.CobaltColumns;
 import com.hartwig.hmftools.common.cobalt.MedianRatio;
@@ -17,17 +21,30 @@ public final class DiploidRatioSupplier
 {
     public static Table calcDiploidRatioResults(final Table normalRatios, final List<MedianRatio> medianRatios)
     {
-        Table results = normalRatios.emptyCopy();
+        DoubleColumn ratioColumn = normalRatios.doubleColumn(CobaltColumns.RATIO);
+        int rowCount = normalRatios.rowCount();
+
+        Map<String,int[]> chrRows = chromosomeRows(normalRatios.stringColumn(CobaltColumns.CHROMOSOME));
+
+        int[] resultRows = new int[rowCount];
+        double[] resultRatios = new double[rowCount];
+        int resultCount = 0;
 
         for (CobaltChromosome cobaltChromosome : new CobaltChromosomes(medianRatios).chromosomes())
         {
             String chr = cobaltChromosome.contig();
-            if(HumanChromosome.contains(chr))
+            if(HumanChromosome.contains(chr) && chrRows.containsKey(chr))
             {
-                Table chrTable = normalRatios.where(normalRatios.stringColumn(CobaltColumns.CHROMOSOME).isEqualTo(chr));
+                int[] rows = chrRows.get(chr);
 
-                final List<Double> ratios = chrTable.doubleColumn(CobaltColumns.RATIO).asList();
-                final List<Double> adjustedRatios;
+                final double[] ratios = new double[rows.length];
+
+                for(int i = 0; i < rows.length; ++i)
+                {
+                    ratios[i] = ratioColumn.getDouble(rows[i]);
+                }
+
+                final double[] adjustedRatios;
                 if (HumanChromosome.fromString(chr).equals(HumanChromosome._Y))
                 {
                     adjustedRatios = ratios;
@@ -38,14 +55,18 @@ public final class DiploidRatioSupplier
                     adjustedRatios = new DiploidRatioNormalization(expectedRatio,
                             ROLLING_MEDIAN_MAX_DISTANCE,
                             ROLLING_MEDIAN_MIN_COVERAGE,
-                            ratios).get();
+                            ratios).ratios();
                 }
 
-                chrTable.replaceColumn(DoubleColumn.create(CobaltColumns.RATIO, adjustedRatios));
-                results.append(chrTable);
+                System.arraycopy(rows, 0, resultRows, resultCount, rows.length);
+                System.arraycopy(adjustedRatios, 0, resultRatios, resultCount, rows.length);
+                resultCount += rows.length;
             }
         }
 
+        Table results = selectRows(normalRatios, Arrays.copyOf(resultRows, resultCount));
+        results.replaceColumn(DoubleColumn.create(CobaltColumns.RATIO, Arrays.copyOf(resultRatios, resultCount)));
+
         return results;
     }
 }
@@ -1,7 +1,11 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
 import static com.hartwig.hmftools.cobalt.CobaltConfig.CB_LOGGER;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.median;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.selectRows;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.sortRowsByPosition;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -10,9 +14,13 @@ import com.hartwig.hmftools.common.genome.gc.GCBucket;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadDepth;
 import com.hartwig.hmftools.common.genome.gc.ImmutableGCBucket;
 
-import tech.tablesaw.aggregate.AggregateFunctions;
-import tech.tablesaw.aggregate.NumericAggregateFunction;
-import tech.tablesaw.api.*;
+import org.apache.commons.math3.stat.StatUtils;
+
+import tech.tablesaw.api.BooleanColumn;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
 
 public class GcNormalizedRatioMapper implements RatioMapper
 {
@@ -40,53 +48,125 @@ public class GcNormalizedRatioMapper implements RatioMapper
                     .multiply(100).round().asIntColumn().setName(CobaltColumns.GC_BUCKET));
         }
 
-        // create a gc normalisation df
+        // gather the ratios used for gc normalisation into primitive per-bucket arrays, skipping masked regions, rather
+        // than filtering, grouping and joining intermediate tables
+        int rowCount = inputRatios.rowCount();
+        DoubleColumn ratioColumn = inputRatios.doubleColumn(CobaltColumns.RATIO);
+        IntColumn gcBucketColumn = inputRatios.intColumn(CobaltColumns.GC_BUCKET);
+        BooleanColumn mappableColumn = inputRatios.booleanColumn(CobaltColumns.IS_MAPPABLE);
+        BooleanColumn autosomeColumn = inputRatios.booleanColumn(CobaltColumns.IS_AUTOSOME);
+
+        int bucketCount = MAX_BUCKET - MIN_BUCKET + 1;
+        int[] bucketWindowCounts = new int[bucketCount];
+        int sampleWindowCount = 0;
+
+        for(int i = 0; i < rowCount; ++i)
+        {
+            if(useForMedianCalc(i, ratioColumn, gcBucketColumn, mappableColumn, autosomeColumn))
+            {
+                ++bucketWindowCounts[gcBucketColumn.getInt(i) - MIN_BUCKET];
+                ++sampleWindowCount;
+            }
+        }
+
+        double[][] bucketRatios = new double[bucketCount][];
+        double[] sampleRatios = new double[sampleWindowCount];
+
+        for(int b = 0; b < bucketCount; ++b)
+        {
+            bucketRatios[b] = new double[bucketWindowCounts[b]];
+            bucketWindowCounts[b] = 0;
+        }
 
-        // skipped masked regions
-        Table gcMedianCalcDf = inputRatios.where(
-                inputRatios.doubleColumn(CobaltColumns.RATIO).isGreaterThan(0.0) // TODO: change to >= 0.0
-                        .and(inputRatios.intColumn(CobaltColumns.GC_BUCKET).isBetweenInclusive(MIN_BUCKET, MAX_BUCKET))
-                        .and(inputRatios.booleanColumn(CobaltColumns.IS_MAPPABLE).asSelection())
-                        .and(inputRatios.booleanColumn(CobaltColumns.IS_AUTOSOME).asSelection()));
+        sampleWindowCount = 0;
 
-        NumericAggregateFunction aggFunc = AggregateFunctions.median;
+        for(int i = 0; i < rowCount; ++i)
+        {
+            if(useForMedianCalc(i, ratioColumn, gcBucketColumn, mappableColumn, autosomeColumn))
+            {
+                double ratio = ratioColumn.getDouble(i);
+                int bucketIndex = gcBucketColumn.getInt(i) - MIN_BUCKET;
+                bucketRatios[bucketIndex][bucketWindowCounts[bucketIndex]++] = ratio;
+                sampleRatios[sampleWindowCount++] = ratio;
+            }
+        }
 
         // get the sample median and mean
-        mSampleMedianReadDepth = aggFunc.summarize(gcMedianCalcDf.doubleColumn(CobaltColumns.RATIO));
-        mSampleMeanReadDepth = gcMedianCalcDf.doubleColumn(CobaltColumns.RATIO).mean();
+        mSampleMedianReadDepth = median(sampleRatios);
+        mSampleMeanReadDepth = StatUtils.mean(sampleRatios);
+
+        // a table with columns gcBucket, gcMedianCount, windowCount
+        mGCMedianReadDepth = Table.create(
+                IntColumn.create(CobaltColumns.GC_BUCKET), DoubleColumn.create("gcMedianCount"), DoubleColumn.create("windowCount"));
 
-        // groupby gcBucket and apply median, to create a table with columns
-        // gcBucket, gcMedianCount, windowCount
-        gcMedianCalcDf = gcMedianCalcDf.retainColumns(CobaltColumns.GC_BUCKET, CobaltColumns.RATIO)
-                .summarize(CobaltColumns.RATIO, aggFunc, AggregateFunctions.count)
-                .by(CobaltColumns.GC_BUCKET);
+        double[] bucketMedians = new double[bucketCount];
 
-        CB_LOGGER.trace("sample median: {}, mean: {}, gc median calc: {}", mSampleMedianReadDepth, mSampleMeanReadDepth, gcMedianCalcDf);
+        for(int b = 0; b < bucketCount; ++b)
+        {
+            if(bucketRatios[b].length == 0)
+                continue;
+
+            bucketMedians[b] = median(bucketRatios[b]);
 
-        gcMedianCalcDf.column(String.format("Median [%s]", CobaltColumns.RATIO)).setName("gcMedianCount");
-        gcMedianCalcDf.column(String.format("Count [%s]", CobaltColumns.RATIO)).setName("windowCount");
+            mGCMedianReadDepth.intColumn(CobaltColumns.GC_BUCKET).append(b + MIN_BUCKET);
+            mGCMedianReadDepth.doubleColumn("gcMedianCount").append(bucketMedians[b]);
+            mGCMedianReadDepth.doubleColumn("windowCount").append(bucketRatios[b].length);
+        }
 
-        // merge in the gc median count
-        Table ratiosWithMedianCount = inputRatios
-                .where(inputRatios.booleanColumn(CobaltColumns.IS_MAPPABLE).asSelection())
-                .joinOn(CobaltColumns.GC_BUCKET).inner(gcMedianCalcDf);
+        CB_LOGGER.trace("sample median: {}, mean: {}, gc median calc: {}", mSampleMedianReadDepth, mSampleMeanReadDepth, mGCMedianReadDepth);
 
         double medianNormalisation = mSampleMedianReadDepth / mSampleMeanReadDepth;
 
-        DoubleColumn gcNormalisedRatio = ratiosWithMedianCount.doubleColumn(CobaltColumns.RATIO)
-                .multiply(medianNormalisation)
-                .divide(ratiosWithMedianCount.doubleColumn("gcMedianCount"))
-                .map(d -> Double.isFinite(d) ? d : Double.NaN); // protect against division by 0
+        // keep mappable windows in a bucket with a median, and normalise their ratios
+        int[] keptRows = new int[rowCount];
+        int keptCount = 0;
+
+        for(int i = 0; i < rowCount; ++i)
+        {
+            if(!isTrue(mappableColumn, i))
+                continue;
+
+            int gcBucket = gcBucketColumn.getInt(i);
+
+            if(gcBucket < MIN_BUCKET || gcBucket > MAX_BUCKET || bucketRatios[gcBucket - MIN_BUCKET].length == 0)
+                continue;
+
+            keptRows[keptCount++] = i;
+        }
+
+        keptRows = sortRowsByPosition(Arrays.copyOf(keptRows, keptCount), inputRatios.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS));
 
-        ratiosWithMedianCount.replaceColumn(gcNormalisedRatio.setName(CobaltColumns.RATIO));
+        double[] gcNormalisedRatios = new double[keptCount];
+
+        for(int i = 0; i < keptCount; ++i)
+        {
+            int row = keptRows[i];
+            double normalisedRatio = ratioColumn.getDouble(row) * medianNormalisation / bucketMedians[gcBucketColumn.getInt(row) - MIN_BUCKET];
+            gcNormalisedRatios[i] = Double.isFinite(normalisedRatio) ? normalisedRatio : Double.NaN; // protect against division by 0
+        }
 
-        // resort it, the join messes up with the ordering
-        ratiosWithMedianCount = ratiosWithMedianCount.sortAscendingOn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        Table ratiosWithMedianCount = selectRows(inputRatios, keptRows);
+        ratiosWithMedianCount.replaceColumn(DoubleColumn.create(CobaltColumns.RATIO, gcNormalisedRatios));
 
-        mGCMedianReadDepth = gcMedianCalcDf;
         return ratiosWithMedianCount;
     }
 
+    private static boolean useForMedianCalc(
+            int row, final DoubleColumn ratioColumn, final IntColumn gcBucketColumn, final BooleanColumn mappableColumn,
+            final BooleanColumn autosomeColumn)
+    {
+        int gcBucket = gcBucketColumn.getInt(row);
+
+        return ratioColumn.getDouble(row) > 0.0 // TODO: change to >= 0.0
+                && gcBucket >= MIN_BUCKET && gcBucket <= MAX_BUCKET
+                && isTrue(mappableColumn, row) && isTrue(autosomeColumn, row);
+    }
+
+    private static boolean isTrue(final BooleanColumn column, int row)
+    {
+        return Boolean.TRUE.equals(column.get(row));
+    }
+
     public Table gcMedianReadDepthTable()
     {
         return mGCMedianReadDepth;
@@ -1,119 +1,78 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
 public class RollingMedian
 {
-    private final PriorityQueue<Double> mMinheap;
-    private final PriorityQueue<Double> mMaxheap;
+    // values are held sorted in a primitive buffer, so adds and removes are a binary search and an array shift without boxing,
+    // and the median is read directly from the middle of the buffer
+    private double[] mValues;
+    private int mSize;
+
+    private static final int INITIAL_CAPACITY = 1024;
 
     public RollingMedian()
     {
-       mMinheap = new PriorityQueue<>(new MinHeapComparator());
-       mMaxheap = new PriorityQueue<>(new MaxHeapComparator());
+        mValues = new double[INITIAL_CAPACITY];
+        mSize = 0;
     }
 
     public void add(double n)
     {
-        if(isEmpty())
-        {
-            mMinheap.add(n);
-        }
-        else
-        {
-            if(Double.compare(n, median()) <= 0)
-            {
-                mMaxheap.add(n);
-            }
-            else
-            {
-                mMinheap.add(n);
-            }
-        }
+        if(mSize == mValues.length)
+            mValues = Arrays.copyOf(mValues, mSize * 2);
 
-        fixChaos();
+        int index = insertionIndex(n);
+        System.arraycopy(mValues, index, mValues, index + 1, mSize - index);
+        mValues[index] = n;
+        ++mSize;
     }
 
     public void remove(double n)
     {
-        if(!isEmpty())
-        {
-            if(Double.compare(n, median()) <= 0)
-            {
-                mMaxheap.remove(n);
-            }
-            else
-            {
-                mMinheap.remove(n);
-            }
-        }
-        fixChaos();
-    }
+        int index = Arrays.binarySearch(mValues, 0, mSize, n);
 
-    public int size()
-    {
-        return mMaxheap.size() + mMinheap.size();
-    }
+        if(index < 0)
+            return;
 
-    private boolean isEmpty()
-    {
-        return size() == 0;
+        System.arraycopy(mValues, index + 1, mValues, index, mSize - index - 1);
+        --mSize;
     }
 
-    private void fixChaos()
+    public int size()
     {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if(Math.abs(mMaxheap.size() - mMinheap.size()) > 1)
-        {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if(mMaxheap.size() > mMinheap.size())
-            {
-                mMinheap.add(mMaxheap.poll());
-            }
-            else
-            {
-                mMaxheap.add(mMinheap.poll());
-            }
-        }
+        return mSize;
     }
 
     public double median()
     {
-        if(isEmpty())
-        {
+        if(mSize == 0)
             return 0;
-        }
-        if(mMaxheap.size() == mMinheap.size())
-        {
-            return (mMaxheap.peek() + mMinheap.peek()) / 2;
-        }
-        else if(mMaxheap.size() > mMinheap.size())
-        {
-            return mMaxheap.peek();
-        }
+
+        int middle = mSize / 2;
+
+        if((mSize % 2) == 0)
+            return (mValues[middle - 1] + mValues[middle]) / 2;
         else
-        {
-            return mMinheap.peek();
-        }
+            return mValues[middle];
     }
 
-    private static class MinHeapComparator implements Comparator<Double>
+    private int insertionIndex(double n)
     {
-        @Override
-        public int compare(Double i, Double j)
-        {
-            return Double.compare(i, j);
-        }
-    }
+        // index after any equal values
+        int low = 0;
+        int high = mSize;
 
-    private static class MaxHeapComparator implements Comparator<Double>
-    {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j)
+        while(low < high)
         {
-            return -1 * Double.compare(i, j);
+            int mid = (low + high) >>> 1;
+
+            if(Double.compare(mValues[mid], n) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
         }
+
+        return low;
     }
-}
\ No newline at end of file
+}
@@ -4,8 +4,11 @@ import static java.lang.Math.round;
 import static java.lang.String.format;
 
 import static com.hartwig.hmftools.cobalt.CobaltConfig.CB_LOGGER;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.joinOnEncodedPosition;
+import static com.hartwig.hmftools.cobalt.CobaltUtils.median;
 import static com.hartwig.hmftools.cobalt.CobaltUtils.replaceColumn;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,7 +29,6 @@ import org.jetbrains.annotations.Nullable;
 
 import tech.tablesaw.api.DoubleColumn;
 import tech.tablesaw.api.Table;
-import tech.tablesaw.columns.numbers.NumberPredicates;
 
 public class TargetedRatioMapper implements RatioMapper
 {
@@ -61,24 +63,24 @@ public class TargetedRatioMapper implements RatioMapper
         Validate.isTrue(inputRatios.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS).isMissing().isEmpty());
         Validate.isTrue(mTargetRegionEnrichment.longColumn(CobaltColumns.ENCODED_CHROMOSOME_POS).isMissing().isEmpty());
 
-        // merge in the targeted region columns
-        Table onTargetRatios = inputRatios.joinOn(CobaltColumns.ENCODED_CHROMOSOME_POS).inner(mTargetRegionEnrichment);
+        // merge in the targeted region columns, in position order
+        Table onTargetRatios = joinOnEncodedPosition(inputRatios, mTargetRegionEnrichment);
 
-        // resort it, the join messes up with the ordering
-        onTargetRatios = onTargetRatios.sortAscendingOn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        double[] ratios = onTargetRatios.doubleColumn(CobaltColumns.RATIO).asDoubleArray();
+        double[] relativeEnrichment = onTargetRatios.doubleColumn(CobaltColumns.RELATIVE_ENRICHMENT).asDoubleArray();
 
-        double targetRegionGcRatioMedian = onTargetRatios.doubleColumn(CobaltColumns.RATIO).filter(NumberPredicates.isNonNegative).median();
+        double targetRegionGcRatioMedian = median(Arrays.stream(ratios).filter(x -> x >= 0).toArray());
 
         CB_LOGGER.printf(Level.INFO, "targeted mode GC ratio median: %.3f", targetRegionGcRatioMedian);
 
         // normalise the ratio by relative enrichment and targeted region median
-        DoubleColumn onTargetRatioColumn = onTargetRatios.doubleColumn(CobaltColumns.RATIO)
-                .divide(onTargetRatios.doubleColumn("relativeEnrichment"))
-                .divide(targetRegionGcRatioMedian)
-                .map(d -> Double.isFinite(d) ? d : Double.NaN) // protect against division by 0
-                .setName(CobaltColumns.RATIO);
+        for(int i = 0; i < ratios.length; ++i)
+        {
+            double ratio = ratios[i] / relativeEnrichment[i] / targetRegionGcRatioMedian;
+            ratios[i] = Double.isFinite(ratio) ? ratio : Double.NaN; // protect against division by 0
+        }
 
-        onTargetRatios.replaceColumn(onTargetRatioColumn);
+        onTargetRatios.replaceColumn(DoubleColumn.create(CobaltColumns.RATIO, ratios));
 
         return onTargetRatios;
     }
@@ -86,11 +88,8 @@ public class TargetedRatioMapper implements RatioMapper
     // we create a pan window ratio by taking the median count of super windows that combine multiple windows
     Table offTargetRatios(final Table inputRatios)
     {
-        // merge in the targeted region columns
-        Table offTargetRatios = inputRatios.joinOn(CobaltColumns.ENCODED_CHROMOSOME_POS).inner(mTargetRegionEnrichment);
-
-        // resort it, the join messes up with the ordering
-        offTargetRatios = offTargetRatios.sortAscendingOn(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        // merge in the targeted region columns, in position order
+        Table offTargetRatios = joinOnEncodedPosition(inputRatios, mTargetRegionEnrichment);
 
         offTargetRatios = offTargetRatios.where(
                         offTargetRatios.booleanColumn("offTarget").asSelection()
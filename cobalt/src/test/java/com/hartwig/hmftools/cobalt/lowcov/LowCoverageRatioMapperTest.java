@@ -1,11 +1,15 @@
 package com.hartwig.hmftools.cobalt.lowcov;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.cobalt.ChromosomePositionCodec;
 import com.hartwig.hmftools.cobalt.CobaltColumns;
 
 import org.junit.Test;
@@ -47,7 +51,7 @@ public class LowCoverageRatioMapperTest
         windowPositions.add(3_024_001);
         windowPositions.add(3_029_001);
 
-        List<LowCovBucket> buckets = LowCoverageRatioMapper.consolidateIntoBuckets(windowPositions, 4);
+        List<LowCovBucket> buckets = LowCoverageRatioMapper.consolidateIntoBuckets(windowPositions.stream().mapToInt(x -> x).toArray(), 4);
 
         assertEquals(3, buckets.size());
 
@@ -61,7 +65,7 @@ public class LowCoverageRatioMapperTest
 
         windowPositions.add(3_034_001);
 
-        buckets = LowCoverageRatioMapper.consolidateIntoBuckets(windowPositions, 4);
+        buckets = LowCoverageRatioMapper.consolidateIntoBuckets(windowPositions.stream().mapToInt(x -> x).toArray(), 4);
 
         assertEquals(4, buckets.size());
 
@@ -132,6 +136,70 @@ public class LowCoverageRatioMapperTest
         assertEquals(20001, buckets.get(2).EndPosition);
     }
 
+    @Test
+    public void testLowCoverageRatios()
+    {
+        ChromosomePositionCodec chromosomePosCodec = new ChromosomePositionCodec();
+
+        final Table rawRatios = Table.create(
+                StringColumn.create(CobaltColumns.CHROMOSOME),
+                IntColumn.create(CobaltColumns.POSITION),
+                DoubleColumn.create(CobaltColumns.RATIO),
+                DoubleColumn.create(CobaltColumns.GC_CONTENT),
+                BooleanColumn.create(CobaltColumns.IS_AUTOSOME));
+
+        appendReadRatio(rawRatios, "chr1", 1001, 1.0, 0.4, true);
+        appendReadRatio(rawRatios, "chr1", 2001, -1.0, 0.9, true);
+        appendReadRatio(rawRatios, "chr1", 3001, 2.0, 0.5, true);
+        appendReadRatio(rawRatios, "chr1", 5001, 3.0, 0.6, true);
+        appendReadRatio(rawRatios, "chr1", 9001, 1.0, 0.6, true);
+        appendReadRatio(rawRatios, "chr1", 10001, 4.0, 0.4, true);
+        appendReadRatio(rawRatios, "chrX", 1001, 2.0, 0.4, false);
+        appendReadRatio(rawRatios, "chrX", 2001, 4.0, 0.5, false);
+
+        chromosomePosCodec.addEncodedChrPosColumn(rawRatios, false);
+
+        Multimap<String,LowCovBucket> buckets = ArrayListMultimap.create();
+        buckets.put("chr1", new LowCovBucket(1001, 5001, 3001));
+        buckets.put("chr1", new LowCovBucket(6001, 20001, 13001));
+        buckets.put("chrX", new LowCovBucket(1001, 3001, 2001));
+
+        Table lowCovRatios = new LowCoverageRatioMapper(buckets, chromosomePosCodec).mapRatios(rawRatios);
+
+        assertEquals(3, lowCovRatios.rowCount());
+
+        assertLowCovRatio(lowCovRatios.row(0), chromosomePosCodec, "chr1", 3001, 2.0, 0.5, true);
+        assertLowCovRatio(lowCovRatios.row(1), chromosomePosCodec, "chr1", 13001, 2.5, 0.5, true);
+        assertLowCovRatio(lowCovRatios.row(2), chromosomePosCodec, "chrX", 2001, 3.0, 0.45, false);
+    }
+
+    private static void assertLowCovRatio(
+            final Row row, final ChromosomePositionCodec chromosomePosCodec, final String chromosome, int position, double ratio,
+            double gcContent, boolean isAutosome)
+    {
+        assertEquals(chromosome, row.getString(CobaltColumns.CHROMOSOME));
+        assertEquals(position, row.getInt(CobaltColumns.POSITION));
+        assertEquals(ratio, row.getDouble(CobaltColumns.RATIO), 1e-10);
+        assertEquals(gcContent, row.getDouble(CobaltColumns.GC_CONTENT), 1e-10);
+        assertTrue(row.getBoolean(CobaltColumns.IS_MAPPABLE));
+        assertEquals(isAutosome, row.getBoolean(CobaltColumns.IS_AUTOSOME));
+
+        long encodedChrPos = row.getLong(CobaltColumns.ENCODED_CHROMOSOME_POS);
+        assertEquals(chromosome, chromosomePosCodec.decodeChromosome(encodedChrPos));
+        assertEquals(position, chromosomePosCodec.decodePosition(encodedChrPos));
+    }
+
+    private static void appendReadRatio(
+            final Table table, final String chromosome, int position, double ratio, double gcContent, boolean isAutosome)
+    {
+        Row row = table.appendRow();
+        row.setString(CobaltColumns.CHROMOSOME, chromosome);
+        row.setInt(CobaltColumns.POSITION, position);
+        row.setDouble(CobaltColumns.RATIO, ratio);
+        row.setDouble(CobaltColumns.GC_CONTENT, gcContent);
+        row.setBoolean(CobaltColumns.IS_AUTOSOME, isAutosome);
+    }
+
     @SuppressWarnings("SameParameterValue")
     private static void appendReadRatio(Table table, String chromosome, int position, double ratio)
     {
@@ -2,6 +2,11 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -50,6 +55,37 @@ public class RollingMedianTest
         assertMedian(5.5);
     }
 
+    @Test
+    public void testRollingWindow()
+    {
+        // compare against a sorted copy of the window, including duplicate values and removals of absent values
+        Random random = new Random(0);
+        List<Double> window = new ArrayList<>();
+
+        for(int i = 0; i < 5000; ++i)
+        {
+            double value = random.nextInt(200) / 10.0;
+            victim.add(value);
+            window.add(value);
+
+            if(window.size() > 101)
+            {
+                double removed = window.remove(random.nextInt(window.size()));
+                victim.remove(removed);
+            }
+
+            victim.remove(-1.0);
+
+            List<Double> sorted = new ArrayList<>(window);
+            Collections.sort(sorted);
+            int middle = sorted.size() / 2;
+            double expected = sorted.size() % 2 == 0 ? (sorted.get(middle - 1) + sorted.get(middle)) / 2 : sorted.get(middle);
+
+            assertEquals(window.size(), victim.size());
+            assertMedian(expected);
+        }
+    }
+
     private void assertMedian(double expected)
     {
         assertEquals(expected, victim.median(), EPSILON);
@@ -78,6 +78,8 @@ public class AssemblyApplication
         mPerfCounters = Lists.newArrayList();
     }
 
+    public List<PerformanceCounter> perfCounters() { return mPerfCounters; }
+
     public boolean loadJunctionFiles()
     {
         if(!mConfig.SpecificJunctions.isEmpty())
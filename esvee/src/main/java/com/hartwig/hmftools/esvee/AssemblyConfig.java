@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.esvee;
 
+import static java.lang.Math.max;
+
 import static com.hartwig.hmftools.common.bam.BamToolName.BAMTOOL_PATH;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.REF_GENOME;
 import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource.addRefGenomeConfig;
@@ -28,6 +30,7 @@ import static com.hartwig.hmftools.common.utils.file.FileDelimiters.ITEM_DELIM;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_ID;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
+import static com.hartwig.hmftools.esvee.AssemblyConstants.DEFAULT_ALIGNMENT_BATCH_SIZE;
 import static com.hartwig.hmftools.esvee.AssemblyConstants.DEFAULT_ASSEMBLY_REF_BASE_WRITE_MAX;
 import static com.hartwig.hmftools.esvee.alignment.BwaAligner.loadAlignerLibrary;
 import static com.hartwig.hmftools.esvee.assembly.output.WriteType.ALIGNMENT_DATA;
@@ -53,6 +56,7 @@ import com.hartwig.hmftools.common.genome.refgenome.RefGenomeCoordinates;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.region.SpecificRegions;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.esvee.alignment.AlignmentCache;
 import com.hartwig.hmftools.esvee.assembly.types.Junction;
@@ -89,6 +93,7 @@ public class AssemblyConfig
 
     public final boolean ProcessDiscordant;
     public final boolean RunAlignment;
+    public final int AlignmentBatchSize;
 
     public final String OutputDir;
     public final String OutputId;
@@ -122,6 +127,7 @@ public class AssemblyConfig
 
     private static final String PROCESS_DISCORDANT = "discordant_pairs";
     private static final String RUN_ALIGNMENT = "run_alignment";
+    private static final String ALIGNMENT_BATCH_SIZE = "align_batch_size";
 
     private static final String PHASE_PROCESSING_LIMIT = "phase_process_limit";
     private static final String LOG_PHASE_GROUP_LINKS = "phase_group_links";
@@ -198,6 +204,8 @@ public class AssemblyConfig
         RunAlignment = configBuilder.hasFlag(RUN_ALIGNMENT) || AlignmentFile != null
                 || WriteTypes.contains(BREAKEND) ||  WriteTypes.contains(ALIGNMENT_DATA);
 
+        AlignmentBatchSize = max(configBuilder.getInteger(ALIGNMENT_BATCH_SIZE), 1);
+
         String bwaLibPath = configBuilder.getValue(BWA_LIB_PATH);
 
         if(RunAlignment || DecoyGenome != null)
@@ -304,6 +312,8 @@ public class AssemblyConfig
 
         configBuilder.addFlag(PROCESS_DISCORDANT, "Proces discordant-only groups");
         configBuilder.addFlag(RUN_ALIGNMENT, "Run assembly alignment");
+        configBuilder.addInteger(
+                ALIGNMENT_BATCH_SIZE, "Number of assemblies aligned per BWA call by each thread", DEFAULT_ALIGNMENT_BATCH_SIZE);
         configBuilder.addPath(BWA_LIB_PATH, false, "Path to BWA library");
 
         String writeTypes = Arrays.stream(WriteType.values()).map(x -> x.toString()).collect(Collectors.joining(ITEM_DELIM));
@@ -315,6 +325,7 @@ public class AssemblyConfig
                 "Specific junctions: format: Chromosome:Position:Orientation:Type (I, D or none), separated by ';'");
 
         configBuilder.addFlag(PERF_DEBUG, PERF_DEBUG_DESC);
+        MetricsRegistry.registerConfig(configBuilder);
         configBuilder.addDecimal(PERF_LOG_TIME, "Log performance data for routine exceeding specified time (0 = disabled)", 0);
         configBuilder.addFlag(LOG_PHASE_GROUP_LINKS, "Log assembly links to build phase groups");
 
@@ -358,6 +369,7 @@ public class AssemblyConfig
 
         ProcessDiscordant = true;
         RunAlignment = true;
+        AlignmentBatchSize = DEFAULT_ALIGNMENT_BATCH_SIZE;
 
         BamStringency = ValidationStringency.SILENT;
 
@@ -60,6 +60,7 @@ public final class AssemblyConstants
     // alignment
     public static final int ALIGNMENT_MIN_SOFT_CLIP = 30;
     public static final int ALIGNMENT_MIN_MOD_MAP_QUAL = 3;
+    public static final int DEFAULT_ALIGNMENT_BATCH_SIZE = 1; // sequences passed to BWA per call, 1 = unbatched
 
     public static final int SHORT_DEL_DUP_INS_LENGTH = 1000;
 }
@@ -6,20 +6,24 @@ import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsSt
 import static com.hartwig.hmftools.esvee.AssemblyConfig.SV_LOGGER;
 import static com.hartwig.hmftools.esvee.common.FileCommon.APP_NAME;
 
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
 public class EsveeApplication
 {
     private final AssemblyConfig mConfig;
+    private final MetricsRegistry mMetrics;
 
     public EsveeApplication(final ConfigBuilder configBuilder)
     {
         mConfig = new AssemblyConfig(configBuilder);
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME, configBuilder);
     }
 
     public void run()
     {
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
 
         SV_LOGGER.info("writing to output directory({}){}",
                 mConfig.OutputDir, mConfig.OutputId != null ? format(" outputId(%s)", mConfig.OutputId) : "");
@@ -35,6 +39,9 @@ public class EsveeApplication
         junctionProcessor.run();
         junctionProcessor.close();
 
+        mMetrics.registerTimers(junctionProcessor.perfCounters());
+        mMetrics.writeMetrics(mConfig.OutputDir, mConfig.sampleId());
+
         SV_LOGGER.info("Esvee complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
@@ -2,9 +2,19 @@ package com.hartwig.hmftools.esvee.alignment;
 
 import java.util.List;
 
+import com.google.common.collect.Lists;
+
 import org.broadinstitute.hellbender.utils.bwa.BwaMemAlignment;
 
 public interface Aligner
 {
     List<BwaMemAlignment> alignSequence(final byte[] bases);
+
+    // aligns multiple sequences in a single call, returning an alignment set per sequence in the same order
+    default List<List<BwaMemAlignment>> alignSequences(final List<byte[]> sequences)
+    {
+        List<List<BwaMemAlignment>> alignmentSets = Lists.newArrayListWithCapacity(sequences.size());
+        sequences.forEach(x -> alignmentSets.add(alignSequence(x)));
+        return alignmentSets;
+    }
 }
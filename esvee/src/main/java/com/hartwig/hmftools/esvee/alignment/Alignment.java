@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.esvee.alignment;
 
 import static java.lang.Math.min;
+import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.utils.TaskExecutor.runThreadTasks;
 import static com.hartwig.hmftools.esvee.AssemblyConfig.SV_LOGGER;
@@ -9,12 +10,13 @@ import static com.hartwig.hmftools.esvee.assembly.types.ThreadTask.mergePerfCoun
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.esvee.AssemblyConfig;
 import com.hartwig.hmftools.esvee.assembly.output.AlignmentWriter;
@@ -89,58 +91,198 @@ public class Alignment
 
         SV_LOGGER.debug("requeried supp alignments({})", alignerTasks.stream().mapToInt(x -> x.requeriedSuppCount()).sum());
 
+        logBatchStats(alignerTasks);
+
         SV_LOGGER.info("alignment complete");
 
         mergePerfCounters(perfCounters, alignerTasks.stream().collect(Collectors.toList()));
     }
 
+    private void logBatchStats(final List<AssemblerAlignerTask> alignerTasks)
+    {
+        PerformanceCounter batchPerfCounter = new PerformanceCounter("AlignmentBatch");
+        alignerTasks.forEach(x -> batchPerfCounter.merge(x.batchPerfCounter()));
+
+        int batchCount = batchPerfCounter.getIntervalCount();
+
+        if(batchCount == 0)
+            return;
+
+        int sequenceCount = alignerTasks.stream().mapToInt(x -> x.alignedSequenceCount()).sum();
+        double totalTime = batchPerfCounter.getTotalTime();
+
+        // throughput is per aligner thread, since batch times are summed across threads
+        SV_LOGGER.debug(format("alignment batchSize(%d) batches(%d) sequences(%d) avgSeqsPerBatch(%.1f) time(total=%.1f avg=%.4f max=%.3f) threadSeqsPerSec(%.0f)",
+                mConfig.AlignmentBatchSize, batchCount, sequenceCount, sequenceCount / (double)batchCount,
+                totalTime, batchPerfCounter.getAvgTime(), batchPerfCounter.getMaxTime(),
+                totalTime > 0 ? sequenceCount / totalTime : 0));
+    }
+
+    // the alignments for each assembly in a batch, in batch order, with any supplementaries replaced by their re-queried alignments
+    static class BatchAlignments
+    {
+        public final List<List<AlignData>> Alignments;
+        public final List<List<AlignData>> RequeriedAlignments; // the supplementaries which were replaced
+        public final int RequeryCount;
+
+        public BatchAlignments(final List<List<AlignData>> alignments, final List<List<AlignData>> requeriedAlignments, int requeryCount)
+        {
+            Alignments = alignments;
+            RequeriedAlignments = requeriedAlignments;
+            RequeryCount = requeryCount;
+        }
+    }
+
+    static BatchAlignments alignBatch(
+            final List<AssemblyAlignment> assemblyAlignments, final Function<List<byte[]>,List<List<BwaMemAlignment>>> aligner,
+            final RefGenomeVersion refGenVersion)
+    {
+        // align all full sequences in one call
+        List<byte[]> sequences = assemblyAlignments.stream().map(x -> x.fullSequence().getBytes()).collect(Collectors.toList());
+        List<List<BwaMemAlignment>> bwaAlignmentSets = aligner.apply(sequences);
+
+        List<List<AlignData>> batchAlignments = Lists.newArrayListWithCapacity(assemblyAlignments.size());
+        bwaAlignmentSets.forEach(x -> batchAlignments.add(convertAlignments(x, refGenVersion)));
+
+        // gather supplementaries across the batch and re-align them together
+        List<SupplementaryRequery> requeries = Lists.newArrayList();
+
+        for(int i = 0; i < assemblyAlignments.size(); ++i)
+        {
+            AssemblyAlignment assemblyAlignment = assemblyAlignments.get(i);
+
+            for(AlignData alignData : batchAlignments.get(i))
+            {
+                if(alignData.isSupplementary())
+                    requeries.add(new SupplementaryRequery(assemblyAlignment, alignData));
+            }
+        }
+
+        if(!requeries.isEmpty())
+        {
+            List<List<BwaMemAlignment>> requeryAlignmentSets = aligner.apply(
+                    requeries.stream().map(x -> x.AlignmentSequence.getBytes()).collect(Collectors.toList()));
+
+            for(int i = 0; i < requeries.size(); ++i)
+            {
+                requeries.get(i).setRequeryAlignments(convertAlignments(requeryAlignmentSets.get(i), refGenVersion));
+            }
+        }
+
+        List<List<AlignData>> alignments = Lists.newArrayListWithCapacity(assemblyAlignments.size());
+        List<List<AlignData>> requeriedAlignments = Lists.newArrayListWithCapacity(assemblyAlignments.size());
+        int requeryIndex = 0;
+
+        for(int i = 0; i < assemblyAlignments.size(); ++i)
+        {
+            List<AlignData> assemblyAlignmentData = batchAlignments.get(i);
+
+            if(assemblyAlignmentData.stream().noneMatch(x -> x.isSupplementary()))
+            {
+                alignments.add(assemblyAlignmentData);
+                requeriedAlignments.add(Collections.emptyList());
+                continue;
+            }
+
+            // substitute each supplementary with its re-queried alignments, in the original order
+            List<AlignData> newAlignments = Lists.newArrayList();
+            List<AlignData> replacedAlignments = Lists.newArrayList();
+
+            for(AlignData alignData : assemblyAlignmentData)
+            {
+                if(!alignData.isSupplementary())
+                {
+                    newAlignments.add(alignData);
+                    continue;
+                }
+
+                SupplementaryRequery requery = requeries.get(requeryIndex++);
+                replacedAlignments.add(alignData);
+                newAlignments.addAll(requery.convertedAlignments());
+            }
+
+            alignments.add(newAlignments);
+            requeriedAlignments.add(replacedAlignments);
+        }
+
+        return new BatchAlignments(alignments, requeriedAlignments, requeries.size());
+    }
+
+    private static List<AlignData> convertAlignments(final List<BwaMemAlignment> bwaAlignments, final RefGenomeVersion refGenVersion)
+    {
+        return bwaAlignments.stream()
+                .map(x -> AlignData.from(x, refGenVersion))
+                .filter(x -> x != null).collect(Collectors.toList());
+    }
+
     private class AssemblerAlignerTask extends ThreadTask
     {
         private final Queue<AssemblyAlignment> mAssemblyAlignments;
         private final int mAssemblyAlignmentCount;
+        private final int mBatchSize;
         private int mRequeriedSuppCount;
 
+        // per-batch BWA call timings and sequence counts, used to tune the batch size
+        private final PerformanceCounter mBatchPerfCounter;
+        private int mAlignedSequenceCount;
+
         public AssemblerAlignerTask(final Queue<AssemblyAlignment> assemblyAlignments)
         {
             super("AssemblerAlignment");
             mAssemblyAlignments = assemblyAlignments;
             mAssemblyAlignmentCount = assemblyAlignments.size();
+            mBatchSize = mConfig.AlignmentBatchSize;
             mRequeriedSuppCount = 0;
+            mBatchPerfCounter = new PerformanceCounter("AlignmentBatch");
+            mAlignedSequenceCount = 0;
         }
 
         private static final int LOG_COUNT = 10000;
 
         public int requeriedSuppCount() { return mRequeriedSuppCount; }
+        public PerformanceCounter batchPerfCounter() { return mBatchPerfCounter; }
+        public int alignedSequenceCount() { return mAlignedSequenceCount; }
 
         @Override
         public void run()
         {
+            List<AssemblyAlignment> batch = Lists.newArrayListWithCapacity(mBatchSize);
+
             while(true)
             {
                 try
                 {
-                    int remainingCount = mAssemblyAlignments.size();
-                    int processedCount = mAssemblyAlignmentCount - remainingCount;
+                    batch.clear();
 
-                    mPerfCounter.start();
+                    while(batch.size() < mBatchSize)
+                    {
+                        AssemblyAlignment assemblyAlignment = mAssemblyAlignments.poll();
+
+                        if(assemblyAlignment == null)
+                            break;
+
+                        batch.add(assemblyAlignment);
+                    }
 
-                    ++processedCount;
+                    if(batch.isEmpty())
+                    {
+                        SV_LOGGER.trace("all alignment tasks complete");
+                        break;
+                    }
 
-                    AssemblyAlignment assemblyAlignment = mAssemblyAlignments.remove();
+                    int processedCount = mAssemblyAlignmentCount - mAssemblyAlignments.size();
 
-                    processAssembly(assemblyAlignment);
+                    mPerfCounter.start();
 
-                    if((processedCount % LOG_COUNT) == 0)
+                    processBatch(batch);
+
+                    if(processedCount / LOG_COUNT > (processedCount - batch.size()) / LOG_COUNT)
                     {
                         SV_LOGGER.debug("processed {} assembly alignments", processedCount);
                     }
 
-                    stopCheckLog(assemblyAlignment.info(), mConfig.PerfLogTime);
-                }
-                catch(NoSuchElementException e)
-                {
-                    SV_LOGGER.trace("all alignment tasks complete");
-                    break;
+                    stopCheckLog(batch.size() == 1 ? batch.get(0).info() : format("batch(%d) first(%s)",
+                            batch.size(), batch.get(0).info()), mConfig.PerfLogTime);
                 }
                 catch(Exception e)
                 {
@@ -150,28 +292,42 @@ public class Alignment
             }
         }
 
-        private void processAssembly(final AssemblyAlignment assemblyAlignment)
+        private List<List<BwaMemAlignment>> alignSequences(final List<byte[]> sequences)
         {
-            List<AlignData> alignments;
-            List<AlignData> requeriedAlignments;
+            mBatchPerfCounter.start();
+            List<List<BwaMemAlignment>> alignmentSets = mAligner.alignSequences(sequences);
+            mBatchPerfCounter.stop();
 
+            mAlignedSequenceCount += sequences.size();
+            return alignmentSets;
+        }
+
+        private void processBatch(final List<AssemblyAlignment> assemblyAlignments)
+        {
             if(mAlignmentCache.enabled())
             {
-                alignments = mAlignmentCache.findAssemblyAlignments(assemblyAlignment.info());
-                requeriedAlignments = Collections.emptyList();
+                for(AssemblyAlignment assemblyAlignment : assemblyAlignments)
+                {
+                    List<AlignData> alignments = mAlignmentCache.findAssemblyAlignments(assemblyAlignment.info());
+                    processAssembly(assemblyAlignment, alignments, Collections.emptyList());
+                }
+
+                return;
             }
-            else
-            {
-                List<BwaMemAlignment> bwaAlignments = mAligner.alignSequence(assemblyAlignment.fullSequence().getBytes());
 
-                alignments = bwaAlignments.stream()
-                        .map(x -> AlignData.from(x, mConfig.RefGenVersion))
-                        .filter(x -> x != null).collect(Collectors.toList());
+            BatchAlignments batchAlignments = alignBatch(assemblyAlignments, this::alignSequences, mConfig.RefGenVersion);
 
-                requeriedAlignments = Lists.newArrayList();
-                alignments = requerySupplementaryAlignments(assemblyAlignment, alignments, requeriedAlignments);
+            mRequeriedSuppCount += batchAlignments.RequeryCount;
+
+            for(int i = 0; i < assemblyAlignments.size(); ++i)
+            {
+                processAssembly(assemblyAlignments.get(i), batchAlignments.Alignments.get(i), batchAlignments.RequeriedAlignments.get(i));
             }
+        }
 
+        private void processAssembly(
+                final AssemblyAlignment assemblyAlignment, final List<AlignData> alignments, final List<AlignData> requeriedAlignments)
+        {
             processAlignmentResults(assemblyAlignment, alignments);
 
             AlignmentFragments alignmentFragments = new AlignmentFragments(assemblyAlignment, mConfig.combinedSampleIds());
@@ -198,76 +354,6 @@ public class Alignment
             }
         }
 
-        private List<AlignData> requerySupplementaryAlignments(
-                final AssemblyAlignment assemblyAlignment, final List<AlignData> alignments, final List<AlignData> requeriedAlignments)
-        {
-            // re-alignment supplementaries to get a more reliable map quality
-            if(alignments.stream().noneMatch(x -> x.isSupplementary()))
-                return alignments;
-
-            List<AlignData> newAlignments = Lists.newArrayList();
-
-            for(AlignData alignData : alignments)
-            {
-                if(!alignData.isSupplementary())
-                {
-                    newAlignments.add(alignData);
-                    continue;
-                }
-
-                requeriedAlignments.add(alignData);
-                newAlignments.addAll(requeryAlignment(assemblyAlignment, alignData));
-            }
-
-            return newAlignments;
-        }
-
-        private List<AlignData> requeryAlignment(final AssemblyAlignment assemblyAlignment, final AlignData alignData)
-        {
-            ++mRequeriedSuppCount;
-
-            String fullSequence = assemblyAlignment.fullSequence();
-
-            alignData.setFullSequenceData(fullSequence, assemblyAlignment.fullSequenceLength());
-
-            String alignmentSequence = fullSequence.substring(alignData.sequenceStart(), alignData.sequenceEnd() + 1);
-
-            List<BwaMemAlignment> requeryBwaAlignments = mAligner.alignSequence(alignmentSequence.getBytes());
-
-            List<AlignData> requeryAlignments = requeryBwaAlignments.stream()
-                    .map(x -> AlignData.from(x, mConfig.RefGenVersion))
-                    .filter(x -> x != null).collect(Collectors.toList());
-
-            List<AlignData> convertedAlignments = Lists.newArrayList();
-
-            for(AlignData rqAlignment : requeryAlignments)
-            {
-                rqAlignment.setFullSequenceData(alignmentSequence, alignmentSequence.length());
-
-                // eg:
-                // alignData = {AlignData@3240} "10:2543491-2543563 72S73M fwd seq(72-145 adj=72-144) score(58) flags(2048) mapQual(55 align=73 adj=73)"
-                // rqAlignment = {AlignData@3246} "10:2543809-2543878 3S70M fwd seq(3-73 adj=3-72) score(65) flags(0) mapQual(17 align=70 adj=70)"
-
-                AlignData convertedAlignment = new AlignData(
-                        rqAlignment.RefLocation,
-                        rqAlignment.rawSequenceStart(),
-                        rqAlignment.rawSequenceEnd(),
-                        rqAlignment.MapQual, rqAlignment.Score, rqAlignment.Flags, rqAlignment.Cigar, rqAlignment.NMatches,
-                        rqAlignment.XaTag, rqAlignment.MdTag);
-
-                // restore values to be in terms of the original sequence
-                int rqSeqOffsetStart = rqAlignment.sequenceStart();
-                int adjSequenceStart = alignData.sequenceStart() + rqSeqOffsetStart;
-                int rqSeqOffsetEnd = alignmentSequence.length() - 1 - rqAlignment.sequenceEnd();
-                int adjSequenceEnd = alignData.sequenceEnd() - rqSeqOffsetEnd;
-                convertedAlignment.setRequeriedSequenceCoords(adjSequenceStart, adjSequenceEnd);
-
-                convertedAlignments.add(convertedAlignment);
-            }
-
-            return convertedAlignments;
-        }
-
         private void processAlignmentResults(final AssemblyAlignment assemblyAlignment, final List<AlignData> alignments)
         {
             BreakendBuilder breakendBuilder = new BreakendBuilder(mConfig.RefGenome, assemblyAlignment);
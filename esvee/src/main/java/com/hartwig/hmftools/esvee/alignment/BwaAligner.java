@@ -8,6 +8,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.broadinstitute.hellbender.utils.bwa.BwaMemAligner;
 import org.broadinstitute.hellbender.utils.bwa.BwaMemAlignment;
@@ -108,4 +109,13 @@ public class BwaAligner implements Aligner
 
         return alignmentSet;
     }
+
+    @Override
+    public List<List<BwaMemAlignment>> alignSequences(final List<byte[]> sequences)
+    {
+        if(mAligner == null)
+            return sequences.stream().map(x -> Collections.<BwaMemAlignment>emptyList()).collect(Collectors.toList());
+
+        return mAligner.alignSeqs(sequences);
+    }
 }
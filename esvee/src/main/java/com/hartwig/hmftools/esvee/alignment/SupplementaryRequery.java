@@ -0,0 +1,61 @@
+package com.hartwig.hmftools.esvee.alignment;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+class SupplementaryRequery
+{
+    public final AssemblyAlignment Assembly;
+    public final AlignData Supplementary;
+    public final String AlignmentSequence; // the portion of the full sequence covered by the supplementary
+
+    private List<AlignData> mRequeryAlignments;
+
+    public SupplementaryRequery(final AssemblyAlignment assemblyAlignment, final AlignData supplementary)
+    {
+        Assembly = assemblyAlignment;
+        Supplementary = supplementary;
+
+        String fullSequence = assemblyAlignment.fullSequence();
+        supplementary.setFullSequenceData(fullSequence, assemblyAlignment.fullSequenceLength());
+
+        AlignmentSequence = fullSequence.substring(supplementary.sequenceStart(), supplementary.sequenceEnd() + 1);
+        mRequeryAlignments = Collections.emptyList();
+    }
+
+    public void setRequeryAlignments(final List<AlignData> alignments) { mRequeryAlignments = alignments; }
+
+    public List<AlignData> convertedAlignments()
+    {
+        List<AlignData> convertedAlignments = Lists.newArrayList();
+
+        for(AlignData rqAlignment : mRequeryAlignments)
+        {
+            rqAlignment.setFullSequenceData(AlignmentSequence, AlignmentSequence.length());
+
+            // eg:
+            // alignData = {AlignData@3240} "10:2543491-2543563 72S73M fwd seq(72-145 adj=72-144) score(58) flags(2048) mapQual(55 align=73 adj=73)"
+            // rqAlignment = {AlignData@3246} "10:2543809-2543878 3S70M fwd seq(3-73 adj=3-72) score(65) flags(0) mapQual(17 align=70 adj=70)"
+
+            AlignData convertedAlignment = new AlignData(
+                    rqAlignment.RefLocation,
+                    rqAlignment.rawSequenceStart(),
+                    rqAlignment.rawSequenceEnd(),
+                    rqAlignment.MapQual, rqAlignment.Score, rqAlignment.Flags, rqAlignment.Cigar, rqAlignment.NMatches,
+                    rqAlignment.XaTag, rqAlignment.MdTag);
+
+            // restore values to be in terms of the original sequence
+            int rqSeqOffsetStart = rqAlignment.sequenceStart();
+            int adjSequenceStart = Supplementary.sequenceStart() + rqSeqOffsetStart;
+            int rqSeqOffsetEnd = AlignmentSequence.length() - 1 - rqAlignment.sequenceEnd();
+            int adjSequenceEnd = Supplementary.sequenceEnd() - rqSeqOffsetEnd;
+            convertedAlignment.setRequeriedSequenceCoords(adjSequenceStart, adjSequenceEnd);
+
+            convertedAlignments.add(convertedAlignment);
+        }
+
+        return convertedAlignments;
+    }
+}
@@ -13,6 +13,7 @@ import static com.hartwig.hmftools.esvee.assembly.AssemblyUtils.isLocalAssemblyC
 import static com.hartwig.hmftools.esvee.assembly.RefBaseExtender.checkAddRefBaseRead;
 import static com.hartwig.hmftools.esvee.assembly.phase.RemoteRegionAssembler.assemblyOverlapsRemoteRegion;
 import static com.hartwig.hmftools.esvee.assembly.read.Read.findMatchingFragmentSupport;
+import static com.hartwig.hmftools.esvee.assembly.read.ReadUtils.isDiscordantFragment;
 import static com.hartwig.hmftools.esvee.assembly.types.AssemblyOutcome.DUP_BRANCHED;
 import static com.hartwig.hmftools.esvee.assembly.types.AssemblyOutcome.LINKED;
 import static com.hartwig.hmftools.esvee.assembly.RefBaseExtender.extendRefBases;
@@ -48,7 +49,6 @@ import com.hartwig.hmftools.esvee.assembly.types.LinkType;
 import com.hartwig.hmftools.esvee.assembly.types.PhaseGroup;
 import com.hartwig.hmftools.esvee.assembly.types.PhaseSet;
 import com.hartwig.hmftools.esvee.assembly.types.RemoteRegion;
-import com.hartwig.hmftools.esvee.common.CommonUtils;
 
 public class PhaseSetBuilder
 {
@@ -459,13 +459,11 @@ public class PhaseSetBuilder
             {
                 refCandidates1.add(read);
 
-                hasNonLocalRefFragment |= CommonUtils.isDiscordantFragment(
-                        read.bamRecord(), -1, read.supplementaryData());
+                hasNonLocalRefFragment |= isDiscordantFragment(read, -1);
             }
             else
             {
-                hasNonLocalTumorFragment |= CommonUtils.isDiscordantFragment(
-                        read.bamRecord(), -1, read.supplementaryData());
+                hasNonLocalTumorFragment |= isDiscordantFragment(read, -1);
             }
         }
 
@@ -6,7 +6,11 @@ import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.bam.CigarUtils.cigarElementsFromStr;
 import static com.hartwig.hmftools.common.bam.CigarUtils.cigarStringFromElements;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.MATE_CIGAR_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.NO_CIGAR;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.NO_POSITION;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.NUM_MUTATONS_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.SUPPLEMENTARY_ATTRIBUTE;
 import static com.hartwig.hmftools.common.bam.SamRecordUtils.getMateAlignmentEnd;
 import static com.hartwig.hmftools.common.bam.SupplementaryReadData.extractAlignment;
 import static com.hartwig.hmftools.common.genome.region.Orientation.FORWARD;
@@ -30,11 +34,27 @@ import com.hartwig.hmftools.common.genome.region.Orientation;
 import com.hartwig.hmftools.esvee.common.IndelCoords;
 
 import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFlag;
 import htsjdk.samtools.SAMRecord;
 
 public class Read
 {
-    private final SAMRecord mRecord;
+    // the BAM record is decoded once into these fields and not retained, since a decoded record keeps its raw BAM data alongside its
+    // decoded bases and qualities - a SAMRecord is only rebuilt when the read is written out
+    private final SAMFileHeader mHeader;
+    private final String mReadId;
+    private final String mChromosome;
+    private final int mFlags;
+    private final int mOrigAlignmentStart;
+    private final int mMappingQuality;
+    private final String mMateChromosome;
+    private final int mMateAlignmentStart;
+    private final int mInsertSize;
+    private final byte[] mOrigBases;
+    private final byte[] mOrigBaseQuals;
+    private final List<SAMRecord.SAMTagAndValue> mAttributes; // the only copy of the tags, which are looked up when first needed
+    private final int mSampleIndex;
 
     // cached state and adjusted properties of the read
     private final String mOrigCigarString;
@@ -70,17 +90,31 @@ public class Read
 
     public Read(final SAMRecord record)
     {
-        mRecord = record;
+        mHeader = record.getHeader();
+        mReadId = record.getReadName();
+        mChromosome = record.getReferenceName();
+        mFlags = record.getFlags();
+        mOrigAlignmentStart = record.getAlignmentStart();
+        mMappingQuality = record.getMappingQuality();
+        mMateChromosome = record.getMateReferenceName();
+        mMateAlignmentStart = record.getMateAlignmentStart();
+        mInsertSize = record.getInferredInsertSize();
+        mOrigBases = record.getReadBases();
+        mOrigBaseQuals = record.getBaseQualities();
+        mAttributes = record.getAttributes();
+
+        String sampleIndex = mHeader != null ? mHeader.getAttribute(BAM_HEADER_SAMPLE_INDEX_TAG) : null;
+        mSampleIndex = sampleIndex != null ? Integer.parseInt(sampleIndex) : 0;
 
         mOrigCigarString = record.getCigarString();
         mCigarString = null;
         mCigarElements = cigarElementsFromStr(mOrigCigarString);
 
-        setBoundaries(mRecord.getAlignmentStart());
+        setBoundaries(mOrigAlignmentStart);
         mSnvCount = null;
         mTotalIndelBases = null;
-        mBases = null;
-        mBaseQuals = null;
+        mBases = mOrigBases;
+        mBaseQuals = mOrigBaseQuals;
         mMateAlignmentEnd = null;
         mIsReference = false;
         mMateRead = null;
@@ -132,7 +166,42 @@ public class Read
         }
     }
 
-    public SAMRecord bamRecord() { return mRecord; }
+    // rebuilds the read as originally decoded, with a new record on each call
+    public SAMRecord bamRecord()
+    {
+        SAMRecord record = new SAMRecord(mHeader);
+        record.setReadName(mReadId);
+        record.setFlags(mFlags);
+        record.setReferenceName(mChromosome);
+        record.setAlignmentStart(mOrigAlignmentStart);
+        record.setMappingQuality(mMappingQuality);
+        record.setCigarString(mOrigCigarString);
+        record.setMateReferenceName(mMateChromosome);
+        record.setMateAlignmentStart(mMateAlignmentStart);
+        record.setInferredInsertSize(mInsertSize);
+        record.setReadBases(mOrigBases);
+        record.setBaseQualities(mOrigBaseQuals);
+
+        for(SAMRecord.SAMTagAndValue attribute : mAttributes)
+        {
+            record.setAttribute(attribute.tag, attribute.value);
+        }
+
+        return record;
+    }
+
+    private Object attribute(final String tag)
+    {
+        for(SAMRecord.SAMTagAndValue attribute : mAttributes)
+        {
+            if(attribute.tag.equals(tag))
+                return attribute.value;
+        }
+
+        return null;
+    }
+
+    private boolean hasFlag(final SAMFlag flag) { return (mFlags & flag.intValue()) != 0; }
 
     public void setMateRead(final Read mate)
     {
@@ -145,9 +214,9 @@ public class Read
     public boolean hasJunctionMate() { return mHasJunctionMate; }
     public void markJunctionMate() { mHasJunctionMate = true; }
 
-    public String id() { return mRecord.getReadName(); }
+    public String id() { return mReadId; }
 
-    public String chromosome() { return mRecord.getReferenceName(); }
+    public String chromosome() { return mChromosome; }
 
     public List<CigarElement> cigarElements() { return mCigarElements; }
     public String cigarString() { return mCigarString != null ? mCigarString : mOrigCigarString; }
@@ -167,25 +236,26 @@ public class Read
     public int leftClipLength() { return max(mAlignmentStart - mUnclippedStart, 0); } // no known need to use the indel-implied SC value
     public int rightClipLength() { return max(mUnclippedEnd - mAlignmentEnd, 0); }
 
-    public byte[] getBases() { return mBases != null ? mBases : mRecord.getReadBases(); }
-    public byte[] getBaseQuality() { return mBaseQuals != null ? mBaseQuals : mRecord.getBaseQualities(); }
-    public int basesLength() { return mBases != null ? mBases.length : mRecord.getReadBases().length; }
+    public byte[] getBases() { return mBases; }
+    public byte[] getBaseQuality() { return mBaseQuals; }
+    public int basesLength() { return mBases.length; }
 
     // flags
-    public int getFlags() { return mRecord.getFlags(); }
-    public boolean isUnmapped() { return mRecord.getReadUnmappedFlag(); }
-    public boolean isPairedRead() { return mRecord.getReadPairedFlag(); }
+    public int getFlags() { return mFlags; }
+    public boolean isUnmapped() { return hasFlag(SAMFlag.READ_UNMAPPED); }
+    public boolean isPairedRead() { return hasFlag(SAMFlag.READ_PAIRED); }
 
-    public boolean positiveStrand() { return !mRecord.getReadNegativeStrandFlag(); }
-    public boolean negativeStrand() { return mRecord.getReadNegativeStrandFlag(); }
-    public Orientation orientation() { return mRecord.getReadNegativeStrandFlag() ? REVERSE : FORWARD; }
+    public boolean positiveStrand() { return !hasFlag(SAMFlag.READ_REVERSE_STRAND); }
+    public boolean negativeStrand() { return hasFlag(SAMFlag.READ_REVERSE_STRAND); }
+    public Orientation orientation() { return negativeStrand() ? REVERSE : FORWARD; }
 
-    public boolean firstInPair() { return mRecord.getReadPairedFlag() && mRecord.getFirstOfPairFlag(); }
+    public boolean firstInPair() { return isPairedRead() && hasFlag(SAMFlag.FIRST_OF_PAIR); }
 
-    public int mappingQuality() { return mRecord.getMappingQuality(); }
+    public int mappingQuality() { return mMappingQuality; }
+    public int insertSize() { return mInsertSize; }
 
-    public String mateChromosome() { return isMateMapped() ? mRecord.getMateReferenceName() : null; }
-    public int mateAlignmentStart() { return mRecord.getMateAlignmentStart(); }
+    public String mateChromosome() { return isMateMapped() ? mMateChromosome : null; }
+    public int mateAlignmentStart() { return mMateAlignmentStart; }
 
     public int mateAlignmentEnd()
     {
@@ -198,26 +268,30 @@ public class Read
         if(mMateRead != null)
             return mMateRead.alignmentEnd();
 
-        mMateAlignmentEnd = getMateAlignmentEnd(mRecord);
+        String mateCigar = (String)attribute(MATE_CIGAR_ATTRIBUTE);
+
+        mMateAlignmentEnd = mateCigar != null && !mateCigar.equals(NO_CIGAR) ?
+                getMateAlignmentEnd(mMateAlignmentStart, mateCigar) : NO_POSITION;
+
         return mMateAlignmentEnd;
     }
 
-    public boolean isMateMapped() { return mRecord.getReadPairedFlag() && !mRecord.getMateUnmappedFlag(); }
-    public boolean isMateUnmapped() { return mRecord.getReadPairedFlag() && mRecord.getMateUnmappedFlag(); }
+    public boolean isMateMapped() { return isPairedRead() && !hasFlag(SAMFlag.MATE_UNMAPPED); }
+    public boolean isMateUnmapped() { return isPairedRead() && hasFlag(SAMFlag.MATE_UNMAPPED); }
 
     public Orientation mateOrientation()
     {
-        if(!mRecord.getReadPairedFlag())
+        if(!isPairedRead())
             return FORWARD;
 
-        return mRecord.getMateNegativeStrandFlag() ? REVERSE : FORWARD; }
+        return hasFlag(SAMFlag.MATE_REVERSE_STRAND) ? REVERSE : FORWARD; }
 
     public boolean hasSupplementary() { return supplementaryData() != null; }
-    public boolean isSupplementary() { return mRecord.getSupplementaryAlignmentFlag(); }
+    public boolean isSupplementary() { return hasFlag(SAMFlag.SUPPLEMENTARY_ALIGNMENT); }
 
     public void makeReadLinks(final Read other)
     {
-        if(mRecord.getSupplementaryAlignmentFlag() == other.bamRecord().getSupplementaryAlignmentFlag()
+        if(isSupplementary() == other.isSupplementary()
             && firstInPair() != other.firstInPair())
         {
             mMateRead = other;
@@ -230,7 +304,7 @@ public class Read
         if(!mSuppDataExtracted)
         {
             mSuppDataExtracted = true;
-            mSupplementaryData = extractAlignment(mRecord);
+            mSupplementaryData = extractAlignment((String)attribute(SUPPLEMENTARY_ATTRIBUTE));
         }
 
         return mSupplementaryData;
@@ -266,9 +340,9 @@ public class Read
 
     private void calcNumberOfEvents()
     {
-        Object numOfEvents = mRecord.getAttribute(NUM_MUTATONS_ATTRIBUTE);
+        Object numMutations = attribute(NUM_MUTATONS_ATTRIBUTE);
 
-        if(numOfEvents == null)
+        if(numMutations == null)
         {
             mTotalIndelBases = 0;
             mSnvCount = 0;
@@ -276,7 +350,7 @@ public class Read
         }
 
         mTotalIndelBases = mCigarElements.stream().filter(x -> x.getOperator().isIndel()).mapToInt(x -> x.getLength()).sum();
-        mSnvCount = max((int)numOfEvents - mTotalIndelBases, 0);
+        mSnvCount = max((Integer)numMutations - mTotalIndelBases, 0);
     }
 
     public IndelCoords indelCoords()
@@ -307,14 +381,10 @@ public class Read
     {
         return format("id(%s) coords(%s:%d-%d) cigar(%s) mate(%s:%d) flags(%d)",
                 id(), chromosome(), mAlignmentStart, mAlignmentEnd, cigarString(),
-                mateChromosome(), mateAlignmentStart(), mRecord.getFlags());
+                mateChromosome(), mateAlignmentStart(), mFlags);
     }
 
-    public int sampleIndex()
-    {
-        String sampleIndex = mRecord.getHeader().getAttribute(BAM_HEADER_SAMPLE_INDEX_TAG);
-        return sampleIndex != null ? Integer.parseInt(sampleIndex) : 0;
-    }
+    public int sampleIndex() { return mSampleIndex; }
 
     public boolean isReference() { return mIsReference; }
     public void markReference() { mIsReference = true; }
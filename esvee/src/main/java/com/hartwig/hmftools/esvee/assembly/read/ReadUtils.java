@@ -10,7 +10,21 @@ public final class ReadUtils
 {
     public static boolean isDiscordantFragment(final Read read)
     {
-        return CommonUtils.isDiscordantFragment(read.bamRecord(), DISCORDANT_FRAGMENT_LENGTH, read.supplementaryData());
+        return isDiscordantFragment(read, DISCORDANT_FRAGMENT_LENGTH);
+    }
+
+    public static boolean isDiscordantFragment(final Read read, final int fragmentLengthUpperBound)
+    {
+        if(read.isUnmapped() || !read.isPairedRead() || read.isMateUnmapped())
+            return false;
+
+        // supplementaries need to check their primary read chromosomes, not their own
+        String chromosome = read.isSupplementary() && read.supplementaryData() != null ?
+                read.supplementaryData().Chromosome : read.chromosome();
+
+        return CommonUtils.isDiscordantFragment(
+                chromosome, read.mateChromosome(), read.negativeStrand(), read.mateOrientation().isReverse(), read.insertSize(),
+                fragmentLengthUpperBound);
     }
 
     public static boolean isValidSupportCoordsVsJunction(final Read read, boolean isForwardJunction, int junctionPosition)
@@ -100,7 +100,7 @@ public class SupportRead
         mIsDiscordant = isDiscordantFragment(read);
         mSupplementaryData = read.supplementaryData();
         mBaseLength = read.basesLength();
-        mInsertSize = abs(read.bamRecord().getInferredInsertSize());
+        mInsertSize = abs(read.insertSize());
         mTrimCount = read.baseTrimCount();
         mMapQual = read.mappingQuality();
         mNumOfEvents = read.numOfEvents();
@@ -26,21 +26,26 @@ public final class CommonUtils
             return false;
 
         // supplementaries need to check their primary read chromosomes, not their own
-        if(read.getSupplementaryAlignmentFlag() && suppData != null)
-        {
-            if(!suppData.Chromosome.equals(read.getMateReferenceName()))
-                return true;
-        }
-        else if(!read.getReferenceName().equals(read.getMateReferenceName()))
-        {
+        String chromosome = read.getSupplementaryAlignmentFlag() && suppData != null ? suppData.Chromosome : read.getReferenceName();
+
+        return isDiscordantFragment(
+                chromosome, read.getMateReferenceName(), read.getReadNegativeStrandFlag(), read.getMateNegativeStrandFlag(),
+                read.getInferredInsertSize(), fragmentLengthUpperBound);
+    }
+
+    public static boolean isDiscordantFragment(
+            final String chromosome, final String mateChromosome, boolean negativeStrand, boolean mateNegativeStrand, int insertSize,
+            int fragmentLengthUpperBound)
+    {
+        // applies to a mapped read with a mapped mate
+        if(!chromosome.equals(mateChromosome))
             return true;
-        }
 
         // inversion
-        if(read.getReadNegativeStrandFlag() == read.getMateNegativeStrandFlag())
+        if(negativeStrand == mateNegativeStrand)
             return true;
 
-        int fragmentSize = abs(read.getInferredInsertSize());
+        int fragmentSize = abs(insertSize);
 
         return fragmentSize == 0 || (fragmentLengthUpperBound > 0 && fragmentSize >= fragmentLengthUpperBound);
     }
@@ -3,6 +3,7 @@ package com.hartwig.hmftools.esvee.prep;
 import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.lang.String.format;
 
 import static com.hartwig.hmftools.common.genome.region.Orientation.FORWARD;
 import static com.hartwig.hmftools.common.genome.region.Orientation.REVERSE;
@@ -77,6 +78,10 @@ public class JunctionTracker
     private final List<JunctionData> mJunctions; // ordered by position
     private int mLastJunctionIndex;
 
+    // junctions tested for read support versus the number a scan of all junctions per read would test
+    private long mJunctionChecks;
+    private long mFullScanJunctionChecks;
+
     private ReadIdTrimmer mReadIdTrimmer;
     private int mInitialSupportingFrags;
 
@@ -124,6 +129,8 @@ public class JunctionTracker
         mCandidateDiscordantGroups = Lists.newArrayList();
         mJunctions = Lists.newArrayList();
         mLastJunctionIndex = -1;
+        mJunctionChecks = 0;
+        mFullScanJunctionChecks = 0;
         mInitialSupportingFrags = 0;
         mReadIdTrimmer = new ReadIdTrimmer(mConfig.TrimReadId);
 
@@ -147,6 +154,8 @@ public class JunctionTracker
 
     public List<JunctionData> junctions() { return mJunctions; }
     public List<PerformanceCounter> perfCounters() { return mPerfCounters; }
+    public long junctionChecks() { return mJunctionChecks; }
+    public long fullScanJunctionChecks() { return mFullScanJunctionChecks; }
 
     public List<ReadGroup> formUniqueAssignedGroups()
     {
@@ -282,7 +291,7 @@ public class JunctionTracker
         // cannot early exit even if there are no junctions since could miss capture of any candidate support for remote junctions
         boolean hasJunctions = !mJunctions.isEmpty();
 
-        // order by first read's start position to assist with efficient junction look-up using the last junction index
+        // order by first read's start position so junctions are visited in order as reads are assigned
         if(hasJunctions)
             Collections.sort(candidateSupportGroups, new ReadGroup.ReadGroupComparator());
 
@@ -367,6 +376,13 @@ public class JunctionTracker
         }
 
         perfCounterStop(PerfCounters.JunctionSupport);
+
+        if(mConfig.PerfDebug && hasJunctions)
+        {
+            SV_LOGGER.debug("region({}) junctions({}) supportGroups({}) junctionChecks({} fullScan={}) time({})",
+                    mRegion, mJunctions.size(), candidateSupportGroups.size(), mJunctionChecks, mFullScanJunctionChecks,
+                    format("%.3f", mPerfCounters.get(PerfCounters.JunctionSupport.ordinal()).getLastTime()));
+        }
     }
 
     public void findDiscordantGroups()
@@ -536,15 +552,18 @@ public class JunctionTracker
         int readBoundsMin = min(read.start(), impliedUnclippedStart);
         int readBoundsMax = max(read.end(), impliedUnclippedEnd);
 
+        mFullScanJunctionChecks += mJunctions.size();
+
         // reads with a sufficiently long indel only need to cover a junction with any of their read bases, not the indel itself
-        for(JunctionData junctionData : mJunctions)
+        for(int index = firstJunctionIndex(min(readBoundsMin, readBoundsMax)); index < mJunctions.size(); ++index)
         {
-            if(min(readBoundsMin, readBoundsMax) > junctionData.Position)
-                continue;
+            JunctionData junctionData = mJunctions.get(index);
 
             if(junctionData.Position > max(readBoundsMin, readBoundsMax))
                 break;
 
+            ++mJunctionChecks;
+
             if(supportedJunctions.containsKey(junctionData))
                 continue;
 
@@ -597,7 +616,7 @@ public class JunctionTracker
                 return junctionData;
         }
 
-        int index = 0;
+        int index = firstJunctionIndex(junctionPosition);
 
         while(index < mJunctions.size())
         {
@@ -627,7 +646,7 @@ public class JunctionTracker
 
     private void addJunction(final JunctionData newJunction)
     {
-        int index = 0;
+        int index = firstJunctionIndex(newJunction.Position);
 
         while(index < mJunctions.size())
         {
@@ -656,46 +675,34 @@ public class JunctionTracker
 
         int maxSupportDistance = mConfig.UnpairedReads ? UNPAIRED_READ_JUNCTION_DISTANCE : mFilterConfig.maxSupportingFragmentDistance();
 
-        // first check the last index since the next read is likely to be close by
-        int closeJunctionIndex = -1;
+        mFullScanJunctionChecks += mJunctions.size();
 
-        if(mLastJunctionIndex >= 0)
-        {
-            JunctionData junctionData = mJunctions.get(mLastJunctionIndex);
-            if(readWithinJunctionRange(read, junctionData, maxSupportDistance))
-                closeJunctionIndex = mLastJunctionIndex;
-        }
+        // test only junctions within the support distance of either end of the read, found by binary search on position
+        // note: for reads longer than twice the support distance (eg all reads in unpaired mode) this tests junctions near both ends,
+        // whereas the previous search stopped at the first gap and so only tested junctions around one end
+        int lowerEndPosition = read.start() + maxSupportDistance;
+        int upperStartPosition = read.end() - maxSupportDistance;
+        int maxPosition = read.end() + maxSupportDistance;
 
-        if(closeJunctionIndex == -1)
-            closeJunctionIndex = findJunctionIndex(read, maxSupportDistance);
+        int index = firstJunctionIndex(read.start() - maxSupportDistance);
 
-        if(closeJunctionIndex < 0)
-            return;
-
-        setLastJunctionIndex(closeJunctionIndex);
-        checkReadSupportsJunction(readGroup, read, mJunctions.get(closeJunctionIndex), supportedJunctions);
-
-        // check up and down from this location
-        for(int i = 0; i <= 1; ++i)
+        while(index < mJunctions.size())
         {
-            boolean searchUp = (i == 0);
+            JunctionData junctionData = mJunctions.get(index);
 
-            int index = searchUp ? closeJunctionIndex + 1 : closeJunctionIndex - 1;
+            if(junctionData.Position > maxPosition)
+                break;
 
-            while(index >= 0 && index < mJunctions.size())
+            if(junctionData.Position > lowerEndPosition && junctionData.Position < upperStartPosition)
             {
-                JunctionData junctionData = mJunctions.get(index);
-
-                if(!readWithinJunctionRange(read, junctionData, maxSupportDistance))
-                    break;
-
-                checkReadSupportsJunction(readGroup, read, junctionData, supportedJunctions);
-
-                if(searchUp)
-                    ++index;
-                else
-                    --index;
+                // skip junctions in the middle of a read longer than twice the support distance
+                index = firstJunctionIndex(upperStartPosition);
+                continue;
             }
+
+            ++mJunctionChecks;
+            checkReadSupportsJunction(readGroup, read, junctionData, supportedJunctions);
+            ++index;
         }
     }
 
@@ -729,78 +736,23 @@ public class JunctionTracker
         mLastJunctionIndex = index;
     }
 
-    private int findJunctionIndex(final PrepRead read, int maxSupportDistance)
+    private int firstJunctionIndex(int position)
     {
-        if(mJunctions.size() <= 5)
-        {
-            for(int index = 0; index < mJunctions.size(); ++index)
-            {
-                if(readWithinJunctionRange(read, mJunctions.get(index), maxSupportDistance))
-                    return index;
-            }
-
-            return -1;
-        }
-
-        // binary search on junctions if the collection gets too large
-        int currentIndex = mJunctions.size() / 2;
+        // index of the first junction at or after the position, or the junction count if there is none
         int lowerIndex = 0;
-        int upperIndex = mJunctions.size() - 1;
-
-        int iterations = 0;
+        int upperIndex = mJunctions.size();
 
-        while(true)
+        while(lowerIndex < upperIndex)
         {
-            JunctionData junctionData = mJunctions.get(currentIndex);
+            int midIndex = (lowerIndex + upperIndex) >>> 1;
 
-            if(readWithinJunctionRange(read, junctionData, maxSupportDistance))
-                return currentIndex;
-
-            if(read.end() < junctionData.Position)
-            {
-                // search lower
-                if(lowerIndex + 1 == currentIndex)
-                    return currentIndex;
-
-                upperIndex = currentIndex;
-                currentIndex = (lowerIndex + upperIndex) / 2;
-            }
-            else if(read.start() > junctionData.Position)
-            {
-                // search higher
-                if(currentIndex + 1 == upperIndex)
-                    return currentIndex;
-
-                lowerIndex = currentIndex;
-                currentIndex = (lowerIndex + upperIndex) / 2;
-            }
+            if(mJunctions.get(midIndex).Position < position)
+                lowerIndex = midIndex + 1;
             else
-            {
-                break;
-            }
-
-            ++iterations;
-
-            if(iterations > 1000)
-            {
-                SV_LOGGER.warn("junction index search iterations({}}) junctions({}) index(cur={} low={} high={})",
-                        iterations, mJunctions.size(), currentIndex, lowerIndex, upperIndex);
-                break;
-            }
+                upperIndex = midIndex;
         }
 
-        return -1;
-    }
-
-    private boolean readWithinJunctionRange(final PrepRead read, final JunctionData junctionData, int maxDistance)
-    {
-        if(abs(read.end() - junctionData.Position) <= maxDistance)
-            return true;
-
-        if(abs(read.start() - junctionData.Position) <= maxDistance)
-            return true;
-
-        return false;
+        return lowerIndex;
     }
 
     public static boolean hasOtherJunctionSupport(
@@ -237,6 +237,8 @@ public class PartitionSlicer
         mStats.JunctionFragmentCount += junctionFragments;
         mStats.SupportingFragmentCount += junctionGroups.size() - junctionFragments;
         mStats.InitialSupportingFragmentCount += mJunctionTracker.initialSupportingFrags();
+        mStats.JunctionChecks += mJunctionTracker.junctionChecks();
+        mStats.FullScanJunctionChecks += mJunctionTracker.fullScanJunctionChecks();
     }
 
     private void assignReadGroup(final ReadGroup readGroup, Map<String,ReadGroup> partialGroupsMap)
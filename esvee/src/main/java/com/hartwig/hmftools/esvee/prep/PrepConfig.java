@@ -58,6 +58,7 @@ import com.hartwig.hmftools.common.bam.BamToolName;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.region.SpecificRegions;
 import com.hartwig.hmftools.common.bam.BamUtils;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.config.ConfigUtils;
 import com.hartwig.hmftools.esvee.prep.types.ReadFilterConfig;
@@ -324,6 +325,7 @@ public class PrepConfig
         configBuilder.addFlag(NO_TRIM_READ_ID, "Disable use of a shortened readId internally");
         configBuilder.addFlag(NO_CLEAN_UP, "Keep candidate cache BAM files");
         configBuilder.addFlag(PERF_DEBUG, PERF_DEBUG_DESC);
+        MetricsRegistry.registerConfig(configBuilder);
         addValidationStringencyOption(configBuilder);
         ReadFilterConfig.addConfig(configBuilder);
         BamToolName.addConfig(configBuilder);
@@ -7,6 +7,7 @@ import static com.hartwig.hmftools.esvee.common.FileCommon.APP_NAME;
 import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.esvee.common.FragmentLengthBounds;
 import com.hartwig.hmftools.esvee.prep.types.CombinedStats;
@@ -18,12 +19,14 @@ public class SvPrepApplication
     private final PrepConfig mConfig;
     private final ResultsWriter mWriter;
     private final SpanningReadCache mSpanningReadCache;
+    private final MetricsRegistry mMetrics;
 
     public SvPrepApplication(final ConfigBuilder configBuilder)
     {
         mConfig = new PrepConfig(configBuilder);
         mWriter = new ResultsWriter(mConfig);
         mSpanningReadCache = new SpanningReadCache(mConfig);
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME + "Prep", configBuilder);
     }
 
     public void run()
@@ -35,6 +38,7 @@ public class SvPrepApplication
                 mConfig.SampleIds.size() == 1 ? mConfig.sampleId() : mConfig.SampleIds.stream().collect(Collectors.joining(",")));
 
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
 
         if(mConfig.CalcFragmentLength)
             calcFragmentDistribution();
@@ -90,6 +94,13 @@ public class SvPrepApplication
                 combinedStats.PerfCounters.forEach(x -> x.logStats());
         }
 
+        mMetrics.registerTimers(combinedStats.PerfCounters);
+        mMetrics.addCount("TotalReads", combinedStats.ReadStats.TotalReads);
+        mMetrics.addCount("Junctions", combinedStats.ReadStats.JunctionCount);
+        mMetrics.addCount("JunctionFragments", combinedStats.ReadStats.JunctionFragmentCount);
+        mMetrics.addCount("SupportingFragments", combinedStats.ReadStats.SupportingFragmentCount);
+        mMetrics.writeMetrics(mConfig.OutputDir, mConfig.sampleId());
+
         SV_LOGGER.info("Esvee Prep complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
@@ -12,6 +12,8 @@ public class PartitionStats
     public int LocalCompleteGroups;
     public int LocalIncompleteGroups;
     public int SpanningGroups;
+    public long JunctionChecks;
+    public long FullScanJunctionChecks;
 
     public final int[] ReadFilterCounts;
 
@@ -25,6 +27,8 @@ public class PartitionStats
         LocalCompleteGroups = 0;
         LocalIncompleteGroups = 0;
         SpanningGroups = 0;
+        JunctionChecks = 0;
+        FullScanJunctionChecks = 0;
 
         ReadFilterCounts = new int[ReadFilterType.values().length];
     }
@@ -39,6 +43,8 @@ public class PartitionStats
         LocalCompleteGroups += other.LocalCompleteGroups;
         LocalIncompleteGroups += other.LocalIncompleteGroups;
         SpanningGroups += other.SpanningGroups;
+        JunctionChecks += other.JunctionChecks;
+        FullScanJunctionChecks += other.FullScanJunctionChecks;
 
         for(int i = 0; i < ReadFilterCounts.length; ++i)
         {
@@ -48,9 +54,9 @@ public class PartitionStats
 
     public String toString()
     {
-        return format("reads(%s) junc(%d) juncFrags(%d) supportFrags(init=%d final=%d) groups(comp=%d incomp=%d span=%d)",
+        return format("reads(%s) junc(%d) juncFrags(%d) supportFrags(init=%d final=%d) groups(comp=%d incomp=%d span=%d) juncChecks(%d fullScan=%d)",
                 TotalReads, JunctionCount, JunctionFragmentCount, InitialSupportingFragmentCount, SupportingFragmentCount,
-                LocalCompleteGroups, LocalIncompleteGroups, SpanningGroups);
+                LocalCompleteGroups, LocalIncompleteGroups, SpanningGroups, JunctionChecks, FullScanJunctionChecks);
     }
 
 }
@@ -17,6 +17,7 @@ import static com.hartwig.hmftools.common.utils.file.FileDelimiters.CSV_DELIM;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
@@ -111,6 +112,14 @@ public class TestUtils
         return new Read(newRecord);
     }
 
+    public static Read updateRead(final Read read, final Consumer<SAMRecord> update)
+    {
+        // reads don't retain their BAM record, so apply changes to a rebuilt record and decode it again
+        SAMRecord record = read.bamRecord();
+        update.accept(record);
+        return new Read(record);
+    }
+
     public static String makeCigarString(final String readBases, int scLeft, int scRight)
     {
         StringBuilder sb = new StringBuilder();
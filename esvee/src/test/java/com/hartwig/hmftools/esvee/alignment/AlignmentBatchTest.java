@@ -0,0 +1,181 @@
+package com.hartwig.hmftools.esvee.alignment;
+
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion.V37;
+import static com.hartwig.hmftools.common.genome.region.Orientation.FORWARD;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.esvee.TestUtils.REF_BASES_400;
+import static com.hartwig.hmftools.esvee.assembly.AssemblyTestUtils.createAssembly;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+
+import org.broadinstitute.hellbender.utils.bwa.BwaMemAlignment;
+import org.junit.Test;
+
+public class AlignmentBatchTest
+{
+    private static final int ASSEMBLY_LENGTH = 100;
+    private static final int SUPP_LENGTH = 40;
+
+    private static final int SUPPLEMENTARY_FLAG = 2048;
+
+    // returns canned alignments per sequence, so results only depend on the sequence and not on how sequences are batched
+    private static class TestAligner implements Aligner
+    {
+        public final List<Integer> CallSizes = Lists.newArrayList();
+
+        private final List<Integer> mNoSupplementaryOffsets;
+
+        public TestAligner(final List<Integer> noSupplementaryOffsets)
+        {
+            mNoSupplementaryOffsets = noSupplementaryOffsets;
+        }
+
+        @Override
+        public List<BwaMemAlignment> alignSequence(final byte[] bases)
+        {
+            String sequence = new String(bases);
+            int offset = REF_BASES_400.indexOf(sequence);
+
+            if(sequence.length() == SUPP_LENGTH)
+            {
+                // a re-queried supplementary aligns in full
+                return List.of(createAlignment(0, 2, 1000 + offset, 0, SUPP_LENGTH, "40M"));
+            }
+
+            if(mNoSupplementaryOffsets.contains(offset))
+                return List.of(createAlignment(0, 0, offset, 0, ASSEMBLY_LENGTH, "100M"));
+
+            int primaryLength = ASSEMBLY_LENGTH - SUPP_LENGTH;
+
+            return List.of(
+                    createAlignment(0, 0, offset, 0, primaryLength, "60M40S"),
+                    createAlignment(SUPPLEMENTARY_FLAG, 1, 500 + offset, primaryLength, ASSEMBLY_LENGTH, "60S40M"));
+        }
+
+        @Override
+        public List<List<BwaMemAlignment>> alignSequences(final List<byte[]> sequences)
+        {
+            CallSizes.add(sequences.size());
+            return Aligner.super.alignSequences(sequences);
+        }
+    }
+
+    private static BwaMemAlignment createAlignment(int flags, int refId, int refStart, int seqStart, int seqEnd, final String cigar)
+    {
+        int alignedLength = seqEnd - seqStart;
+
+        return new BwaMemAlignment(
+                flags, refId, refStart, refStart + alignedLength, seqStart, seqEnd, 60, 0, alignedLength, 0,
+                cigar, "", "", -1, -1, 0);
+    }
+
+    private static List<AssemblyAlignment> createAssemblyAlignments(final List<Integer> offsets)
+    {
+        List<AssemblyAlignment> assemblyAlignments = Lists.newArrayList();
+
+        for(int offset : offsets)
+        {
+            String assemblyBases = REF_BASES_400.substring(offset, offset + ASSEMBLY_LENGTH);
+
+            assemblyAlignments.add(new AssemblyAlignment(
+                    assemblyAlignments.size(), createAssembly(CHR_1, 1000 + offset, FORWARD, assemblyBases, 59)));
+        }
+
+        return assemblyAlignments;
+    }
+
+    private static List<String> alignmentsStr(final List<AlignData> alignments)
+    {
+        return alignments.stream()
+                .map(x -> String.format("%s seq(%d-%d)", x.toString(), x.sequenceStart(), x.sequenceEnd()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testBatchedMatchesPerSequenceAlignment()
+    {
+        List<Integer> offsets = List.of(0, 100, 200, 300);
+        List<Integer> noSupplementaryOffsets = List.of(100);
+
+        TestAligner batchAligner = new TestAligner(noSupplementaryOffsets);
+
+        Alignment.BatchAlignments batchAlignments = Alignment.alignBatch(
+                createAssemblyAlignments(offsets), batchAligner::alignSequences, V37);
+
+        // one call for the full sequences and one for all the supplementaries
+        assertEquals(List.of(4, 3), batchAligner.CallSizes);
+        assertEquals(3, batchAlignments.RequeryCount);
+        assertEquals(offsets.size(), batchAlignments.Alignments.size());
+        assertEquals(offsets.size(), batchAlignments.RequeriedAlignments.size());
+
+        TestAligner singleAligner = new TestAligner(noSupplementaryOffsets);
+
+        for(int i = 0; i < offsets.size(); ++i)
+        {
+            int offset = offsets.get(i);
+
+            Alignment.BatchAlignments singleAlignments = Alignment.alignBatch(
+                    createAssemblyAlignments(List.of(offset)), singleAligner::alignSequences, V37);
+
+            List<AlignData> alignments = batchAlignments.Alignments.get(i);
+            List<AlignData> requeriedAlignments = batchAlignments.RequeriedAlignments.get(i);
+
+            assertEquals(alignmentsStr(singleAlignments.Alignments.get(0)), alignmentsStr(alignments));
+            assertEquals(alignmentsStr(singleAlignments.RequeriedAlignments.get(0)), alignmentsStr(requeriedAlignments));
+
+            // results are kept in batch order, with the primary first and the supplementary replaced by its re-queried alignment
+            assertEquals(offset + 1, alignments.get(0).RefLocation.start());
+
+            if(noSupplementaryOffsets.contains(offset))
+            {
+                assertEquals(1, alignments.size());
+                assertTrue(requeriedAlignments.isEmpty());
+                continue;
+            }
+
+            assertEquals(2, alignments.size());
+            AlignData requeried = alignments.get(1);
+            assertEquals(1000 + offset + 60 + 1, requeried.RefLocation.start());
+            assertTrue(requeried.isRequeried());
+            assertEquals(60, requeried.sequenceStart());
+            assertEquals(99, requeried.sequenceEnd());
+
+            assertEquals(1, requeriedAlignments.size());
+            assertEquals(500 + offset + 1, requeriedAlignments.get(0).RefLocation.start());
+        }
+
+        assertEquals(List.of(1, 1, 1, 1, 1, 1, 1), singleAligner.CallSizes);
+    }
+
+    @Test
+    public void testAlignerReturnsResultPerSequence()
+    {
+        List<byte[]> sequences = List.of(
+                REF_BASES_400.substring(0, 100).getBytes(), REF_BASES_400.substring(100, 200).getBytes(),
+                REF_BASES_400.substring(200, 300).getBytes());
+
+        TestAligner testAligner = new TestAligner(Collections.emptyList());
+        List<List<BwaMemAlignment>> alignmentSets = testAligner.alignSequences(sequences);
+
+        assertEquals(sequences.size(), alignmentSets.size());
+
+        for(int i = 0; i < sequences.size(); ++i)
+        {
+            assertEquals(i * 100, alignmentSets.get(i).get(0).getRefStart());
+        }
+
+        // without a reference image the BWA aligner still returns an empty set for each sequence
+        BwaAligner bwaAligner = new BwaAligner("");
+        alignmentSets = bwaAligner.alignSequences(sequences);
+
+        assertEquals(sequences.size(), alignmentSets.size());
+        assertTrue(alignmentSets.stream().allMatch(x -> x.isEmpty()));
+    }
+}
@@ -16,6 +16,7 @@ import static com.hartwig.hmftools.esvee.TestUtils.REF_BASES_400;
 import static com.hartwig.hmftools.esvee.TestUtils.cloneRead;
 import static com.hartwig.hmftools.esvee.TestUtils.createRead;
 import static com.hartwig.hmftools.esvee.TestUtils.getSupportTypeCount;
+import static com.hartwig.hmftools.esvee.TestUtils.updateRead;
 import static com.hartwig.hmftools.esvee.assembly.AssemblyTestUtils.createAssembly;
 import static com.hartwig.hmftools.esvee.assembly.read.ReadUtils.isValidSupportCoordsVsJunction;
 import static com.hartwig.hmftools.esvee.assembly.types.SupportType.DISCORDANT;
@@ -397,7 +398,7 @@ public class AssemblyLinksTest
 
         Read discRead2 = createRead(
                 juncRead2.id(), CHR_1, 120, refSequence.substring(120, 170), "50M", CHR_1, 51, false);
-        discRead2.bamRecord().setSecondOfPairFlag(true);
+        discRead2 = updateRead(discRead2, x -> x.setSecondOfPairFlag(true));
 
         secondAssembly.addCandidateSupport(discRead2);
 
@@ -407,12 +408,12 @@ public class AssemblyLinksTest
 
         Read discRead1 = createRead(
                 juncRead1.id(), CHR_1, 120, refSequence.substring(120, 170), "50M", CHR_1, 51, false);
-        discRead1.bamRecord().setSecondOfPairFlag(true);
+        discRead1 = updateRead(discRead1, x -> x.setSecondOfPairFlag(true));
         secondAssembly.addCandidateSupport(discRead1);
 
         Read discRead3 = createRead(
                 juncRead3.id(), CHR_1, 20, refSequence.substring(20, 70), "50M", CHR_1, 151, false);
-        discRead3.bamRecord().setSecondOfPairFlag(true);
+        discRead3 = updateRead(discRead3, x -> x.setSecondOfPairFlag(true));
 
         firstAssembly.addCandidateSupport(discRead3);
 
@@ -572,7 +573,7 @@ public class AssemblyLinksTest
                 READ_ID_GENERATOR.nextId(), CHR_2, 100, REF_BASES_400.substring(100, 150), discCigar, CHR_1, 300, true);
         Read discRead4 = createRead(
                 discRead3.id(), CHR_1, 300, REF_BASES_400.substring(300, 350), discCigar, CHR_2, 100, false);
-        discRead4.bamRecord().setReadNegativeStrandFlag(true);
+        discRead4 = updateRead(discRead4, x -> x.setReadNegativeStrandFlag(true));
 
         assertFalse(isValidSupportCoordsVsJunction(discRead3, assembly2.junction().isForward(), assembly2.junction().Position));
         assertTrue(isValidSupportCoordsVsJunction(discRead3, assembly3.junction().isForward(), assembly3.junction().Position));
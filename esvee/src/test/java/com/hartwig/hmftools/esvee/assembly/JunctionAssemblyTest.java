@@ -14,6 +14,7 @@ import static com.hartwig.hmftools.esvee.TestUtils.TEST_READ_ID_2;
 import static com.hartwig.hmftools.esvee.TestUtils.cloneRead;
 import static com.hartwig.hmftools.esvee.TestUtils.createRead;
 import static com.hartwig.hmftools.esvee.TestUtils.makeCigarString;
+import static com.hartwig.hmftools.esvee.TestUtils.updateRead;
 import static com.hartwig.hmftools.esvee.assembly.AssemblyUtils.mismatchesPerComparisonLength;
 import static com.hartwig.hmftools.esvee.assembly.read.ReadFilters.recordSoftClipsAndCrossesJunction;
 
@@ -65,7 +66,7 @@ public class JunctionAssemblyTest
         // a read without soft-clip but mismatches agreeing with the extension
         String alignedMatchingBases = readBases.substring(0, 22);
         Read read4 = createRead(READ_ID_GENERATOR.nextId(), 10, alignedMatchingBases, makeCigarString(alignedMatchingBases, 0, 0));
-        read4.bamRecord().setAttribute(NUM_MUTATONS_ATTRIBUTE, 2);
+        read4 = updateRead(read4, x -> x.setAttribute(NUM_MUTATONS_ATTRIBUTE, 2));
         assertTrue(recordSoftClipsAndCrossesJunction(read4, junction));
 
         // similar but too long and matching the ref
@@ -132,7 +133,7 @@ public class JunctionAssemblyTest
 
         String alignedMatchingBases = readBases.substring(readBases.length() - 22);
         Read read4 = createRead(READ_ID_GENERATOR.nextId(), juncPosition - 2, alignedMatchingBases, makeCigarString(alignedMatchingBases, 0, 0));
-        read4.bamRecord().setAttribute(NUM_MUTATONS_ATTRIBUTE, 2);
+        read4 = updateRead(read4, x -> x.setAttribute(NUM_MUTATONS_ATTRIBUTE, 2));
         assertTrue(recordSoftClipsAndCrossesJunction(read4, junction));
 
         List<Read> reads = List.of(read1, read2, read3, read4);
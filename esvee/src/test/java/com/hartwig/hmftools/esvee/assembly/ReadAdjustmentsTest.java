@@ -8,6 +8,7 @@ import static com.hartwig.hmftools.esvee.TestUtils.TEST_CIGAR_100;
 import static com.hartwig.hmftools.esvee.TestUtils.TEST_READ_ID;
 import static com.hartwig.hmftools.esvee.TestUtils.createRead;
 import static com.hartwig.hmftools.esvee.TestUtils.makeCigarString;
+import static com.hartwig.hmftools.esvee.TestUtils.updateRead;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -60,7 +61,7 @@ public class ReadAdjustmentsTest
         // negative strand - trimmed at the start
         readBases = polyCSection.substring(0, 6) + otherBases;
         read = createRead(TEST_READ_ID, 100, readBases, makeCigarString(readBases, 3, 0));
-        read.bamRecord().setReadNegativeStrandFlag(true);
+        read = updateRead(read, x -> x.setReadNegativeStrandFlag(true));
         assertEquals(97, read.unclippedStart());
 
         assertTrue(ReadAdjustments.trimPolyGSequences(read));
@@ -89,12 +90,12 @@ public class ReadAdjustmentsTest
         }
 
         Read read = createRead(TEST_READ_ID, 100, readBases, TEST_CIGAR_100);
-        read.bamRecord().setBaseQualities(baseQualities);
+        read = updateRead(read, x -> x.setBaseQualities(baseQualities));
 
         assertFalse(ReadAdjustments.trimLowQualBases(read)); // nothing without soft-clips
 
         read = createRead(TEST_READ_ID, 110, readBases, makeCigarString(readBases, 10, 10));
-        read.bamRecord().setBaseQualities(baseQualities);
+        read = updateRead(read, x -> x.setBaseQualities(baseQualities));
 
         assertTrue(ReadAdjustments.trimLowQualBases(read));
         assertEquals(110, read.alignmentStart());
@@ -112,7 +113,7 @@ public class ReadAdjustmentsTest
 
         baseQualities[95] = lowQualBase;
         baseQualities[98] = lowQualBase;
-        read.bamRecord().setBaseQualities(baseQualities);
+        read = updateRead(read, x -> x.setBaseQualities(baseQualities));
 
         assertTrue(ReadAdjustments.trimLowQualBases(read));
         assertEquals(110, read.alignmentStart());
@@ -121,8 +122,8 @@ public class ReadAdjustmentsTest
         assertEquals("10S80M5S", read.cigarString());
 
         read = createRead(TEST_READ_ID, 110, readBases, makeCigarString(readBases, 10, 10));
-        read.bamRecord().setReadNegativeStrandFlag(true);
-        read.bamRecord().setBaseQualities(baseQualities);
+        read = updateRead(read, x -> x.setReadNegativeStrandFlag(true));
+        read = updateRead(read, x -> x.setBaseQualities(baseQualities));
 
         assertTrue(ReadAdjustments.trimLowQualBases(read));
         assertEquals(110, read.alignmentStart());
@@ -148,6 +148,99 @@ public class JunctionsTest
         assertEquals(0, junctionData.supportingFragmentCount());
     }
 
+    @Test
+    public void testJunctionIndexLookup()
+    {
+        // junctions are added out of order across the partition, then supporting reads only test those nearby
+        int junctionCount = 40;
+
+        for(int i = 0; i < junctionCount; ++i)
+        {
+            int position = 100 + ((i * 17) % junctionCount) * 100;
+
+            PrepRead junctionRead = PrepRead.from(createSamRecord(
+                    READ_ID_GENERATOR.nextId(), CHR_1, position, REF_BASES.substring(0, 100), "30S70M"));
+
+            PrepRead mateRead = PrepRead.from(createSamRecord(
+                    junctionRead.id(), CHR_1, position + 20, REF_BASES.substring(20, 120), "100M",
+                    buildFlags(false, true, false)));
+
+            addRead(junctionRead, JUNCTION);
+            addRead(mateRead, NO_SUPPORT);
+        }
+
+        PrepRead suppRead = PrepRead.from(createSamRecord(
+                READ_ID_GENERATOR.nextId(), CHR_1, 2500, REF_BASES.substring(0, 73), "3S70M"));
+
+        addRead(suppRead, CANDIDATE_SUPPORT);
+
+        mJunctionTracker.assignJunctionFragmentsAndSupport();
+
+        List<JunctionData> junctions = mJunctionTracker.junctions();
+        assertEquals(junctionCount, junctions.size());
+
+        for(int i = 1; i < junctions.size(); ++i)
+        {
+            assertTrue(junctions.get(i - 1).Position < junctions.get(i).Position);
+        }
+
+        JunctionData junctionData = junctions.stream().filter(x -> x.Position == 2500).findFirst().orElse(null);
+        assertNotNull(junctionData);
+        assertEquals(1, junctionData.exactSupportFragmentCount());
+
+        assertTrue(mJunctionTracker.junctionChecks() < mJunctionTracker.fullScanJunctionChecks());
+    }
+
+    @Test
+    public void testLongReadJunctionSupport()
+    {
+        // a read longer than twice the support distance is tested against the junctions near each of its ends, but not those in between
+        addJunctionRead(1000, "30S70M");
+        addJunctionRead(2200, "30S70M");
+        addJunctionRead(2300, "30S70M");
+        addJunctionRead(3430, "70M30S");
+
+        PrepRead longRead = PrepRead.from(createSamRecord(
+                READ_ID_GENERATOR.nextId(), CHR_1, 1000, generateRandomBases(2506), "3S2500M3S"));
+
+        assertTrue(longRead.end() - longRead.start() > 2 * DEFAULT_MAX_FRAGMENT_LENGTH);
+
+        addRead(longRead, CANDIDATE_SUPPORT);
+
+        mJunctionTracker.assignJunctionFragmentsAndSupport();
+
+        List<JunctionData> junctions = mJunctionTracker.junctions();
+        assertEquals(4, junctions.size());
+
+        JunctionData junctionData = junctions.stream().filter(x -> x.Position == 1000).findFirst().orElse(null);
+        assertNotNull(junctionData);
+        assertEquals(REVERSE, junctionData.Orient);
+        assertEquals(1, junctionData.exactSupportFragmentCount());
+
+        junctionData = junctions.stream().filter(x -> x.Position == 3499).findFirst().orElse(null);
+        assertNotNull(junctionData);
+        assertEquals(FORWARD, junctionData.Orient);
+        assertEquals(1, junctionData.exactSupportFragmentCount());
+
+        assertEquals(0, junctions.stream().filter(x -> x.Position == 2200 || x.Position == 2300)
+                .mapToInt(x -> x.exactSupportFragmentCount()).sum());
+
+        assertTrue(mJunctionTracker.junctionChecks() < mJunctionTracker.fullScanJunctionChecks());
+    }
+
+    private void addJunctionRead(int readStart, final String cigar)
+    {
+        PrepRead junctionRead = PrepRead.from(createSamRecord(
+                READ_ID_GENERATOR.nextId(), CHR_1, readStart, REF_BASES.substring(0, 100), cigar));
+
+        PrepRead mateRead = PrepRead.from(createSamRecord(
+                junctionRead.id(), CHR_1, readStart + 20, REF_BASES.substring(20, 120), "100M",
+                buildFlags(false, true, false)));
+
+        addRead(junctionRead, JUNCTION);
+        addRead(mateRead, NO_SUPPORT);
+    }
+
     @Test
     public void testCandidateOnlyJunctions()
     {
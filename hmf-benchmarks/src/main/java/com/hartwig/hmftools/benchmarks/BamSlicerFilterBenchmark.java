@@ -0,0 +1,65 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.randomReads;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import htsjdk.samtools.SAMRecord;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BamSlicerFilterBenchmark
+{
+    private static final int READ_COUNT = 100_000;
+
+    private List<SAMRecord> mReads;
+    private BamSlicerFilter mDefaultFilter;
+    private BamSlicerFilter mPermissiveFilter;
+
+    @Setup
+    public void setup()
+    {
+        mReads = randomReads(new Random(RANDOM_SEED), READ_COUNT);
+        mDefaultFilter = new BamSlicerFilter(20, false, false, false);
+        mPermissiveFilter = new BamSlicerFilter(0, true, true, true);
+    }
+
+    @Benchmark
+    public int filterReads()
+    {
+        return countPassing(mDefaultFilter);
+    }
+
+    @Benchmark
+    public int filterReadsKeepAll()
+    {
+        return countPassing(mPermissiveFilter);
+    }
+
+    private int countPassing(final BamSlicerFilter filter)
+    {
+        int passing = 0;
+
+        for(SAMRecord read : mReads)
+        {
+            if(filter.passesFilters(read))
+                ++passing;
+        }
+
+        return passing;
+    }
+}
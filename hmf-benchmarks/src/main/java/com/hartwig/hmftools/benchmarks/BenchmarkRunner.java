@@ -0,0 +1,123 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.setLogLevel;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// runs the JMH benchmarks and writes their results as JSON keyed by commit, so successive runs can be compared for regressions
+public class BenchmarkRunner
+{
+    private final String mOutputDir;
+    private final String mCommit;
+    private final String mInclude;
+    private final int mForks;
+    private final int mWarmupIterations;
+    private final int mMeasurementIterations;
+    private final int mIterationSeconds;
+
+    private static final String COMMIT = "commit";
+    private static final String INCLUDE = "include";
+    private static final String FORKS = "forks";
+    private static final String WARMUP_ITERATIONS = "warmup_iterations";
+    private static final String MEASUREMENT_ITERATIONS = "measurement_iterations";
+    private static final String ITERATION_SECONDS = "iteration_seconds";
+
+    private static final String UNKNOWN_COMMIT = "unknown";
+
+    public static final Logger BM_LOGGER = LogManager.getLogger(BenchmarkRunner.class);
+
+    public BenchmarkRunner(final ConfigBuilder configBuilder)
+    {
+        String outputDir = parseOutputDir(configBuilder);
+        mOutputDir = outputDir != null ? outputDir : "";
+        mCommit = configBuilder.hasValue(COMMIT) ? configBuilder.getValue(COMMIT) : currentCommit();
+        mInclude = configBuilder.getValue(INCLUDE);
+        mForks = configBuilder.getInteger(FORKS);
+        mWarmupIterations = configBuilder.getInteger(WARMUP_ITERATIONS);
+        mMeasurementIterations = configBuilder.getInteger(MEASUREMENT_ITERATIONS);
+        mIterationSeconds = configBuilder.getInteger(ITERATION_SECONDS);
+    }
+
+    public void run() throws RunnerException
+    {
+        String resultsFile = mOutputDir + "hmf_benchmarks." + mCommit + ".json";
+
+        BM_LOGGER.info("running benchmarks matching({}) for commit({})", mInclude, mCommit);
+
+        TimeValue iterationTime = TimeValue.seconds(mIterationSeconds);
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(mInclude)
+                .forks(mForks)
+                .warmupIterations(mWarmupIterations)
+                .warmupTime(iterationTime)
+                .measurementIterations(mMeasurementIterations)
+                .measurementTime(iterationTime)
+                .timeout(TimeValue.minutes(10))
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultsFile);
+
+        new Runner(options.build()).run();
+
+        BM_LOGGER.info("benchmark results written to {}", resultsFile);
+    }
+
+    private static String currentCommit()
+    {
+        try
+        {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+
+            try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream())))
+            {
+                String commit = reader.readLine();
+
+                if(process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0 && commit != null && !commit.isEmpty())
+                    return commit.trim();
+            }
+        }
+        catch(Exception e)
+        {
+            BM_LOGGER.warn("failed to determine git commit: {}", e.toString());
+        }
+
+        return UNKNOWN_COMMIT;
+    }
+
+    public static void main(final String... args) throws RunnerException
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder("HmfBenchmarks");
+
+        configBuilder.addConfigItem(COMMIT, false, "Commit label for the results file, defaults to the current git commit");
+        configBuilder.addConfigItem(INCLUDE, false, "Regex of benchmarks to run", ".*Benchmark.*");
+        configBuilder.addInteger(FORKS, "JVM forks per benchmark", 1);
+        configBuilder.addInteger(WARMUP_ITERATIONS, "Warmup iterations per fork", 3);
+        configBuilder.addInteger(MEASUREMENT_ITERATIONS, "Measurement iterations per fork", 5);
+        configBuilder.addInteger(ITERATION_SECONDS, "Duration of each iteration in seconds", 2);
+        addOutputOptions(configBuilder);
+        addLoggingOptions(configBuilder);
+
+        configBuilder.checkAndParseCommandLine(args);
+
+        setLogLevel(configBuilder);
+
+        BenchmarkRunner benchmarkRunner = new BenchmarkRunner(configBuilder);
+        benchmarkRunner.run();
+    }
+}
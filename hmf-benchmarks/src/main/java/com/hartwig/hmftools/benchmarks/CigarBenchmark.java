@@ -0,0 +1,93 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.randomReads;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.bam.CigarHandler;
+import com.hartwig.hmftools.common.bam.CigarUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.SAMRecord;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CigarBenchmark
+{
+    private static final int READ_COUNT = 10_000;
+
+    private List<SAMRecord> mReads;
+    private String[] mCigarStrings;
+
+    @Setup
+    public void setup()
+    {
+        mReads = randomReads(new Random(RANDOM_SEED), READ_COUNT);
+        mCigarStrings = mReads.stream().map(SAMRecord::getCigarString).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void traverseCigar(final Blackhole blackhole)
+    {
+        AlignedBaseCounter counter = new AlignedBaseCounter();
+
+        for(SAMRecord read : mReads)
+        {
+            CigarHandler.traverseCigar(read, counter);
+        }
+
+        blackhole.consume(counter.AlignedBases);
+    }
+
+    @Benchmark
+    public void parseCigarStrings(final Blackhole blackhole)
+    {
+        for(String cigarStr : mCigarStrings)
+        {
+            blackhole.consume(CigarUtils.cigarElementsFromStr(cigarStr));
+        }
+    }
+
+    @Benchmark
+    public void alignedLengthFromCigarStrings(final Blackhole blackhole)
+    {
+        for(String cigarStr : mCigarStrings)
+        {
+            blackhole.consume(CigarUtils.calcCigarAlignedLength(cigarStr));
+        }
+    }
+
+    @Benchmark
+    public void readIndexFromPosition(final Blackhole blackhole)
+    {
+        for(SAMRecord read : mReads)
+        {
+            int position = read.getAlignmentStart() + 50;
+            blackhole.consume(CigarUtils.getReadIndexFromPosition(read.getAlignmentStart(), read.getCigar().getCigarElements(), position));
+        }
+    }
+
+    private static class AlignedBaseCounter implements CigarHandler
+    {
+        public long AlignedBases = 0;
+
+        @Override
+        public void handleAlignment(final SAMRecord record, final CigarElement element, int readIndex, int refPosition)
+        {
+            AlignedBases += element.getLength();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHR_1;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.utils.file.DelimFileReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DelimFileReaderBenchmark
+{
+    private static final int ROW_COUNT = 100_000;
+
+    private static final String CHROMOSOME = "chromosome";
+    private static final String POS_START = "posStart";
+    private static final String POS_END = "posEnd";
+    private static final String GENE = "gene";
+    private static final String DEPTH = "depth";
+    private static final String RATIO = "ratio";
+    private static final String FILTERED = "filtered";
+
+    private Path mFile;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        // a typical tool output file with a mix of string, integer, decimal and boolean columns
+        mFile = Files.createTempFile("delim_file_benchmark", ".tsv");
+
+        try(BufferedWriter writer = Files.newBufferedWriter(mFile))
+        {
+            writer.write(String.join("\t", CHROMOSOME, POS_START, POS_END, GENE, DEPTH, RATIO, FILTERED));
+            writer.newLine();
+
+            int position = 1;
+
+            for(int i = 0; i < ROW_COUNT; ++i)
+            {
+                position += 1 + random.nextInt(1000);
+
+                writer.write(String.join("\t",
+                        CHR_1, String.valueOf(position), String.valueOf(position + random.nextInt(500)),
+                        String.format("GENE%d", random.nextInt(500)), String.valueOf(random.nextInt(200)),
+                        String.format("%.4f", random.nextDouble() * 2), random.nextInt(10) == 0 ? "1" : "0"));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(mFile);
+    }
+
+    @Benchmark
+    public long parseFile()
+    {
+        long total = 0;
+
+        try(DelimFileReader reader = new DelimFileReader(mFile.toString()))
+        {
+            for(DelimFileReader.Row row : reader)
+            {
+                total += row.get(CHROMOSOME).length() + row.getInt(POS_START) + row.getInt(POS_END) + row.get(GENE).length()
+                        + row.getInt(DEPTH) + (long)row.getDouble(RATIO) + (row.getBoolean(FILTERED) ? 1 : 0);
+            }
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHROMOSOME_LENGTH;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHR_1;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
+import com.hartwig.hmftools.common.gene.GeneData;
+import com.hartwig.hmftools.common.gene.TranscriptData;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EnsemblDataCacheBenchmark
+{
+    // roughly the gene density of a human chromosome, scaled to the synthetic chromosome length
+    private static final int GENE_COUNT = 200;
+    private static final int LOOKUP_COUNT = 1_000;
+
+    private EnsemblDataCache mEnsemblDataCache;
+    private int[] mPositions;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        mEnsemblDataCache = new EnsemblDataCache("", RefGenomeVersion.V37);
+
+        List<GeneData> genes = Lists.newArrayListWithCapacity(GENE_COUNT);
+        int transId = 0;
+
+        for(int i = 0; i < GENE_COUNT; ++i)
+        {
+            // genes may overlap each other
+            int geneStart = 1 + random.nextInt(CHROMOSOME_LENGTH - 50_000);
+            int geneEnd = geneStart + 1_000 + random.nextInt(40_000);
+            byte strand = random.nextBoolean() ? (byte)1 : (byte)-1;
+            String geneId = String.format("ENSG%011d", i);
+
+            genes.add(new GeneData(geneId, String.format("GENE%d", i), CHR_1, strand, geneStart, geneEnd, ""));
+
+            List<TranscriptData> transcripts = Lists.newArrayList();
+
+            for(int t = 0; t < 3; ++t)
+            {
+                int transStart = geneStart + t * 100;
+                transcripts.add(new TranscriptData(
+                        transId++, String.format("ENST%011d", transId), geneId, t == 0, strand, transStart, geneEnd,
+                        null, null, "protein_coding"));
+            }
+
+            mEnsemblDataCache.setTranscriptData(geneId, transcripts);
+        }
+
+        genes.sort((first, second) -> Integer.compare(first.GeneStart, second.GeneStart));
+        mEnsemblDataCache.setChrGeneData(CHR_1, genes);
+        mEnsemblDataCache.buildGeneRegionIndex();
+
+        mPositions = new int[LOOKUP_COUNT];
+
+        for(int i = 0; i < LOOKUP_COUNT; ++i)
+        {
+            mPositions[i] = 1 + random.nextInt(CHROMOSOME_LENGTH);
+        }
+    }
+
+    @Benchmark
+    public void findGenesByRegion(final Blackhole blackhole)
+    {
+        for(int position : mPositions)
+        {
+            blackhole.consume(mEnsemblDataCache.findGenesByRegion(CHR_1, position, position + 50_000));
+        }
+    }
+
+    @Benchmark
+    public void findGeneRegions(final Blackhole blackhole)
+    {
+        for(int position : mPositions)
+        {
+            blackhole.consume(mEnsemblDataCache.findGeneRegions(CHR_1, position, 10_000));
+        }
+    }
+}
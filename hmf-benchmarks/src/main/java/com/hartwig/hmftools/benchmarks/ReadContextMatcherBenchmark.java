@@ -0,0 +1,119 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHR_1;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.READ_LENGTH;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.randomBases;
+import static com.hartwig.hmftools.sage.SageConstants.DEFAULT_FLANK_LENGTH;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.common.ReadContextMatcher;
+import com.hartwig.hmftools.sage.common.RefSequence;
+import com.hartwig.hmftools.sage.common.SimpleVariant;
+import com.hartwig.hmftools.sage.common.VariantReadContext;
+import com.hartwig.hmftools.sage.common.VariantReadContextBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.SAMRecord;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadContextMatcherBenchmark
+{
+    private static final int REF_LENGTH = 1_000;
+    private static final int VARIANT_POSITION = 500;
+    private static final int READ_COUNT = 1_000;
+
+    private ReadContextMatcher mMatcher;
+    private List<SAMRecord> mReads;
+    private int[] mReadVarIndices;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        byte[] refBases = randomBases(random, REF_LENGTH);
+        RefSequence refSequence = new RefSequence(1, refBases);
+
+        byte refBase = refBases[VARIANT_POSITION - 1];
+        byte altBase = refBase == 'A' ? (byte)'C' : (byte)'A';
+
+        SimpleVariant variant = new SimpleVariant(
+                CHR_1, VARIANT_POSITION, String.valueOf((char)refBase), String.valueOf((char)altBase));
+
+        int variantReadStart = VARIANT_POSITION - READ_LENGTH / 2;
+        SAMRecord variantRead = buildRead(refBases, variantReadStart, altBase);
+
+        VariantReadContext readContext = new VariantReadContextBuilder(DEFAULT_FLANK_LENGTH).createContext(
+                variant, variantRead, VARIANT_POSITION - variantReadStart, refSequence);
+
+        mMatcher = new ReadContextMatcher(readContext, true, false);
+
+        // reads at varying offsets across the variant - a mix of ref, alt and alt with a sequencing error
+        mReads = Lists.newArrayListWithCapacity(READ_COUNT);
+        mReadVarIndices = new int[READ_COUNT];
+
+        for(int i = 0; i < READ_COUNT; ++i)
+        {
+            int readStart = VARIANT_POSITION - READ_LENGTH + 1 + random.nextInt(READ_LENGTH);
+            int type = random.nextInt(3);
+
+            SAMRecord read = buildRead(refBases, readStart, type == 0 ? refBase : altBase);
+
+            if(type == 2)
+            {
+                int errorIndex = random.nextInt(READ_LENGTH);
+                read.getReadBases()[errorIndex] = read.getReadBases()[errorIndex] == 'G' ? (byte)'T' : (byte)'G';
+            }
+
+            mReads.add(read);
+            mReadVarIndices[i] = VARIANT_POSITION - readStart;
+        }
+    }
+
+    private static SAMRecord buildRead(final byte[] refBases, int readStart, byte variantBase)
+    {
+        byte[] readBases = new byte[READ_LENGTH];
+        System.arraycopy(refBases, readStart - 1, readBases, 0, READ_LENGTH);
+        readBases[VARIANT_POSITION - readStart] = variantBase;
+
+        byte[] baseQuals = new byte[READ_LENGTH];
+
+        for(int i = 0; i < READ_LENGTH; ++i)
+        {
+            baseQuals[i] = 37;
+        }
+
+        SAMRecord read = new SAMRecord(null);
+        read.setReferenceName(CHR_1);
+        read.setAlignmentStart(readStart);
+        read.setCigarString(READ_LENGTH + "M");
+        read.setReadBases(readBases);
+        read.setBaseQualities(baseQuals);
+        read.setMappingQuality(60);
+        return read;
+    }
+
+    @Benchmark
+    public void determineReadMatch(final Blackhole blackhole)
+    {
+        for(int i = 0; i < mReads.size(); ++i)
+        {
+            blackhole.consume(mMatcher.determineReadMatch(mReads.get(i), mReadVarIndices[i]));
+        }
+    }
+}
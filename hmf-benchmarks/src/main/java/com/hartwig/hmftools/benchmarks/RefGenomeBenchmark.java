@@ -0,0 +1,107 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHROMOSOME_LENGTH;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.CHR_1;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.READ_LENGTH;
+import static com.hartwig.hmftools.benchmarks.SyntheticData.randomBases;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.reference.FastaSequenceIndexCreator;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RefGenomeBenchmark
+{
+    private static final int LOOKUP_COUNT = 1_000;
+    private static final int FASTA_LINE_LENGTH = 60;
+
+    private Path mTempDir;
+    private RefGenomeSource mRefGenome;
+    private int[] mPositions;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        mTempDir = Files.createTempDirectory("ref_genome_benchmark");
+        Path fastaFile = mTempDir.resolve("ref_genome.fasta");
+
+        byte[] bases = randomBases(random, CHROMOSOME_LENGTH);
+
+        try(BufferedWriter writer = Files.newBufferedWriter(fastaFile))
+        {
+            writer.write(">" + CHR_1);
+            writer.newLine();
+
+            for(int i = 0; i < bases.length; i += FASTA_LINE_LENGTH)
+            {
+                writer.write(new String(bases, i, Math.min(FASTA_LINE_LENGTH, bases.length - i)));
+                writer.newLine();
+            }
+        }
+
+        FastaSequenceIndexCreator.create(fastaFile, true);
+
+        mRefGenome = RefGenomeSource.loadRefGenome(fastaFile.toString());
+
+        mPositions = new int[LOOKUP_COUNT];
+
+        for(int i = 0; i < LOOKUP_COUNT; ++i)
+        {
+            mPositions[i] = 1 + random.nextInt(CHROMOSOME_LENGTH - READ_LENGTH);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        mRefGenome.refGenomeFile().close();
+
+        for(File file : mTempDir.toFile().listFiles())
+        {
+            file.delete();
+        }
+
+        mTempDir.toFile().delete();
+    }
+
+    @Benchmark
+    public void getReadLengthBases(final Blackhole blackhole)
+    {
+        for(int position : mPositions)
+        {
+            blackhole.consume(mRefGenome.getBases(CHR_1, position, position + READ_LENGTH - 1));
+        }
+    }
+
+    @Benchmark
+    public void getSingleBases(final Blackhole blackhole)
+    {
+        for(int position : mPositions)
+        {
+            blackhole.consume(mRefGenome.getBases(CHR_1, position, position));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.sigs.ExpectationMaxFit;
+import com.hartwig.hmftools.common.sigs.LeastSquaresFit;
+import com.hartwig.hmftools.common.utils.Matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SigsFitBenchmark
+{
+    // SNV signatures fitted over the 96 trinucleotide contexts
+    private static final int BUCKET_COUNT = 96;
+    private static final int SIGNATURE_COUNT = 30;
+
+    private Matrix mSignatures;
+    private double[][] mSignatureFactors;
+    private double[] mSampleCounts;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        mSignatures = new Matrix(BUCKET_COUNT, SIGNATURE_COUNT);
+        mSignatureFactors = new double[BUCKET_COUNT][SIGNATURE_COUNT];
+
+        for(int s = 0; s < SIGNATURE_COUNT; ++s)
+        {
+            double[] signature = new double[BUCKET_COUNT];
+            double total = 0;
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                // skewed so each signature is dominated by a few contexts
+                signature[b] = Math.pow(random.nextDouble(), 4);
+                total += signature[b];
+            }
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                mSignatures.set(b, s, signature[b] / total);
+                mSignatureFactors[b][s] = signature[b] / total;
+            }
+        }
+
+        // a sample made up from a handful of the signatures
+        mSampleCounts = new double[BUCKET_COUNT];
+
+        for(int s = 0; s < 5; ++s)
+        {
+            int sigIndex = random.nextInt(SIGNATURE_COUNT);
+            double contribution = 1000 + random.nextInt(5000);
+
+            for(int b = 0; b < BUCKET_COUNT; ++b)
+            {
+                mSampleCounts[b] += Math.round(contribution * mSignatureFactors[b][sigIndex]);
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] expectationMaxFit()
+    {
+        return ExpectationMaxFit.performFit(mSampleCounts, mSignatures);
+    }
+
+    @Benchmark
+    public double[] leastSquaresFit()
+    {
+        LeastSquaresFit lsqFit = new LeastSquaresFit(BUCKET_COUNT, SIGNATURE_COUNT);
+        lsqFit.initialise(mSignatureFactors, mSampleCounts);
+        lsqFit.solve();
+        return lsqFit.getContribs();
+    }
+}
@@ -0,0 +1,65 @@
+package com.hartwig.hmftools.benchmarks;
+
+import static com.hartwig.hmftools.benchmarks.SyntheticData.RANDOM_SEED;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.common.utils.StringCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StringCacheBenchmark
+{
+    private static final int DISTINCT_STRINGS = 2_000;
+    private static final int LOOKUP_COUNT = 10_000;
+
+    private String[] mStrings;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(RANDOM_SEED);
+
+        // new instances of repeated values, as when parsing file fields or read attributes
+        mStrings = new String[LOOKUP_COUNT];
+
+        for(int i = 0; i < LOOKUP_COUNT; ++i)
+        {
+            mStrings[i] = new String(String.format("ENSG%011d", random.nextInt(DISTINCT_STRINGS)));
+        }
+    }
+
+    @Benchmark
+    public void intern(final Blackhole blackhole)
+    {
+        StringCache stringCache = new StringCache();
+
+        for(String value : mStrings)
+        {
+            blackhole.consume(stringCache.intern(value));
+        }
+    }
+
+    @Benchmark
+    public void internWithEviction(final Blackhole blackhole)
+    {
+        // a cache smaller than the distinct values, so it is repeatedly cleared
+        StringCache stringCache = new StringCache(DISTINCT_STRINGS / 4);
+
+        for(String value : mStrings)
+        {
+            blackhole.consume(stringCache.intern(value));
+        }
+    }
+}
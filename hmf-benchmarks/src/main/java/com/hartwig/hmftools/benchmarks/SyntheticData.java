@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+
+// seeded generators for benchmark inputs, so each run measures the same data
+public final class SyntheticData
+{
+    public static final long RANDOM_SEED = 1234;
+
+    public static final String CHR_1 = "1";
+    public static final int CHROMOSOME_LENGTH = 1_000_000;
+    public static final int READ_LENGTH = 151;
+
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+
+    // typical short-read alignments - mostly full matches with some clipped, indel and split reads
+    private static final String[] CIGARS = {
+            "151M", "151M", "151M", "151M", "151M", "151M", "20S131M", "131M20S", "75M2I74M", "70M5D81M",
+            "5S60M1D40M3I43M", "40M200N111M", "10H141M", "30S100M21S", "2S147M2S" };
+
+    public static byte[] randomBases(final Random random, int length)
+    {
+        byte[] bases = new byte[length];
+
+        for(int i = 0; i < length; ++i)
+        {
+            bases[i] = BASES[random.nextInt(BASES.length)];
+        }
+
+        return bases;
+    }
+
+    public static SAMFileHeader samHeader()
+    {
+        SAMSequenceDictionary dictionary = new SAMSequenceDictionary();
+        dictionary.addSequence(new SAMSequenceRecord(CHR_1, CHROMOSOME_LENGTH));
+
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(dictionary);
+        return header;
+    }
+
+    public static List<SAMRecord> randomReads(final Random random, int readCount)
+    {
+        SAMFileHeader header = samHeader();
+        List<SAMRecord> reads = Lists.newArrayListWithCapacity(readCount);
+
+        for(int i = 0; i < readCount; ++i)
+        {
+            SAMRecord read = new SAMRecord(header);
+            read.setReadName(String.format("READ_%06d", i));
+            read.setReferenceName(CHR_1);
+            read.setAlignmentStart(1 + random.nextInt(CHROMOSOME_LENGTH - 1000));
+            read.setCigarString(CIGARS[random.nextInt(CIGARS.length)]);
+
+            int readLength = read.getCigar().getReadLength();
+            read.setReadBases(randomBases(random, readLength));
+
+            byte[] baseQuals = new byte[readLength];
+
+            for(int j = 0; j < readLength; ++j)
+            {
+                baseQuals[j] = (byte)(random.nextInt(10) < 9 ? 37 : 11);
+            }
+
+            read.setBaseQualities(baseQuals);
+            read.setMappingQuality(random.nextInt(10) < 9 ? 60 : random.nextInt(20));
+            read.setReadPairedFlag(true);
+            read.setFirstOfPairFlag(random.nextBoolean());
+            read.setSecondOfPairFlag(!read.getFirstOfPairFlag());
+            read.setReadNegativeStrandFlag(random.nextBoolean());
+            read.setDuplicateReadFlag(random.nextInt(10) == 0);
+            read.setSupplementaryAlignmentFlag(random.nextInt(50) == 0);
+            read.setSecondaryAlignment(random.nextInt(100) == 0);
+            reads.add(read);
+        }
+
+        return reads;
+    }
+
+    private SyntheticData() {}
+}
@@ -12,6 +12,17 @@ class AlignerTraits
 
     protected boolean mLogWorkMatrix = false;
 
+    public static final int NO_BAND = -1;
+
+    // maximum distance of a cell from the diagonals joining the start and end of the two sequences, or NO_BAND to fill every cell
+    protected int mBandWidth = NO_BAND;
+
+    // alignments run to completion on the calling thread, so each thread can reuse a single matrix
+    private static final ThreadLocal<WorkMatrix> WORK_MATRIX = ThreadLocal.withInitial(WorkMatrix::new);
+
+    // matrices above this size (16MB) are allocated for the one alignment, so a thread does not retain its largest-ever matrix
+    protected static final int MAX_RETAINED_MATRIX_ENTRIES = 1 << 22;
+
     public AlignerTraits(int matchScore, int mismatchScore, int gapOpeningScore, int gapExtensionScore)
     {
         Preconditions.checkArgument(matchScore > 0);
@@ -24,8 +35,40 @@ class AlignerTraits
         this.mGapExtensionScore = gapExtensionScore;
     }
 
+    protected static WorkMatrix workMatrix(int numRows, int numCols)
+    {
+        if((long)numRows * numCols > MAX_RETAINED_MATRIX_ENTRIES)
+            return new WorkMatrix(numRows, numCols);
+
+        WorkMatrix matrix = WORK_MATRIX.get();
+        matrix.reset(numRows, numCols);
+        return matrix;
+    }
+
     public void setLogWorkMatrix(boolean b)
     {
         mLogWorkMatrix = b;
     }
+
+    public void setBandWidth(int bandWidth)
+    {
+        Preconditions.checkArgument(bandWidth >= 0 || bandWidth == NO_BAND);
+        mBandWidth = bandWidth;
+    }
+
+    protected int bandColumnStart(int row, int numRows, int numCols)
+    {
+        if (mBandWidth == NO_BAND)
+            return 1;
+
+        return Math.max(1, row + Math.min(0, numCols - numRows) - mBandWidth);
+    }
+
+    protected int bandColumnEnd(int row, int numRows, int numCols)
+    {
+        if (mBandWidth == NO_BAND)
+            return numCols - 1;
+
+        return Math.min(numCols - 1, row + Math.max(0, numCols - numRows) + mBandWidth);
+    }
 }
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.common.aligner;
 
 import static com.hartwig.hmftools.common.aligner.WorkMatrix.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -19,6 +20,8 @@ import org.jetbrains.annotations.NotNull;
 //    var aligner = new GlobalSequenceAligner(1, -3, -5, -1);
 //    GlobalSequenceAligner.Alignment alignment = aligner.alignSequence(seq, refSeq);
 //
+// As with the local aligner, the work matrix is reused by each thread, a band width can be set and alignScore() skips the traceback.
+//
 // The alignment object contains a list of AlignmentOperators, which are MATCH, MISMATCH, INSERTION or DELETION.
 //
 // We can also use alignment.log() function to log the alignment in the format:
@@ -40,13 +43,18 @@ public class GlobalSequenceAligner extends AlignerTraits
 {
     public static class Alignment
     {
-        private final String mFirstSequence;
-        private final String mSecondSequence;
+        private final byte[] mFirstSequence;
+        private final byte[] mSecondSequence;
 
         private final List<AlignmentOperator> mAlignmentOperators;
         private final int mScore;
 
         public Alignment(String firstSequence, String secondSequence, List<AlignmentOperator> alignOps, int score)
+        {
+            this(firstSequence.getBytes(StandardCharsets.US_ASCII), secondSequence.getBytes(StandardCharsets.US_ASCII), alignOps, score);
+        }
+
+        public Alignment(byte[] firstSequence, byte[] secondSequence, List<AlignmentOperator> alignOps, int score)
         {
             mFirstSequence = firstSequence;
             mSecondSequence = secondSequence;
@@ -54,8 +62,8 @@ public class GlobalSequenceAligner extends AlignerTraits
             mScore = score;
         }
 
-        public String getFirstSequence() { return mFirstSequence; }
-        public String getSecondSequence() { return mSecondSequence; }
+        public String getFirstSequence() { return new String(mFirstSequence); }
+        public String getSecondSequence() { return new String(mSecondSequence); }
 
         public List<AlignmentOperator> getOperators() { return mAlignmentOperators; }
         public int getScore() { return mScore; }
@@ -64,7 +72,7 @@ public class GlobalSequenceAligner extends AlignerTraits
 
         public void log(@NotNull Logger logger, @NotNull Level logLevel)
         {
-            AlignmentOperator.logAlignment(logger, logLevel, mFirstSequence, mSecondSequence, mAlignmentOperators);
+            AlignmentOperator.logAlignment(logger, logLevel, getFirstSequence(), getSecondSequence(), mAlignmentOperators);
         }
     }
 
@@ -85,15 +93,34 @@ public class GlobalSequenceAligner extends AlignerTraits
     @NotNull
     public Alignment alignSequence(@NotNull String seq, @NotNull String refSeq)
     {
-        return alignSequenceImpl(seq, refSeq);
+        return alignSequence(seq.getBytes(StandardCharsets.US_ASCII), refSeq.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @NotNull
+    public Alignment alignSequence(@NotNull byte[] seq, @NotNull byte[] refSeq)
+    {
+        return alignSequenceImpl(seq, refSeq, false);
+    }
+
+    // score of the global alignment, skipping the traceback
+    public int alignScore(@NotNull String seq, @NotNull String refSeq)
+    {
+        return alignScore(seq.getBytes(StandardCharsets.US_ASCII), refSeq.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public int alignScore(@NotNull byte[] seq, @NotNull byte[] refSeq)
+    {
+        return alignSequenceImpl(seq, refSeq, true).getScore();
     }
 
     @NotNull
-    private Alignment alignSequenceImpl(@NotNull String seq, @NotNull String refSeq)
+    private Alignment alignSequenceImpl(@NotNull byte[] seq, @NotNull byte[] refSeq, boolean scoreOnly)
     {
-        int nRows = seq.length() + 1;
-        int nCols = refSeq.length() + 1;
-        var matrix = new WorkMatrix(nRows, nCols);
+        int nRows = seq.length + 1;
+        int nCols = refSeq.length + 1;
+
+        // without a traceback only the current and previous rows are needed
+        WorkMatrix matrix = workMatrix(scoreOnly ? 2 : nRows, nCols);
 
         // initialise matrix
         // first step each we initialise the first row and first column of the matrix
@@ -105,24 +132,35 @@ public class GlobalSequenceAligner extends AlignerTraits
             matrix.setEntry(0, y, matrix.getScore(0, y - 1) + mGapOpeningScore, TRACEBACK_LEFT);
         }
 
-        // first column, this corresponds to inserts at the start
-        for (int x = 1; x < nRows; ++x)
-        {
-            matrix.setEntry(x, 0, matrix.getScore(x - 1, 0) + mGapOpeningScore, TRACEBACK_UP);
-        }
+        int firstColumnScore = 0;
 
         // now we can fill up the rest of the matrix as required
         for (int x = 1; x < nRows; ++x)
         {
-            for (int y = 1; y < nCols; ++y)
+            int row = scoreOnly ? (x & 1) : x;
+            int prevRow = scoreOnly ? ((x - 1) & 1) : x - 1;
+
+            int yStart = bandColumnStart(x, nRows, nCols);
+            int yEnd = bandColumnEnd(x, nRows, nCols);
+
+            // first column, this corresponds to inserts at the start
+            firstColumnScore += mGapOpeningScore;
+            matrix.setEntry(row, 0, firstColumnScore, TRACEBACK_UP);
+
+            // the cells just outside the band are read by the cells at its edges
+            if (yStart > 1)
             {
-                int i = x - 1;
-                int j = y - 1;
+                matrix.setEntry(row, yStart - 1, OUTSIDE_BAND_SCORE, TRACEBACK_END);
+            }
 
+            byte base = seq[x - 1];
+
+            for (int y = yStart; y <= yEnd; ++y)
+            {
                 // now we need to work out which path to take
-                int diagScore = matrix.getScore(i, j);
+                int diagScore = matrix.getScore(prevRow, y - 1);
 
-                if (seq.charAt(i) == refSeq.charAt(j))
+                if (base == refSeq[y - 1])
                 {
                     diagScore += mMatchScore;
                 }
@@ -133,11 +171,9 @@ public class GlobalSequenceAligner extends AlignerTraits
 
                 // going left means this base is a delete
                 // we must decide if this is gap extension or gap opening
-                i = x;
-                j = y - 1;
-                int leftScore = matrix.getScore(i, j);
+                int leftScore = matrix.getScore(row, y - 1);
 
-                if (matrix.getTraceback(i, j) == TRACEBACK_LEFT)
+                if (matrix.getTraceback(row, y - 1) == TRACEBACK_LEFT)
                 {
                     // extend previous gap
                     leftScore += mGapExtensionScore;
@@ -149,11 +185,9 @@ public class GlobalSequenceAligner extends AlignerTraits
                 }
 
                 // going up means this base is an insert
-                i = x - 1;
-                j = y;
-                int upScore = matrix.getScore(i, j);
+                int upScore = matrix.getScore(prevRow, y);
 
-                if (matrix.getTraceback(i, j) == TRACEBACK_UP)
+                if (matrix.getTraceback(prevRow, y) == TRACEBACK_UP)
                 {
                     // extend previous gap
                     upScore += mGapExtensionScore;
@@ -164,35 +198,33 @@ public class GlobalSequenceAligner extends AlignerTraits
                     upScore += mGapOpeningScore;
                 }
 
-                //assert(!Double.isNaN(diagScore));
-                //assert(!Double.isNaN(leftScore));
-                //assert(!Double.isNaN(upScore));
-
-                // for the purpose we want to
-                if (diagScore >= leftScore)
+                if (diagScore >= leftScore && diagScore >= upScore)
                 {
-                    if (diagScore >= upScore)
-                    {
-                        matrix.setEntry(x, y, diagScore, TRACEBACK_DIAG);
-                    }
-                    else
-                    {
-                        matrix.setEntry(x, y, upScore, TRACEBACK_UP);
-                    }
+                    matrix.setEntry(row, y, diagScore, TRACEBACK_DIAG);
                 }
-                else if (leftScore >= upScore)
+                else if (diagScore < leftScore && leftScore >= upScore)
                 {
-                    matrix.setEntry(x, y, leftScore, TRACEBACK_LEFT);
+                    matrix.setEntry(row, y, leftScore, TRACEBACK_LEFT);
                 }
                 else
                 {
-                    matrix.setEntry(x, y, upScore, TRACEBACK_UP);
+                    matrix.setEntry(row, y, upScore, TRACEBACK_UP);
                 }
+            }
 
-                //assert(!Double.isNaN(e.Score));
+            if (yEnd + 1 < nCols)
+            {
+                matrix.setEntry(row, yEnd + 1, OUTSIDE_BAND_SCORE, TRACEBACK_END);
             }
         }
 
+        int score = matrix.getScore(scoreOnly ? (nRows - 1) & 1 : nRows - 1, nCols - 1);
+
+        if (scoreOnly)
+        {
+            return new Alignment(seq, refSeq, Collections.emptyList(), score);
+        }
+
         var alignOps = new ArrayList<AlignmentOperator>();
 
         // now we apply trace back, we start from the last cell and go backwards
@@ -202,7 +234,7 @@ public class GlobalSequenceAligner extends AlignerTraits
             {
                 case TRACEBACK_DIAG:
                     // match or substitution
-                    alignOps.add(seq.charAt(x - 1) == refSeq.charAt(y - 1) ? AlignmentOperator.MATCH : AlignmentOperator.MISMATCH);
+                    alignOps.add(seq[x - 1] == refSeq[y - 1] ? AlignmentOperator.MATCH : AlignmentOperator.MISMATCH);
                     x--;
                     y--;
                     break;
@@ -223,13 +255,12 @@ public class GlobalSequenceAligner extends AlignerTraits
 
         Collections.reverse(alignOps);
 
-        int score = matrix.getScore(nRows - 1, nCols - 1);
         var alignment = new Alignment(seq, refSeq, alignOps, score);
 
         // log matrix
         if (mLogWorkMatrix && LOGGER.isTraceEnabled())
         {
-            matrix.log(LOGGER, Level.TRACE, seq, refSeq);
+            matrix.log(LOGGER, Level.TRACE, new String(seq), new String(refSeq));
         }
 
         if (LOGGER.isTraceEnabled())
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.common.aligner;
 
 import static com.hartwig.hmftools.common.aligner.WorkMatrix.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +19,9 @@ import org.jetbrains.annotations.NotNull;
 //    var aligner = new LocalSequenceAligner(1, -3, -5, -1);
 //    LocalSequenceAligner.Alignment alignment = aligner.alignSequence(seq, refSeq);
 //
+// Sequences can be given as Strings or byte arrays. The work matrix is reused by each thread, an optional band width limits the cells
+// filled to those near the diagonals, and alignScore() returns only the best score, keeping two rows instead of the full matrix.
+//
 // The alignment object contains a list of AlignmentOperators, which are MATCH, MISMATCH, INSERTION or DELETION. It also contains
 // the start and end indices of the aligned segments.
 //
@@ -43,8 +47,8 @@ public class LocalSequenceAligner extends AlignerTraits
 {
     public static class Alignment
     {
-        private final String mFirstSequence;
-        private final String mSecondSequence;
+        private final byte[] mFirstSequence;
+        private final byte[] mSecondSequence;
 
         private final int mFirstSeqAlignStart;
         private final int mFirstSeqAlignEnd;
@@ -59,6 +63,16 @@ public class LocalSequenceAligner extends AlignerTraits
                 int leftSeqAlignStart, int leftSeqAlignEnd,
                 int rightSeqAlignStart, int rightSeqAlignEnd,
                 List<AlignmentOperator> alignOps, int score)
+        {
+            this(firstSequence.getBytes(StandardCharsets.US_ASCII), secondSequence.getBytes(StandardCharsets.US_ASCII), leftSeqAlignStart, leftSeqAlignEnd,
+                    rightSeqAlignStart, rightSeqAlignEnd, alignOps, score);
+        }
+
+        public Alignment(
+                byte[] firstSequence, byte[] secondSequence,
+                int leftSeqAlignStart, int leftSeqAlignEnd,
+                int rightSeqAlignStart, int rightSeqAlignEnd,
+                List<AlignmentOperator> alignOps, int score)
         {
             mFirstSequence = firstSequence;
             mSecondSequence = secondSequence;
@@ -70,8 +84,8 @@ public class LocalSequenceAligner extends AlignerTraits
             mScore = score;
         }
 
-        public String getFirstSequence() { return mFirstSequence; }
-        public String getSecondSequence() { return mSecondSequence; }
+        public String getFirstSequence() { return new String(mFirstSequence); }
+        public String getSecondSequence() { return new String(mSecondSequence); }
 
         public int getFirstSequenceAlignStart() { return mFirstSeqAlignStart; }
         public int getFirstSequenceAlignEnd() { return mFirstSeqAlignEnd; }
@@ -88,7 +102,7 @@ public class LocalSequenceAligner extends AlignerTraits
 
         public void log(@NotNull Logger logger, @NotNull Level logLevel)
         {
-            AlignmentOperator.logAlignment(logger, logLevel, mFirstSequence, mSecondSequence,
+            AlignmentOperator.logAlignment(logger, logLevel, getFirstSequence(), getSecondSequence(),
                     mFirstSeqAlignStart, mSecondSeqAlignStart, mAlignmentOperators);
         }
     }
@@ -110,30 +124,40 @@ public class LocalSequenceAligner extends AlignerTraits
     @NotNull
     public Alignment alignSequence(@NotNull String seq1, @NotNull String seq2)
     {
-        return alignSequenceImpl(seq1, seq2);
+        return alignSequence(seq1.getBytes(StandardCharsets.US_ASCII), seq2.getBytes(StandardCharsets.US_ASCII));
     }
 
     @NotNull
-    private Alignment alignSequenceImpl(@NotNull String seq, @NotNull String refSeq)
+    public Alignment alignSequence(@NotNull byte[] seq1, @NotNull byte[] seq2)
     {
-        int nRows = seq.length() + 1;
-        int nCols = refSeq.length() + 1;
-        var matrix = new WorkMatrix(nRows, nCols);
+        return alignSequenceImpl(seq1, seq2, false);
+    }
 
-        // initialise matrix
-        // first step each we initialise the first row and first column of the matrix
-        matrix.setEntry(0, 0, 0, TRACEBACK_END);
+    // score of the best local alignment, skipping the traceback
+    public int alignScore(@NotNull String seq1, @NotNull String seq2)
+    {
+        return alignScore(seq1.getBytes(StandardCharsets.US_ASCII), seq2.getBytes(StandardCharsets.US_ASCII));
+    }
 
-        // first row all 0
-        for (int y = 1; y < nCols; ++y)
-        {
-            matrix.setEntry(0, y, matrix.getScore(0, y - 1), TRACEBACK_END);
-        }
+    public int alignScore(@NotNull byte[] seq1, @NotNull byte[] seq2)
+    {
+        return alignSequenceImpl(seq1, seq2, true).getScore();
+    }
 
-        // first column all 0
-        for (int x = 1; x < nRows; ++x)
+    @NotNull
+    private Alignment alignSequenceImpl(@NotNull byte[] seq, @NotNull byte[] refSeq, boolean scoreOnly)
+    {
+        int nRows = seq.length + 1;
+        int nCols = refSeq.length + 1;
+
+        // without a traceback only the current and previous rows are needed
+        WorkMatrix matrix = workMatrix(scoreOnly ? 2 : nRows, nCols);
+
+        // initialise matrix
+        // first row all 0
+        for (int y = 0; y < nCols; ++y)
         {
-            matrix.setEntry(x, 0, matrix.getScore(x - 1, 0), TRACEBACK_END);
+            matrix.setEntry(0, y, 0, TRACEBACK_END);
         }
 
         int highestScoreX = 0;
@@ -143,15 +167,29 @@ public class LocalSequenceAligner extends AlignerTraits
         // now we can fill up the rest of the matrix as required
         for (int x = 1; x < nRows; ++x)
         {
-            for (int y = 1; y < nCols; ++y)
+            int row = scoreOnly ? (x & 1) : x;
+            int prevRow = scoreOnly ? ((x - 1) & 1) : x - 1;
+
+            int yStart = bandColumnStart(x, nRows, nCols);
+            int yEnd = bandColumnEnd(x, nRows, nCols);
+
+            // first column all 0
+            matrix.setEntry(row, 0, 0, TRACEBACK_END);
+
+            // the cells just outside the band are read by the cells at its edges
+            if (yStart > 1)
             {
-                int i = x - 1;
-                int j = y - 1;
+                matrix.setEntry(row, yStart - 1, OUTSIDE_BAND_SCORE, TRACEBACK_END);
+            }
+
+            byte base = seq[x - 1];
 
+            for (int y = yStart; y <= yEnd; ++y)
+            {
                 // now we need to work out which path to take
-                int diagScore = matrix.getScore(i, j);
+                int diagScore = matrix.getScore(prevRow, y - 1);
 
-                if (seq.charAt(i) == refSeq.charAt(j))
+                if (base == refSeq[y - 1])
                 {
                     diagScore += mMatchScore;
                 }
@@ -162,11 +200,9 @@ public class LocalSequenceAligner extends AlignerTraits
 
                 // going left means this base is a delete
                 // we must decide if this is gap extension or gap opening
-                i = x;
-                j = y - 1;
-                int leftScore = matrix.getScore(i, j);
+                int leftScore = matrix.getScore(row, y - 1);
 
-                if (matrix.getTraceback(i, j) == TRACEBACK_LEFT)
+                if (matrix.getTraceback(row, y - 1) == TRACEBACK_LEFT)
                 {
                     // extend previous gap
                     leftScore += mGapExtensionScore;
@@ -178,11 +214,9 @@ public class LocalSequenceAligner extends AlignerTraits
                 }
 
                 // going up means this base is an insert
-                i = x - 1;
-                j = y;
-                int upScore = matrix.getScore(i, j);
+                int upScore = matrix.getScore(prevRow, y);
 
-                if (matrix.getTraceback(i, j) == TRACEBACK_UP)
+                if (matrix.getTraceback(prevRow, y) == TRACEBACK_UP)
                 {
                     // extend previous gap
                     upScore += mGapExtensionScore;
@@ -193,50 +227,57 @@ public class LocalSequenceAligner extends AlignerTraits
                     upScore += mGapOpeningScore;
                 }
 
-                //assert(!Double.isNaN(diagScore));
-                //assert(!Double.isNaN(leftScore));
-                //assert(!Double.isNaN(upScore));
-
                 // for S-W aligner, there are 4 choices
                 // 1. diag match
                 // 2. left delete
                 // 3. up insert
                 // 4. 0 means trace back end
-                if (diagScore >= leftScore)
+                int score;
+                int traceback;
+
+                if (diagScore >= leftScore && diagScore >= upScore)
                 {
-                    if (diagScore >= upScore)
-                    {
-                        matrix.setEntry(x, y, diagScore, TRACEBACK_DIAG);
-                    }
-                    else
-                    {
-                        matrix.setEntry(x, y, upScore, TRACEBACK_UP);
-                    }
+                    score = diagScore;
+                    traceback = TRACEBACK_DIAG;
                 }
-                else if (leftScore >= upScore)
+                else if (diagScore < leftScore && leftScore >= upScore)
                 {
-                    matrix.setEntry(x, y, leftScore, TRACEBACK_LEFT);
+                    score = leftScore;
+                    traceback = TRACEBACK_LEFT;
                 }
                 else
                 {
-                    matrix.setEntry(x, y, upScore, TRACEBACK_UP);
+                    score = upScore;
+                    traceback = TRACEBACK_UP;
                 }
 
-                int score = matrix.getScore(x, y);
-
                 // negative score means trace back end, and set to 0
                 if (score <= 0)
                 {
-                    matrix.setEntry(x, y, 0, TRACEBACK_END);
+                    matrix.setEntry(row, y, 0, TRACEBACK_END);
                 }
-                else if (score > highestScore)
+                else
                 {
-                    highestScore = score;
-                    highestScoreX = x;
-                    highestScoreY = y;
+                    matrix.setEntry(row, y, score, traceback);
+
+                    if (score > highestScore)
+                    {
+                        highestScore = score;
+                        highestScoreX = x;
+                        highestScoreY = y;
+                    }
                 }
-                //assert(!Double.isNaN(e.Score));
             }
+
+            if (yEnd + 1 < nCols)
+            {
+                matrix.setEntry(row, yEnd + 1, OUTSIDE_BAND_SCORE, TRACEBACK_END);
+            }
+        }
+
+        if (scoreOnly)
+        {
+            return new Alignment(seq, refSeq, -1, highestScoreX, -1, highestScoreY, Collections.emptyList(), highestScore);
         }
 
         var alignOps = new ArrayList<AlignmentOperator>();
@@ -252,7 +293,7 @@ public class LocalSequenceAligner extends AlignerTraits
             {
                 case TRACEBACK_DIAG:
                     // match or substitution
-                    alignOps.add(seq.charAt(x - 1) == refSeq.charAt(y - 1) ? AlignmentOperator.MATCH : AlignmentOperator.MISMATCH);
+                    alignOps.add(seq[x - 1] == refSeq[y - 1] ? AlignmentOperator.MATCH : AlignmentOperator.MISMATCH);
                     x--;
                     y--;
                     break;
@@ -282,7 +323,7 @@ public class LocalSequenceAligner extends AlignerTraits
         // log matrix
         if (mLogWorkMatrix && LOGGER.isTraceEnabled())
         {
-            matrix.log(LOGGER, Level.TRACE, seq, refSeq);
+            matrix.log(LOGGER, Level.TRACE, new String(seq), new String(refSeq));
         }
 
         if (LOGGER.isTraceEnabled())
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 // NOTE: here we deliberately use a int array instead of an object
 // array to avoid slow memory access of objects allocated on the heap
 // this speeds up the algorithm by more than 100%
+// the entries are kept between alignments and only grown when needed, so that a thread can reuse one matrix
 class WorkMatrix
 {
     static final int TRACEBACK_END = 0;
@@ -32,12 +33,20 @@ class WorkMatrix
         }
     }
 
-    private final int mNumRows;
-    private final int mNumCols;
+    // score given to cells outside the band, low enough to never be chosen but still within the 30 score bits
+    static final int OUTSIDE_BAND_SCORE = -(1 << 27);
+
+    private int mNumRows;
+    private int mNumCols;
 
     // we use a int matrix with bit shift to make it fast
     // the first 30 bits is the score, the last 2 bits is the traceback move
-    private final int[] mEntries;
+    private int[] mEntries;
+
+    public WorkMatrix()
+    {
+        this(0, 0);
+    }
 
     public WorkMatrix(int numRows, int numCols)
     {
@@ -46,6 +55,16 @@ class WorkMatrix
         mEntries = new int[numRows * numCols];
     }
 
+    // entries are not cleared, so every cell must be set before it is read
+    public void reset(int numRows, int numCols)
+    {
+        mNumRows = numRows;
+        mNumCols = numCols;
+
+        if (mEntries.length < numRows * numCols)
+            mEntries = new int[numRows * numCols];
+    }
+
     public int numRows() { return mNumRows; }
     public int numCols() { return mNumCols; }
 
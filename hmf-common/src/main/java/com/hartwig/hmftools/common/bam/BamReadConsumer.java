@@ -0,0 +1,17 @@
+package com.hartwig.hmftools.common.bam;
+
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import htsjdk.samtools.SAMRecord;
+
+// a consumer of reads from a BamReadFanOut, which decodes each partition once for all registered consumers
+public interface BamReadConsumer
+{
+    // reads failing this filter are not passed to the consumer
+    BamSlicerFilter filter();
+
+    // called concurrently from the slicer's threads with the partition being read - records are shared so must not be modified
+    void processRead(final SAMRecord record, final ChrBaseRegion partition);
+
+    default void partitionComplete(final ChrBaseRegion partition) {}
+}
@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.common.bam;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReaderFactory;
+
+public class BamReadFanOut
+{
+    // slices a BAM once through a BamSlicer and hands each record to every registered consumer whose filter it passes, so consumers
+    // sharing a process no longer decode the same BAM in turn
+    private final BamSlicer mBamSlicer;
+    private final List<BamReadConsumer> mConsumers;
+
+    public BamReadFanOut()
+    {
+        // the slicer keeps any read a consumer may want, and each consumer's own filter then selects its reads
+        BamSlicerFilter filter = new BamSlicerFilter(0, true, true, true);
+        filter.setKeepUnmapped();
+        filter.setKeepHardClippedSecondaries();
+
+        mBamSlicer = new BamSlicer(filter);
+        mConsumers = Lists.newArrayList();
+    }
+
+    public void registerConsumer(final BamReadConsumer consumer) { mConsumers.add(consumer); }
+
+    public List<BamReadConsumer> consumers() { return mConsumers; }
+
+    // usage:
+    //    BamReadFanOut bamReadFanOut = new BamReadFanOut();
+    //    bamReadFanOut.registerConsumer(jitterConsumer);
+    //    bamReadFanOut.registerConsumer(metricsConsumer);
+    //
+    //    // wait for all partitions to be read and passed to every consumer
+    //    bamReadFanOut.queryAsync(new File(config.BamPath), readerFactory, partitions, executorService).get();
+    //
+    public CompletableFuture<Void> queryAsync(
+            final File bamFile, final SamReaderFactory readerFactory, final Collection<ChrBaseRegion> partitions,
+            final ExecutorService executorService)
+    {
+        return mBamSlicer.queryAsync(
+                bamFile, readerFactory, partitions, false, executorService, this::processRead, this::partitionComplete);
+    }
+
+    public void processRead(final SAMRecord record, final ChrBaseRegion partition)
+    {
+        for(int i = 0; i < mConsumers.size(); ++i)
+        {
+            BamReadConsumer consumer = mConsumers.get(i);
+
+            if(consumer.filter().passesFilters(record))
+                consumer.processRead(record, partition);
+        }
+    }
+
+    public void partitionComplete(final ChrBaseRegion partition)
+    {
+        mConsumers.forEach(x -> x.partitionComplete(partition));
+    }
+}
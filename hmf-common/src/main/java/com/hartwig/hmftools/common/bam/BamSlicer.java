@@ -304,7 +304,7 @@ public class BamSlicer
         for(ChrBaseRegion region : regions)
         {
             Runnable task = () -> {
-                SAM_LOGGER.printf(Level.INFO, "queryAsync region(%s:%,d-%,d)", region.chromosome(), region.start(), region.end());
+                SAM_LOGGER.printf(Level.DEBUG, "queryAsync region(%s:%,d-%,d)", region.chromosome(), region.start(), region.end());
                 slice(threadBamReader.get(), region, samRecord -> samRecordConsumer.accept(samRecord, region));
                 if(regionCompleteNotify != null)
                 {
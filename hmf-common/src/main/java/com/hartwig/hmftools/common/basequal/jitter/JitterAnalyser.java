@@ -12,6 +12,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hartwig.hmftools.common.bam.BamReadConsumer;
 import com.hartwig.hmftools.common.bam.BamSlicerFilter;
 import com.hartwig.hmftools.common.utils.r.RExecutor;
 
@@ -52,6 +53,12 @@ public class JitterAnalyser
         mSampleReadProcessor.processRead(read);
     }
 
+    // a consumer for a BAM pass shared with other collectors, after which the analysis output can be written as usual
+    public BamReadConsumer bamReadConsumer()
+    {
+        return new SampleBamProcessor(mConfig, mBamSlicerFilter, mSampleReadProcessor);
+    }
+
     public void writeAnalysisOutput() throws IOException, InterruptedException
     {
         Collection<MicrosatelliteSiteAnalyser> microsatelliteSiteAnalysers = mSampleReadProcessor.getMicrosatelliteSiteAnalysers();
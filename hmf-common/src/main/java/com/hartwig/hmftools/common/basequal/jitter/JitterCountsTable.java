@@ -96,11 +96,15 @@ public class JitterCountsTable
                 // get all the read counts into a row object
                 Row row = newTable.new Row(microsatelliteSiteAnalyser.refGenomeMicrosatellite.numRepeat);
 
-                for(MicrosatelliteRead microsatelliteRead : microsatelliteSiteAnalyser.getPassingReadRepeatMatches())
+                for(int numRepeatUnits = 0; numRepeatUnits <= microsatelliteSiteAnalyser.maxRepeatUnits(); ++numRepeatUnits)
                 {
-                    int numRepeatUnits = microsatelliteRead.numRepeatUnits();
-                    int jitter = numRepeatUnits - row.refNumUnits;
-                    row.addRead(jitter);
+                    int readCount = microsatelliteSiteAnalyser.getCountWithRepeatUnits(numRepeatUnits);
+
+                    if(readCount > 0)
+                    {
+                        int jitter = numRepeatUnits - row.refNumUnits;
+                        row.addReads(jitter, readCount);
+                    }
                 }
 
                 // use the row object to perform outlier test
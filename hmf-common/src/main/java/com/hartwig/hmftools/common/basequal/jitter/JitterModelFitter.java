@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
 
 import com.hartwig.hmftools.common.utils.Doubles;
 
@@ -177,10 +178,6 @@ public class JitterModelFitter
     @Nullable
     public ScaleSkew gridSearch(int numRepeats)
     {
-        double minLoss = Double.MAX_VALUE;
-        double bestScale = Double.NaN;
-        double bestSkew = Double.NaN;
-
         JitterCountsTable.Row row = mStatsTable.getRow(numRepeats);
 
         if(row == null)
@@ -197,24 +194,140 @@ public class JitterModelFitter
 
         JitterModelLoss lossCalc = new JitterModelLoss(row, numRepeats, lengthMinusOneScale);
 
-        for(double scale = 0.05; scale <= 5.001; scale = searchIncrement(scale))
+        // seed from a coarse pass over the search grid and a full-resolution pass around its minimum, then refine scale and skew
+        // in turn with a golden-section search between the neighbouring grid points, rather than evaluating every grid point
+        int bestScaleIndex = 0;
+        int bestSkewIndex = 0;
+        double minLoss = Double.MAX_VALUE;
+
+        for(int i = 0; i < SEARCH_VALUES.length; i += COARSE_GRID_STEP)
         {
-            for(double skew = 0.05; skew <= 5.001; skew = searchIncrement(skew))
+            for(int j = 0; j < SEARCH_VALUES.length; j += COARSE_GRID_STEP)
             {
-                double loss = lossCalc.totalLoss(scale, skew);
+                double loss = lossCalc.totalLoss(SEARCH_VALUES[i], SEARCH_VALUES[j]);
 
                 if(loss < minLoss)
                 {
                     minLoss = loss;
-                    bestScale = scale;
-                    bestSkew = skew;
+                    bestScaleIndex = i;
+                    bestSkewIndex = j;
                 }
             }
         }
 
+        // then the full grid resolution around the coarse minimum
+        int coarseScaleIndex = bestScaleIndex;
+        int coarseSkewIndex = bestSkewIndex;
+
+        for(int i = gridIndexLower(coarseScaleIndex, COARSE_GRID_STEP); i <= gridIndexUpper(coarseScaleIndex, COARSE_GRID_STEP); ++i)
+        {
+            for(int j = gridIndexLower(coarseSkewIndex, COARSE_GRID_STEP); j <= gridIndexUpper(coarseSkewIndex, COARSE_GRID_STEP); ++j)
+            {
+                double loss = lossCalc.totalLoss(SEARCH_VALUES[i], SEARCH_VALUES[j]);
+
+                if(loss < minLoss)
+                {
+                    minLoss = loss;
+                    bestScaleIndex = i;
+                    bestSkewIndex = j;
+                }
+            }
+        }
+
+        double bestScale = SEARCH_VALUES[bestScaleIndex];
+        double bestSkew = SEARCH_VALUES[bestSkewIndex];
+
+        double scaleLower = SEARCH_VALUES[gridIndexLower(bestScaleIndex, 1)];
+        double scaleUpper = SEARCH_VALUES[gridIndexUpper(bestScaleIndex, 1)];
+        double skewLower = SEARCH_VALUES[gridIndexLower(bestSkewIndex, 1)];
+        double skewUpper = SEARCH_VALUES[gridIndexUpper(bestSkewIndex, 1)];
+
+        for(int iteration = 0; iteration < MAX_REFINE_ITERATIONS; ++iteration)
+        {
+            double previousLoss = minLoss;
+
+            final double fixedSkew = bestSkew;
+            double scale = goldenSectionSearch(x -> lossCalc.totalLoss(x, fixedSkew), scaleLower, scaleUpper);
+            double scaleLoss = lossCalc.totalLoss(scale, bestSkew);
+
+            if(scaleLoss < minLoss)
+            {
+                minLoss = scaleLoss;
+                bestScale = scale;
+            }
+
+            final double fixedScale = bestScale;
+            double skew = goldenSectionSearch(x -> lossCalc.totalLoss(fixedScale, x), skewLower, skewUpper);
+            double skewLoss = lossCalc.totalLoss(bestScale, skew);
+
+            if(skewLoss < minLoss)
+            {
+                minLoss = skewLoss;
+                bestSkew = skew;
+            }
+
+            if(previousLoss - minLoss < REFINE_LOSS_TOLERANCE)
+                break;
+        }
+
         return ScaleSkew.of(bestScale, bestSkew, minLoss);
     }
 
+    private static final int COARSE_GRID_STEP = 4;
+    private static final int MAX_REFINE_ITERATIONS = 10;
+    private static final double REFINE_LOSS_TOLERANCE = 1e-6;
+    private static final double GOLDEN_SECTION_TOLERANCE = 0.001;
+    private static final double INV_GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+    static final double[] SEARCH_VALUES = searchValues();
+
+    private static int gridIndexLower(int index, int step) { return Math.max(index - step, 0); }
+    private static int gridIndexUpper(int index, int step) { return Math.min(index + step, SEARCH_VALUES.length - 1); }
+
+    private static double goldenSectionSearch(final DoubleUnaryOperator lossFunc, double lower, double upper)
+    {
+        double a = lower;
+        double b = upper;
+        double c = b - INV_GOLDEN_RATIO * (b - a);
+        double d = a + INV_GOLDEN_RATIO * (b - a);
+        double lossC = lossFunc.applyAsDouble(c);
+        double lossD = lossFunc.applyAsDouble(d);
+
+        while(b - a > GOLDEN_SECTION_TOLERANCE)
+        {
+            if(lossC < lossD)
+            {
+                b = d;
+                d = c;
+                lossD = lossC;
+                c = b - INV_GOLDEN_RATIO * (b - a);
+                lossC = lossFunc.applyAsDouble(c);
+            }
+            else
+            {
+                a = c;
+                c = d;
+                lossC = lossD;
+                d = a + INV_GOLDEN_RATIO * (b - a);
+                lossD = lossFunc.applyAsDouble(d);
+            }
+        }
+
+        return (a + b) / 2;
+    }
+
+    private static double[] searchValues()
+    {
+        List<Double> values = new ArrayList<>();
+
+        for(double value = 0.05; value <= 5.001; value = searchIncrement(value))
+        {
+            values.add(value);
+        }
+
+        return values.stream().mapToDouble(x -> x).toArray();
+    }
+
     private static double searchIncrement(double last)
     {
         if(Doubles.lessOrEqual(last, 0.25))
@@ -1,10 +1,8 @@
 package com.hartwig.hmftools.common.basequal.jitter;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.utils.Doubles;
 
@@ -22,38 +20,74 @@ public class MicrosatelliteSiteAnalyser
 
     final RefGenomeMicrosatellite refGenomeMicrosatellite;
 
-    private final List<MicrosatelliteRead> mMicrosatelliteReads = new ArrayList<>();
+    // reads are not retained, only a count of passing reads by their repeat length in bases
+    private int[] mRepeatLengthCounts;
+    private int mReadCount;
+    private int mRejectedReadCount;
 
-    public List<MicrosatelliteRead> getReadRepeatMatches() { return mMicrosatelliteReads; }
-
-    public List<MicrosatelliteRead> getPassingReadRepeatMatches()
-    {
-        return mMicrosatelliteReads.stream().filter(o -> !o.shouldDropRead).collect(Collectors.toList());
-    }
-
-    public int numReadRejected()
-    {
-        return (int) mMicrosatelliteReads.stream().filter(o -> o.shouldDropRead).count();
-    }
+    private static final int JITTER_RANGE = 10;
 
     public MicrosatelliteSiteAnalyser(final RefGenomeMicrosatellite refGenomeMicrosatellite)
     {
         this.refGenomeMicrosatellite = refGenomeMicrosatellite;
+
+        // sized to allow for typical jitter either side of the reference length, and extended if a read exceeds this
+        mRepeatLengthCounts = new int[refGenomeMicrosatellite.baseLength() + JITTER_RANGE * refGenomeMicrosatellite.unit.length + 1];
+        mReadCount = 0;
+        mRejectedReadCount = 0;
     }
 
+    public int readCount() { return mReadCount; }
+    public int numReadRejected() { return mRejectedReadCount; }
+    public int passingReadCount() { return mReadCount - mRejectedReadCount; }
+
     public synchronized void addReadToStats(final SAMRecord read)
     {
         if(read.getReadUnmappedFlag() || read.getDuplicateReadFlag())
             return;
 
-        mMicrosatelliteReads.add(MicrosatelliteRead.from(refGenomeMicrosatellite, read));
+        MicrosatelliteRead microsatelliteRead = MicrosatelliteRead.from(refGenomeMicrosatellite, read);
+
+        ++mReadCount;
+
+        if(microsatelliteRead.shouldDropRead)
+        {
+            ++mRejectedReadCount;
+            return;
+        }
+
+        int readRepeatLength = microsatelliteRead.readRepeatLength();
+
+        if(readRepeatLength >= mRepeatLengthCounts.length)
+            mRepeatLengthCounts = Arrays.copyOf(mRepeatLengthCounts, readRepeatLength + 1);
+
+        ++mRepeatLengthCounts[readRepeatLength];
     }
 
     public int getCountWithRepeatUnits(int numRepeatUnits)
     {
-        return (int)getPassingReadRepeatMatches().stream().filter(o -> o.numRepeatUnits() == numRepeatUnits).count();
+        if(numRepeatUnits < 0)
+            return 0;
+
+        // repeat units are the read repeat length divided by the unit length, rounding down
+        int unitLength = refGenomeMicrosatellite.unit.length;
+        int minLength = numRepeatUnits * unitLength;
+        int maxLength = Math.min(minLength + unitLength, mRepeatLengthCounts.length);
+
+        int count = 0;
+
+        for(int length = minLength; length < maxLength; ++length)
+        {
+            count += mRepeatLengthCounts[length];
+        }
+
+        return count;
     }
 
+    public int maxRepeatUnits() { return (mRepeatLengthCounts.length - 1) / refGenomeMicrosatellite.unit.length; }
+
+    public int[] repeatLengthCounts() { return mRepeatLengthCounts; }
+
     public boolean shouldKeepSite(final double altCountFractionInit,
             final double altCountFractionCutoffStep,
             final double rejectedReadFractionCutoff)
@@ -68,7 +102,8 @@ public class MicrosatelliteSiteAnalyser
     {
         Validate.isTrue(altCountFractionCutoffStep <= 0.0);
 
-        double fractionRejected = 1.0 - getPassingReadRepeatMatches().size() / (double)getReadRepeatMatches().size();
+        int passingReadCount = passingReadCount();
+        double fractionRejected = 1.0 - passingReadCount / (double)mReadCount;
 
         if(Doubles.greaterOrEqual(fractionRejected, rejectedReadFractionCutoff))
         {
@@ -77,13 +112,14 @@ public class MicrosatelliteSiteAnalyser
 
         Map<Integer, Integer> repeatReadCounts = new HashMap<>();
 
-        for(MicrosatelliteRead microsatelliteRead : getPassingReadRepeatMatches())
+        for(int numRepeatUnits = 0; numRepeatUnits <= maxRepeatUnits(); ++numRepeatUnits)
         {
-            int repeatDiff = refGenomeMicrosatellite.numRepeat - microsatelliteRead.numRepeatUnits();
+            int repeatDiff = refGenomeMicrosatellite.numRepeat - numRepeatUnits;
+            int readCount = getCountWithRepeatUnits(numRepeatUnits);
 
-            if(repeatDiff != 0)
+            if(repeatDiff != 0 && readCount > 0)
             {
-                repeatReadCounts.merge(repeatDiff, 1, Integer::sum);
+                repeatReadCounts.put(repeatDiff, readCount);
             }
         }
 
@@ -93,7 +129,7 @@ public class MicrosatelliteSiteAnalyser
             int readCount = entry.getValue();
 
             double fractionCutoff = Math.max(altCountFractionInit + (Math.abs(repeatDiff) - 1) * altCountFractionCutoffStep, 0.1);
-            double countCutoff = fractionCutoff * getPassingReadRepeatMatches().size();
+            double countCutoff = fractionCutoff * passingReadCount;
             if(Doubles.greaterThan(readCount, countCutoff))
             {
                 return true;
@@ -4,11 +4,11 @@ import java.io.File;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.utils.file.DelimFileWriter;
 
-import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 
 //
@@ -78,8 +78,8 @@ public class MicrosatelliteSiteFile
             row.set(START, repeatAnalyser.refGenomeMicrosatellite.referenceStart());
             row.set(END, repeatAnalyser.refGenomeMicrosatellite.referenceEnd());
             row.set(UNIT,  repeatAnalyser.refGenomeMicrosatellite.unitString());
-            row.set(NUM_READS, repeatAnalyser.getReadRepeatMatches().size());
-            row.set(NUM_READS_REJECTED, repeatAnalyser.getReadRepeatMatches().stream().filter(o -> o.shouldDropRead).count());
+            row.set(NUM_READS, repeatAnalyser.readCount());
+            row.set(NUM_READS_REJECTED, repeatAnalyser.numReadRejected());
             row.set(REAL_VARIANT, repeatAnalyser.isRealVariant(JitterAnalyserConstants.ALT_COUNT_FRACTION_INIT, JitterAnalyserConstants.ALT_COUNT_FRACTION_STEP,
                     JitterAnalyserConstants.MAX_REJECTED_READ_FRACTION));
             int refNumRepeat = repeatAnalyser.refGenomeMicrosatellite.numRepeat;
@@ -107,14 +107,23 @@ public class MicrosatelliteSiteFile
             row.set(COUNT_m2, repeatAnalyser.getCountWithRepeatUnits(refNumRepeat - 2));
             row.set(COUNT_m1, repeatAnalyser.getCountWithRepeatUnits(refNumRepeat - 1));
 
-            row.set(READ_REPEAT_LENGTHS, getRepeatString(repeatAnalyser.getPassingReadRepeatMatches()));
+            row.set(READ_REPEAT_LENGTHS, getRepeatString(repeatAnalyser.repeatLengthCounts()));
         });
     }
 
-    public static String getRepeatString(final List<MicrosatelliteRead> microsatelliteReads)
+    public static String getRepeatString(final int[] repeatLengthCounts)
     {
-        List<Integer> repeatLengths = microsatelliteReads.stream().filter(o -> !o.shouldDropRead).map(MicrosatelliteRead::readRepeatLength).collect(
-                Collectors.toList());
-        return StringUtils.join(repeatLengths, ",");
+        // passing read repeat lengths in ascending order
+        StringJoiner sj = new StringJoiner(",");
+
+        for(int length = 0; length < repeatLengthCounts.length; ++length)
+        {
+            for(int i = 0; i < repeatLengthCounts[length]; ++i)
+            {
+                sj.add(String.valueOf(length));
+            }
+        }
+
+        return sj.toString();
     }
 }
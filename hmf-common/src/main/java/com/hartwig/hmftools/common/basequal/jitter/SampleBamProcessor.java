@@ -16,17 +16,19 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.UncheckedExecutionException;
-import com.hartwig.hmftools.common.bam.BamSlicer;
+import com.hartwig.hmftools.common.bam.BamReadConsumer;
+import com.hartwig.hmftools.common.bam.BamReadFanOut;
 import com.hartwig.hmftools.common.bam.BamSlicerFilter;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 
+import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.cram.ref.ReferenceSource;
 
 // For performance reasons, this class is not decoupled from the threading
 // We want to avoid locks, queues as much as possible
-public class SampleBamProcessor
+public class SampleBamProcessor implements BamReadConsumer
 {
     private final BamSlicerFilter mBamSlicerFilter;
     private final SampleReadProcessor mSampleReadProcessor;
@@ -58,6 +60,17 @@ public class SampleBamProcessor
         }
     }
 
+    public List<ChrBaseRegion> partitions() { return mPartitions; }
+
+    @Override
+    public BamSlicerFilter filter() { return mBamSlicerFilter; }
+
+    @Override
+    public void processRead(final SAMRecord record, final ChrBaseRegion partition)
+    {
+        mSampleReadProcessor.processRead(record, partition);
+    }
+
     public void queryBam(final JitterAnalyserConfig config, ExecutorService executorService) throws InterruptedException
     {
         SamReaderFactory readerFactory = SamReaderFactory.make().validationStringency(config.BamStringency);
@@ -66,10 +79,11 @@ public class SampleBamProcessor
             readerFactory = readerFactory.referenceSource(new ReferenceSource(new File(config.RefGenomeFile)));
         }
 
-        BamSlicer bamSlicer = new BamSlicer(mBamSlicerFilter);
+        // jitter is collected on its own here, whereas BamMetrics can collect it in a pass shared with metrics and read depth
+        BamReadFanOut bamReadFanOut = new BamReadFanOut();
+        bamReadFanOut.registerConsumer(this);
 
-        CompletableFuture<Void> bamSliceTasks = bamSlicer.queryAsync(new File(config.BamPath), readerFactory, mPartitions,
-                false, executorService, mSampleReadProcessor::processRead);
+        CompletableFuture<Void> bamSliceTasks = bamReadFanOut.queryAsync(new File(config.BamPath), readerFactory, mPartitions, executorService);
         try
         {
             // wait for all to complete
@@ -1,4 +1,4 @@
-package com.hartwig.hmftools.cobalt.count;
+package com.hartwig.hmftools.common.cobalt;
 
 public class ReadDepth
 {
@@ -1,4 +1,4 @@
-package com.hartwig.hmftools.cobalt.count;
+package com.hartwig.hmftools.common.cobalt;
 
 import static htsjdk.samtools.util.SequenceUtil.C;
 import static htsjdk.samtools.util.SequenceUtil.G;
@@ -91,6 +91,31 @@ public class ReadDepthAccumulator
         return readDepths;
     }
 
+    public int windowCount(String chromosome)
+    {
+        ChromosomeWindowCounts windowCounts = mChromosomeWindowCounts.get(chromosome);
+        return windowCounts != null ? windowCounts.windowReadBaseCounts.length() : 0;
+    }
+
+    // writes a chromosome's window positions, depths and GC content into primitive arrays from the offset, as per
+    // getChromosomeReadDepths but without creating an object per window
+    public void populateChromosomeReadDepths(
+            String chromosome, int offset, final int[] positions, final double[] readDepths, final double[] gcContents)
+    {
+        ChromosomeWindowCounts windowCounts = mChromosomeWindowCounts.get(chromosome);
+
+        if(windowCounts == null)
+            return;
+
+        for(int windowIndex = 0; windowIndex < windowCounts.windowReadBaseCounts.length(); ++windowIndex)
+        {
+            double basesCount = windowCounts.getCount(windowIndex);
+            positions[offset + windowIndex] = getGenomePosition(windowIndex);
+            readDepths[offset + windowIndex] = basesCount / mWindowSize;
+            gcContents[offset + windowIndex] = windowCounts.getGcCount(windowIndex) / basesCount;
+        }
+    }
+
     // Add a read alignment to the base counts
     // this function is thread safe
     // genomeStart is 1 based and genomeEnd is inclusive
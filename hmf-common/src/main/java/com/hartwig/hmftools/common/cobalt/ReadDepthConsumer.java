@@ -0,0 +1,78 @@
+package com.hartwig.hmftools.common.cobalt;
+
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.CONSENSUS_READ_ATTRIBUTE;
+
+import com.hartwig.hmftools.common.bam.BamReadConsumer;
+import com.hartwig.hmftools.common.bam.BamSlicerFilter;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.apache.commons.lang3.Validate;
+
+import htsjdk.samtools.AlignmentBlock;
+import htsjdk.samtools.SAMRecord;
+
+// accumulates read depth per window for one BAM, and can share a BAM pass with other consumers
+public class ReadDepthConsumer implements BamReadConsumer
+{
+    private final BamSlicerFilter mFilter;
+    private final boolean mIncludeDuplicates;
+    private final ReadDepthAccumulator mReadDepthAccumulator;
+
+    public ReadDepthConsumer(int minMappingQuality, boolean includeDuplicates, final ReadDepthAccumulator readDepthAccumulator)
+    {
+        mFilter = new BamSlicerFilter(minMappingQuality, includeDuplicates, false, false);
+        mIncludeDuplicates = includeDuplicates;
+        mReadDepthAccumulator = readDepthAccumulator;
+    }
+
+    @Override
+    public BamSlicerFilter filter() { return mFilter; }
+
+    @Override
+    public void processRead(final SAMRecord record, final ChrBaseRegion region)
+    {
+        if(mIncludeDuplicates)
+        {
+            // revert to only analysing the raw reads
+            if(record.hasAttribute(CONSENSUS_READ_ATTRIBUTE))
+                return;
+        }
+        else
+        {
+            if(record.getDuplicateReadFlag())
+                return;
+        }
+
+        Validate.isTrue(record.getContig().equals(region.Chromosome));
+
+        for(AlignmentBlock currentBlock : record.getAlignmentBlocks())
+        {
+            accumulateAlignmentBlock(region, mReadDepthAccumulator, currentBlock.getReadStart(),
+                    currentBlock.getReferenceStart(), currentBlock.getLength(), record.getReadBases());
+        }
+    }
+
+    @Override
+    public void partitionComplete(final ChrBaseRegion region) {}
+
+    public static void accumulateAlignmentBlock(
+            final ChrBaseRegion region, final ReadDepthAccumulator readDepthAccumulator,
+            final int alignmentBlockReadStart, final int alignmentBlockReferenceStart, final int alignmentBlockLength,
+            byte[] readBases)
+    {
+        // NOTE: we need to adjust start and end to avoid adding counts to regions that belongs to another task
+        // as if we do that they will be double counted
+        int genomeStart = Math.max(alignmentBlockReferenceStart, region.start());
+        int length = Math.min(alignmentBlockReferenceStart + alignmentBlockLength, region.end() + 1) - genomeStart;
+
+        if(length <= 0)
+        {
+            return;
+        }
+
+        // use 0 based index here such that we can use it with java string
+        int readStartIndex = alignmentBlockReadStart - 1;
+        readStartIndex += (genomeStart - alignmentBlockReferenceStart);
+        readDepthAccumulator.addReadAlignmentToCounts(region.Chromosome, genomeStart, length, readBases, readStartIndex);
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -27,6 +28,8 @@ import com.hartwig.hmftools.common.gene.TranscriptProteinData;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
+import org.jetbrains.annotations.Nullable;
+
 public class EnsemblDataCache
 {
     private final String mDataPath;
@@ -39,6 +42,8 @@ public class EnsemblDataCache
     private final Map<Integer,Integer> mTransSpliceAcceptorPosDataMap;
     private final Map<String,GeneData> mGeneDataMap; // keyed by geneId
     private final Map<String,GeneData> mGeneNameIdMap; // for faster look-up by name
+    private final Map<String,GeneRegionIndex> mChrGeneIndexMap; // gene position index keyed by chromosome
+    private final Map<String,TranscriptRegionIndex> mChrTranscriptIndexMap; // transcript position index keyed by chromosome
 
     // whether to load more details information for each transcript - exons, protein domains, splice positions etc
     private boolean mRequireExons;
@@ -72,6 +77,8 @@ public class EnsemblDataCache
         mTransSpliceAcceptorPosDataMap = Maps.newHashMap();
         mGeneDataMap = Maps.newHashMap();
         mGeneNameIdMap = Maps.newHashMap();
+        mChrGeneIndexMap = new ConcurrentHashMap<>();
+        mChrTranscriptIndexMap = new ConcurrentHashMap<>();
         mRequireExons = true;
         mRequireProteinDomains = false;
         mRequireSplicePositions = false;
@@ -117,8 +124,24 @@ public class EnsemblDataCache
     public void setRequireGeneSynonyms() { mRequireGeneSynonyms = true; }
     public void setRequireNonEnsemblTranscripts() { mRequireNonEnsemblTranscripts = true; }
 
-    public Map<String,List<TranscriptData>> getTranscriptDataMap() { return mTranscriptByGeneIdMap; }
-    public Map<String,List<GeneData>> getChrGeneDataMap() { return mChrGeneDataMap; }
+    // the gene and transcript lists are unmodifiable once loaded so the position indices cannot go stale, and are replaced
+    // through the setters below
+    public Map<String,List<TranscriptData>> getTranscriptDataMap() { return Collections.unmodifiableMap(mTranscriptByGeneIdMap); }
+    public Map<String,List<GeneData>> getChrGeneDataMap() { return Collections.unmodifiableMap(mChrGeneDataMap); }
+
+    public void setChrGeneData(final String chromosome, final List<GeneData> geneDataList)
+    {
+        mChrGeneDataMap.put(chromosome, Collections.unmodifiableList(Lists.newArrayList(geneDataList)));
+        mChrGeneIndexMap.remove(chromosome);
+        mChrTranscriptIndexMap.remove(chromosome);
+    }
+
+    public void setTranscriptData(final String geneId, final List<TranscriptData> transDataList)
+    {
+        mTranscriptByGeneIdMap.put(geneId, Collections.unmodifiableList(Lists.newArrayList(transDataList)));
+        mChrTranscriptIndexMap.clear();
+    }
+
     public Map<Integer,List<TranscriptProteinData>> getTranscriptProteinDataMap() { return mEnsemblProteinDataMap; }
 
     public final GeneData getGeneDataByName(final String geneName)
@@ -227,46 +250,57 @@ public class EnsemblDataCache
 
     public TranscriptData getTranscriptData(final int transId) { return mTranscriptsByTransIdMap.get(transId); }
 
-    public final List<GeneData> findGenesByRegion(final String chromosome, int posStart, int posEnd)
+    @Nullable
+    private GeneRegionIndex getGeneRegionIndex(final String chromosome)
     {
-        // find genes if any of their transcripts are within this position
-        List<GeneData> genesList = Lists.newArrayList();
+        final List<GeneData> geneDataList = mChrGeneDataMap.get(chromosome);
 
+        if(geneDataList == null)
+            return null;
+
+        return mChrGeneIndexMap.computeIfAbsent(chromosome, x -> new GeneRegionIndex(geneDataList));
+    }
+
+    @Nullable
+    private TranscriptRegionIndex getTranscriptRegionIndex(final String chromosome)
+    {
         final List<GeneData> geneDataList = mChrGeneDataMap.get(chromosome);
 
-        for(final GeneData geneData : geneDataList)
-        {
-            if(posStart > geneData.GeneEnd || posEnd < geneData.GeneStart)
-                continue;
+        if(geneDataList == null)
+            return null;
 
-            final List<TranscriptData> transList = mTranscriptByGeneIdMap.get(geneData.GeneId);
+        return mChrTranscriptIndexMap.computeIfAbsent(chromosome, x -> new TranscriptRegionIndex(geneDataList, mTranscriptByGeneIdMap));
+    }
 
-            if(transList == null || transList.isEmpty())
-                continue;
+    public void buildGeneRegionIndex()
+    {
+        mChrGeneIndexMap.clear();
+        mChrTranscriptIndexMap.clear();
+        mChrGeneDataMap.keySet().forEach(x -> getGeneRegionIndex(x));
+    }
 
-            for(final TranscriptData transData : transList)
-            {
-                if (posStart <= transData.TransStart && posEnd >= transData.TransEnd)
-                {
-                    genesList.add(geneData);
-                    break;
-                }
-            }
-        }
+    public final List<GeneData> findGenesByRegion(final String chromosome, int posStart, int posEnd)
+    {
+        // find genes if any of their transcripts are within this position
+        TranscriptRegionIndex transcriptRegionIndex = getTranscriptRegionIndex(chromosome);
+
+        if(transcriptRegionIndex == null)
+            return Lists.newArrayList();
 
-        return genesList;
+        return transcriptRegionIndex.findGenesWithContainedTranscript(posStart, posEnd);
     }
 
     public List<GeneData> findGeneRegions(final String chromosome, int position, int upstreamDistance)
     {
         final List<GeneData> matchedGenes = Lists.newArrayList();
 
-        final List<GeneData> geneDataList = mChrGeneDataMap.get(chromosome);
+        GeneRegionIndex geneRegionIndex = getGeneRegionIndex(chromosome);
 
-        if(geneDataList == null)
+        if(geneRegionIndex == null)
             return matchedGenes;
 
-        for(final GeneData geneData : geneDataList)
+        // any matching gene overlaps the position once widened by the upstream distance
+        for(final GeneData geneData : geneRegionIndex.findOverlapping(position - upstreamDistance, position + upstreamDistance))
         {
             int geneStartRange = geneData.Strand == 1 ? geneData.GeneStart - upstreamDistance : geneData.GeneStart;
             int geneEndRange = geneData.Strand == 1 ? geneData.GeneEnd : geneData.GeneEnd + upstreamDistance;
@@ -294,6 +328,14 @@ public class EnsemblDataCache
         return matchedGenes;
     }
 
+    @Nullable
+    public GeneData findNearestUpstreamGene(final String chromosome, int position, byte strand)
+    {
+        // the closest gene on the strand which the position is upstream of
+        GeneRegionIndex geneRegionIndex = getGeneRegionIndex(chromosome);
+        return geneRegionIndex != null ? geneRegionIndex.findNearestUpstreamGene(position, strand) : null;
+    }
+
     public int findPrecedingGeneSpliceAcceptorPosition(int transId)
     {
         if(mTransSpliceAcceptorPosDataMap.isEmpty())
@@ -389,6 +431,9 @@ public class EnsemblDataCache
         if(!loadEnsemblGeneData(mDataPath, mRestrictedGeneIdList, mChrGeneDataMap, mRefGenomeVersion, mRequireGeneSynonyms))
             return false;
 
+        mChrGeneDataMap.replaceAll((x, y) -> Collections.unmodifiableList(y));
+        buildGeneRegionIndex();
+
         if(!delayTranscriptLoading)
         {
             if(!EnsemblDataLoader.loadTranscriptData(
@@ -398,6 +443,8 @@ public class EnsemblDataCache
                 return false;
             }
 
+            onTranscriptsLoaded();
+
             if(mRequireProteinDomains && !loadTranscriptProteinData(mDataPath, mEnsemblProteinDataMap, Sets.newHashSet()))
                 return false;
 
@@ -422,6 +469,8 @@ public class EnsemblDataCache
             return false;
         }
 
+        onTranscriptsLoaded();
+
         Set<Integer> uniqueTransIds = Sets.newHashSet();
 
         for(List<TranscriptData> transDataList : mTranscriptByGeneIdMap.values())
@@ -438,6 +487,12 @@ public class EnsemblDataCache
         return true;
     }
 
+    private void onTranscriptsLoaded()
+    {
+        mTranscriptByGeneIdMap.replaceAll((x, y) -> Collections.unmodifiableList(y));
+        mChrTranscriptIndexMap.clear();
+    }
+
     public static Integer[] getProteinDomainPositions(final TranscriptProteinData proteinData, final TranscriptData transData)
     {
         Integer[] domainPositions = {null, null};
@@ -0,0 +1,176 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static java.lang.Math.max;
+
+import static com.hartwig.hmftools.common.fusion.FusionCommon.POS_STRAND;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.gene.GeneData;
+
+import org.jetbrains.annotations.Nullable;
+
+public class GeneRegionIndex
+{
+    // immutable index over a chromosome's genes, answering overlap and nearest-gene queries with binary searches
+    private final List<GeneData> mGenes; // the chromosome's unmodifiable gene list, in its original order
+
+    // gene indices ordered by start, with the running max end position used to stop overlap scans early
+    private final int[] mStartOrder;
+    private final int[] mStarts;
+    private final int[] mMaxEnds;
+
+    // gene indices ordered by end
+    private final int[] mEndOrder;
+    private final int[] mEnds;
+
+    public GeneRegionIndex(final List<GeneData> genes)
+    {
+        mGenes = genes;
+
+        int geneCount = genes.size();
+
+        mStartOrder = sortedIndices(genes, Comparator.comparingInt(x -> x.GeneStart));
+        mStarts = new int[geneCount];
+        mMaxEnds = new int[geneCount];
+
+        int maxEnd = Integer.MIN_VALUE;
+
+        for(int i = 0; i < geneCount; ++i)
+        {
+            GeneData geneData = genes.get(mStartOrder[i]);
+            mStarts[i] = geneData.GeneStart;
+            maxEnd = max(maxEnd, geneData.GeneEnd);
+            mMaxEnds[i] = maxEnd;
+        }
+
+        mEndOrder = sortedIndices(genes, Comparator.comparingInt(x -> x.GeneEnd));
+        mEnds = new int[geneCount];
+
+        for(int i = 0; i < geneCount; ++i)
+        {
+            mEnds[i] = genes.get(mEndOrder[i]).GeneEnd;
+        }
+    }
+
+    private static int[] sortedIndices(final List<GeneData> genes, final Comparator<GeneData> comparator)
+    {
+        return IntStream.range(0, genes.size()).boxed()
+                .sorted((a, b) -> comparator.compare(genes.get(a), genes.get(b)))
+                .mapToInt(x -> x).toArray();
+    }
+
+    public int geneCount() { return mStarts.length; }
+
+    public List<GeneData> findOverlapping(int posStart, int posEnd)
+    {
+        // returns genes overlapping the region in their original list order
+        int lastCandidate = upperBound(mStarts, posEnd) - 1;
+
+        if(lastCandidate < 0)
+            return Lists.newArrayList();
+
+        int[] matchedIndices = null;
+        int matchCount = 0;
+
+        for(int i = lastCandidate; i >= 0 && mMaxEnds[i] >= posStart; --i)
+        {
+            int geneIndex = mStartOrder[i];
+
+            if(mGenes.get(geneIndex).GeneEnd < posStart)
+                continue;
+
+            if(matchedIndices == null)
+                matchedIndices = new int[4];
+            else if(matchCount == matchedIndices.length)
+                matchedIndices = Arrays.copyOf(matchedIndices, matchCount * 2);
+
+            matchedIndices[matchCount++] = geneIndex;
+        }
+
+        if(matchCount == 0)
+            return Lists.newArrayList();
+
+        Arrays.sort(matchedIndices, 0, matchCount);
+
+        List<GeneData> genes = Lists.newArrayListWithCapacity(matchCount);
+
+        for(int i = 0; i < matchCount; ++i)
+        {
+            genes.add(mGenes.get(matchedIndices[i]));
+        }
+
+        return genes;
+    }
+
+    @Nullable
+    public GeneData findNearestUpstreamGene(int position, byte strand)
+    {
+        // finds the closest gene on the specified strand whose upstream region contains the position, ie the next
+        // gene starting after the position on the forward strand or the previous gene ending before it on the reverse strand
+        if(strand == POS_STRAND)
+        {
+            for(int i = upperBound(mStarts, position); i < mStarts.length; ++i)
+            {
+                GeneData geneData = mGenes.get(mStartOrder[i]);
+
+                if(geneData.Strand == strand)
+                    return geneData;
+            }
+        }
+        else
+        {
+            for(int i = lowerBound(mEnds, position) - 1; i >= 0; --i)
+            {
+                GeneData geneData = mGenes.get(mEndOrder[i]);
+
+                if(geneData.Strand == strand)
+                    return geneData;
+            }
+        }
+
+        return null;
+    }
+
+    private static int upperBound(final int[] values, int value)
+    {
+        // index of the first entry greater than the value
+        int low = 0;
+        int high = values.length;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(values[mid] <= value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+
+    private static int lowerBound(final int[] values, int value)
+    {
+        // index of the first entry greater than or equal to the value
+        int low = 0;
+        int high = values.length;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(values[mid] < value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.gene.GeneData;
+import com.hartwig.hmftools.common.gene.TranscriptData;
+
+public class TranscriptRegionIndex
+{
+    // immutable index over the transcripts of a chromosome's genes, ordered by start so a region's contained transcripts are found
+    // with a binary search
+    private final List<GeneData> mGenes; // the chromosome's unmodifiable gene list, in its original order
+
+    private final int[] mTransStarts;
+    private final int[] mTransEnds;
+    private final int[] mTransGeneIndices; // index of each transcript's gene in the gene list
+
+    public TranscriptRegionIndex(final List<GeneData> genes, final Map<String,List<TranscriptData>> transcriptsByGeneId)
+    {
+        mGenes = genes;
+
+        List<TranscriptData> transcripts = Lists.newArrayList();
+        List<Integer> transGeneIndices = Lists.newArrayList();
+
+        for(int i = 0; i < genes.size(); ++i)
+        {
+            List<TranscriptData> geneTranscripts = transcriptsByGeneId.get(genes.get(i).GeneId);
+
+            if(geneTranscripts == null)
+                continue;
+
+            for(TranscriptData transData : geneTranscripts)
+            {
+                transcripts.add(transData);
+                transGeneIndices.add(i);
+            }
+        }
+
+        int[] startOrder = IntStream.range(0, transcripts.size()).boxed()
+                .sorted(Comparator.comparingInt(x -> transcripts.get(x).TransStart))
+                .mapToInt(x -> x).toArray();
+
+        mTransStarts = new int[startOrder.length];
+        mTransEnds = new int[startOrder.length];
+        mTransGeneIndices = new int[startOrder.length];
+
+        for(int i = 0; i < startOrder.length; ++i)
+        {
+            TranscriptData transData = transcripts.get(startOrder[i]);
+            mTransStarts[i] = transData.TransStart;
+            mTransEnds[i] = transData.TransEnd;
+            mTransGeneIndices[i] = transGeneIndices.get(startOrder[i]);
+        }
+    }
+
+    public int transcriptCount() { return mTransStarts.length; }
+
+    public List<GeneData> findGenesWithContainedTranscript(int posStart, int posEnd)
+    {
+        // returns genes overlapping the region with at least one transcript within it, in their original list order
+        int[] matchedIndices = null;
+        int matchCount = 0;
+
+        for(int i = lowerBound(mTransStarts, posStart); i < mTransStarts.length && mTransStarts[i] <= posEnd; ++i)
+        {
+            if(mTransEnds[i] > posEnd)
+                continue;
+
+            int geneIndex = mTransGeneIndices[i];
+            GeneData geneData = mGenes.get(geneIndex);
+
+            if(posStart > geneData.GeneEnd || posEnd < geneData.GeneStart)
+                continue;
+
+            if(matchedIndices == null)
+                matchedIndices = new int[4];
+            else if(matchCount == matchedIndices.length)
+                matchedIndices = Arrays.copyOf(matchedIndices, matchCount * 2);
+
+            matchedIndices[matchCount++] = geneIndex;
+        }
+
+        if(matchCount == 0)
+            return Lists.newArrayList();
+
+        // a gene is matched once per contained transcript
+        Arrays.sort(matchedIndices, 0, matchCount);
+
+        List<GeneData> genes = Lists.newArrayList();
+
+        for(int i = 0; i < matchCount; ++i)
+        {
+            if(i == 0 || matchedIndices[i] != matchedIndices[i - 1])
+                genes.add(mGenes.get(matchedIndices[i]));
+        }
+
+        return genes;
+    }
+
+    private static int lowerBound(final int[] values, int value)
+    {
+        // index of the first entry greater than or equal to the value
+        int low = 0;
+        int high = values.length;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(values[mid] < value)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low;
+    }
+}
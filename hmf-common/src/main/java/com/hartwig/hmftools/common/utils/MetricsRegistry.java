@@ -0,0 +1,445 @@
+package com.hartwig.hmftools.common.utils;
+
+import static java.lang.String.format;
+
+import static com.hartwig.hmftools.common.utils.PerformanceCounter.MS_IN_SECOND;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.TSV_DELIM;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.common.collect.Lists;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class MetricsRegistry
+{
+    // collects a tool's named timers, counters and gauges along with periodic resource usage samples, and writes them as TSV
+    // and JSON at the end of the run so stage timings can be compared across runs without parsing logs
+    private final String mToolName;
+    private final boolean mEnabled;
+    private final int mSampleIntervalSeconds;
+    private final long mStartTimeMs;
+
+    private final Map<String,TimerStats> mTimers;
+    private final Map<String,LongAdder> mCounters;
+    private final Map<String,Supplier<Number>> mGauges;
+    private final List<ResourceSample> mResourceSamples;
+
+    private ScheduledExecutorService mSampler;
+    private long mLastCpuTimeNanos;
+    private long mLastSampleTimeNanos;
+
+    public static final String PERF_METRICS = "perf_metrics";
+    public static final String PERF_METRICS_DESC = "Write performance metrics and resource usage to TSV and JSON files";
+
+    public static final String PERF_METRICS_INTERVAL = "perf_metrics_interval";
+    public static final String PERF_METRICS_INTERVAL_DESC = "Resource usage sampling interval in seconds";
+
+    public static final int DEFAULT_SAMPLE_INTERVAL_SECONDS = 10;
+
+    private static final String METRICS_FILE_ID = "perf_metrics";
+    private static final String RESOURCES_FILE_ID = "perf_resources";
+
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    private static final Logger LOGGER = LogManager.getLogger(MetricsRegistry.class);
+
+    public MetricsRegistry(final String toolName, boolean enabled, int sampleIntervalSeconds)
+    {
+        mToolName = toolName;
+        mEnabled = enabled;
+        mSampleIntervalSeconds = sampleIntervalSeconds;
+        mStartTimeMs = System.currentTimeMillis();
+
+        mTimers = new ConcurrentHashMap<>();
+        mCounters = new ConcurrentHashMap<>();
+        mGauges = new ConcurrentHashMap<>();
+        mResourceSamples = Collections.synchronizedList(Lists.newArrayList());
+
+        mSampler = null;
+        mLastCpuTimeNanos = 0;
+        mLastSampleTimeNanos = 0;
+    }
+
+    public static void registerConfig(final ConfigBuilder configBuilder)
+    {
+        configBuilder.addFlag(PERF_METRICS, PERF_METRICS_DESC);
+        configBuilder.addInteger(PERF_METRICS_INTERVAL, PERF_METRICS_INTERVAL_DESC, DEFAULT_SAMPLE_INTERVAL_SECONDS);
+    }
+
+    public static MetricsRegistry fromConfig(final String toolName, final ConfigBuilder configBuilder)
+    {
+        return new MetricsRegistry(toolName, configBuilder.hasFlag(PERF_METRICS), configBuilder.getInteger(PERF_METRICS_INTERVAL));
+    }
+
+    public static MetricsRegistry disabled(final String toolName) { return new MetricsRegistry(toolName, false, 0); }
+
+    public boolean enabled() { return mEnabled; }
+    public String toolName() { return mToolName; }
+
+    // timers are striped so any thread may record to them, and registering counters with the same name from each thread merges them
+    public void recordTime(final String name, double seconds)
+    {
+        mTimers.computeIfAbsent(name, k -> new TimerStats()).record(1, seconds, seconds);
+    }
+
+    public void registerTimer(final PerformanceCounter perfCounter)
+    {
+        if(perfCounter.getIntervalCount() == 0)
+            return;
+
+        mTimers.computeIfAbsent(perfCounter.getName(), k -> new TimerStats()).record(
+                perfCounter.getIntervalCount(), perfCounter.getTotalTime(), perfCounter.getMaxTime());
+    }
+
+    public void registerTimers(final List<PerformanceCounter> perfCounters) { perfCounters.forEach(this::registerTimer); }
+
+    public void registerTimers(final PerformanceCounter[] perfCounters)
+    {
+        for(PerformanceCounter perfCounter : perfCounters)
+        {
+            if(perfCounter != null)
+                registerTimer(perfCounter);
+        }
+    }
+
+    public LongAdder counter(final String name) { return mCounters.computeIfAbsent(name, k -> new LongAdder()); }
+
+    public void addCount(final String name, long count) { counter(name).add(count); }
+
+    // gauges are evaluated when the metrics are written
+    public void registerGauge(final String name, final Supplier<Number> gauge) { mGauges.put(name, gauge); }
+
+    public double timerTotal(final String name)
+    {
+        TimerStats timer = mTimers.get(name);
+        return timer != null ? timer.Total.sum() : 0;
+    }
+
+    public long timerCount(final String name)
+    {
+        TimerStats timer = mTimers.get(name);
+        return timer != null ? timer.Count.sum() : 0;
+    }
+
+    public long count(final String name)
+    {
+        LongAdder counter = mCounters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    public List<ResourceSample> resourceSamples() { return mResourceSamples; }
+
+    public void startResourceSampling()
+    {
+        if(!mEnabled || mSampler != null || mSampleIntervalSeconds <= 0)
+            return;
+
+        mSampler = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        mSampler.scheduleAtFixedRate(this::sampleResources, 0, mSampleIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void stopResourceSampling()
+    {
+        if(mSampler == null)
+            return;
+
+        mSampler.shutdownNow();
+        mSampler = null;
+    }
+
+    public synchronized void sampleResources()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        long gcCount = 0;
+        long gcTimeMs = 0;
+
+        for(GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            gcCount += Math.max(gcBean.getCollectionCount(), 0);
+            gcTimeMs += Math.max(gcBean.getCollectionTime(), 0);
+        }
+
+        int threadCount = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // utilisation is the process CPU time since the last sample as a fraction of the available cores' wall time
+        long sampleTimeNanos = System.nanoTime();
+        long cpuTimeNanos = processCpuTimeNanos();
+        double cpuUtilisation = 0;
+
+        if(mLastSampleTimeNanos > 0 && cpuTimeNanos >= 0 && sampleTimeNanos > mLastSampleTimeNanos)
+        {
+            double wallNanos = (double)(sampleTimeNanos - mLastSampleTimeNanos) * runtime.availableProcessors();
+            cpuUtilisation = (cpuTimeNanos - mLastCpuTimeNanos) / wallNanos;
+        }
+
+        mLastSampleTimeNanos = sampleTimeNanos;
+        mLastCpuTimeNanos = cpuTimeNanos;
+
+        mResourceSamples.add(new ResourceSample(
+                (System.currentTimeMillis() - mStartTimeMs) / MS_IN_SECOND, usedHeap / MEGABYTE, runtime.maxMemory() / MEGABYTE,
+                gcCount, gcTimeMs / MS_IN_SECOND, threadCount, cpuUtilisation));
+    }
+
+    private static long processCpuTimeNanos()
+    {
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+
+        if(osBean instanceof com.sun.management.OperatingSystemMXBean)
+            return ((com.sun.management.OperatingSystemMXBean)osBean).getProcessCpuTime();
+
+        return -1;
+    }
+
+    public void writeMetrics(final String outputDir, final String outputId)
+    {
+        if(!mEnabled)
+            return;
+
+        stopResourceSampling();
+        sampleResources();
+
+        String filePrefix = outputDir + (outputId != null && !outputId.isEmpty() ? outputId + "." : "") + mToolName.toLowerCase();
+
+        writeMetricsTsv(filePrefix + "." + METRICS_FILE_ID + ".tsv");
+        writeResourcesTsv(filePrefix + "." + RESOURCES_FILE_ID + ".tsv");
+        writeJson(filePrefix + "." + METRICS_FILE_ID + ".json");
+    }
+
+    private void writeMetricsTsv(final String filename)
+    {
+        try(BufferedWriter writer = createBufferedWriter(filename))
+        {
+            StringJoiner header = new StringJoiner(TSV_DELIM);
+            header.add("MetricType").add("Name").add("Count").add("Value").add("Mean").add("Max");
+            writer.write(header.toString());
+            writer.newLine();
+
+            for(Map.Entry<String,TimerStats> entry : new TreeMap<>(mTimers).entrySet())
+            {
+                TimerStats timer = entry.getValue();
+                writeMetricRow(writer, "TIMER", entry.getKey(), timer.Count.sum(), timer.Total.sum(), timer.mean(), timer.Max.get());
+            }
+
+            for(Map.Entry<String,LongAdder> entry : new TreeMap<>(mCounters).entrySet())
+            {
+                writeMetricRow(writer, "COUNTER", entry.getKey(), 1, entry.getValue().sum(), 0, 0);
+            }
+
+            for(Map.Entry<String,Number> entry : gaugeValues().entrySet())
+            {
+                writeMetricRow(writer, "GAUGE", entry.getKey(), 1, entry.getValue().doubleValue(), 0, 0);
+            }
+
+            writeMetricRow(writer, "RESOURCE", "RunTimeSeconds", 1, runTimeSeconds(), 0, 0);
+            writeMetricRow(writer, "RESOURCE", "PeakHeapMb", 1, peakHeapMb(), 0, 0);
+
+            if(!mResourceSamples.isEmpty())
+            {
+                ResourceSample lastSample = mResourceSamples.get(mResourceSamples.size() - 1);
+                writeMetricRow(writer, "RESOURCE", "GcCount", 1, lastSample.GcCount, 0, 0);
+                writeMetricRow(writer, "RESOURCE", "GcTimeSeconds", 1, lastSample.GcTimeSeconds, 0, 0);
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write performance metrics file({}): {}", filename, e.toString());
+        }
+    }
+
+    private static void writeMetricRow(
+            final BufferedWriter writer, final String type, final String name, long count, double value, double mean, double max)
+            throws IOException
+    {
+        writer.write(format("%s\t%s\t%d\t%.4f\t%.4f\t%.4f", type, name, count, value, mean, max));
+        writer.newLine();
+    }
+
+    private void writeResourcesTsv(final String filename)
+    {
+        try(BufferedWriter writer = createBufferedWriter(filename))
+        {
+            StringJoiner header = new StringJoiner(TSV_DELIM);
+            header.add("TimeSeconds").add("HeapUsedMb").add("HeapMaxMb").add("GcCount").add("GcTimeSeconds");
+            header.add("ThreadCount").add("CpuUtilisation");
+            writer.write(header.toString());
+            writer.newLine();
+
+            for(ResourceSample sample : resourceSamplesCopy())
+            {
+                writer.write(format("%.1f\t%d\t%d\t%d\t%.3f\t%d\t%.3f",
+                        sample.TimeSeconds, sample.HeapUsedMb, sample.HeapMaxMb, sample.GcCount, sample.GcTimeSeconds,
+                        sample.ThreadCount, sample.CpuUtilisation));
+                writer.newLine();
+            }
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write resource usage file({}): {}", filename, e.toString());
+        }
+    }
+
+    private void writeJson(final String filename)
+    {
+        JsonObject root = new JsonObject();
+        root.addProperty("tool", mToolName);
+        root.addProperty("runTimeSeconds", runTimeSeconds());
+        root.addProperty("peakHeapMb", peakHeapMb());
+
+        JsonObject timers = new JsonObject();
+
+        for(Map.Entry<String,TimerStats> entry : new TreeMap<>(mTimers).entrySet())
+        {
+            TimerStats timer = entry.getValue();
+            JsonObject timerJson = new JsonObject();
+            timerJson.addProperty("count", timer.Count.sum());
+            timerJson.addProperty("totalSeconds", timer.Total.sum());
+            timerJson.addProperty("meanSeconds", timer.mean());
+            timerJson.addProperty("maxSeconds", timer.Max.get());
+            timers.add(entry.getKey(), timerJson);
+        }
+
+        root.add("timers", timers);
+
+        JsonObject counters = new JsonObject();
+        new TreeMap<>(mCounters).forEach((name, counter) -> counters.addProperty(name, counter.sum()));
+        root.add("counters", counters);
+
+        JsonObject gauges = new JsonObject();
+        gaugeValues().forEach(gauges::addProperty);
+        root.add("gauges", gauges);
+
+        JsonArray samples = new JsonArray();
+
+        for(ResourceSample sample : resourceSamplesCopy())
+        {
+            JsonObject sampleJson = new JsonObject();
+            sampleJson.addProperty("timeSeconds", sample.TimeSeconds);
+            sampleJson.addProperty("heapUsedMb", sample.HeapUsedMb);
+            sampleJson.addProperty("heapMaxMb", sample.HeapMaxMb);
+            sampleJson.addProperty("gcCount", sample.GcCount);
+            sampleJson.addProperty("gcTimeSeconds", sample.GcTimeSeconds);
+            sampleJson.addProperty("threadCount", sample.ThreadCount);
+            sampleJson.addProperty("cpuUtilisation", sample.CpuUtilisation);
+            samples.add(sampleJson);
+        }
+
+        root.add("resources", samples);
+
+        try(BufferedWriter writer = createBufferedWriter(filename))
+        {
+            writer.write(new GsonBuilder().setPrettyPrinting().serializeSpecialFloatingPointValues().create().toJson(root));
+            writer.newLine();
+        }
+        catch(IOException e)
+        {
+            LOGGER.error("failed to write performance metrics file({}): {}", filename, e.toString());
+        }
+    }
+
+    private Map<String,Number> gaugeValues()
+    {
+        Map<String,Number> values = new TreeMap<>();
+
+        for(Map.Entry<String,Supplier<Number>> entry : mGauges.entrySet())
+        {
+            try
+            {
+                values.put(entry.getKey(), entry.getValue().get());
+            }
+            catch(Exception e)
+            {
+                LOGGER.warn("failed to evaluate gauge({}): {}", entry.getKey(), e.toString());
+            }
+        }
+
+        return values;
+    }
+
+    private List<ResourceSample> resourceSamplesCopy()
+    {
+        synchronized(mResourceSamples)
+        {
+            return Lists.newArrayList(mResourceSamples);
+        }
+    }
+
+    private double runTimeSeconds() { return (System.currentTimeMillis() - mStartTimeMs) / MS_IN_SECOND; }
+
+    private long peakHeapMb() { return resourceSamplesCopy().stream().mapToLong(x -> x.HeapUsedMb).max().orElse(0); }
+
+    private static class TimerStats
+    {
+        public final LongAdder Count = new LongAdder();
+        public final DoubleAdder Total = new DoubleAdder();
+        public final DoubleAccumulator Max = new DoubleAccumulator(Math::max, 0);
+
+        public void record(long count, double totalSeconds, double maxSeconds)
+        {
+            Count.add(count);
+            Total.add(totalSeconds);
+            Max.accumulate(maxSeconds);
+        }
+
+        public double mean()
+        {
+            long count = Count.sum();
+            return count > 0 ? Total.sum() / count : 0;
+        }
+    }
+
+    public static class ResourceSample
+    {
+        public final double TimeSeconds;
+        public final long HeapUsedMb;
+        public final long HeapMaxMb;
+        public final long GcCount;
+        public final double GcTimeSeconds;
+        public final int ThreadCount;
+        public final double CpuUtilisation;
+
+        public ResourceSample(
+                double timeSeconds, long heapUsedMb, long heapMaxMb, long gcCount, double gcTimeSeconds, int threadCount,
+                double cpuUtilisation)
+        {
+            TimeSeconds = timeSeconds;
+            HeapUsedMb = heapUsedMb;
+            HeapMaxMb = heapMaxMb;
+            GcCount = gcCount;
+            GcTimeSeconds = gcTimeSeconds;
+            ThreadCount = threadCount;
+            CpuUtilisation = cpuUtilisation;
+        }
+    }
+}
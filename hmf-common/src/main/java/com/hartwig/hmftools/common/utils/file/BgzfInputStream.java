@@ -0,0 +1,187 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.common.utils.file.BgzfOutputStream.BLOCK_FOOTER_LENGTH;
+import static com.hartwig.hmftools.common.utils.file.BgzfOutputStream.BLOCK_HEADER_LENGTH;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.Nullable;
+
+public class BgzfInputStream extends InputStream
+{
+    // reads block-gzip (BGZF) input, inflating blocks ahead of the reader on a shared executor if provided
+    private final InputStream mInputStream;
+    @Nullable private final ExecutorService mExecutor;
+    private final int mMaxPendingBlocks;
+
+    private final Deque<FutureTask<byte[]>> mPendingBlocks;
+    private boolean mInputExhausted;
+
+    private byte[] mCurrentBlock;
+    private int mCurrentPosition;
+
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    public BgzfInputStream(final InputStream inputStream, @Nullable final ExecutorService executor)
+    {
+        mInputStream = inputStream;
+        mExecutor = executor;
+        mMaxPendingBlocks = executor != null ? 4 * Runtime.getRuntime().availableProcessors() : 1;
+        mPendingBlocks = new ArrayDeque<>();
+        mInputExhausted = false;
+        mCurrentBlock = new byte[0];
+        mCurrentPosition = 0;
+    }
+
+    public static boolean isBgzfHeader(final byte[] header, int length)
+    {
+        return length >= BLOCK_HEADER_LENGTH
+                && header[0] == 31 && header[1] == (byte)139 && header[2] == 8 && (header[3] & 4) != 0
+                && header[10] == 6 && header[11] == 0 && header[12] == 'B' && header[13] == 'C' && header[14] == 2 && header[15] == 0;
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        if(!loadBlock())
+            return -1;
+
+        return mCurrentBlock[mCurrentPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] buffer, int offset, int length) throws IOException
+    {
+        if(length == 0)
+            return 0;
+
+        if(!loadBlock())
+            return -1;
+
+        int copyLength = min(length, mCurrentBlock.length - mCurrentPosition);
+        System.arraycopy(mCurrentBlock, mCurrentPosition, buffer, offset, copyLength);
+        mCurrentPosition += copyLength;
+        return copyLength;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mPendingBlocks.forEach(x -> x.cancel(false));
+        mPendingBlocks.clear();
+        mInputStream.close();
+    }
+
+    private boolean loadBlock() throws IOException
+    {
+        // skips empty blocks, including the end-of-file marker
+        while(mCurrentPosition >= mCurrentBlock.length)
+        {
+            while(!mInputExhausted && mPendingBlocks.size() < mMaxPendingBlocks)
+            {
+                submitNextBlock();
+            }
+
+            FutureTask<byte[]> blockTask = mPendingBlocks.poll();
+
+            if(blockTask == null)
+                return false;
+
+            // run the task on this thread if no worker has started it, so a reader used from a thread of the same pool cannot deadlock
+            blockTask.run();
+
+            try
+            {
+                mCurrentBlock = blockTask.get();
+                mCurrentPosition = 0;
+            }
+            catch(InterruptedException | ExecutionException e)
+            {
+                throw new IOException("failed to inflate block: " + e);
+            }
+        }
+
+        return true;
+    }
+
+    private void submitNextBlock() throws IOException
+    {
+        byte[] header = new byte[BLOCK_HEADER_LENGTH];
+        int headerLength = mInputStream.readNBytes(header, 0, header.length);
+
+        if(headerLength == 0)
+        {
+            mInputExhausted = true;
+            return;
+        }
+
+        if(!isBgzfHeader(header, headerLength))
+            throw new IOException("invalid BGZF block header");
+
+        int blockSize = ((header[16] & 0xff) | (header[17] & 0xff) << 8) + 1;
+        int remainingLength = blockSize - BLOCK_HEADER_LENGTH;
+
+        if(remainingLength < BLOCK_FOOTER_LENGTH)
+            throw new IOException("invalid BGZF block size: " + blockSize);
+
+        byte[] blockData = mInputStream.readNBytes(remainingLength);
+
+        if(blockData.length != remainingLength)
+            throw new IOException("truncated BGZF block");
+
+        FutureTask<byte[]> blockTask = new FutureTask<>(() -> inflateBlock(blockData));
+        mPendingBlocks.add(blockTask);
+
+        if(mExecutor != null)
+            mExecutor.execute(blockTask);
+    }
+
+    private static byte[] inflateBlock(final byte[] blockData) throws IOException
+    {
+        int footerStart = blockData.length - BLOCK_FOOTER_LENGTH;
+        int expectedCrc = readInt(blockData, footerStart);
+        int uncompressedLength = readInt(blockData, footerStart + 4);
+
+        byte[] data = new byte[uncompressedLength];
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(blockData, 0, footerStart);
+
+        try
+        {
+            int inflatedLength = uncompressedLength > 0 ? inflater.inflate(data) : 0;
+
+            if(inflatedLength != uncompressedLength)
+                throw new IOException("BGZF block inflated length mismatch");
+        }
+        catch(DataFormatException e)
+        {
+            throw new IOException("invalid BGZF block data: " + e.getMessage());
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        if((int)crc.getValue() != expectedCrc)
+            throw new IOException("BGZF block CRC mismatch");
+
+        return data;
+    }
+
+    private static int readInt(final byte[] buffer, int offset)
+    {
+        return (buffer[offset] & 0xff) | (buffer[offset + 1] & 0xff) << 8 | (buffer[offset + 2] & 0xff) << 16 | (buffer[offset + 3] & 0xff) << 24;
+    }
+}
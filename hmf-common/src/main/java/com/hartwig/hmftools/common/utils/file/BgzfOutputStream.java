@@ -0,0 +1,203 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static java.lang.Math.min;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jetbrains.annotations.Nullable;
+
+public class BgzfOutputStream extends OutputStream
+{
+    // writes block-gzip (BGZF) output, a series of independent gzip members, so any gzip reader can decompress it and files can
+    // still be concatenated - blocks are compressed on a shared executor if provided and written in order
+    private final OutputStream mOutputStream;
+    @Nullable private final ExecutorService mExecutor;
+    private final int mMaxPendingBlocks;
+
+    private final Deque<FutureTask<byte[]>> mPendingBlocks;
+
+    private byte[] mBuffer;
+    private int mBufferLength;
+    private boolean mClosed;
+
+    // blocks in flight per stream, which bounds the memory held by compressed blocks waiting to be written to around 1MB per stream
+    public static final int MAX_PENDING_BLOCKS = 8;
+
+    // uncompressed data per block, chosen so a block stored without compression still fits in the BGZF maximum block size
+    public static final int BLOCK_DATA_SIZE = 0xff00;
+
+    protected static final int BLOCK_HEADER_LENGTH = 18;
+    protected static final int BLOCK_FOOTER_LENGTH = 8;
+    protected static final int MAX_BLOCK_SIZE = 0x10000;
+
+    protected static final byte[] EMPTY_BLOCK = {
+            31, -117, 8, 4, 0, 0, 0, 0, 0, -1, 6, 0, 66, 67, 2, 0, 27, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Deflater> STORE_DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.NO_COMPRESSION, true));
+
+    public BgzfOutputStream(final OutputStream outputStream, @Nullable final ExecutorService executor)
+    {
+        mOutputStream = outputStream;
+        mExecutor = executor;
+        mMaxPendingBlocks = executor != null ? MAX_PENDING_BLOCKS : 1;
+        mPendingBlocks = new ArrayDeque<>();
+        mBuffer = new byte[BLOCK_DATA_SIZE];
+        mBufferLength = 0;
+        mClosed = false;
+    }
+
+    @Override
+    public void write(int value) throws IOException
+    {
+        if(mBufferLength == mBuffer.length)
+            submitBlock();
+
+        mBuffer[mBufferLength++] = (byte)value;
+    }
+
+    @Override
+    public void write(final byte[] data, int offset, int length) throws IOException
+    {
+        while(length > 0)
+        {
+            if(mBufferLength == mBuffer.length)
+                submitBlock();
+
+            int copyLength = min(length, mBuffer.length - mBufferLength);
+            System.arraycopy(data, offset, mBuffer, mBufferLength, copyLength);
+            mBufferLength += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        if(mBufferLength > 0)
+            submitBlock();
+
+        while(!mPendingBlocks.isEmpty())
+        {
+            writeNextBlock();
+        }
+
+        mOutputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if(mClosed)
+            return;
+
+        flush();
+        mOutputStream.write(EMPTY_BLOCK);
+        mOutputStream.close();
+        mClosed = true;
+    }
+
+    private void submitBlock() throws IOException
+    {
+        if(mPendingBlocks.size() >= mMaxPendingBlocks)
+            writeNextBlock();
+
+        final byte[] blockData = mBuffer;
+        final int blockLength = mBufferLength;
+        FutureTask<byte[]> blockTask = new FutureTask<>(() -> compressBlock(blockData, blockLength));
+        mPendingBlocks.add(blockTask);
+
+        if(mExecutor != null)
+            mExecutor.execute(blockTask);
+
+        mBuffer = new byte[BLOCK_DATA_SIZE];
+        mBufferLength = 0;
+    }
+
+    private void writeNextBlock() throws IOException
+    {
+        FutureTask<byte[]> blockTask = mPendingBlocks.poll();
+
+        // run the task on this thread if no worker has started it, so a writer used from a thread of the same pool cannot deadlock
+        blockTask.run();
+
+        try
+        {
+            mOutputStream.write(blockTask.get());
+        }
+        catch(InterruptedException | ExecutionException e)
+        {
+            throw new IOException("failed to compress block: " + e);
+        }
+    }
+
+    protected static byte[] compressBlock(final byte[] data, int length)
+    {
+        byte[] compressed = new byte[MAX_BLOCK_SIZE];
+
+        int compressedLength = deflate(DEFLATER.get(), data, length, compressed);
+
+        if(compressedLength < 0)
+            compressedLength = deflate(STORE_DEFLATER.get(), data, length, compressed);
+
+        int blockSize = BLOCK_HEADER_LENGTH + compressedLength + BLOCK_FOOTER_LENGTH;
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+
+        byte[] block = new byte[blockSize];
+
+        // gzip header with the BGZF extra subfield holding the total block size - 1
+        block[0] = 31;
+        block[1] = (byte)139;
+        block[2] = 8;
+        block[3] = 4;
+        block[9] = (byte)255;
+        block[10] = 6;
+        block[12] = 'B';
+        block[13] = 'C';
+        block[14] = 2;
+        writeShort(block, 16, blockSize - 1);
+
+        System.arraycopy(compressed, 0, block, BLOCK_HEADER_LENGTH, compressedLength);
+
+        writeInt(block, blockSize - 8, (int)crc.getValue());
+        writeInt(block, blockSize - 4, length);
+        return block;
+    }
+
+    private static int deflate(final Deflater deflater, final byte[] data, int length, final byte[] compressed)
+    {
+        // returns -1 if the data does not fit in a single block
+        int maxCompressedLength = MAX_BLOCK_SIZE - BLOCK_HEADER_LENGTH - BLOCK_FOOTER_LENGTH;
+
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+
+        int compressedLength = deflater.deflate(compressed, 0, maxCompressedLength);
+
+        return deflater.finished() ? compressedLength : -1;
+    }
+
+    private static void writeShort(final byte[] buffer, int offset, int value)
+    {
+        buffer[offset] = (byte)value;
+        buffer[offset + 1] = (byte)(value >>> 8);
+    }
+
+    private static void writeInt(final byte[] buffer, int offset, int value)
+    {
+        writeShort(buffer, offset, value);
+        writeShort(buffer, offset + 2, value >>> 16);
+    }
+}
@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.common.utils.file;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -13,12 +14,14 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class
 FileWriterUtils
@@ -122,6 +125,26 @@ FileWriterUtils
         return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
     }
 
+    // Note: if filename ends with .gz and is block-gzipped, its blocks are inflated ahead of the reader on the executor
+    @NotNull
+    public static BufferedReader createBufferedReader(final String filename, @Nullable final ExecutorService executor) throws IOException
+    {
+        if(!filename.endsWith(".gz") || !isBgzfFile(filename))
+            return createBufferedReader(filename);
+
+        InputStream inputStream = new BgzfInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16), executor);
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    public static boolean isBgzfFile(final String filename) throws IOException
+    {
+        try(InputStream inputStream = new FileInputStream(filename))
+        {
+            byte[] header = new byte[18];
+            return BgzfInputStream.isBgzfHeader(header, inputStream.readNBytes(header, 0, header.length));
+        }
+    }
+
     @NotNull
     public static BufferedReader createGzipBufferedReader(final String filename) throws IOException
     {
@@ -138,6 +161,18 @@ FileWriterUtils
         return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
     }
 
+    // Note: if filename ends with .gz returns a block-gzipped writer, compressing its blocks on the executor
+    @NotNull
+    public static BufferedWriter createBufferedWriter(final String outputFile, @Nullable final ExecutorService executor) throws IOException
+    {
+        OutputStream outputStream = new FileOutputStream(outputFile);
+        if(outputFile.endsWith(".gz"))
+        {
+            outputStream = new BgzfOutputStream(outputStream, executor);
+        }
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
     public static void closeBufferedWriter(BufferedWriter writer)
     {
         if(writer == null)
@@ -0,0 +1,228 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+public final class FastPCF
+{
+    // copynumber's fast PCF (its default, fast = TRUE) with kmin = 1: step filters at several widths first mark the probes after
+    // which a breakpoint is likely, and the PCF optimum is then found with breakpoints restricted to these candidates - arms with
+    // many probes are further refined in overlapping subsets, and short arms are segmented exactly as copynumber does
+
+    // arms with fewer probes are segmented exactly
+    public static final int MIN_FAST_PROBES = 400;
+
+    // the filter fractions copynumber uses for shorter and longer arms, and the length from which it segments in subsets
+    private static final int SHORT_ARM_PROBES = 1000;
+    private static final double SHORT_ARM_FRACTION = 0.15;
+    private static final double LONG_ARM_FRACTION = 0.12;
+    private static final double LONG_ARM_SHORT_FILTER_FRACTION = 0.05;
+
+    private static final int SUBSET_MIN_PROBES = 15000;
+    private static final int SUBSET_SIZE = 5000;
+
+    // filter widths and the fraction of probes marked by the widest filter
+    private static final int FILTER_WIDTH = 8;
+    private static final int SHORT_FILTER_WIDTH = 1;
+    private static final int WIDE_FILTER_WIDTH = 3 * FILTER_WIDTH;
+    private static final double WIDE_FILTER_FRACTION = 0.02;
+
+    // a probe is only a candidate if its filter response is close to the largest within this many probes
+    private static final int LOCAL_MAX_DISTANCE = 3;
+    private static final double LOCAL_MAX_FRACTION = 0.9;
+
+    private FastPCF() {}
+
+    public static int[] segmentStarts(final double[] values, double gamma)
+    {
+        int n = values.length;
+
+        if(n < MIN_FAST_PROBES)
+            return PCFSegmenter.optimalSegmentStarts(values, gamma);
+
+        if(n < SHORT_ARM_PROBES)
+            return PCFSegmenter.optimalSegmentStarts(values, gamma, candidateSegmentEnds(values, SHORT_ARM_FRACTION, SHORT_ARM_FRACTION));
+
+        boolean[] segmentEnds = candidateSegmentEnds(values, LONG_ARM_FRACTION, LONG_ARM_SHORT_FILTER_FRACTION);
+
+        if(n < SUBSET_MIN_PROBES)
+            return PCFSegmenter.optimalSegmentStarts(values, gamma, segmentEnds);
+
+        return subsetSegmentStarts(values, gamma, segmentEnds);
+    }
+
+    public static boolean[] candidateSegmentEnds(final double[] values, double filterFraction, double shortFilterFraction)
+    {
+        // marks each probe after which a breakpoint is allowed, with the last probe always ending a segment
+        int n = values.length;
+
+        double[] cumSum = new double[n + 1];
+
+        for(int i = 0; i < n; ++i)
+        {
+            cumSum[i + 1] = cumSum[i] + values[i];
+        }
+
+        boolean[] segmentEnds = new boolean[n];
+
+        // the main filter marks the strongest local maxima of its response
+        double[] response = stepFilter(cumSum, FILTER_WIDTH);
+        double[] localMax = new double[n];
+
+        for(int i = LOCAL_MAX_DISTANCE; i < n - LOCAL_MAX_DISTANCE; ++i)
+        {
+            double maxNeighbour = 0;
+
+            for(int j = 1; j <= LOCAL_MAX_DISTANCE; ++j)
+            {
+                maxNeighbour = max(maxNeighbour, max(response[i - j], response[i + j]));
+            }
+
+            localMax[i] = maxNeighbour;
+        }
+
+        double[] peakResponses = new double[n];
+        int peakCount = 0;
+
+        for(int i = 0; i < n; ++i)
+        {
+            if(response[i] >= LOCAL_MAX_FRACTION * localMax[i])
+                peakResponses[peakCount++] = response[i];
+        }
+
+        double peakFraction = min(0.8, filterFraction * n / peakCount);
+        double peakLimit = quantile(Arrays.copyOf(peakResponses, peakCount), 1 - peakFraction);
+
+        for(int i = 0; i < n; ++i)
+        {
+            if(response[i] > peakLimit && response[i] > LOCAL_MAX_FRACTION * localMax[i])
+                segmentEnds[i] = true;
+        }
+
+        // the short filter catches narrow segments, and the wide one broad shifts of low amplitude
+        markStrongestResponses(segmentEnds, cumSum, SHORT_FILTER_WIDTH, shortFilterFraction);
+        markStrongestResponses(segmentEnds, cumSum, WIDE_FILTER_WIDTH, WIDE_FILTER_FRACTION);
+
+        // the main filter has no response near the ends of the arm, so all probes there are candidates
+        for(int i = 0; i < 3 * FILTER_WIDTH - 1; ++i)
+        {
+            segmentEnds[i] = true;
+            segmentEnds[n - 2 - i] = true;
+        }
+
+        segmentEnds[n - 1] = true;
+        return segmentEnds;
+    }
+
+    private static double[] stepFilter(final double[] cumSum, int width)
+    {
+        // the response at each probe compares the sums of the windows of 2 and 3 widths ending at it with those starting after it,
+        // and is zero where these windows do not fit within the arm
+        int n = cumSum.length - 1;
+        double[] response = new double[n];
+
+        for(int i = 3 * width - 1; i < n - 3 * width; ++i)
+        {
+            int split = i + 1;
+
+            response[i] = abs(4 * cumSum[split]
+                    - cumSum[split - 3 * width] - cumSum[split - 2 * width] - cumSum[split + 2 * width] - cumSum[split + 3 * width]);
+        }
+
+        return response;
+    }
+
+    private static void markStrongestResponses(final boolean[] segmentEnds, final double[] cumSum, int width, double fraction)
+    {
+        int n = segmentEnds.length;
+        double[] response = stepFilter(cumSum, width);
+
+        int firstIndex = 3 * width - 1;
+        int lastIndex = n - 3 * width - 1;
+
+        if(lastIndex < firstIndex)
+            return;
+
+        double limit = quantile(Arrays.copyOfRange(response, firstIndex, lastIndex + 1), 1 - fraction);
+
+        for(int i = firstIndex; i <= lastIndex; ++i)
+        {
+            if(response[i] > limit)
+                segmentEnds[i] = true;
+        }
+    }
+
+    private static int[] subsetSegmentStarts(final double[] values, double gamma, final boolean[] candidateEnds)
+    {
+        // segments successive overlapping subsets from the start of the arm, each time keeping the breakpoints found in the first
+        // four fifths of the subset in place of the filter's candidates, before segmenting the whole arm over the retained ones
+        int n = values.length;
+        int step = 4 * SUBSET_SIZE / 5;
+
+        boolean[] segmentEnds = Arrays.copyOf(candidateEnds, SUBSET_SIZE);
+        segmentEnds[SUBSET_SIZE - 1] = true;
+
+        boolean[] refinedEnds = new boolean[n];
+        System.arraycopy(optimalSegmentEnds(values, gamma, SUBSET_SIZE, segmentEnds), 0, refinedEnds, 0, SUBSET_SIZE);
+        refinedEnds[step - 1] = true;
+
+        int subsetStart = step;
+
+        while(subsetStart + SUBSET_SIZE < n - 1)
+        {
+            int subsetEnd = subsetStart + SUBSET_SIZE;
+
+            segmentEnds = Arrays.copyOf(refinedEnds, subsetEnd);
+            System.arraycopy(candidateEnds, subsetStart, segmentEnds, subsetStart, SUBSET_SIZE);
+            segmentEnds[subsetEnd - 1] = true;
+
+            System.arraycopy(optimalSegmentEnds(values, gamma, subsetEnd, segmentEnds), 0, refinedEnds, 0, subsetEnd);
+
+            subsetStart += step;
+            refinedEnds[subsetStart - 1] = true;
+        }
+
+        segmentEnds = Arrays.copyOf(refinedEnds, n);
+        System.arraycopy(candidateEnds, subsetStart, segmentEnds, subsetStart, n - subsetStart);
+
+        return PCFSegmenter.optimalSegmentStarts(values, gamma, segmentEnds);
+    }
+
+    private static boolean[] optimalSegmentEnds(final double[] values, double gamma, int length, final boolean[] candidateEnds)
+    {
+        int[] segmentStarts = PCFSegmenter.optimalSegmentStarts(Arrays.copyOf(values, length), gamma, candidateEnds);
+
+        boolean[] segmentEnds = new boolean[length];
+
+        for(int segmentStart : segmentStarts)
+        {
+            if(segmentStart > 0)
+                segmentEnds[segmentStart - 1] = true;
+        }
+
+        segmentEnds[length - 1] = true;
+        return segmentEnds;
+    }
+
+    private static double quantile(final double[] values, double probability)
+    {
+        // as per R's default quantile type, interpolating between the closest order statistics
+        if(values.length == 0)
+            return 0;
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        double index = (sorted.length - 1) * probability;
+        int lower = (int)floor(index);
+
+        if(lower >= sorted.length - 1)
+            return sorted[sorted.length - 1];
+
+        return sorted[lower] + (index - lower) * (sorted[lower + 1] - sorted[lower]);
+    }
+}
@@ -5,8 +5,12 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkAddDir
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 import java.util.function.Function;
 
 import com.google.common.collect.ArrayListMultimap;
@@ -30,6 +34,8 @@ public final class PCFFile
     private static final String RATIO_EXTENSION = ".cobalt.ratio.pcf";
     private static final String BAF_EXTENSION = ".amber.baf.pcf";
 
+    private static final DecimalFormat MEAN_FORMAT = new DecimalFormat("0.####", new DecimalFormatSymbols(Locale.ENGLISH));
+
     @NotNull
     public static String generateRatioFilename(final String basePath, final String sample)
     {
@@ -107,6 +113,30 @@ public final class PCFFile
         return result;
     }
 
+    public static void write(final String filename, final String sampleColumnId, final List<PCFSegment> segments) throws IOException
+    {
+        // matches the output of the copynumber R package
+        List<String> lines = Lists.newArrayListWithCapacity(segments.size() + 1);
+
+        lines.add(new StringJoiner(DELIMITER).add(HEADER_PREFIX).add("chrom").add("arm").add("start.pos").add("end.pos")
+                .add("n.probes").add("mean").toString());
+
+        for(PCFSegment segment : segments)
+        {
+            lines.add(new StringJoiner(DELIMITER)
+                    .add(sampleColumnId)
+                    .add(segment.Chromosome)
+                    .add(String.valueOf(segment.Arm))
+                    .add(String.valueOf(segment.StartPosition))
+                    .add(String.valueOf(segment.EndPosition))
+                    .add(String.valueOf(segment.ProbeCount))
+                    .add(MEAN_FORMAT.format(segment.Mean))
+                    .toString());
+        }
+
+        Files.write(new File(filename).toPath(), lines);
+    }
+
     public static Multimap<String, GenomeRegion> read(int windowSize, final String filename) throws IOException
     {
         return fromLines(windowSize, Files.readAllLines(new File(filename).toPath()));
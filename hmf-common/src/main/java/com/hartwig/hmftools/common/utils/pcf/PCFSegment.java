@@ -0,0 +1,29 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static java.lang.String.format;
+
+public class PCFSegment
+{
+    public final String Chromosome;
+    public final char Arm;
+    public final int StartPosition;
+    public final int EndPosition;
+    public final int ProbeCount;
+    public final double Mean;
+
+    public PCFSegment(final String chromosome, final char arm, final int startPosition, final int endPosition, final int probeCount,
+            final double mean)
+    {
+        Chromosome = chromosome;
+        Arm = arm;
+        StartPosition = startPosition;
+        EndPosition = endPosition;
+        ProbeCount = probeCount;
+        Mean = mean;
+    }
+
+    public String toString()
+    {
+        return format("%s%c %d-%d probes(%d) mean(%.4f)", Chromosome, Arm, StartPosition, EndPosition, ProbeCount, Mean);
+    }
+}
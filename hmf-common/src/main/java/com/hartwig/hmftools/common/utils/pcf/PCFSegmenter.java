@@ -0,0 +1,441 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import static com.hartwig.hmftools.common.genome.refgenome.RefGenomeFunctions.stripChrPrefix;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.executeTasks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+public class PCFSegmenter
+{
+    // an in-process equivalent of the R copynumber package's 'pcf' routine with kmin = 1, as used by AMBER and COBALT:
+    // - the data is normalised by the sample's residual standard error, being the MAD of the data less its running median
+    // - each chromosome arm is segmented independently, minimising squared error plus a penalty of gamma for each segment boundary
+    // by default this follows copynumber's fast PCF, restricting breakpoints on arms of 400 or more probes to the candidates chosen
+    // by its step filters (see FastPCF), otherwise it finds the exact optimum as per copynumber's pcf with fast = FALSE, using PELT
+    // pruning to keep this linear in practice
+    private final double mGamma;
+    private final boolean mFast;
+    private final Map<String,ChromosomeData> mChromosomeData;
+
+    private static final Logger LOGGER = LogManager.getLogger(PCFSegmenter.class);
+
+    private static final int MAD_FILTER_HALF_WIDTH = 25;
+    private static final double MAD_SCALE = 1.4826;
+    private static final int MEAN_DIGITS = 4;
+
+    public static final char P_ARM = 'p';
+    public static final char Q_ARM = 'q';
+
+    // end of the p-arm from the hg19 cytobands as used by copynumber, which it applies regardless of the ref genome version
+    private static final Map<String,Integer> P_ARM_ENDS = new LinkedHashMap<>();
+
+    static
+    {
+        P_ARM_ENDS.put("1", 125000000);
+        P_ARM_ENDS.put("2", 93300000);
+        P_ARM_ENDS.put("3", 91000000);
+        P_ARM_ENDS.put("4", 50400000);
+        P_ARM_ENDS.put("5", 48400000);
+        P_ARM_ENDS.put("6", 61000000);
+        P_ARM_ENDS.put("7", 59900000);
+        P_ARM_ENDS.put("8", 45600000);
+        P_ARM_ENDS.put("9", 49000000);
+        P_ARM_ENDS.put("10", 40200000);
+        P_ARM_ENDS.put("11", 53700000);
+        P_ARM_ENDS.put("12", 35800000);
+        P_ARM_ENDS.put("13", 17900000);
+        P_ARM_ENDS.put("14", 17600000);
+        P_ARM_ENDS.put("15", 19000000);
+        P_ARM_ENDS.put("16", 36600000);
+        P_ARM_ENDS.put("17", 24000000);
+        P_ARM_ENDS.put("18", 17200000);
+        P_ARM_ENDS.put("19", 26500000);
+        P_ARM_ENDS.put("20", 27500000);
+        P_ARM_ENDS.put("21", 13200000);
+        P_ARM_ENDS.put("22", 14700000);
+        P_ARM_ENDS.put("X", 60600000);
+        P_ARM_ENDS.put("Y", 12500000);
+    }
+
+    private class ChromosomeData
+    {
+        public final String Chromosome;
+        public final int[] Positions;
+        public final double[] Values;
+
+        public final List<PCFSegment> Segments;
+
+        public ChromosomeData(final String chromosome, final int[] positions, final double[] values)
+        {
+            Chromosome = chromosome;
+            Positions = positions;
+            Values = values;
+            Segments = Lists.newArrayList();
+        }
+    }
+
+    public PCFSegmenter(double gamma)
+    {
+        this(gamma, true);
+    }
+
+    public PCFSegmenter(double gamma, boolean fast)
+    {
+        mGamma = gamma;
+        mFast = fast;
+        mChromosomeData = new LinkedHashMap<>();
+    }
+
+    public static boolean supportsChromosome(final String chromosome)
+    {
+        return P_ARM_ENDS.containsKey(stripChrPrefix(chromosome));
+    }
+
+    public void addChromosome(final String chromosome, final int[] positions, final double[] values)
+    {
+        // chromosomes must be added in genome order and positions sorted, since the residual SD is calculated across the sample
+        if(positions.length != values.length)
+            throw new IllegalArgumentException("PCF positions and values differ in length");
+
+        if(!supportsChromosome(chromosome) || positions.length == 0)
+            return;
+
+        mChromosomeData.put(chromosome, new ChromosomeData(chromosome, positions, values));
+    }
+
+    public List<PCFSegment> segment(int threads)
+    {
+        if(mChromosomeData.isEmpty())
+            return Collections.emptyList();
+
+        LOGGER.info("segmenting {} chromosomes with {} PCF, gamma({})", mChromosomeData.size(), mFast ? "fast" : "exact", mGamma);
+
+        int totalCount = mChromosomeData.values().stream().mapToInt(x -> x.Values.length).sum();
+        double[] allValues = new double[totalCount];
+        int index = 0;
+
+        for(ChromosomeData chrData : mChromosomeData.values())
+        {
+            System.arraycopy(chrData.Values, 0, allValues, index, chrData.Values.length);
+            index += chrData.Values.length;
+        }
+
+        double sampleSd = calcResidualSd(allValues);
+        double scale = sampleSd > 0 && Double.isFinite(sampleSd) ? 1 / sampleSd : 1;
+
+        List<Callable> tasks = Lists.newArrayList();
+
+        for(ChromosomeData chrData : mChromosomeData.values())
+        {
+            tasks.add(() -> { segmentChromosome(chrData, scale); return (long)0; });
+        }
+
+        if(!executeTasks(tasks, threads))
+            return null;
+
+        List<PCFSegment> segments = Lists.newArrayList();
+        mChromosomeData.values().forEach(x -> segments.addAll(x.Segments));
+        return segments;
+    }
+
+    private void segmentChromosome(final ChromosomeData chrData, double scale)
+    {
+        int pArmEnd = P_ARM_ENDS.get(stripChrPrefix(chrData.Chromosome));
+
+        int qArmStartIndex = 0;
+
+        while(qArmStartIndex < chrData.Positions.length && chrData.Positions[qArmStartIndex] <= pArmEnd)
+        {
+            ++qArmStartIndex;
+        }
+
+        segmentArm(chrData, P_ARM, 0, qArmStartIndex, scale);
+        segmentArm(chrData, Q_ARM, qArmStartIndex, chrData.Positions.length, scale);
+    }
+
+    private void segmentArm(final ChromosomeData chrData, char arm, int startIndex, int endIndex, double scale)
+    {
+        int count = endIndex - startIndex;
+
+        if(count <= 0)
+            return;
+
+        double[] scaledValues = new double[count];
+
+        for(int i = 0; i < count; ++i)
+        {
+            scaledValues[i] = chrData.Values[startIndex + i] * scale;
+        }
+
+        int[] segmentStarts = mFast ? FastPCF.segmentStarts(scaledValues, mGamma) : optimalSegmentStarts(scaledValues, mGamma);
+
+        for(int s = 0; s < segmentStarts.length; ++s)
+        {
+            int segStart = startIndex + segmentStarts[s];
+            int segEnd = s < segmentStarts.length - 1 ? startIndex + segmentStarts[s + 1] - 1 : endIndex - 1;
+            int probeCount = segEnd - segStart + 1;
+
+            double mean;
+
+            if(probeCount == 1)
+            {
+                // matches the correction applied to copynumber's output for single-probe segments
+                mean = chrData.Values[segStart];
+            }
+            else
+            {
+                double total = 0;
+
+                for(int i = segStart; i <= segEnd; ++i)
+                {
+                    total += chrData.Values[i];
+                }
+
+                mean = roundMean(total / probeCount);
+            }
+
+            chrData.Segments.add(new PCFSegment(
+                    chrData.Chromosome, arm, chrData.Positions[segStart], chrData.Positions[segEnd], probeCount, mean));
+        }
+    }
+
+    private static double roundMean(double value)
+    {
+        double factor = Math.pow(10, MEAN_DIGITS);
+        return Math.round(value * factor) / factor;
+    }
+
+    public static int[] optimalSegmentStarts(final double[] values, double gamma)
+    {
+        return optimalSegmentStarts(values, gamma, null);
+    }
+
+    public static int[] optimalSegmentStarts(final double[] values, double gamma, @Nullable final boolean[] segmentEnds)
+    {
+        // finds the segmentation minimising the within-segment sum of squares plus gamma per additional segment, returning the
+        // start index of each segment - ties between split points are resolved to the earliest split as per copynumber
+        // if segment ends are provided, segments may only end at the marked indices and at the last value
+        int n = values.length;
+
+        double[] cumSum = new double[n + 1];
+        double[] cumSumSq = new double[n + 1];
+
+        for(int i = 0; i < n; ++i)
+        {
+            cumSum[i + 1] = cumSum[i] + values[i];
+            cumSumSq[i + 1] = cumSumSq[i] + values[i] * values[i];
+        }
+
+        // the first segment carries no penalty, which is equivalent to a starting cost of -gamma
+        double[] bestCost = new double[n + 1];
+        int[] bestSplit = new int[n + 1];
+        bestCost[0] = -gamma;
+
+        int[] candidates = new int[n + 1];
+        double[] candidateCosts = new double[n + 1];
+        int candidateCount = 1;
+        candidates[0] = 0;
+
+        for(int t = 1; t <= n; ++t)
+        {
+            if(segmentEnds != null && t < n && !segmentEnds[t - 1])
+                continue;
+
+            double minCost = Double.MAX_VALUE;
+            int minSplit = -1;
+
+            // consider splits in increasing order, and taking a single segment only if it is strictly better
+            for(int c = 0; c < candidateCount; ++c)
+            {
+                int s = candidates[c];
+                double cost = bestCost[s] + segmentCost(cumSum, cumSumSq, s, t) + gamma;
+                candidateCosts[c] = cost;
+
+                if(s > 0 && cost < minCost)
+                {
+                    minCost = cost;
+                    minSplit = s;
+                }
+            }
+
+            if(candidates[0] == 0 && (minSplit < 0 || candidateCosts[0] < minCost))
+            {
+                minCost = candidateCosts[0];
+                minSplit = 0;
+            }
+
+            bestCost[t] = minCost;
+            bestSplit[t] = minSplit;
+
+            // prune split points which can no longer be optimal
+            int retained = 0;
+
+            for(int c = 0; c < candidateCount; ++c)
+            {
+                if(candidateCosts[c] - gamma <= minCost)
+                    candidates[retained++] = candidates[c];
+            }
+
+            candidates[retained++] = t;
+            candidateCount = retained;
+        }
+
+        List<Integer> starts = Lists.newArrayList();
+        int t = n;
+
+        while(t > 0)
+        {
+            starts.add(bestSplit[t]);
+            t = bestSplit[t];
+        }
+
+        Collections.reverse(starts);
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double segmentCost(final double[] cumSum, final double[] cumSumSq, int start, int end)
+    {
+        int length = end - start;
+        double sum = cumSum[end] - cumSum[start];
+        return (cumSumSq[end] - cumSumSq[start]) - sum * sum / length;
+    }
+
+    public static double calcResidualSd(final double[] values)
+    {
+        // MAD of the residuals from a running median, excluding zeros which are likely imputed
+        double[] nonZeroValues = Arrays.stream(values).filter(x -> x != 0).toArray();
+
+        if(nonZeroValues.length == 0)
+            return 0;
+
+        double[] runningMedian = medianFilter(nonZeroValues, MAD_FILTER_HALF_WIDTH);
+
+        double[] residuals = new double[nonZeroValues.length];
+
+        for(int i = 0; i < residuals.length; ++i)
+        {
+            residuals[i] = nonZeroValues[i] - runningMedian[i];
+        }
+
+        double residualMedian = median(residuals);
+
+        double[] deviations = new double[residuals.length];
+
+        for(int i = 0; i < residuals.length; ++i)
+        {
+            deviations[i] = abs(residuals[i] - residualMedian);
+        }
+
+        return MAD_SCALE * median(deviations);
+    }
+
+    private static double median(final double[] values)
+    {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return (sorted.length % 2) == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+
+    public static double[] medianFilter(final double[] values, int halfWidth)
+    {
+        // running median with Tukey's end-point rule, as per R's runmed(endrule = "median")
+        int n = values.length;
+        int width = 2 * halfWidth + 1;
+
+        if(width > n)
+            width = (n % 2) == 0 ? max(n - 1, 1) : n;
+
+        int half = width / 2;
+
+        double[] result = values.clone();
+
+        if(half == 0)
+            return result;
+
+        double[] window = Arrays.copyOfRange(values, 0, width);
+        Arrays.sort(window);
+
+        for(int i = half; i < n - half; ++i)
+        {
+            if(i > half)
+            {
+                // slide the sorted window along by one value
+                removeSorted(window, values[i - half - 1]);
+                insertSorted(window, values[i + half]);
+            }
+
+            result[i] = window[half];
+        }
+
+        return smoothEnds(result, half);
+    }
+
+    private static void removeSorted(final double[] window, double value)
+    {
+        int index = Arrays.binarySearch(window, value);
+        System.arraycopy(window, index + 1, window, index, window.length - index - 1);
+    }
+
+    private static void insertSorted(final double[] window, double value)
+    {
+        // the last slot is free following a removal
+        int length = window.length - 1;
+        int index = Arrays.binarySearch(window, 0, length, value);
+
+        if(index < 0)
+            index = -index - 1;
+
+        System.arraycopy(window, index, window, index + 1, length - index);
+        window[index] = value;
+    }
+
+    private static double[] smoothEnds(final double[] values, int half)
+    {
+        int n = values.length;
+        double[] smoothed = values.clone();
+
+        if(n < 3)
+            return smoothed;
+
+        if(half >= 2)
+        {
+            smoothed[1] = median3(values[0], values[1], values[2]);
+            smoothed[n - 2] = median3(values[n - 1], values[n - 2], values[n - 3]);
+
+            for(int i = 3; i <= half; ++i)
+            {
+                if(2 * i > n)
+                    break;
+
+                smoothed[i - 1] = median(Arrays.copyOfRange(values, 0, 2 * i - 1));
+                smoothed[n - i] = median(Arrays.copyOfRange(values, n + 1 - 2 * i, n));
+            }
+        }
+
+        smoothed[0] = median3(values[0], smoothed[1], 3 * smoothed[1] - 2 * smoothed[2]);
+        smoothed[n - 1] = median3(values[n - 1], smoothed[n - 2], 3 * smoothed[n - 2] - 2 * smoothed[n - 3]);
+
+        return smoothed;
+    }
+
+    private static double median3(double a, double b, double c)
+    {
+        return max(min(a, b), min(max(a, b), c));
+    }
+}
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.common.aligner;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +55,48 @@ public class GlobalSequenceAlignerTest
         testAlignSequenceHelper(seq, refSeq, "MMMMMM+++");
     }
 
+    @Test
+    public void testScoreOnlyAndBanding()
+    {
+        var aligner = new GlobalSequenceAligner(1, -1, -1, -1);
+
+        String seq = "TTAGGTTAGCGTTAGTG";
+        String refSeq = "TTAGGTTAGGGTTAGGGTTAGGGTTAGGG";
+
+        GlobalSequenceAligner.Alignment alignment = aligner.alignSequence(seq, refSeq);
+        assertEquals(alignment.getScore(), aligner.alignScore(seq, refSeq));
+        assertEquals(alignment.getOperatorsString(), aligner.alignSequence(seq.getBytes(), refSeq.getBytes()).getOperatorsString());
+
+        // the band covers the diagonals from the start to the end of the sequences, so a zero width still allows a full alignment
+        aligner.setBandWidth(0);
+        GlobalSequenceAligner.Alignment bandedAlignment = aligner.alignSequence(seq, refSeq);
+        assertEquals(bandedAlignment.getScore(), aligner.alignScore(seq, refSeq));
+        assertTrue(bandedAlignment.getScore() <= alignment.getScore());
+
+        aligner.setBandWidth(5);
+        assertEquals(alignment.getOperatorsString(), aligner.alignSequence(seq, refSeq).getOperatorsString());
+
+        aligner.setBandWidth(0);
+        assertEquals("MMM-MMMMMMSMMMMMMM", aligner.alignSequence("TTAGGTTAGCGTTAGGG", "TTAGGGTTAGGGTTAGGG").getOperatorsString());
+    }
+
+    @Test
+    public void testMatrixAboveRetainedSize()
+    {
+        var aligner = new GlobalSequenceAligner(1, -1, -1, -1);
+
+        // a matrix above the retained size is allocated for the one alignment, and the reused matrix is unaffected
+        String longSeq = "TTAGGG".repeat(400);
+        String longRefSeq = "TTAGGGTTAGCG".repeat(200);
+        assertTrue((long)(longSeq.length() + 1) * (longRefSeq.length() + 1) > AlignerTraits.MAX_RETAINED_MATRIX_ENTRIES);
+
+        GlobalSequenceAligner.Alignment longAlignment = aligner.alignSequence(longSeq, longRefSeq);
+        assertEquals(longSeq.length(), longAlignment.getOperatorsString().replace("-", "").length());
+        assertEquals(longAlignment.getScore(), aligner.alignScore(longSeq, longRefSeq));
+
+        testAlignSequenceHelper("TTAGGTTAGCGTTAGGG", "TTAGGGTTAGGGTTAGGG", "MMM-MMMMMMSMMMMMMM");
+    }
+
     private void testAlignSequenceHelper(String seq, String refSeq, String expectedAlignOps)
     {
         var aligner = new GlobalSequenceAligner(1, -1, -1, -1);
@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.common.aligner;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -129,6 +130,48 @@ public class LocalSequenceAlignerTest
         assertEquals(6, alignment.getScore());
     }
 
+    @Test
+    public void testScoreOnlyAndBanding()
+    {
+        LocalSequenceAligner aligner = new LocalSequenceAligner(2, -1, -2, -1);
+
+        String seq = "TTAGGTTAGCGTTAGTG";
+        String refSeq = "TTAGGTTAGGGTTAGGGTTAGGGTTAGGG";
+
+        LocalSequenceAligner.Alignment alignment = aligner.alignSequence(seq, refSeq);
+        assertEquals(alignment.getScore(), aligner.alignScore(seq, refSeq));
+
+        LocalSequenceAligner.Alignment byteAlignment = aligner.alignSequence(seq.getBytes(), refSeq.getBytes());
+        assertEquals(alignment.getOperatorsString(), byteAlignment.getOperatorsString());
+        assertEquals(alignment.getScore(), byteAlignment.getScore());
+
+        // a smaller alignment reuses the same work matrix
+        testAlignSequenceHelper("TTAGG", "TAGG", "MMMM", 1, 5, 0, 4);
+
+        // a band which covers the alignment gives the same result
+        aligner.setBandWidth(2);
+        alignment = aligner.alignSequence(seq, refSeq);
+        assertEquals("MMMMMMMMMSMMMMMSM", alignment.getOperatorsString());
+        assertEquals(alignment.getScore(), aligner.alignScore(seq, refSeq));
+
+        // the band includes every diagonal between the start and end offsets of the sequences
+        seq = "TTAGACGTC";
+        refSeq = "TTAGTTAGACGTCCGTC";
+        aligner.setBandWidth(0);
+        alignment = aligner.alignSequence(seq, refSeq);
+        assertEquals("MMMMMMMMM", alignment.getOperatorsString());
+        assertEquals(4, alignment.getSecondSequenceAlignStart());
+
+        // but excludes an alignment off those diagonals
+        seq = "CCCCCCTTAGACGTC";
+        refSeq = "TTAGACGTCAAAAAA";
+        alignment = aligner.alignSequence(seq, refSeq);
+        assertTrue(alignment.getScore() < 18);
+
+        aligner.setBandWidth(AlignerTraits.NO_BAND);
+        assertEquals(18, aligner.alignScore(seq, refSeq));
+    }
+
     private void testAlignSequenceHelper(String seq, String refSeq, String expectedAlignOps, int seq1AlignStart, int seq1AlignEnd,
             int seq2AlignStart, int seq2AlignEnd)
     {
@@ -0,0 +1,112 @@
+package com.hartwig.hmftools.common.bam;
+
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.SAM_DICTIONARY_V37;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.createSamRecordUnpaired;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+public class BamReadFanOutTest
+{
+    private static final String CHR_1 = "1";
+    private static final String CHR_2 = "2";
+    private static final String READ_BASES = "A".repeat(50);
+
+    @Test
+    public void testReadsSharedAcrossConsumers() throws Exception
+    {
+        File tempDir = Files.createTempDirectory("bam_read_fan_out").toFile();
+        tempDir.deleteOnExit();
+
+        SAMRecord read1 = createSamRecordUnpaired("READ_001", CHR_1, 100, READ_BASES, "50M", false, false, null);
+        SAMRecord duplicate = createSamRecordUnpaired("READ_002", CHR_1, 200, READ_BASES, "50M", false, false, null);
+        duplicate.setDuplicateReadFlag(true);
+        SAMRecord read3 = createSamRecordUnpaired("READ_003", CHR_2, 100, READ_BASES, "50M", false, false, null);
+
+        File bamFile = writeBam(tempDir, List.of(read1, duplicate, read3));
+
+        TestConsumer allReads = new TestConsumer(new BamSlicerFilter(0, true, false, false));
+        TestConsumer nonDuplicates = new TestConsumer(new BamSlicerFilter(0, false, false, false));
+
+        BamReadFanOut bamReadFanOut = new BamReadFanOut();
+        bamReadFanOut.registerConsumer(allReads);
+        bamReadFanOut.registerConsumer(nonDuplicates);
+
+        List<ChrBaseRegion> partitions = List.of(new ChrBaseRegion(CHR_1, 1, 1000), new ChrBaseRegion(CHR_2, 1, 1000));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        bamReadFanOut.queryAsync(
+                bamFile, SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT), partitions, executorService).get();
+        executorService.shutdown();
+
+        assertEquals(3, allReads.ReadIds.size());
+        assertEquals(2, nonDuplicates.ReadIds.size());
+        assertEquals(List.of("READ_001", "READ_003"), Lists.newArrayList(nonDuplicates.ReadIds).stream().sorted().toList());
+
+        assertEquals(2, allReads.CompletedPartitions.size());
+        assertEquals(2, nonDuplicates.CompletedPartitions.size());
+    }
+
+    private static File writeBam(final File tempDir, final List<SAMRecord> records) throws IOException
+    {
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(SAM_DICTIONARY_V37);
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        File bamFile = new File(tempDir, "test.bam");
+
+        try(SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, bamFile))
+        {
+            for(SAMRecord record : records)
+            {
+                record.setHeader(header);
+                writer.addAlignment(record);
+            }
+        }
+
+        bamFile.deleteOnExit();
+        new File(tempDir, "test.bai").deleteOnExit();
+        return bamFile;
+    }
+
+    private static class TestConsumer implements BamReadConsumer
+    {
+        private final BamSlicerFilter mFilter;
+
+        public final List<String> ReadIds = Collections.synchronizedList(Lists.newArrayList());
+        public final List<ChrBaseRegion> CompletedPartitions = Collections.synchronizedList(Lists.newArrayList());
+
+        public TestConsumer(final BamSlicerFilter filter)
+        {
+            mFilter = filter;
+        }
+
+        @Override
+        public BamSlicerFilter filter() { return mFilter; }
+
+        @Override
+        public void processRead(final SAMRecord record, final ChrBaseRegion partition) { ReadIds.add(record.getReadName()); }
+
+        @Override
+        public void partitionComplete(final ChrBaseRegion partition) { CompletedPartitions.add(partition); }
+    }
+}
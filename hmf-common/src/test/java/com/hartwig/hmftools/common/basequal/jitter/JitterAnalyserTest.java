@@ -0,0 +1,109 @@
+package com.hartwig.hmftools.common.basequal.jitter;
+
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.createSamRecordUnpaired;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class JitterAnalyserTest
+{
+    private static final String CHR_1 = "1";
+
+    @Test
+    public void testSiteRepeatCounts()
+    {
+        // a 10-base AT repeat at 101-110, so 5 repeat units in the reference
+        RefGenomeMicrosatellite microsatellite = new RefGenomeMicrosatellite(new ChrBaseRegion(CHR_1, 101, 110), "AT".getBytes());
+        MicrosatelliteSiteAnalyser siteAnalyser = new MicrosatelliteSiteAnalyser(microsatellite);
+
+        String readBases = "AT".repeat(25);
+
+        siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_001", CHR_1, 81, readBases, "50M", false, false, null));
+        siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_002", CHR_1, 81, readBases, "50M", false, false, null));
+        siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_003", CHR_1, 81, readBases, "24M2I24M", false, false, null));
+        siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_004", CHR_1, 81, readBases, "24M2D26M", false, false, null));
+
+        // doesn't span the repeat
+        siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_005", CHR_1, 105, readBases, "50M", false, false, null));
+
+        SAMRecord duplicate = createSamRecordUnpaired("READ_006", CHR_1, 81, readBases, "50M", false, false, null);
+        duplicate.setDuplicateReadFlag(true);
+        siteAnalyser.addReadToStats(duplicate);
+
+        assertEquals(5, siteAnalyser.readCount());
+        assertEquals(1, siteAnalyser.numReadRejected());
+        assertEquals(4, siteAnalyser.passingReadCount());
+
+        assertEquals(2, siteAnalyser.getCountWithRepeatUnits(5));
+        assertEquals(1, siteAnalyser.getCountWithRepeatUnits(6));
+        assertEquals(1, siteAnalyser.getCountWithRepeatUnits(4));
+        assertEquals(0, siteAnalyser.getCountWithRepeatUnits(3));
+        assertEquals(0, siteAnalyser.getCountWithRepeatUnits(100));
+
+        assertEquals("8,10,10,12", MicrosatelliteSiteFile.getRepeatString(siteAnalyser.repeatLengthCounts()));
+
+        // 25% of reads at each of +/-1 units is below the 30% alt threshold
+        assertFalse(siteAnalyser.isRealVariant(0.3, -0.05, 0.25));
+        assertTrue(siteAnalyser.isRealVariant(0.2, -0.05, 0.25));
+
+        // sites with too many rejected reads are excluded from the summary table
+        assertEquals(0, JitterCountsTable.summariseFrom("AT", List.of(siteAnalyser)).getReadCount(5));
+
+        for(int i = 0; i < 3; ++i)
+        {
+            siteAnalyser.addReadToStats(createSamRecordUnpaired("READ_REF_" + i, CHR_1, 81, readBases, "50M", false, false, null));
+        }
+
+        JitterCountsTable countsTable = JitterCountsTable.summariseFrom("AT", List.of(siteAnalyser));
+        assertEquals(7, countsTable.getReadCount(5));
+        assertEquals(1, countsTable.getJitterReadCount(5, 1));
+        assertEquals(1, countsTable.getJitterReadCount(5, -1));
+    }
+
+    @Test
+    public void testScaleSkewFit()
+    {
+        int numRepeats = 6;
+        double scale = 0.37;
+        double skew = 1.4;
+
+        JitterCountsTable countsTable = new JitterCountsTable("A/T");
+        JitterCountsTable.Row row = countsTable.getOrCreateRow(numRepeats);
+
+        for(int jitter = -5; jitter <= 5; ++jitter)
+        {
+            row.addReads(jitter, (int)Math.round(1_000_000 * JitterModelCalc.modifiedAsymmetricLaplace(jitter, scale, skew)));
+        }
+
+        JitterModelFitter fitter = new JitterModelFitter(countsTable);
+        JitterModelFitter.ScaleSkew fitted = fitter.gridSearch(numRepeats);
+
+        assertNotNull(fitted);
+
+        // the refined fit is no worse than evaluating every point of the search grid
+        JitterModelLoss lossCalc = new JitterModelLoss(row, numRepeats, 0);
+        double gridMinLoss = Double.MAX_VALUE;
+
+        for(double gridScale : JitterModelFitter.SEARCH_VALUES)
+        {
+            for(double gridSkew : JitterModelFitter.SEARCH_VALUES)
+            {
+                gridMinLoss = Math.min(gridMinLoss, lossCalc.totalLoss(gridScale, gridSkew));
+            }
+        }
+
+        assertTrue(fitted.loss <= gridMinLoss + 1e-4);
+        assertEquals(scale, fitted.scale, 0.02);
+        assertEquals(skew, fitted.skew, 0.1);
+    }
+}
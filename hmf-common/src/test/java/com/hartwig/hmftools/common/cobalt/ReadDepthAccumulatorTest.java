@@ -1,6 +1,4 @@
-package com.hartwig.hmftools.cobalt.count;
-
-import static com.hartwig.hmftools.cobalt.CobaltTestUtils.EPSILON;
+package com.hartwig.hmftools.common.cobalt;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -16,6 +14,8 @@ import org.junit.Test;
 
 public class ReadDepthAccumulatorTest
 {
+    private static final double EPSILON = 1e-7;
+
     @Test
     public void testWindowReadDepth()
     {
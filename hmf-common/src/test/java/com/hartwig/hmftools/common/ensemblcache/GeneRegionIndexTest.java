@@ -0,0 +1,164 @@
+package com.hartwig.hmftools.common.ensemblcache;
+
+import static com.hartwig.hmftools.common.fusion.FusionCommon.NEG_STRAND;
+import static com.hartwig.hmftools.common.fusion.FusionCommon.POS_STRAND;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.addGeneData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.addTransExonData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createEnsemblGeneData;
+import static com.hartwig.hmftools.common.test.GeneTestUtils.createGeneDataCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.gene.GeneData;
+import com.hartwig.hmftools.common.gene.TranscriptData;
+
+import org.junit.Test;
+
+public class GeneRegionIndexTest
+{
+    @Test
+    public void testOverlappingGenes()
+    {
+        Random random = new Random(0);
+
+        List<GeneData> genes = Lists.newArrayList();
+
+        for(int i = 0; i < 500; ++i)
+        {
+            int geneStart = random.nextInt(1000000);
+            int geneEnd = geneStart + random.nextInt(i % 50 == 0 ? 200000 : 20000);
+            genes.add(createEnsemblGeneData("ENSG" + i, "GENE_" + i, CHR_1, random.nextBoolean() ? 1 : -1, geneStart, geneEnd));
+        }
+
+        GeneRegionIndex geneRegionIndex = new GeneRegionIndex(genes);
+
+        for(int i = 0; i < 1000; ++i)
+        {
+            int posStart = random.nextInt(1100000);
+            int posEnd = posStart + random.nextInt(5000);
+
+            List<GeneData> expected = genes.stream()
+                    .filter(x -> posStart <= x.GeneEnd && posEnd >= x.GeneStart).collect(Collectors.toList());
+
+            assertEquals(expected, geneRegionIndex.findOverlapping(posStart, posEnd));
+        }
+    }
+
+    @Test
+    public void testGenesByTranscriptRegion()
+    {
+        Random random = new Random(0);
+
+        EnsemblDataCache ensemblDataCache = createGeneDataCache();
+        List<GeneData> genes = Lists.newArrayList();
+        Map<String,List<TranscriptData>> geneTranscripts = Maps.newHashMap();
+        int transId = 0;
+
+        for(int i = 0; i < 300; ++i)
+        {
+            int geneStart = random.nextInt(1000000);
+            int geneEnd = geneStart + random.nextInt(20000);
+            GeneData geneData = createEnsemblGeneData("ENSG" + i, "GENE_" + i, CHR_1, POS_STRAND, geneStart, geneEnd);
+            genes.add(geneData);
+
+            List<TranscriptData> transcripts = Lists.newArrayList();
+
+            for(int t = 0; t < 1 + random.nextInt(4); ++t)
+            {
+                int transStart = geneStart + random.nextInt(geneEnd - geneStart + 1);
+                int transEnd = transStart + random.nextInt(geneEnd - transStart + 1);
+
+                transcripts.add(new TranscriptData(
+                        transId++, "ENST" + transId, geneData.GeneId, t == 0, POS_STRAND, transStart, transEnd,
+                        null, null, "protein_coding"));
+            }
+
+            geneTranscripts.put(geneData.GeneId, transcripts);
+            addTransExonData(ensemblDataCache, geneData.GeneId, transcripts);
+        }
+
+        addGeneData(ensemblDataCache, CHR_1, genes);
+
+        for(int i = 0; i < 1000; ++i)
+        {
+            int posStart = random.nextInt(1100000);
+            int posEnd = posStart + random.nextInt(30000);
+
+            List<GeneData> expected = genes.stream()
+                    .filter(x -> posStart <= x.GeneEnd && posEnd >= x.GeneStart)
+                    .filter(x -> geneTranscripts.get(x.GeneId).stream().anyMatch(y -> posStart <= y.TransStart && posEnd >= y.TransEnd))
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ensemblDataCache.findGenesByRegion(CHR_1, posStart, posEnd));
+        }
+    }
+
+    @Test
+    public void testNearestUpstreamGene()
+    {
+        GeneData gene1 = createEnsemblGeneData("ENSG001", "GENE_1", CHR_1, POS_STRAND, 1000, 2000);
+        GeneData gene2 = createEnsemblGeneData("ENSG002", "GENE_2", CHR_1, NEG_STRAND, 3000, 4000);
+        GeneData gene3 = createEnsemblGeneData("ENSG003", "GENE_3", CHR_1, POS_STRAND, 5000, 6000);
+        GeneData gene4 = createEnsemblGeneData("ENSG004", "GENE_4", CHR_1, NEG_STRAND, 7000, 8000);
+
+        EnsemblDataCache ensemblDataCache = createGeneDataCache();
+        addGeneData(ensemblDataCache, CHR_1, Lists.newArrayList(gene1, gene2, gene3, gene4));
+
+        assertEquals(gene1, ensemblDataCache.findNearestUpstreamGene(CHR_1, 500, POS_STRAND));
+        assertEquals(gene3, ensemblDataCache.findNearestUpstreamGene(CHR_1, 1500, POS_STRAND));
+        assertNull(ensemblDataCache.findNearestUpstreamGene(CHR_1, 5000, POS_STRAND));
+
+        assertNull(ensemblDataCache.findNearestUpstreamGene(CHR_1, 4000, NEG_STRAND));
+        assertEquals(gene2, ensemblDataCache.findNearestUpstreamGene(CHR_1, 4500, NEG_STRAND));
+        assertEquals(gene4, ensemblDataCache.findNearestUpstreamGene(CHR_1, 9000, NEG_STRAND));
+    }
+
+    @Test
+    public void testIndexRebuild()
+    {
+        GeneData gene1 = createEnsemblGeneData("ENSG001", "GENE_1", CHR_1, POS_STRAND, 1000, 2000);
+        GeneData gene2 = createEnsemblGeneData("ENSG002", "GENE_2", CHR_1, NEG_STRAND, 3000, 4000);
+
+        EnsemblDataCache ensemblDataCache = createGeneDataCache();
+        List<GeneData> genes = Lists.newArrayList(gene1, gene2);
+        addGeneData(ensemblDataCache, CHR_1, genes);
+
+        assertEquals(List.of(gene2), ensemblDataCache.findGeneRegions(CHR_1, 3500, 100));
+        assertTrue(ensemblDataCache.findGeneRegions(CHR_1, 5500, 100).isEmpty());
+
+        // replacing a chromosome's gene list is picked up by the index
+        GeneData gene3 = createEnsemblGeneData("ENSG003", "GENE_3", CHR_1, POS_STRAND, 5000, 6000);
+        addGeneData(ensemblDataCache, CHR_1, Lists.newArrayList(gene1, gene3));
+
+        assertEquals(List.of(gene3), ensemblDataCache.findGeneRegions(CHR_1, 5500, 100));
+        assertTrue(ensemblDataCache.findGeneRegions(CHR_1, 3500, 100).isEmpty());
+        assertEquals(gene3, ensemblDataCache.findNearestUpstreamGene(CHR_1, 1500, POS_STRAND));
+
+        // the cache holds its own copy of the genes, and its lists cannot be changed in place
+        genes.set(1, gene3);
+        assertEquals(List.of(gene1, gene3), ensemblDataCache.getChrGeneDataMap().get(CHR_1));
+
+        List<GeneData> chrGenes = ensemblDataCache.getChrGeneDataMap().get(CHR_1);
+        assertThrows(UnsupportedOperationException.class, () -> chrGenes.set(1, gene2));
+        assertThrows(UnsupportedOperationException.class, () -> ensemblDataCache.getChrGeneDataMap().put(CHR_1, genes));
+
+        // a transcript added to a gene is picked up by the transcript index
+        assertTrue(ensemblDataCache.findGenesByRegion(CHR_1, 5000, 6000).isEmpty());
+
+        addTransExonData(ensemblDataCache, gene3.GeneId, Lists.newArrayList(new TranscriptData(
+                1, "ENST001", gene3.GeneId, true, POS_STRAND, 5100, 5900, null, null, "protein_coding")));
+
+        assertEquals(List.of(gene3), ensemblDataCache.findGenesByRegion(CHR_1, 5000, 6000));
+    }
+}
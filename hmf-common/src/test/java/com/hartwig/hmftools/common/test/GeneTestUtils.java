@@ -49,12 +49,12 @@ public final class GeneTestUtils
 
     public static void addTransExonData(EnsemblDataCache geneTransCache, final String geneId, List<TranscriptData> transDataList)
     {
-        geneTransCache.getTranscriptDataMap().put(geneId, transDataList);
+        geneTransCache.setTranscriptData(geneId, transDataList);
     }
 
     public static void addGeneData(EnsemblDataCache geneTransCache, final String chromosome, List<GeneData> geneDataList)
     {
-        geneTransCache.getChrGeneDataMap().put(chromosome, geneDataList);
+        geneTransCache.setChrGeneData(chromosome, geneDataList);
     }
 
     public static int getCodingBases(final Integer start, final Integer end)
@@ -0,0 +1,111 @@
+package com.hartwig.hmftools.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void testTimersAndCounters() throws InterruptedException
+    {
+        MetricsRegistry registry = new MetricsRegistry("Test", true, 0);
+
+        // per-thread counters with the same name are merged
+        PerformanceCounter pc1 = new PerformanceCounter("Stage");
+        pc1.start();
+        pc1.stop();
+        pc1.start();
+        pc1.stop();
+
+        PerformanceCounter pc2 = new PerformanceCounter("Stage");
+        pc2.start();
+        pc2.stop();
+
+        registry.registerTimers(List.of(pc1, pc2));
+        registry.registerTimer(new PerformanceCounter("Unused"));
+
+        assertEquals(3, registry.timerCount("Stage"));
+        assertEquals(pc1.getTotalTime() + pc2.getTotalTime(), registry.timerTotal("Stage"), 1e-9);
+        assertEquals(0, registry.timerCount("Unused"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        for(int i = 0; i < 100; ++i)
+        {
+            executor.submit(() ->
+            {
+                registry.counter("Reads").increment();
+                registry.recordTime("Task", 0.5);
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, registry.count("Reads"));
+        assertEquals(100, registry.timerCount("Task"));
+        assertEquals(50, registry.timerTotal("Task"), 1e-9);
+    }
+
+    @Test
+    public void testWriteMetrics() throws IOException
+    {
+        Path outputDir = Files.createTempDirectory("metrics_test");
+        String outputPath = outputDir.toString() + File.separator;
+
+        MetricsRegistry disabled = MetricsRegistry.disabled("Test");
+        disabled.addCount("Reads", 10);
+        disabled.writeMetrics(outputPath, "SAMPLE");
+        assertFalse(new File(outputPath + "SAMPLE.test.perf_metrics.tsv").exists());
+
+        MetricsRegistry registry = new MetricsRegistry("Test", true, 0);
+        registry.recordTime("Stage", 1.5);
+        registry.addCount("Reads", 10);
+        registry.registerGauge("CacheSize", () -> 42);
+        registry.sampleResources();
+
+        registry.writeMetrics(outputPath, "SAMPLE");
+
+        File tsvFile = new File(outputPath + "SAMPLE.test.perf_metrics.tsv");
+        File resourcesFile = new File(outputPath + "SAMPLE.test.perf_resources.tsv");
+        File jsonFile = new File(outputPath + "SAMPLE.test.perf_metrics.json");
+
+        List<String> tsvLines = Files.readAllLines(tsvFile.toPath());
+        assertEquals("MetricType\tName\tCount\tValue\tMean\tMax", tsvLines.get(0));
+        assertTrue(tsvLines.contains("TIMER\tStage\t1\t1.5000\t1.5000\t1.5000"));
+        assertTrue(tsvLines.contains("COUNTER\tReads\t1\t10.0000\t0.0000\t0.0000"));
+        assertTrue(tsvLines.contains("GAUGE\tCacheSize\t1\t42.0000\t0.0000\t0.0000"));
+
+        // the explicit sample and the final one taken on writing
+        assertEquals(3, Files.readAllLines(resourcesFile.toPath()).size());
+
+        JsonObject json = JsonParser.parseString(Files.readString(jsonFile.toPath())).getAsJsonObject();
+        assertEquals("Test", json.get("tool").getAsString());
+        assertEquals(1.5, json.getAsJsonObject("timers").getAsJsonObject("Stage").get("totalSeconds").getAsDouble(), 1e-9);
+        assertEquals(10, json.getAsJsonObject("counters").get("Reads").getAsLong());
+        assertEquals(42, json.getAsJsonObject("gauges").get("CacheSize").getAsInt());
+        assertEquals(2, json.getAsJsonArray("resources").size());
+
+        for(File file : outputDir.toFile().listFiles())
+        {
+            file.delete();
+        }
+
+        outputDir.toFile().delete();
+    }
+}
@@ -0,0 +1,169 @@
+package com.hartwig.hmftools.common.utils.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+
+public class BgzfStreamTest
+{
+    @Test
+    public void testCompressAndInflate() throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        // a mix of compressible and random data spanning many blocks, with a partial final block
+        Random random = new Random(0);
+        byte[] data = new byte[BgzfOutputStream.BLOCK_DATA_SIZE * 7 + 123];
+
+        for(int i = 0; i < data.length; ++i)
+        {
+            data[i] = i < data.length / 2 ? (byte)"ACGT".charAt(random.nextInt(4)) : (byte)random.nextInt(256);
+        }
+
+        ByteArrayOutputStream outputBytes = new ByteArrayOutputStream();
+
+        try(BgzfOutputStream outputStream = new BgzfOutputStream(outputBytes, executor))
+        {
+            // write in uneven chunks, including a mid-stream flush
+            int offset = 0;
+            while(offset < data.length)
+            {
+                int length = Math.min(1 + random.nextInt(20000), data.length - offset);
+                outputStream.write(data, offset, length);
+                offset += length;
+
+                if(offset > data.length / 3 && offset - length <= data.length / 3)
+                    outputStream.flush();
+            }
+        }
+
+        byte[] compressed = outputBytes.toByteArray();
+        assertTrue(BgzfInputStream.isBgzfHeader(compressed, compressed.length));
+
+        assertArrayEquals(data, new BgzfInputStream(new ByteArrayInputStream(compressed), executor).readAllBytes());
+        assertArrayEquals(data, new BgzfInputStream(new ByteArrayInputStream(compressed), null).readAllBytes());
+
+        // standard gzip and BGZF readers handle the output
+        assertArrayEquals(data, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+
+        try(InputStream inputStream = new BlockCompressedInputStream(new ByteArrayInputStream(compressed)))
+        {
+            assertArrayEquals(data, inputStream.readAllBytes());
+        }
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void testParallelOutputMatchesSerial() throws IOException
+    {
+        // more blocks than can be in flight, so the writer waits on the pool as well as running blocks itself
+        Random random = new Random(1);
+        StringBuilder fastqRecords = new StringBuilder();
+
+        for(int i = 0; fastqRecords.length() < BgzfOutputStream.BLOCK_DATA_SIZE * (BgzfOutputStream.MAX_PENDING_BLOCKS * 3); ++i)
+        {
+            StringBuilder bases = new StringBuilder();
+            StringBuilder quals = new StringBuilder();
+
+            for(int j = 0; j < 151; ++j)
+            {
+                bases.append("ACGT".charAt(random.nextInt(4)));
+                quals.append((char)('#' + random.nextInt(40)));
+            }
+
+            fastqRecords.append(String.format("@READ_%d\n%s\n+\n%s\n", i, bases, quals));
+        }
+
+        byte[] data = fastqRecords.toString().getBytes();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        assertArrayEquals(compress(data, null), compress(data, executor));
+
+        executor.shutdown();
+    }
+
+    private static byte[] compress(final byte[] data, final ExecutorService executor) throws IOException
+    {
+        ByteArrayOutputStream outputBytes = new ByteArrayOutputStream();
+
+        try(BgzfOutputStream outputStream = new BgzfOutputStream(outputBytes, executor))
+        {
+            int offset = 0;
+            while(offset < data.length)
+            {
+                int length = Math.min(1000, data.length - offset);
+                outputStream.write(data, offset, length);
+                offset += length;
+            }
+        }
+
+        return outputBytes.toByteArray();
+    }
+
+    @Test
+    public void testBufferedFileWriterAndReader() throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        File file = File.createTempFile("bgzf_test", ".tsv.gz");
+        file.deleteOnExit();
+
+        int lineCount = 50000;
+        BufferedWriter writer = FileWriterUtils.createBufferedWriter(file.getPath(), executor);
+
+        for(int i = 0; i < lineCount; ++i)
+        {
+            writer.write(String.format("line_%d\t%d", i, i * 7));
+            writer.newLine();
+        }
+
+        writer.close();
+
+        assertTrue(FileWriterUtils.isBgzfFile(file.getPath()));
+
+        BufferedReader reader = FileWriterUtils.createBufferedReader(file.getPath(), executor);
+
+        for(int i = 0; i < lineCount; ++i)
+        {
+            assertEquals(String.format("line_%d\t%d", i, i * 7), reader.readLine());
+        }
+
+        assertEquals(null, reader.readLine());
+        reader.close();
+
+        // plain gzip files fall back to the standard reader
+        File gzipFile = File.createTempFile("gzip_test", ".tsv.gz");
+        gzipFile.deleteOnExit();
+
+        writer = FileWriterUtils.createGzipBufferedWriter(gzipFile.getPath());
+        writer.write("line");
+        writer.close();
+
+        assertFalse(FileWriterUtils.isBgzfFile(gzipFile.getPath()));
+
+        reader = FileWriterUtils.createBufferedReader(gzipFile.getPath(), executor);
+        assertEquals("line", reader.readLine());
+        reader.close();
+
+        executor.shutdown();
+    }
+}
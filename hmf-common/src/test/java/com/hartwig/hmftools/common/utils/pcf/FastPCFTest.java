@@ -0,0 +1,130 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FastPCFTest
+{
+    private static final double GAMMA = 100;
+
+    @Test
+    public void testShortArmsSegmentedExactly()
+    {
+        double[] values = stepValues(new Random(2), FastPCF.MIN_FAST_PROBES - 1, new int[] { 150, 300 }, 0.5);
+        assertArrayEquals(PCFSegmenter.optimalSegmentStarts(values, GAMMA), FastPCF.segmentStarts(values, GAMMA));
+    }
+
+    @Test
+    public void testCandidatesIncludeSteps()
+    {
+        // a broad step and a 3-probe segment are both marked, while most probes are not candidates
+        double[] values = stepValues(new Random(3), 3000, new int[] { 1000, 1003, 2000 }, 1);
+
+        boolean[] segmentEnds = FastPCF.candidateSegmentEnds(values, 0.12, 0.05);
+
+        assertTrue(segmentEnds[999]);
+        assertTrue(segmentEnds[1002]);
+        assertTrue(segmentEnds[1999]);
+        assertTrue(segmentEnds[values.length - 1]);
+
+        int candidateCount = 0;
+
+        for(boolean segmentEnd : segmentEnds)
+        {
+            if(segmentEnd)
+                ++candidateCount;
+        }
+
+        assertTrue(candidateCount < values.length / 3);
+    }
+
+    @Test
+    public void testRestrictedSegmentation()
+    {
+        Random random = new Random(4);
+        double[] values = stepValues(random, 200, new int[] { 50, 120 }, 0.3);
+
+        boolean[] segmentEnds = new boolean[values.length];
+
+        for(int i = 0; i < values.length; i += 7)
+        {
+            segmentEnds[i] = true;
+        }
+
+        // breakpoints only fall after the marked values, and the restricted optimum can be no better than the exact one
+        int[] restrictedStarts = PCFSegmenter.optimalSegmentStarts(values, 1, segmentEnds);
+        int[] exactStarts = PCFSegmenter.optimalSegmentStarts(values, 1);
+
+        for(int start : restrictedStarts)
+        {
+            assertTrue(start == 0 || segmentEnds[start - 1]);
+        }
+
+        assertTrue(totalCost(values, restrictedStarts, 1) >= totalCost(values, exactStarts, 1) - 1e-9);
+    }
+
+    @Test
+    public void testFastMatchesExactOnClearSteps()
+    {
+        // covers arms segmented over all the candidates at once, and in overlapping subsets
+        Random random = new Random(5);
+
+        double[] values = stepValues(random, 800, new int[] { 200, 203, 600 }, 1);
+        assertArrayEquals(PCFSegmenter.optimalSegmentStarts(values, GAMMA), FastPCF.segmentStarts(values, GAMMA));
+
+        values = stepValues(random, 6000, new int[] { 1000, 1010, 4500 }, 1);
+        assertArrayEquals(PCFSegmenter.optimalSegmentStarts(values, GAMMA), FastPCF.segmentStarts(values, GAMMA));
+
+        values = stepValues(random, 20000, new int[] { 3000, 3990, 4010, 8000, 12345, 19000 }, 1);
+        int[] fastStarts = FastPCF.segmentStarts(values, GAMMA);
+        assertArrayEquals(PCFSegmenter.optimalSegmentStarts(values, GAMMA), fastStarts);
+        assertArrayEquals(new int[] { 0, 3000, 3990, 4010, 8000, 12345, 19000 }, fastStarts);
+    }
+
+    private static double[] stepValues(final Random random, int count, final int[] stepStarts, double stepSize)
+    {
+        // unit-variance noise about a level which alternates at each step
+        double[] values = new double[count];
+        int stepIndex = 0;
+        double level = 0;
+
+        for(int i = 0; i < count; ++i)
+        {
+            if(stepIndex < stepStarts.length && i == stepStarts[stepIndex])
+            {
+                level = (stepIndex % 2) == 0 ? 10 * stepSize : 0;
+                ++stepIndex;
+            }
+
+            values[i] = level + random.nextGaussian();
+        }
+
+        return values;
+    }
+
+    private static double totalCost(final double[] values, final int[] segmentStarts, double gamma)
+    {
+        double cost = gamma * (segmentStarts.length - 1);
+
+        for(int s = 0; s < segmentStarts.length; ++s)
+        {
+            int end = s < segmentStarts.length - 1 ? segmentStarts[s + 1] : values.length;
+            double sum = 0;
+            double sumSq = 0;
+
+            for(int i = segmentStarts[s]; i < end; ++i)
+            {
+                sum += values[i];
+                sumSq += values[i] * values[i];
+            }
+
+            cost += sumSq - sum * sum / (end - segmentStarts[s]);
+        }
+
+        return cost;
+    }
+}
@@ -0,0 +1,155 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PCFSegmenterTest
+{
+    @Test
+    public void testMedianFilter()
+    {
+        // matches R's runmed(c(1, 5, 2, 8, 3), k = 3, endrule = "median")
+        double[] filtered = PCFSegmenter.medianFilter(new double[] { 1, 5, 2, 8, 3 }, 1);
+        assertArrayEquals(new double[] { 1, 2, 5, 3, 3 }, filtered, 1e-10);
+
+        // window wider than the data is reduced to the largest odd width
+        filtered = PCFSegmenter.medianFilter(new double[] { 4, 1, 3, 2 }, 25);
+        assertEquals(4, filtered.length);
+    }
+
+    @Test
+    public void testOptimalSegmentsMatchExhaustiveSearch()
+    {
+        Random random = new Random(1);
+
+        for(int test = 0; test < 50; ++test)
+        {
+            int n = 1 + random.nextInt(60);
+            double[] values = new double[n];
+            double level = 0;
+
+            for(int i = 0; i < n; ++i)
+            {
+                if(random.nextDouble() < 0.1)
+                    level = random.nextGaussian() * 3;
+
+                values[i] = level + random.nextGaussian();
+            }
+
+            double gamma = 1 + random.nextInt(20);
+
+            assertArrayEquals(unprunedSegmentStarts(values, gamma), PCFSegmenter.optimalSegmentStarts(values, gamma));
+        }
+    }
+
+    @Test
+    public void testChromosomeSegmentation()
+    {
+        Random random = new Random(0);
+
+        int count = 600;
+        int[] positions = new int[count];
+        double[] values = new double[count];
+
+        // a copy number step on the q-arm of chromosome 1 and a p-arm which is segmented separately
+        for(int i = 0; i < count; ++i)
+        {
+            positions[i] = i < 100 ? 1000000 + i * 1000 : 130000000 + i * 1000;
+            double level = i >= 100 && i < 350 ? 0.5 : 1;
+            values[i] = level + random.nextGaussian() * 0.05;
+        }
+
+        PCFSegmenter segmenter = new PCFSegmenter(100);
+        segmenter.addChromosome("chr1", positions, values);
+        segmenter.addChromosome("MT", new int[] { 100 }, new double[] { 1 });
+
+        List<PCFSegment> segments = segmenter.segment(1);
+
+        assertEquals(3, segments.size());
+
+        assertEquals(PCFSegmenter.P_ARM, segments.get(0).Arm);
+        assertEquals(positions[0], segments.get(0).StartPosition);
+        assertEquals(positions[99], segments.get(0).EndPosition);
+        assertEquals(100, segments.get(0).ProbeCount);
+        assertEquals(1, segments.get(0).Mean, 0.02);
+
+        assertEquals(PCFSegmenter.Q_ARM, segments.get(1).Arm);
+        assertEquals(positions[100], segments.get(1).StartPosition);
+        assertEquals(positions[349], segments.get(1).EndPosition);
+        assertEquals(0.5, segments.get(1).Mean, 0.02);
+
+        assertEquals(positions[350], segments.get(2).StartPosition);
+        assertEquals(positions[count - 1], segments.get(2).EndPosition);
+        assertEquals("chr1", segments.get(2).Chromosome);
+    }
+
+    private static int[] unprunedSegmentStarts(final double[] values, double gamma)
+    {
+        int n = values.length;
+        double[] bestCost = new double[n + 1];
+        int[] bestSplit = new int[n + 1];
+
+        for(int t = 1; t <= n; ++t)
+        {
+            double minCost = Double.MAX_VALUE;
+            int minSplit = -1;
+
+            for(int s = 1; s < t; ++s)
+            {
+                double cost = bestCost[s] + segmentCost(values, s, t) + gamma;
+
+                if(cost < minCost)
+                {
+                    minCost = cost;
+                    minSplit = s;
+                }
+            }
+
+            double totalCost = segmentCost(values, 0, t);
+
+            if(minSplit < 0 || totalCost < minCost)
+            {
+                minCost = totalCost;
+                minSplit = 0;
+            }
+
+            bestCost[t] = minCost;
+            bestSplit[t] = minSplit;
+        }
+
+        int segmentCount = 0;
+
+        for(int t = n; t > 0; t = bestSplit[t])
+        {
+            ++segmentCount;
+        }
+
+        int[] starts = new int[segmentCount];
+
+        for(int t = n; t > 0; t = bestSplit[t])
+        {
+            starts[--segmentCount] = bestSplit[t];
+        }
+
+        return starts;
+    }
+
+    private static double segmentCost(final double[] values, int start, int end)
+    {
+        double sum = 0;
+        double sumSq = 0;
+
+        for(int i = start; i < end; ++i)
+        {
+            sum += values[i];
+            sumSq += values[i] * values[i];
+        }
+
+        return sumSq - sum * sum / (end - start);
+    }
+}
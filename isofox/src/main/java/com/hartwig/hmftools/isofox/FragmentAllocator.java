@@ -42,14 +42,13 @@ import static com.hartwig.hmftools.isofox.fusion.ChimericUtils.isRealignedFragme
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.gene.ExonData;
 import com.hartwig.hmftools.common.gene.TranscriptData;
@@ -66,6 +65,7 @@ import com.hartwig.hmftools.isofox.common.ReadRecord;
 import com.hartwig.hmftools.isofox.common.RegionMatchType;
 import com.hartwig.hmftools.isofox.common.RegionReadData;
 import com.hartwig.hmftools.isofox.common.TransExonRef;
+import com.hartwig.hmftools.isofox.common.TransMatchSets;
 import com.hartwig.hmftools.isofox.common.TransMatchType;
 import com.hartwig.hmftools.isofox.expression.CategoryCountsData;
 import com.hartwig.hmftools.isofox.adjusts.GcRatioCounts;
@@ -429,9 +429,8 @@ public class FragmentAllocator
         final Map<Integer,TransMatchType> firstReadTransTypes = read1.getTranscriptClassifications();
         final Map<Integer,TransMatchType> secondReadTransTypes = read2.getTranscriptClassifications();
 
-        // first find valid transcripts in both reads
-        final List<Integer> validTranscripts = Lists.newArrayList();
-        final Set<Integer> invalidTranscripts = Sets.newHashSet();
+        final TransMatchSets firstReadTransSets = new TransMatchSets(firstReadTransTypes, mCurrentGenes);
+        final TransMatchSets secondReadTransSets = new TransMatchSets(secondReadTransTypes, mCurrentGenes);
 
         final List<RegionReadData> validRegions = getUniqueValidRegion(read1, read2);
 
@@ -452,35 +451,24 @@ public class FragmentAllocator
             mSpliceSiteCounter.registerSpliceSiteSupport(read1.getMappedRegionCoords(), read2.getMappedRegionCoords(), mCurrentGenes.getExonRegions());
         }
 
-        for(Map.Entry<Integer,TransMatchType> entry : firstReadTransTypes.entrySet())
-        {
-            int transId = entry.getKey();
+        // first find transcripts valid in both reads and with a permitted fragment length
+        final BitSet validTransSet = firstReadTransSets.validTranscripts();
+        validTransSet.and(secondReadTransSets.validTranscripts());
 
-            if(validTranscriptType(entry.getValue()) && secondReadTransTypes.containsKey(transId) && validTranscriptType(secondReadTransTypes.get(transId)))
-            {
-                int calcFragmentLength = calcFragmentLength(transId, read1, read2);
-                boolean validFragmentLength = calcFragmentLength > 0 && calcFragmentLength <= mConfig.MaxFragmentLength;
+        for(int ordinal = validTransSet.nextSetBit(0); ordinal >= 0; ordinal = validTransSet.nextSetBit(ordinal + 1))
+        {
+            int calcFragmentLength = calcFragmentLength(mCurrentGenes.transcriptId(ordinal), read1, read2);
 
-                if(validFragmentLength)
-                {
-                    validTranscripts.add(transId);
-                }
-                else
-                {
-                    invalidTranscripts.add(transId);
-                }
-            }
-            else
-            {
-                invalidTranscripts.add(transId);
-            }
+            if(calcFragmentLength <= 0 || calcFragmentLength > mConfig.MaxFragmentLength)
+                validTransSet.clear(ordinal);
         }
 
-        for(Integer transId : secondReadTransTypes.keySet())
-        {
-            if(!validTranscripts.contains(transId))
-                invalidTranscripts.add(transId);
-        }
+        final BitSet invalidTransSet = (BitSet)firstReadTransSets.allTranscripts().clone();
+        invalidTransSet.or(secondReadTransSets.allTranscripts());
+        invalidTransSet.andNot(validTransSet);
+
+        final List<Integer> validTranscripts = mCurrentGenes.transcriptIds(validTransSet);
+        final List<Integer> invalidTranscripts = mCurrentGenes.transcriptIds(invalidTransSet);
 
         FragmentType fragmentType = UNSPLICED;
 
@@ -496,8 +484,7 @@ public class FragmentAllocator
 
                 if(mAltSpliceJunctionFinder.enabled())
                 {
-                    mAltSpliceJunctionFinder.evaluateFragmentReads(
-                            overlapGenes, read1, read2, invalidTranscripts.stream().collect(Collectors.toList()));
+                    mAltSpliceJunctionFinder.evaluateFragmentReads(overlapGenes, read1, read2, invalidTranscripts);
                 }
 
                 checkRetainedIntrons = true;
@@ -538,7 +525,7 @@ public class FragmentAllocator
 
             if(fragmentType == UNSPLICED)
             {
-                mExpressionReadTracker.processUnsplicedGenes(overlapGenes, validTranscripts, commonMappings, minMapQuality);
+                mExpressionReadTracker.processUnsplicedGenes(overlapGenes, validTransSet, commonMappings, minMapQuality);
             }
         }
         else
@@ -547,15 +534,8 @@ public class FragmentAllocator
             fragmentType = TRANS_SUPPORTING;
 
             // first mark any invalid trans as 'other' meaning it doesn't require any further classification since a valid trans exists
-            firstReadTransTypes.entrySet().stream()
-                    .filter(x -> validTranscriptType(x.getValue()))
-                    .filter(x -> !validTranscripts.contains(x.getKey()))
-                    .forEach(x -> x.setValue(OTHER_TRANS));
-
-            secondReadTransTypes.entrySet().stream()
-                    .filter(x -> validTranscriptType(x.getValue()))
-                    .filter(x -> !validTranscripts.contains(x.getKey()))
-                    .forEach(x -> x.setValue(OTHER_TRANS));
+            markOtherTranscripts(firstReadTransTypes, firstReadTransSets, validTransSet);
+            markOtherTranscripts(secondReadTransTypes, secondReadTransSets, validTransSet);
 
             if(mConfig.RunValidations)
             {
@@ -576,8 +556,13 @@ public class FragmentAllocator
 
             FragmentMatchType comboTransMatchType = FragmentMatchType.SHORT;
 
-            for(int transId : validTranscripts)
+            final BitSet spliceJunctionTransSet = (BitSet)firstReadTransSets.transcripts(SPLICE_JUNCTION).clone();
+            spliceJunctionTransSet.or(secondReadTransSets.transcripts(SPLICE_JUNCTION));
+
+            for(int ordinal = validTransSet.nextSetBit(0); ordinal >= 0; ordinal = validTransSet.nextSetBit(ordinal + 1))
             {
+                int transId = mCurrentGenes.transcriptId(ordinal);
+
                 int regionCount = (int)validRegions.stream().filter(x -> x.hasTransId(transId)).count();
 
                 FragmentMatchType transMatchType;
@@ -590,7 +575,7 @@ public class FragmentAllocator
                         supportedGeneIsForward = findGeneStrand(read2, validTranscripts);
                 }
 
-                if(read1.getTranscriptClassification(transId) == SPLICE_JUNCTION || read2.getTranscriptClassification(transId) == SPLICE_JUNCTION)
+                if(spliceJunctionTransSet.get(ordinal))
                 {
                     transMatchType = FragmentMatchType.SPLICED;
                     comboTransMatchType = FragmentMatchType.SPLICED;
@@ -647,7 +632,7 @@ public class FragmentAllocator
                 mExpressionReadTracker.processValidTranscript(transId, Lists.newArrayList(read1, read2), isUniqueTrans);
             }
 
-            mExpressionReadTracker.processUnsplicedGenes(comboTransMatchType, overlapGenes, validTranscripts, commonMappings, minMapQuality);
+            mExpressionReadTracker.processUnsplicedGenes(comboTransMatchType, overlapGenes, validTransSet, commonMappings, minMapQuality);
 
             if(!read1.isSecondaryAlignment() && !read2.isSecondaryAlignment() && supportedGeneIsForward != null)
             {
@@ -680,6 +665,28 @@ public class FragmentAllocator
         }
     }
 
+    private void markOtherTranscripts(
+            final Map<Integer,TransMatchType> transTypes, final TransMatchSets transSets, final BitSet validTransSet)
+    {
+        // mark any transcript valid for this read but not the fragment as 'other', meaning it needs no further classification
+        BitSet otherTransSet = transSets.validTranscripts();
+        otherTransSet.andNot(validTransSet);
+
+        if(otherTransSet.isEmpty())
+            return;
+
+        for(Map.Entry<Integer,TransMatchType> entry : transTypes.entrySet())
+        {
+            if(!validTranscriptType(entry.getValue()))
+                continue;
+
+            int ordinal = mCurrentGenes.transcriptOrdinal(entry.getKey());
+
+            if(ordinal >= 0 && otherTransSet.get(ordinal))
+                entry.setValue(OTHER_TRANS);
+        }
+    }
+
     private Boolean findGeneStrand(final ReadRecord read, final List<Integer> transcripts)
     {
         for(int transId : transcripts)
@@ -992,6 +999,9 @@ public class FragmentAllocator
     @VisibleForTesting
     public void processReadRecords(final GeneCollection geneCollection, final List<ReadRecord> readRecords)
     {
+        if(mCurrentGenes != geneCollection)
+            mExpressionReadTracker.setGeneData(geneCollection);
+
         mCurrentGenes = geneCollection;
         mBaseDepth.initialise(geneCollection.regionBounds());
 
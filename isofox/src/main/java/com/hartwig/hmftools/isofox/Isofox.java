@@ -35,6 +35,7 @@ import com.hartwig.hmftools.common.ensemblcache.EnsemblDataCache;
 import com.hartwig.hmftools.common.gene.GeneData;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.rna.RnaStatistics;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
@@ -68,6 +69,7 @@ public class Isofox
     private int mMaxObservedReadLength;
     private final List<FragmentSize> mFragmentLengthDistribution;
     private final PerformanceTracking mPerfTracking;
+    private final MetricsRegistry mMetrics;
 
     public Isofox(final IsofoxConfig config, final ConfigBuilder configBuilder)
     {
@@ -75,6 +77,7 @@ public class Isofox
 
         mResultsWriter = new ResultsWriter(mConfig);
         mPerfTracking = new PerformanceTracking(mConfig);
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME, configBuilder);
 
         mGeneTransCache = new EnsemblDataCache(configBuilder);
 
@@ -101,6 +104,7 @@ public class Isofox
     public boolean runAnalysis()
     {
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
 
         // all other routines split work by chromosome
         Map<String,List<GeneData>> chrGeneMap = getChromosomeGeneLists();
@@ -129,6 +133,8 @@ public class Isofox
         if(!allocateBamFragments(chrGeneMap))
             return false;
 
+        mMetrics.writeMetrics(mConfig.OutputDir, mConfig.SampleId);
+
         ISF_LOGGER.info("Isofox complete, mins({})", runTimeMinsStr(startTimeMs));
         return true;
     }
@@ -208,6 +214,10 @@ public class Isofox
         final List<PerformanceCounter[]> perfCounters = chrTasks.stream().map(x -> x.getPerfCounters()).collect(Collectors.toList());
         chrTasks.clear();
 
+        // registered per chromosome since logging merges them into the first task's counters
+        perfCounters.forEach(mMetrics::registerTimers);
+        mMetrics.addCount("TotalReads", totalReadsProcessed);
+
         mPerfTracking.logPerformanceStats(perfCounters);
         return true;
     }
@@ -405,6 +415,7 @@ public class Isofox
         }
 
         combinedPc.logStats();
+        mMetrics.registerTimer(combinedPc);
     }
 
     private boolean countBamReads(final Map<String,List<GeneData>> chrGeneMap)
@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 import com.hartwig.hmftools.isofox.adjusts.FragmentSize;
@@ -376,6 +377,7 @@ public class IsofoxConfig
 
         configBuilder.addFlag(RUN_VALIDATIONS, "Run auto-validations");
         configBuilder.addFlag(PERF_CHECKS, "Run performance logging routines");
+        MetricsRegistry.registerConfig(configBuilder);
         configBuilder.addPath(FILTER_READS_FILE, false, "Only process reads in this file");
 
         GeneRegionFilters.registerConfig(configBuilder);
@@ -15,6 +15,7 @@ import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_PAIR;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -43,6 +44,10 @@ public class GeneCollection
     private final List<int[]> mCommonExonicRegions; // merge any overlapping exons, to form a set of exonic regions for the gene
     private final List<TranscriptData> mTranscripts;
 
+    // a dense index for each transcript in the collection, so sets of transcripts can be held as bitsets
+    private final Map<Integer,Integer> mTransIdOrdinals;
+    private final List<Integer> mOrdinalTransIds;
+
     private List<TranscriptData> mEnrichedTranscripts;
     private int[] mEnrichedRegion; // special regions of high read density
 
@@ -69,6 +74,8 @@ public class GeneCollection
         mExonRegions = Lists.newArrayList();
         mTranscripts = Lists.newArrayList();
         mCommonExonicRegions = Lists.newArrayList();
+        mTransIdOrdinals = Maps.newHashMap();
+        mOrdinalTransIds = Lists.newArrayList();
 
         buildCache();
 
@@ -92,6 +99,27 @@ public class GeneCollection
 
     public List<TranscriptData> getTranscripts() { return mTranscripts; }
 
+    public int transcriptOrdinal(int transId)
+    {
+        // returns -1 for a transcript outside the collection
+        Integer ordinal = mTransIdOrdinals.get(transId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public int transcriptId(int ordinal) { return mOrdinalTransIds.get(ordinal); }
+
+    public List<Integer> transcriptIds(final BitSet transcriptOrdinals)
+    {
+        List<Integer> transIds = Lists.newArrayListWithCapacity(transcriptOrdinals.cardinality());
+
+        for(int ordinal = transcriptOrdinals.nextSetBit(0); ordinal >= 0; ordinal = transcriptOrdinals.nextSetBit(ordinal + 1))
+        {
+            transIds.add(mOrdinalTransIds.get(ordinal));
+        }
+
+        return transIds;
+    }
+
     public List<RegionReadData> getExonRegions() { return mExonRegions; }
     public List<int[]> getCommonExonicRegions() { return mCommonExonicRegions; }
 
@@ -209,6 +237,12 @@ public class GeneCollection
                 mTransIdsGeneMap.put(transData.TransId, gene);
                 mTranscripts.add(transData);
 
+                if(!mTransIdOrdinals.containsKey(transData.TransId))
+                {
+                    mTransIdOrdinals.put(transData.TransId, mOrdinalTransIds.size());
+                    mOrdinalTransIds.add(transData.TransId);
+                }
+
                 mRegionBounds[SE_START] = mRegionBounds[SE_START] == 0 ? transData.TransStart : min(mRegionBounds[SE_START], transData.TransStart);
                 mRegionBounds[SE_END] = max(mRegionBounds[SE_END], transData.TransEnd);
             }
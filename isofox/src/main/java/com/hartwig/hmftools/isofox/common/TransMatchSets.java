@@ -0,0 +1,47 @@
+package com.hartwig.hmftools.isofox.common;
+
+import static com.hartwig.hmftools.isofox.common.TransMatchType.EXONIC;
+import static com.hartwig.hmftools.isofox.common.TransMatchType.SPLICE_JUNCTION;
+
+import java.util.BitSet;
+import java.util.Map;
+
+// a read's transcript classifications held as a bitset per match type, indexed by the gene collection's transcript ordinals
+public class TransMatchSets
+{
+    private final BitSet[] mMatchTypeSets;
+    private final BitSet mAllTranscripts;
+
+    public TransMatchSets(final Map<Integer,TransMatchType> transClassifications, final GeneCollection genes)
+    {
+        mMatchTypeSets = new BitSet[TransMatchType.values().length];
+        mAllTranscripts = new BitSet();
+
+        for(int i = 0; i < mMatchTypeSets.length; ++i)
+        {
+            mMatchTypeSets[i] = new BitSet();
+        }
+
+        for(Map.Entry<Integer,TransMatchType> entry : transClassifications.entrySet())
+        {
+            int ordinal = genes.transcriptOrdinal(entry.getKey());
+
+            if(ordinal < 0) // cannot be indexed, and reads only classify against the collection's own transcripts
+                continue;
+
+            mMatchTypeSets[entry.getValue().ordinal()].set(ordinal);
+            mAllTranscripts.set(ordinal);
+        }
+    }
+
+    public BitSet transcripts(final TransMatchType matchType) { return mMatchTypeSets[matchType.ordinal()]; }
+    public BitSet allTranscripts() { return mAllTranscripts; }
+
+    public BitSet validTranscripts()
+    {
+        // matches either on exonic bases or an exact splice junction, as per ReadRecord.validTranscriptType
+        BitSet validTranscripts = (BitSet)mMatchTypeSets[EXONIC.ordinal()].clone();
+        validTranscripts.or(mMatchTypeSets[SPLICE_JUNCTION.ordinal()]);
+        return validTranscripts;
+    }
+}
@@ -12,10 +12,14 @@ import static com.hartwig.hmftools.isofox.common.RegionMatchType.validExonMatch;
 import static com.hartwig.hmftools.isofox.common.CommonUtils.deriveCommonRegions;
 import static com.hartwig.hmftools.isofox.common.TransMatchType.SPLICE_JUNCTION;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.gene.TranscriptData;
 import com.hartwig.hmftools.isofox.IsofoxConfig;
 import com.hartwig.hmftools.isofox.adjusts.GcRatioCounts;
 import com.hartwig.hmftools.isofox.common.FragmentMatchType;
@@ -32,6 +36,9 @@ public class ExpressionReadTracker
     private final GcRatioCounts mGeneGcRatioCounts;
     private final List<CategoryCountsData> mTransComboData;
 
+    // categories keyed by a bitset of the collection's gene indices followed by its transcript ordinals
+    private final Map<BitSet,CategoryCountsData> mTransComboDataMap;
+
     private GeneCollection mGenes;
 
     public ExpressionReadTracker(final IsofoxConfig config)
@@ -42,6 +49,7 @@ public class ExpressionReadTracker
         mGcRatioCounts = mConfig.requireGcRatioCalcs() ? new GcRatioCounts() : null;
         mGeneGcRatioCounts = mConfig.requireGcRatioCalcs() ? new GcRatioCounts() : null;
         mTransComboData = Lists.newArrayList();
+        mTransComboDataMap = Maps.newHashMap();
         mGenes = null;
     }
 
@@ -56,36 +64,34 @@ public class ExpressionReadTracker
             mGeneGcRatioCounts.clearCounts();
 
         mTransComboData.clear();
+        mTransComboDataMap.clear();
 
         mGenes = genes;
     }
 
     public void processUnsplicedGenes(
-            final List<GeneReadData> overlapGenes, final List<Integer> validTranscripts, final List<int[]> commonMappings, int minMapQuality)
+            final List<GeneReadData> overlapGenes, final BitSet validTranscripts, final List<int[]> commonMappings, int minMapQuality)
     {
         if(!mEnabled)
             return;
 
-        List<String> unsplicedGeneIds = overlapGenes.stream().map(x -> x.GeneData.GeneId).collect(Collectors.toList());
-
-        if(!unsplicedGeneIds.isEmpty())
+        if(!overlapGenes.isEmpty())
         {
-            CategoryCountsData catCounts = getCategoryCountsData(validTranscripts, unsplicedGeneIds);
+            CategoryCountsData catCounts = getCategoryCountsData(validTranscripts, overlapGenes);
             addGcCounts(catCounts, commonMappings, minMapQuality);
         }
     }
 
     public void processUnsplicedGenes(
-            final FragmentMatchType comboTransMatchType, final List<GeneReadData> overlapGenes, final List<Integer> validTranscripts,
+            final FragmentMatchType comboTransMatchType, final List<GeneReadData> overlapGenes, final BitSet validTranscripts,
             final List<int[]> commonMappings, int minMapQuality)
     {
         if(!mEnabled)
             return;
 
-        List<String> unsplicedGeneIds = comboTransMatchType == FragmentMatchType.SHORT ?
-                overlapGenes.stream().map(x -> x.GeneData.GeneId).collect(Collectors.toList()) : Lists.newArrayList();
+        List<GeneReadData> unsplicedGenes = comboTransMatchType == FragmentMatchType.SHORT ? overlapGenes : Lists.newArrayList();
 
-        CategoryCountsData catCounts = getCategoryCountsData(validTranscripts, unsplicedGeneIds);
+        CategoryCountsData catCounts = getCategoryCountsData(validTranscripts, unsplicedGenes);
         addGcCounts(catCounts, commonMappings, minMapQuality);
     }
 
@@ -94,11 +100,9 @@ public class ExpressionReadTracker
         if(!mEnabled)
             return;
 
-        List<String> unsplicedGeneIds = genes.stream().map(x -> x.GeneData.GeneId).collect(Collectors.toList());
-
-        if(!unsplicedGeneIds.isEmpty())
+        if(!genes.isEmpty())
         {
-            CategoryCountsData catCounts = getCategoryCountsData(Lists.newArrayList(), unsplicedGeneIds);
+            CategoryCountsData catCounts = getCategoryCountsData(new BitSet(), genes);
 
             List<int[]> readRegions = deriveCommonRegions(read1.getMappedRegionCoords(), read2.getMappedRegionCoords());
             addGcCounts(catCounts, readRegions, min(read1.mapQuality(), read2.mapQuality()));
@@ -112,11 +116,19 @@ public class ExpressionReadTracker
 
         // add to category counts
         final int[] enrichedRegion = mGenes.getEnrichedRegion();
-        final List<String> unsplicedGeneIds = mGenes.findGenesCoveringRange(enrichedRegion[SE_START], enrichedRegion[SE_END], true)
-                .stream().map(x -> x.GeneData.GeneId).collect(Collectors.toList());
+        final List<GeneReadData> unsplicedGenes = mGenes.findGenesCoveringRange(enrichedRegion[SE_START], enrichedRegion[SE_END], true);
 
-        final List<Integer> transIds = mGenes.getEnrichedTranscripts().stream().map(x -> Integer.valueOf(x.TransId)).collect(Collectors.toList());
-        CategoryCountsData catCounts = getCategoryCountsData(transIds, unsplicedGeneIds);
+        final BitSet transcripts = new BitSet();
+
+        for(TranscriptData transData : mGenes.getEnrichedTranscripts())
+        {
+            int ordinal = mGenes.transcriptOrdinal(transData.TransId);
+
+            if(ordinal >= 0)
+                transcripts.set(ordinal);
+        }
+
+        CategoryCountsData catCounts = getCategoryCountsData(transcripts, unsplicedGenes);
 
         // compute and cache GC data
         double gcRatio = calcGcRatioFromReadRegions(mConfig.RefGenome, mGenes.chromosome(), Lists.newArrayList(mGenes.getEnrichedRegion()));
@@ -135,19 +147,39 @@ public class ExpressionReadTracker
 
     }
 
-    private CategoryCountsData getCategoryCountsData(final List<Integer> transcripts, final List<String> geneIds)
+    private CategoryCountsData getCategoryCountsData(final BitSet transcripts, final List<GeneReadData> genes)
     {
-        CategoryCountsData transComboCounts = mTransComboData.stream()
-                .filter(x -> x.matches(transcripts, geneIds)).findFirst().orElse(null);
+        int geneCount = mGenes.genes().size();
+
+        BitSet categoryKey = new BitSet(geneCount + transcripts.length());
+
+        for(GeneReadData gene : genes)
+        {
+            int geneIndex = mGenes.genes().indexOf(gene);
+
+            if(geneIndex >= 0)
+                categoryKey.set(geneIndex);
+        }
+
+        for(int ordinal = transcripts.nextSetBit(0); ordinal >= 0; ordinal = transcripts.nextSetBit(ordinal + 1))
+        {
+            categoryKey.set(geneCount + ordinal);
+        }
+
+        CategoryCountsData transComboCounts = mTransComboDataMap.get(categoryKey);
 
         if(transComboCounts == null)
         {
-            transComboCounts = new CategoryCountsData(transcripts, geneIds);
+            List<String> geneIds = Lists.newArrayListWithCapacity(genes.size());
+            genes.forEach(x -> geneIds.add(x.GeneData.GeneId));
+
+            transComboCounts = new CategoryCountsData(mGenes.transcriptIds(transcripts), geneIds);
 
             if(mGcRatioCounts != null && mConfig.applyGcBiasAdjust())
                 transComboCounts.initialiseGcRatioCounts(mGcRatioCounts.getCounts().length);
 
             mTransComboData.add(transComboCounts);
+            mTransComboDataMap.put(categoryKey, transComboCounts);
         }
 
         return transComboCounts;
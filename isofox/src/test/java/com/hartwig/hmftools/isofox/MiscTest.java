@@ -3,18 +3,31 @@ package com.hartwig.hmftools.isofox;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_END;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_PAIR;
 import static com.hartwig.hmftools.common.utils.sv.StartEndIterator.SE_START;
+import static com.hartwig.hmftools.isofox.TestUtils.GENE_NAME_1;
+import static com.hartwig.hmftools.isofox.TestUtils.createGeneReadData;
+import static com.hartwig.hmftools.isofox.common.TransMatchType.EXONIC;
+import static com.hartwig.hmftools.isofox.common.TransMatchType.SPLICE_JUNCTION;
+import static com.hartwig.hmftools.isofox.common.TransMatchType.UNSPLICED;
 import static com.hartwig.hmftools.isofox.results.TranscriptResult.calcEffectiveLength;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.gene.TranscriptData;
 import com.hartwig.hmftools.isofox.adjusts.FragmentSize;
 import com.hartwig.hmftools.isofox.common.BaseDepth;
+import com.hartwig.hmftools.isofox.common.GeneCollection;
+import com.hartwig.hmftools.isofox.common.GeneReadData;
+import com.hartwig.hmftools.isofox.common.TransMatchSets;
+import com.hartwig.hmftools.isofox.common.TransMatchType;
 
 import org.junit.Test;
 
@@ -87,4 +100,57 @@ public class MiscTest
         assertEquals(2, mapDepth.depthAtBase(115));
         assertEquals(0, mapDepth.depthAtBase(200)); // below the threshold for inclusion
     }
+
+    @Test
+    public void testTranscriptBitSets()
+    {
+        GeneReadData geneReadData = createGeneReadData(GENE_NAME_1, "1", (byte)1, 1000, 5000);
+
+        List<TranscriptData> transcripts = Lists.newArrayList();
+
+        for(int transId = 10; transId <= 14; ++transId)
+        {
+            transcripts.add(new TranscriptData(transId, "TRANS" + transId, GENE_NAME_1, true, (byte)1, 1000, 5000, null, null, ""));
+        }
+
+        geneReadData.setTranscripts(transcripts);
+
+        GeneCollection genes = new GeneCollection(0, Lists.newArrayList(geneReadData));
+
+        // transcripts are indexed in collection order
+        assertEquals(0, genes.transcriptOrdinal(10));
+        assertEquals(4, genes.transcriptOrdinal(14));
+        assertEquals(12, genes.transcriptId(2));
+
+        Map<Integer,TransMatchType> read1Types = Maps.newHashMap();
+        read1Types.put(10, EXONIC);
+        read1Types.put(11, SPLICE_JUNCTION);
+        read1Types.put(12, UNSPLICED);
+        read1Types.put(13, EXONIC);
+
+        Map<Integer,TransMatchType> read2Types = Maps.newHashMap();
+        read2Types.put(10, SPLICE_JUNCTION);
+        read2Types.put(11, EXONIC);
+        read2Types.put(12, EXONIC);
+        read2Types.put(14, EXONIC);
+
+        TransMatchSets read1Sets = new TransMatchSets(read1Types, genes);
+        TransMatchSets read2Sets = new TransMatchSets(read2Types, genes);
+
+        BitSet validTransSet = read1Sets.validTranscripts();
+        validTransSet.and(read2Sets.validTranscripts());
+
+        assertEquals(Lists.newArrayList(10, 11), genes.transcriptIds(validTransSet));
+        assertEquals(4, read1Sets.allTranscripts().cardinality());
+        assertTrue(read1Sets.transcripts(UNSPLICED).get(genes.transcriptOrdinal(12)));
+
+        // a transcript outside the collection has no index and the lookup does not add one
+        assertEquals(-1, genes.transcriptOrdinal(99));
+        assertEquals(-1, genes.transcriptOrdinal(99));
+        assertEquals(4, genes.transcriptOrdinal(14));
+
+        read1Types.put(99, EXONIC);
+        read1Sets = new TransMatchSets(read1Types, genes);
+        assertEquals(4, read1Sets.allTranscripts().cardinality());
+    }
 }
@@ -1,7 +1,5 @@
 package com.hartwig.hmftools.lilac.coverage;
 
-import static com.hartwig.hmftools.lilac.LilacConfig.LL_LOGGER;
-
 import java.util.List;
 import java.util.Map;
 
@@ -18,20 +16,11 @@ public class FragmentAlleleMatrix
 
     private final int mAlleleCount;
     private final int mFragCount;
+    private final int mWordCount;
 
-    private final SupportType[][] mMatrix;
-
-    private static int FULL = 0;
-    private static int WILD = 1;
-    private static int ITEMS = WILD + 1;
-
-    private enum SupportType
-    {
-        FULL,
-        WILD,
-        BOTH,
-        NONE;
-    }
+    // per allele, a bitmap over fragments for full and wildcard support, so a complex's coverage is computed 64 fragments at a time
+    private final long[][] mFullSupport;
+    private final long[][] mWildSupport;
 
     public FragmentAlleleMatrix(final List<FragmentAlleles> fragmentAlleles, final List<HlaAllele> alleles)
     {
@@ -42,16 +31,10 @@ public class FragmentAlleleMatrix
 
         mAlleleCount = alleles.size();
         mFragCount = fragmentAlleles.size();
+        mWordCount = (mFragCount + Long.SIZE - 1) / Long.SIZE;
 
-        mMatrix = new SupportType[mFragCount][mAlleleCount];
-
-        for(int f = 0; f < mFragCount; ++f)
-        {
-            for(int a = 0; a < mAlleleCount; ++a)
-            {
-                mMatrix[f][a] = SupportType.NONE;
-            }
-        }
+        mFullSupport = new long[mAlleleCount][mWordCount];
+        mWildSupport = new long[mAlleleCount][mWordCount];
 
         buildAlleleFragmentMatrix();
     }
@@ -68,6 +51,9 @@ public class FragmentAlleleMatrix
         {
             FragmentAlleles fragment = mFragmentAlleles.get(fragIndex);
 
+            int word = fragIndex / Long.SIZE;
+            long fragBit = 1L << (fragIndex % Long.SIZE);
+
             for(HlaAllele allele : fragment.getFull())
             {
                 Integer alleleIndex = mAlleleIndexMap.get(allele);
@@ -75,7 +61,7 @@ public class FragmentAlleleMatrix
                 if(alleleIndex == null)
                     continue;
 
-                mMatrix[fragIndex][alleleIndex] = SupportType.FULL;
+                mFullSupport[alleleIndex][word] |= fragBit;
             }
 
             for(HlaAllele allele : fragment.getWild())
@@ -85,36 +71,18 @@ public class FragmentAlleleMatrix
                 if(alleleIndex == null)
                     continue;
 
-                if(mMatrix[fragIndex][alleleIndex] == SupportType.FULL)
-                    mMatrix[fragIndex][alleleIndex] = SupportType.BOTH;
-                else
-                    mMatrix[fragIndex][alleleIndex] = SupportType.WILD;
+                mWildSupport[alleleIndex][word] |= fragBit;
             }
         }
     }
 
-    private class AlleleCounts
-    {
-        public final int AlleleIndex;
-
-        public boolean Full = false;
-        public boolean Wild = false;
-        public int UniqueCoverage = 0;
-        public double CombinedCoverage = 0;
-        public double WildCoverage = 0;
-
-        public AlleleCounts(int alleleIndex)
-        {
-            AlleleIndex = alleleIndex;
-        }
-    }
-
     public List<AlleleCoverage> create(final HlaComplex complex)
     {
         List<HlaAllele> alleles = complex.Alleles;
         int alleleCount = alleles.size();
 
-        AlleleCounts[] alleleCounts = new AlleleCounts[alleleCount];
+        long[][] fullSupport = new long[alleleCount][];
+        long[][] wildSupport = new long[alleleCount][];
 
         for(int i = 0; i < alleleCount; ++i)
         {
@@ -122,57 +90,65 @@ public class FragmentAlleleMatrix
             if(alleleIndex == null)
                 return Lists.newArrayList();
 
-            alleleCounts[i] = new AlleleCounts(alleleIndex);
+            fullSupport[i] = mFullSupport[alleleIndex];
+            wildSupport[i] = mWildSupport[alleleIndex];
         }
 
-        for(int fragIndex = 0; fragIndex < mFragCount; ++fragIndex)
+        // a fragment supported by N of the complex's allele full or wildcard matches contributes 1/N to each, unless it is the
+        // only full match in which case it is unique to that allele - so count each allele's fragments by their support total
+        int maxSupport = 2 * alleleCount;
+        int planeCount = Integer.SIZE - Integer.numberOfLeadingZeros(maxSupport);
+        long[] planes = new long[planeCount];
+
+        int[] uniqueCounts = new int[alleleCount];
+        int[][] fullCounts = new int[alleleCount][maxSupport + 1];
+        int[][] wildCounts = new int[alleleCount][maxSupport + 1];
+
+        for(int w = 0; w < mWordCount; ++w)
         {
-            int fullCount = 0;
-            int fullAlleleIndex = -1;
-            int wildCount = 0;
+            // bit-sliced counters of each fragment's support total
+            for(int p = 0; p < planeCount; ++p)
+            {
+                planes[p] = 0;
+            }
+
+            long anySupport = 0;
 
             for(int i = 0; i < alleleCount; ++i)
             {
-                alleleCounts[i].Full = false;
-                alleleCounts[i].Wild = false;
+                long full = fullSupport[i][w];
+                long wild = wildSupport[i][w];
 
-                int alleleIndex = alleleCounts[i].AlleleIndex;
+                anySupport |= full | wild;
+                addToCounters(planes, full);
+                addToCounters(planes, wild);
+            }
 
-                SupportType supportType = mMatrix[fragIndex][alleleIndex];
+            if(anySupport == 0)
+                continue;
 
-                if(supportType == SupportType.FULL || supportType == SupportType.BOTH)
-                {
-                    alleleCounts[i].Full = true;
-                    ++fullCount;
-                    fullAlleleIndex = i;
-                }
+            for(int total = 1; total <= maxSupport; ++total)
+            {
+                long totalMask = anySupport;
 
-                if(supportType == SupportType.WILD || supportType == SupportType.BOTH)
+                for(int p = 0; p < planeCount && totalMask != 0; ++p)
                 {
-                    alleleCounts[i].Wild = true;
-                    ++wildCount;
+                    totalMask &= ((total >> p) & 1) != 0 ? planes[p] : ~planes[p];
                 }
-            }
 
-            if(fullCount == 1 && wildCount == 0)
-            {
-                ++alleleCounts[fullAlleleIndex].UniqueCoverage;
-            }
-            else if(fullCount > 0 || wildCount > 0)
-            {
-                double contribution = 1.0 / (fullCount + wildCount);
+                if(totalMask == 0)
+                    continue;
 
                 for(int i = 0; i < alleleCount; ++i)
                 {
-                    if(alleleCounts[i].Full)
-                    {
-                        alleleCounts[i].CombinedCoverage += contribution;
-                    }
-
-                    if(alleleCounts[i].Wild)
-                    {
-                        alleleCounts[i].WildCoverage += contribution;
-                    }
+                    int fullCount = Long.bitCount(fullSupport[i][w] & totalMask);
+
+                    if(total == 1)
+                        uniqueCounts[i] += fullCount;
+                    else
+                        fullCounts[i][total] += fullCount;
+
+                    wildCounts[i][total] += Long.bitCount(wildSupport[i][w] & totalMask);
                 }
             }
         }
@@ -181,10 +157,30 @@ public class FragmentAlleleMatrix
 
         for(int i = 0; i < alleleCount; ++i)
         {
-            alleleCoverages.add(new AlleleCoverage(
-                    alleles.get(i), alleleCounts[i].UniqueCoverage, alleleCounts[i].CombinedCoverage, alleleCounts[i].WildCoverage));
+            double combinedCoverage = 0;
+            double wildCoverage = 0;
+
+            for(int total = 1; total <= maxSupport; ++total)
+            {
+                combinedCoverage += fullCounts[i][total] / (double)total;
+                wildCoverage += wildCounts[i][total] / (double)total;
+            }
+
+            alleleCoverages.add(new AlleleCoverage(alleles.get(i), uniqueCounts[i], combinedCoverage, wildCoverage));
         }
 
         return alleleCoverages;
     }
+
+    private static void addToCounters(final long[] planes, long bits)
+    {
+        long carry = bits;
+
+        for(int p = 0; p < planes.length && carry != 0; ++p)
+        {
+            long nextCarry = planes[p] & carry;
+            planes[p] ^= carry;
+            carry = nextCarry;
+        }
+    }
 }
@@ -15,6 +15,7 @@ import static junit.framework.TestCase.assertTrue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -210,4 +211,71 @@ public class FragmentAllelesTest
         assertEquals(0.33, coverages.get(1).WildCoverage, 0.01);
         assertEquals(0.67, coverages.get(2).WildCoverage, 0.01);
     }
+
+    @Test
+    public void testFragmentAlleleCoverageMatchesPerFragmentCounts()
+    {
+        Random random = new Random(0);
+
+        List<HlaAllele> alleles = Lists.newArrayList();
+
+        for(int i = 0; i < 20; ++i)
+        {
+            alleles.add(HlaAllele.fromString(String.format("A*%02d:01", i + 1)));
+        }
+
+        // enough fragments to span several bitmap words
+        List<FragmentAlleles> fragmentAlleles = Lists.newArrayList();
+
+        for(int f = 0; f < 300; ++f)
+        {
+            List<HlaAllele> full = alleles.stream().filter(x -> random.nextDouble() < 0.15).collect(Collectors.toList());
+            List<HlaAllele> wild = alleles.stream().filter(x -> random.nextDouble() < 0.05).collect(Collectors.toList());
+            fragmentAlleles.add(new FragmentAlleles(createFragment(String.valueOf(f)), full, wild));
+        }
+
+        FragmentAlleleMatrix matrix = new FragmentAlleleMatrix(fragmentAlleles, alleles);
+
+        for(int c = 0; c < 50; ++c)
+        {
+            List<HlaAllele> complexAlleles = Lists.newArrayList();
+
+            for(int i = 0; i < 6; ++i)
+            {
+                complexAlleles.add(alleles.get(random.nextInt(alleles.size())));
+            }
+
+            List<AlleleCoverage> coverages = matrix.create(new HlaComplex(complexAlleles));
+
+            for(int i = 0; i < complexAlleles.size(); ++i)
+            {
+                int uniqueCoverage = 0;
+                double sharedCoverage = 0;
+                double wildCoverage = 0;
+
+                for(FragmentAlleles fragment : fragmentAlleles)
+                {
+                    int fullCount = (int)complexAlleles.stream().filter(x -> fragment.getFull().contains(x)).count();
+                    int wildCount = (int)complexAlleles.stream().filter(x -> fragment.getWild().contains(x)).count();
+
+                    boolean full = fragment.getFull().contains(complexAlleles.get(i));
+                    boolean wild = fragment.getWild().contains(complexAlleles.get(i));
+
+                    if(fullCount == 1 && wildCount == 0)
+                    {
+                        uniqueCoverage += full ? 1 : 0;
+                    }
+                    else if(fullCount + wildCount > 0)
+                    {
+                        sharedCoverage += full ? 1.0 / (fullCount + wildCount) : 0;
+                        wildCoverage += wild ? 1.0 / (fullCount + wildCount) : 0;
+                    }
+                }
+
+                assertEquals(uniqueCoverage, coverages.get(i).UniqueCoverage);
+                assertEquals(sharedCoverage, coverages.get(i).SharedCoverage, 1e-9);
+                assertEquals(wildCoverage, coverages.get(i).WildCoverage, 1e-9);
+            }
+        }
+    }
 }
@@ -5,7 +5,9 @@ import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBuffe
 import static com.hartwig.hmftools.common.variant.PaveVcfTags.GNOMAD_FREQ;
 import static com.hartwig.hmftools.common.variant.PaveVcfTags.GNOMAD_FREQ_DESC;
 import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
+import static com.hartwig.hmftools.pave.annotation.GnomadBinaryFile.GNOMAD_BINARY_EXTENSION;
 import static com.hartwig.hmftools.pave.resources.GnomadCacheBuilder.GNOMAD_FILE_ID;
+import static com.hartwig.hmftools.pave.resources.GnomadCacheBuilder.formBinaryFileId;
 import static com.hartwig.hmftools.pave.resources.GnomadCacheBuilder.formFileId;
 
 import java.io.BufferedReader;
@@ -113,7 +115,11 @@ public class GnomadAnnotation extends AnnotationData implements Callable
             System.exit(1);
         }
 
-        loadChromosomeEntries(chrFilename, chromosome);
+        if(chrFilename.endsWith(GNOMAD_BINARY_EXTENSION))
+            loadBinaryChromosomeFile(chrFilename, chromosome);
+        else
+            loadChromosomeEntries(chrFilename, chromosome);
+
         return mChrCacheMap.get(chromosome);
     }
 
@@ -208,6 +214,22 @@ public class GnomadAnnotation extends AnnotationData implements Callable
         }
     }
 
+    private void loadBinaryChromosomeFile(final String filename, final String chromosome)
+    {
+        try
+        {
+            GnomadBinaryFile binaryFile = new GnomadBinaryFile(chromosome, filename);
+            mChrCacheMap.put(chromosome, new GnomadChrCache(binaryFile));
+
+            PV_LOGGER.debug("chr({}) mapped {} Gnomad frequency records", chromosome, binaryFile.entryCount());
+        }
+        catch(IOException e)
+        {
+            PV_LOGGER.error("failed to map Gnomad binary file({}): {}", filename, e.toString());
+            mHasValidData = false;
+        }
+    }
+
     private void loadAllFrequencyFiles(final String gnomadDir)
     {
         try
@@ -224,11 +246,15 @@ public class GnomadAnnotation extends AnnotationData implements Callable
                 String fileChrStrNoId = formFileId(gnomadDir, humanChr.toString(), null);
                 String fileChrStrWithId = GNOMAD_FILE_ID + "_chr" + humanChr + "_";
 
-                // expect file name: gnomad_variants_chr10_v38.csv.gz
+                // expect file name: gnomad_variants_chr10_v38.csv.gz, and prefer the binary form: gnomad_variants_chr10_v38.bin
+                List<String> chrFiles = files.stream()
+                        .filter(x -> x.endsWith(fileChrStrNoId) || x.contains(fileChrStrWithId)
+                                || x.endsWith(formBinaryFileId(gnomadDir, humanChr.toString(), null)))
+                        .collect(Collectors.toList());
 
-                String chrFile = files.stream()
-                        .filter(x -> x.endsWith(fileChrStrNoId) || x.contains(fileChrStrWithId))
-                        .findFirst().orElse(null);
+                String chrFile = chrFiles.stream()
+                        .filter(x -> x.endsWith(GNOMAD_BINARY_EXTENSION))
+                        .findFirst().orElse(chrFiles.stream().findFirst().orElse(null));
 
                 String chrStr = mRefGenomeVersion.versionedChromosome(humanChr.toString());
 
@@ -0,0 +1,283 @@
+package com.hartwig.hmftools.pave.annotation;
+
+import static java.lang.Math.round;
+import static java.lang.String.format;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class GnomadBinaryFile
+{
+    // a sorted, columnar, memory-mapped per-chromosome Gnomad frequency file:
+    //   header: magic, version, entry count, dictionary size, dictionary bytes length
+    //   dictionary: byte offsets of each distinct ref or alt, followed by their bases
+    //   columns: positions, ref dictionary indices, alt dictionary indices, frequencies (as floats)
+    public final String Chromosome;
+
+    private final MappedByteBuffer mBuffer;
+    private final int mEntryCount;
+    private final int mDictionaryOffsetsStart;
+    private final int mDictionaryBasesStart;
+    private final int mPositionsStart;
+    private final int mRefsStart;
+    private final int mAltsStart;
+    private final int mFrequenciesStart;
+
+    private static final int MAGIC = 0x50564e44; // PVND
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private static final double FREQUENCY_DECIMAL_FACTOR = 100000;
+
+    public static final String GNOMAD_BINARY_EXTENSION = ".bin";
+
+    public GnomadBinaryFile(final String chromosome, final String filename) throws IOException
+    {
+        Chromosome = chromosome;
+
+        try(RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel())
+        {
+            if(channel.size() > Integer.MAX_VALUE)
+                throw new IOException(format("file(%s) exceeds maximum mapped size", filename));
+
+            // the mapping remains valid after the channel is closed
+            mBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        mBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if(mBuffer.getInt(0) != MAGIC || mBuffer.getInt(Integer.BYTES) != VERSION)
+            throw new IOException(format("file(%s) is not a Gnomad binary file", filename));
+
+        mEntryCount = mBuffer.getInt(2 * Integer.BYTES);
+        int dictionarySize = mBuffer.getInt(3 * Integer.BYTES);
+        int dictionaryBasesLength = mBuffer.getInt(4 * Integer.BYTES);
+
+        mDictionaryOffsetsStart = HEADER_SIZE;
+        mDictionaryBasesStart = mDictionaryOffsetsStart + (dictionarySize + 1) * Integer.BYTES;
+        mPositionsStart = align(mDictionaryBasesStart + dictionaryBasesLength);
+        mRefsStart = mPositionsStart + mEntryCount * Integer.BYTES;
+        mAltsStart = mRefsStart + mEntryCount * Integer.BYTES;
+        mFrequenciesStart = mAltsStart + mEntryCount * Integer.BYTES;
+
+        if(mFrequenciesStart + (long)mEntryCount * Float.BYTES > mBuffer.capacity())
+            throw new IOException(format("file(%s) is truncated", filename));
+    }
+
+    public int entryCount() { return mEntryCount; }
+
+    public Double getFrequency(int position, final String ref, final String alt)
+    {
+        // absolute reads only, so lookups are thread-safe
+        int index = firstPositionIndex(position);
+
+        if(index < 0)
+            return null;
+
+        for(; index < mEntryCount && positionAt(index) == position; ++index)
+        {
+            if(basesMatch(mBuffer.getInt(mRefsStart + index * Integer.BYTES), ref)
+            && basesMatch(mBuffer.getInt(mAltsStart + index * Integer.BYTES), alt))
+            {
+                // restore the 5 decimal places written by the cache builder, as loaded from the text files
+                float frequency = mBuffer.getFloat(mFrequenciesStart + index * Float.BYTES);
+                return round(frequency * FREQUENCY_DECIMAL_FACTOR) / FREQUENCY_DECIMAL_FACTOR;
+            }
+        }
+
+        return null;
+    }
+
+    private int positionAt(int index) { return mBuffer.getInt(mPositionsStart + index * Integer.BYTES); }
+
+    private int firstPositionIndex(int position)
+    {
+        int low = 0;
+        int high = mEntryCount;
+
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(positionAt(mid) < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        return low < mEntryCount && positionAt(low) == position ? low : -1;
+    }
+
+    private boolean basesMatch(int dictionaryIndex, final String bases)
+    {
+        int start = mBuffer.getInt(mDictionaryOffsetsStart + dictionaryIndex * Integer.BYTES);
+        int end = mBuffer.getInt(mDictionaryOffsetsStart + (dictionaryIndex + 1) * Integer.BYTES);
+
+        if(end - start != bases.length())
+            return false;
+
+        for(int i = 0; i < bases.length(); ++i)
+        {
+            if(mBuffer.get(mDictionaryBasesStart + start + i) != (byte)bases.charAt(i))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static int align(int offset)
+    {
+        int remainder = offset % Integer.BYTES;
+        return remainder == 0 ? offset : offset + Integer.BYTES - remainder;
+    }
+
+    public String toString() { return format("chr(%s) entries(%d)", Chromosome, mEntryCount); }
+
+    public static class Writer
+    {
+        // collects a chromosome's entries before sorting and writing them
+        private int[] mPositions;
+        private int[] mRefs;
+        private int[] mAlts;
+        private float[] mFrequencies;
+        private int mEntryCount;
+
+        private final Map<String,Integer> mDictionaryIndex;
+        private final List<String> mDictionary;
+
+        public Writer()
+        {
+            mPositions = new int[1024];
+            mRefs = new int[1024];
+            mAlts = new int[1024];
+            mFrequencies = new float[1024];
+            mEntryCount = 0;
+            mDictionaryIndex = Maps.newHashMap();
+            mDictionary = Lists.newArrayList();
+        }
+
+        public int entryCount() { return mEntryCount; }
+
+        public void addEntry(final int position, final String ref, final String alt, final double frequency)
+        {
+            if(mEntryCount == mPositions.length)
+            {
+                int newCapacity = mEntryCount * 2;
+                mPositions = Arrays.copyOf(mPositions, newCapacity);
+                mRefs = Arrays.copyOf(mRefs, newCapacity);
+                mAlts = Arrays.copyOf(mAlts, newCapacity);
+                mFrequencies = Arrays.copyOf(mFrequencies, newCapacity);
+            }
+
+            mPositions[mEntryCount] = position;
+            mRefs[mEntryCount] = dictionaryIndex(ref);
+            mAlts[mEntryCount] = dictionaryIndex(alt);
+            mFrequencies[mEntryCount] = (float)frequency;
+            ++mEntryCount;
+        }
+
+        private int dictionaryIndex(final String bases)
+        {
+            Integer index = mDictionaryIndex.get(bases);
+
+            if(index == null)
+            {
+                index = mDictionary.size();
+                mDictionary.add(bases);
+                mDictionaryIndex.put(bases, index);
+            }
+
+            return index;
+        }
+
+        public void write(final String filename) throws IOException
+        {
+            // entries are stably sorted by position, keeping the input order for alleles at the same position
+            int[] order = IntStream.range(0, mEntryCount).boxed()
+                    .sorted((a, b) -> Integer.compare(mPositions[a], mPositions[b]))
+                    .mapToInt(x -> x).toArray();
+
+            byte[][] dictionaryBases = new byte[mDictionary.size()][];
+            int dictionaryBasesLength = 0;
+
+            for(int i = 0; i < mDictionary.size(); ++i)
+            {
+                dictionaryBases[i] = mDictionary.get(i).getBytes(StandardCharsets.US_ASCII);
+                dictionaryBasesLength += dictionaryBases[i].length;
+            }
+
+            try(DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16)))
+            {
+                ByteBuffer intBuffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+                writeInt(outputStream, intBuffer, MAGIC);
+                writeInt(outputStream, intBuffer, VERSION);
+                writeInt(outputStream, intBuffer, mEntryCount);
+                writeInt(outputStream, intBuffer, mDictionary.size());
+                writeInt(outputStream, intBuffer, dictionaryBasesLength);
+
+                int offset = 0;
+                writeInt(outputStream, intBuffer, offset);
+
+                for(byte[] bases : dictionaryBases)
+                {
+                    offset += bases.length;
+                    writeInt(outputStream, intBuffer, offset);
+                }
+
+                for(byte[] bases : dictionaryBases)
+                {
+                    outputStream.write(bases);
+                }
+
+                int dictionaryEnd = HEADER_SIZE + (mDictionary.size() + 1) * Integer.BYTES + dictionaryBasesLength;
+
+                for(int i = dictionaryEnd; i < align(dictionaryEnd); ++i)
+                {
+                    outputStream.write(0);
+                }
+
+                for(int index : order)
+                {
+                    writeInt(outputStream, intBuffer, mPositions[index]);
+                }
+
+                for(int index : order)
+                {
+                    writeInt(outputStream, intBuffer, mRefs[index]);
+                }
+
+                for(int index : order)
+                {
+                    writeInt(outputStream, intBuffer, mAlts[index]);
+                }
+
+                for(int index : order)
+                {
+                    writeInt(outputStream, intBuffer, Float.floatToIntBits(mFrequencies[index]));
+                }
+            }
+        }
+
+        private static void writeInt(final DataOutputStream outputStream, final ByteBuffer intBuffer, int value) throws IOException
+        {
+            intBuffer.putInt(0, value);
+            outputStream.write(intBuffer.array());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.pave.annotation;
 
 import static java.lang.String.format;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -16,12 +17,22 @@ public class GnomadChrCache
 
     private final Map<Integer,List<GnomadVariant>> mFrequencies;
     private final StringCache mStringCache;
+    private final GnomadBinaryFile mBinaryFile; // memory-mapped alternative to the loaded entries
 
     public GnomadChrCache(final String chromosome, final StringCache stringCache)
     {
         Chromosome = chromosome;
         mFrequencies = Maps.newHashMap();
         mStringCache = stringCache;
+        mBinaryFile = null;
+    }
+
+    public GnomadChrCache(final GnomadBinaryFile binaryFile)
+    {
+        Chromosome = binaryFile.Chromosome;
+        mFrequencies = Collections.emptyMap();
+        mStringCache = null;
+        mBinaryFile = binaryFile;
     }
 
     public void addEntry(final int position, final String ref, final String alt, final double frequency)
@@ -37,10 +48,15 @@ public class GnomadChrCache
         posList.add(new GnomadVariant(mStringCache.intern(ref), mStringCache.intern(alt), frequency));
     }
 
-    public void clear() { mFrequencies.clear(); }
-    public int entryCount() { return mFrequencies.size(); }
+    public void clear()
+    {
+        if(mBinaryFile == null)
+            mFrequencies.clear();
+    }
+
+    public int entryCount() { return mBinaryFile != null ? mBinaryFile.entryCount() : mFrequencies.size(); }
 
-    public String toString() { return format("chr(%s) entries(%d)", Chromosome, mFrequencies.size()); }
+    public String toString() { return format("chr(%s) entries(%d)", Chromosome, entryCount()); }
 
     private class GnomadVariant
     {
@@ -85,6 +101,9 @@ public class GnomadChrCache
 
     public Double getFrequency(int position, final String ref, final String alt)
     {
+        if(mBinaryFile != null)
+            return mBinaryFile.getFrequency(position, ref, alt);
+
         List<GnomadVariant> posList = mFrequencies.get(position);
 
         if(posList == null)
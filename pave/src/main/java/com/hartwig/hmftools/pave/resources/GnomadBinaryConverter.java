@@ -0,0 +1,119 @@
+package com.hartwig.hmftools.pave.resources;
+
+import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.CSV_DELIM;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_ID;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.checkAddDirSeparator;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedReader;
+import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
+import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
+import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
+import static com.hartwig.hmftools.pave.resources.GnomadCacheBuilder.formBinaryFileId;
+import static com.hartwig.hmftools.pave.resources.GnomadCacheBuilder.formFileId;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
+import com.hartwig.hmftools.pave.annotation.GnomadBinaryFile;
+
+import org.jetbrains.annotations.NotNull;
+
+public class GnomadBinaryConverter
+{
+    // converts per-chromosome Gnomad frequency CSVs into the memory-mapped binary form loaded by PAVE
+    private final String mGnomadDir;
+    private final String mOutputDir;
+    private final String mOutputId;
+
+    private static final String GNOMAD_DIR = "gnomad_dir";
+
+    public GnomadBinaryConverter(final ConfigBuilder configBuilder)
+    {
+        mGnomadDir = checkAddDirSeparator(configBuilder.getValue(GNOMAD_DIR));
+        mOutputDir = parseOutputDir(configBuilder);
+        mOutputId = configBuilder.getValue(OUTPUT_ID);
+    }
+
+    public void run()
+    {
+        if(!Files.exists(Paths.get(mGnomadDir)))
+        {
+            PV_LOGGER.error("missing Gnomad directory({}), exiting", mGnomadDir);
+            System.exit(1);
+        }
+
+        PV_LOGGER.info("converting Gnomad files from {}, writing to {}", mGnomadDir, mOutputDir);
+
+        for(HumanChromosome chromosome : HumanChromosome.values())
+        {
+            if(!convertChromosome(chromosome.toString()))
+                System.exit(1);
+        }
+
+        PV_LOGGER.info("Gnomad file conversion complete");
+    }
+
+    private boolean convertChromosome(final String chromosome)
+    {
+        // eg gnomad_variants_chr21_v38.csv.gz
+        String filename = formFileId(mGnomadDir, chromosome, mOutputId);
+
+        if(!Files.exists(Paths.get(filename)) && Files.exists(Paths.get(filename + ".gz")))
+            filename += ".gz";
+
+        if(!Files.exists(Paths.get(filename)))
+        {
+            PV_LOGGER.info("skipping chromosome({}) with no file({})", chromosome, filename);
+            return true;
+        }
+
+        String outputFile = formBinaryFileId(mOutputDir, chromosome, mOutputId);
+
+        try
+        {
+            BufferedReader fileReader = createBufferedReader(filename);
+
+            String line = fileReader.readLine(); // skip header
+
+            GnomadBinaryFile.Writer writer = new GnomadBinaryFile.Writer();
+
+            while((line = fileReader.readLine()) != null)
+            {
+                final String[] values = line.split(CSV_DELIM, -1);
+
+                writer.addEntry(Integer.parseInt(values[0]), values[1], values[2], Double.parseDouble(values[3]));
+            }
+
+            fileReader.close();
+
+            writer.write(outputFile);
+
+            PV_LOGGER.info("chr({}) wrote {} Gnomad frequency records to {}", chromosome, writer.entryCount(), outputFile);
+            return true;
+        }
+        catch(IOException e)
+        {
+            PV_LOGGER.error("failed to convert Gnomad frequency file({}): {}", filename, e.toString());
+            return false;
+        }
+    }
+
+    public static void main(@NotNull final String[] args)
+    {
+        ConfigBuilder configBuilder = new ConfigBuilder(APP_NAME);
+
+        configBuilder.addPath(GNOMAD_DIR, true, "Directory of per-chromosome Gnomad frequency files");
+        addOutputOptions(configBuilder);
+        addLoggingOptions(configBuilder);
+
+        configBuilder.checkAndParseCommandLine(args);
+
+        GnomadBinaryConverter gnomadBinaryConverter = new GnomadBinaryConverter(configBuilder);
+        gnomadBinaryConverter.run();
+    }
+}
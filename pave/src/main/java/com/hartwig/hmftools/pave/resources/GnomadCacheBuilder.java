@@ -2,12 +2,14 @@ package com.hartwig.hmftools.pave.resources;
 
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.setLogLevel;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.CSV_EXTENSION;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_ID;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
 import static com.hartwig.hmftools.pave.PaveConfig.PV_LOGGER;
 import static com.hartwig.hmftools.pave.PaveConstants.APP_NAME;
+import static com.hartwig.hmftools.pave.annotation.GnomadBinaryFile.GNOMAD_BINARY_EXTENSION;
 
 import static htsjdk.tribble.AbstractFeatureReader.getFeatureReader;
 
@@ -63,6 +65,12 @@ public class GnomadCacheBuilder
         return outputFile;
     }
 
+    public static String formBinaryFileId(final String dir, final String chromosome, final String outputId)
+    {
+        String outputFile = formFileId(dir, chromosome, outputId);
+        return outputFile.substring(0, outputFile.length() - CSV_EXTENSION.length()) + GNOMAD_BINARY_EXTENSION;
+    }
+
     public void run()
     {
         if(mInputVcf == null || !Files.exists(Paths.get(mInputVcf)))
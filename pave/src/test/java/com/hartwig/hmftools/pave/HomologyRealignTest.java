@@ -53,8 +53,8 @@ public class HomologyRealignTest
         GeneData geneData = createEnsemblGeneData(GENE_ID_1, GENE_NAME_1, CHR_1, POS_STRAND, 20, 90);
 
         GeneDataCache geneDataCache = new GeneDataCache("", V37, null);
-        geneDataCache.getEnsemblCache().getChrGeneDataMap().put(CHR_1, Lists.newArrayList(geneData));
-        geneDataCache.getEnsemblCache().getTranscriptDataMap().put(GENE_ID_1, Lists.newArrayList(transDataPos));
+        geneDataCache.getEnsemblCache().setChrGeneData(CHR_1, Lists.newArrayList(geneData));
+        geneDataCache.getEnsemblCache().setTranscriptData(GENE_ID_1, Lists.newArrayList(transDataPos));
 
         // intronic to splice
         int pos = 40; // intronic DEL
@@ -163,8 +163,8 @@ public class HomologyRealignTest
         GeneData geneData = createEnsemblGeneData(GENE_ID_1, GENE_NAME_1, CHR_1, NEG_STRAND, negTransData.TransStart, negTransData.TransEnd);
 
         GeneDataCache geneDataCache = new GeneDataCache("", V37, null);
-        geneDataCache.getEnsemblCache().getChrGeneDataMap().put(CHR_1, Lists.newArrayList(geneData));
-        geneDataCache.getEnsemblCache().getTranscriptDataMap().put(GENE_ID_1, Lists.newArrayList(negTransData));
+        geneDataCache.getEnsemblCache().setChrGeneData(CHR_1, Lists.newArrayList(geneData));
+        geneDataCache.getEnsemblCache().setTranscriptData(GENE_ID_1, Lists.newArrayList(negTransData));
 
         findVariantImpacts(var, classifier, geneDataCache);
 
@@ -229,8 +229,8 @@ public class HomologyRealignTest
         GeneData geneData = createEnsemblGeneData(GENE_ID_1, GENE_NAME_1, CHR_1, POS_STRAND, posTransData.TransStart, posTransData.TransEnd);
 
         GeneDataCache geneDataCache = new GeneDataCache("", V37, null);
-        geneDataCache.getEnsemblCache().getChrGeneDataMap().put(CHR_1, Lists.newArrayList(geneData));
-        geneDataCache.getEnsemblCache().getTranscriptDataMap().put(GENE_ID_1, Lists.newArrayList(posTransData));
+        geneDataCache.getEnsemblCache().setChrGeneData(CHR_1, Lists.newArrayList(geneData));
+        geneDataCache.getEnsemblCache().setTranscriptData(GENE_ID_1, Lists.newArrayList(posTransData));
 
         findVariantImpacts(var, classifier, geneDataCache);
 
@@ -2,17 +2,24 @@ package com.hartwig.hmftools.pave;
 
 import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
 import static com.hartwig.hmftools.pave.annotation.ClinvarAnnotation.CLNSIG;
+import static com.hartwig.hmftools.pave.annotation.GnomadBinaryFile.GNOMAD_BINARY_EXTENSION;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.hartwig.hmftools.pave.annotation.ClinvarChrCache;
 import com.hartwig.hmftools.common.utils.StringCache;
+import com.hartwig.hmftools.pave.annotation.ClinvarChrCache;
+import com.hartwig.hmftools.pave.annotation.GnomadBinaryFile;
+import com.hartwig.hmftools.pave.annotation.GnomadChrCache;
 
 import org.junit.Test;
 
@@ -49,6 +56,37 @@ public class ResourcesTest
         assertFalse(var3.context().hasAttribute(CLNSIG));
     }
 
+    @Test
+    public void testGnomadBinaryFile() throws IOException
+    {
+        GnomadBinaryFile.Writer writer = new GnomadBinaryFile.Writer();
+
+        // unsorted input and multiple alleles per position
+        writer.addEntry(200, "A", "G", 0.00012);
+        writer.addEntry(100, "A", "C", 0.5);
+        writer.addEntry(100, "A", "AT", 0.1);
+        writer.addEntry(101, "C", "T", 0.25);
+        writer.addEntry(102, "G", "A", 0.3);
+
+        File binaryFile = File.createTempFile("gnomad_variants_chr1", GNOMAD_BINARY_EXTENSION);
+        binaryFile.deleteOnExit();
+        writer.write(binaryFile.getAbsolutePath());
+
+        GnomadChrCache chrCache = new GnomadChrCache(new GnomadBinaryFile(CHR_1, binaryFile.getAbsolutePath()));
+        assertEquals(5, chrCache.entryCount());
+
+        assertEquals(0.5, chrCache.getFrequency(100, "A", "C"), 1e-10);
+        assertEquals(0.1, chrCache.getFrequency(100, "A", "AT"), 1e-10);
+        assertEquals(0.00012, chrCache.getFrequency(200, "A", "G"), 0);
+        assertNull(chrCache.getFrequency(100, "A", "G"));
+        assertNull(chrCache.getFrequency(150, "A", "C"));
+        assertNull(chrCache.getFrequency(300, "A", "C"));
+
+        // MNVs take the minimum frequency of their bases
+        assertEquals(0.25, chrCache.getFrequency(new VariantData(CHR_1, 101, "CG", "TA")), 1e-10);
+        assertNull(chrCache.getFrequency(new VariantData(CHR_1, 100, "AG", "CT")));
+    }
+
     public static VariantData createVariant( final String chromosome, int position, final String ref, final String alt)
     {
         VariantContext context = buildContext(chromosome, position, ref, alt);
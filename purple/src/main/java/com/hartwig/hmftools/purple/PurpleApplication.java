@@ -6,6 +6,7 @@ import static com.hartwig.hmftools.common.purple.PurpleCommon.purpleSomaticSvFil
 import static com.hartwig.hmftools.common.purple.PurpleCommon.purpleSomaticVcfFile;
 import static com.hartwig.hmftools.common.purple.PurpleQCStatus.MAX_DELETED_GENES;
 import static com.hartwig.hmftools.common.purple.GeneCopyNumber.listToMap;
+import static com.hartwig.hmftools.common.utils.PerformanceCounter.nanosToSeconds;
 import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsStr;
 import static com.hartwig.hmftools.common.utils.config.ConfigUtils.addLoggingOptions;
 import static com.hartwig.hmftools.common.utils.version.VersionInfo.fromAppName;
@@ -45,6 +46,7 @@ import com.hartwig.hmftools.common.purple.ImmutableFittedPurityScore;
 import com.hartwig.hmftools.common.purple.ImmutablePurityContext;
 import com.hartwig.hmftools.common.purple.ImmutablePurpleQC;
 import com.hartwig.hmftools.common.purple.TumorMutationalStatus;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteStatus;
 import com.hartwig.hmftools.purple.fitting.BestFit;
@@ -91,6 +93,9 @@ public class PurpleApplication
 
     private final GermlineVariants mGermlineVariants;
     private final Segmentation mSegmentation;
+    private final MetricsRegistry mMetrics;
+
+    private long mStageStartNanos;
 
     private static final String VERSION = "version";
 
@@ -120,24 +125,39 @@ public class PurpleApplication
         mGermlineVariants = new GermlineVariants(mConfig, mReferenceData, mPurpleVersion.version());
 
         mSegmentation = !mConfig.DriversOnly ? new Segmentation(mReferenceData) : null;
+
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME, configBuilder);
+        mStageStartNanos = 0;
+    }
+
+    private void startStage() { mStageStartNanos = System.nanoTime(); }
+
+    private void stageComplete(final String stageName)
+    {
+        mMetrics.recordTime(stageName, nanosToSeconds(mStageStartNanos, System.nanoTime()));
     }
 
     public void run()
     {
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
 
         try
         {
             if(mConfig.DriversOnly)
             {
+                startStage();
                 runDriversRoutine(mConfig.TumorId);
+                stageComplete("Drivers");
             }
             else
             {
                 if(!mConfig.SampleFiles.hasValidSampleNames(mConfig))
                     System.exit(1);
 
+                startStage();
                 final SampleData sampleData = loadSampleData();
+                stageComplete("LoadSampleData");
 
                 if(sampleData == null)
                     System.exit(1);
@@ -152,6 +172,8 @@ public class PurpleApplication
             System.exit(1);
         }
 
+        mMetrics.writeMetrics(mConfig.OutputDir, mConfig.TumorId);
+
         PPL_LOGGER.info("Purple complete, mins({})", runTimeMinsStr(startTimeMs));
         mExecutorService.shutdown();
     }
@@ -225,7 +247,9 @@ public class PurpleApplication
         mPurpleVersion.write(mConfig.OutputDir);
 
         PPL_LOGGER.info("applying segmentation");
+        startStage();
         List<ObservedRegion> observedRegions = mSegmentation.createObservedRegions(sampleData.SvCache.variants(), amberData, cobaltData);
+        stageComplete("Segmentation");
 
         if(observedRegions.isEmpty() || !validateObservedRegions(observedRegions))
         {
@@ -249,11 +273,13 @@ public class PurpleApplication
         if(mConfig.runTumor())
         {
             PPL_LOGGER.info("fitting purity");
+            startStage();
 
             PurityPloidyFitter purityPloidyFitter = new PurityPloidyFitter(
                     mConfig, mReferenceData, sampleData, mExecutorService, regionFitCalculator, observedRegions, mSegmentation);
 
             purityPloidyFitter.run();
+            stageComplete("PurityFit");
 
             fittedRegions.addAll(purityPloidyFitter.fittedRegions());
 
@@ -275,10 +301,12 @@ public class PurpleApplication
             // at the moment the enriching of somatic variants is also contributing to the purity context, so it cannot be done afterwards
             // if the read and write process were split then so could the fitting and enriching steps
             PPL_LOGGER.info("enriching somatic variants");
+            startStage();
 
             somaticStream = new SomaticStream(mConfig, mReferenceData, somaticCache);
 
             somaticStream.processAndWrite(purityAdjuster);
+            stageComplete("SomaticEnrichment");
 
             sampleData.SvCache.write(purityAdjuster, copyNumbers, mConfig.tumorOnlyMode(), amberGender);
 
@@ -316,6 +344,8 @@ public class PurpleApplication
 
         if(mConfig.runGermline())
         {
+            startStage();
+
             mGermlineVariants.processAndWrite(
                     referenceId, tumorId, sampleDataFiles.GermlineVcfFile, purityAdjuster, copyNumbers, reportedGenes);
 
@@ -340,11 +370,13 @@ public class PurpleApplication
             germlineDeletions.findDeletions(copyNumbers, fittedRegions, germlineSvCache.variants());
 
             GermlineDeletion.write(GermlineDeletion.generateFilename(mConfig.OutputDir, tumorId), germlineDeletions.getDeletions());
+            stageComplete("Germline");
         }
 
         if(!mConfig.germlineMode() && !mConfig.Charting.Disabled)
         {
             PPL_LOGGER.info("generating charts");
+            startStage();
 
             try
             {
@@ -357,6 +389,8 @@ public class PurpleApplication
 
                 // clean up any temporary files
                 // RChartData.cleanupFiles(mConfig, tumorId);
+
+                stageComplete("Charts");
             }
             catch(Exception e)
             {
@@ -368,7 +402,9 @@ public class PurpleApplication
 
         if(mConfig.RunDrivers)
         {
+            startStage();
             findDrivers(tumorId, purityContext, geneCopyNumbers, somaticStream, germlineDeletions);
+            stageComplete("Drivers");
         }
     }
 
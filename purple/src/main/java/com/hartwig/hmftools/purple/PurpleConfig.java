@@ -20,6 +20,7 @@ import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.drivercatalog.panel.DriverGenePanelConfig;
 import com.hartwig.hmftools.common.purple.RunMode;
 import com.hartwig.hmftools.common.region.SpecificRegions;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.variant.VariantTier;
 
@@ -176,6 +177,7 @@ public class PurpleConfig
         ChartConfig.addConfig(configBuilder);
         SampleDataFiles.addConfig(configBuilder);
         addThreadOptions(configBuilder);
+        MetricsRegistry.registerConfig(configBuilder);
         addSpecificChromosomesRegionsConfig(configBuilder);
     }
 
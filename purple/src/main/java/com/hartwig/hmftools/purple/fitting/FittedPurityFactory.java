@@ -1,19 +1,30 @@
 package com.hartwig.hmftools.purple.fitting;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
 import static com.hartwig.hmftools.common.utils.Doubles.lessOrEqual;
 import static com.hartwig.hmftools.common.utils.Doubles.positiveOrZero;
+import static com.hartwig.hmftools.purple.PurpleUtils.PPL_LOGGER;
+import static com.hartwig.hmftools.purple.fitting.PurityPloidyFitter.inRangeOfLowest;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
@@ -44,10 +55,18 @@ public class FittedPurityFactory
     private final List<FittedPurity> mFittedPurities;
     private final List<ObservedRegionData> mFilteredObservedRegions;
     private final List<Double> mPloidyRange;
+    private final List<Double> mPurities;
+
+    // fits are held per purity index so each grid point is scored at most once
+    private final Map<Integer,List<FittedPurity>> mPurityFits;
 
     private static final int MAX_SOMATICS_TO_FIT = 1000;
     private static final double MAX_TUMOR_RATIO_TO_FIT = 3;
 
+    // adaptive search scores every Nth purity before refining
+    private static final int ADAPTIVE_COARSE_STEP = 5;
+    private static final int ADAPTIVE_TOP_CANDIDATES = 3;
+
     public FittedPurityFactory(
             final PurpleConfig config, final ExecutorService executorService, final CobaltChromosomes cobaltChromosomes,
             final RegionFitCalculator regionFitCalculator, final Collection<ObservedRegion> observedRegions, final List<SomaticVariant> variants)
@@ -62,6 +81,8 @@ public class FittedPurityFactory
                 .collect(Collectors.toMap(CobaltChromosome::contig, CobaltChromosome::actualRatio));
 
         mPloidyRange = ploidyRange(mConfig.Fitting.MinPloidy, mConfig.Fitting.MaxPloidy);
+        mPurities = purityRange(mConfig.Fitting.MinPurity, mConfig.Fitting.MaxPurity, mConfig.Fitting.PurityIncrement);
+        mPurityFits = Maps.newTreeMap();
 
         mFittedPurities = Lists.newArrayList();
         mFilteredObservedRegions = Lists.newArrayList();
@@ -105,35 +126,124 @@ public class FittedPurityFactory
 
     public void fitPurity() throws ExecutionException, InterruptedException
     {
-        FittingConfig config = mConfig.Fitting;
+        if(mConfig.Fitting.AdaptiveSearch)
+        {
+            adaptiveSearch();
+            collectFittedPurities();
+        }
+        else
+        {
+            fitRemainingPurities();
+        }
+    }
+
+    public boolean hasUnscoredPurities() { return mPurityFits.size() < mPurities.size(); }
+
+    public void fitRemainingPurities() throws ExecutionException, InterruptedException
+    {
+        // scores any purities skipped by the adaptive search, completing the exhaustive grid
+        List<Integer> purityIndices = IntStream.range(0, mPurities.size())
+                .filter(x -> !mPurityFits.containsKey(x)).boxed().collect(Collectors.toList());
+
+        fitPurities(purityIndices);
+        collectFittedPurities();
+    }
+
+    private void collectFittedPurities()
+    {
+        mFittedPurities.clear();
+        mPurityFits.values().forEach(mFittedPurities::addAll);
+
+        Collections.sort(mFittedPurities);
+    }
+
+    private void adaptiveSearch() throws ExecutionException, InterruptedException
+    {
+        // score a coarse purity grid, refine the neighbourhoods of its best purities down to the configured increment, and then
+        // extend around any purity in range of the lowest score until its neighbours have all been scored
+        fitPurities(coarsePurityIndices(mPurities.size(), ADAPTIVE_COARSE_STEP));
+
+        Set<Integer> refineIndices = Sets.newTreeSet();
+
+        for(int purityIndex : candidatePurityIndices(mPurityFits, ADAPTIVE_TOP_CANDIDATES))
+        {
+            addNeighbourIndices(refineIndices, purityIndex, ADAPTIVE_COARSE_STEP - 1, mPurities.size(), mPurityFits);
+        }
+
+        while(!refineIndices.isEmpty())
+        {
+            fitPurities(Lists.newArrayList(refineIndices));
+            refineIndices.clear();
+
+            for(int purityIndex : candidatePurityIndices(mPurityFits, 1))
+            {
+                addNeighbourIndices(refineIndices, purityIndex, 1, mPurities.size(), mPurityFits);
+            }
+        }
+
+        PPL_LOGGER.debug("adaptive fit search scored {} of {} purities", mPurityFits.size(), mPurities.size());
+    }
+
+    private static List<Integer> candidatePurityIndices(final Map<Integer,List<FittedPurity>> purityFits, int topCount)
+    {
+        // the best scoring purities plus any in range of the lowest score
+        Map<Integer,Double> purityScores = Maps.newHashMap();
+        purityFits.forEach((purityIndex, fits) -> purityScores.put(
+                purityIndex, fits.stream().mapToDouble(FittedPurity::score).min().orElse(Double.MAX_VALUE)));
+
+        List<Integer> rankedIndices = purityScores.keySet().stream()
+                .sorted(Comparator.comparingDouble(purityScores::get)).collect(Collectors.toList());
+
+        if(rankedIndices.isEmpty())
+            return rankedIndices;
+
+        Predicate<FittedPurity> inRange = inRangeOfLowest(purityScores.get(rankedIndices.get(0)));
+
+        List<Integer> candidates = Lists.newArrayList();
+
+        for(int i = 0; i < rankedIndices.size(); ++i)
+        {
+            int purityIndex = rankedIndices.get(i);
+
+            if(i < topCount || purityFits.get(purityIndex).stream().anyMatch(inRange))
+                candidates.add(purityIndex);
+        }
+
+        return candidates;
+    }
+
+    private static void addNeighbourIndices(
+            final Set<Integer> indices, int purityIndex, int distance, int purityCount, final Map<Integer,List<FittedPurity>> purityFits)
+    {
+        for(int i = max(0, purityIndex - distance); i <= min(purityCount - 1, purityIndex + distance); ++i)
+        {
+            if(!purityFits.containsKey(i))
+                indices.add(i);
+        }
+    }
 
+    private void fitPurities(final List<Integer> purityIndices) throws ExecutionException, InterruptedException
+    {
         if(mConfig.Threads <= 1)
         {
-            for(double purity = config.MinPurity; lessOrEqual(purity, config.MaxPurity); purity += config.PurityIncrement)
+            for(int purityIndex : purityIndices)
             {
-                mFittedPurities.addAll(fitPurity(purity));
+                mPurityFits.put(purityIndex, fitPurity(mPurities.get(purityIndex)));
             }
         }
         else
         {
             List<Future<List<FittedPurity>>> futures = Lists.newArrayList();
-            for(double purity = config.MinPurity; lessOrEqual(purity, config.MaxPurity); purity += config.PurityIncrement)
+            for(int purityIndex : purityIndices)
             {
-                futures.add(mExecutorService.submit(callableFitPurity(purity)));
+                futures.add(mExecutorService.submit(callableFitPurity(mPurities.get(purityIndex))));
             }
 
-            for(Future<List<FittedPurity>> future : futures)
+            for(int i = 0; i < purityIndices.size(); ++i)
             {
-                List<FittedPurity> fittedPurities = future.get();
-
-                if(!fittedPurities.isEmpty())
-                {
-                    mFittedPurities.addAll(fittedPurities);
-                }
+                mPurityFits.put(purityIndices.get(i), futures.get(i).get());
             }
         }
-
-        Collections.sort(mFittedPurities);
     }
 
     private Callable<List<FittedPurity>> callableFitPurity(final double purity)
@@ -242,6 +352,34 @@ public class FittedPurityFactory
         return 1d * value * bafCount / mTotalBAFCount;
     }
 
+    protected static List<Double> purityRange(double minPurity, double maxPurity, double purityIncrement)
+    {
+        // accumulated in the same way as the original search loop so purity values are unchanged
+        List<Double> results = Lists.newArrayList();
+
+        for(double purity = minPurity; lessOrEqual(purity, maxPurity); purity += purityIncrement)
+        {
+            results.add(purity);
+        }
+
+        return results;
+    }
+
+    protected static List<Integer> coarsePurityIndices(int purityCount, int step)
+    {
+        List<Integer> results = Lists.newArrayList();
+
+        for(int i = 0; i < purityCount; i += step)
+        {
+            results.add(i);
+        }
+
+        if(purityCount > 0 && results.get(results.size() - 1) != purityCount - 1)
+            results.add(purityCount - 1);
+
+        return results;
+    }
+
     protected static List<Double> ploidyRange(double minPloidy, double maxPloidy)
     {
         List<Double> results = Lists.newArrayList();
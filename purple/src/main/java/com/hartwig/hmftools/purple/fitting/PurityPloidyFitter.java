@@ -152,6 +152,15 @@ public class PurityPloidyFitter
         try
         {
             fittedPurityFactory.fitPurity();
+            setCopyNumberFit(fittedPurityFactory.getFittedPurities());
+
+            if(fittedPurityFactory.hasUnscoredPurities() && somaticFitMayFollow())
+            {
+                // the somatic fit reads the most diploid fit at every purity, so any purities skipped by an adaptive search are scored
+                PPL_LOGGER.debug("completing purity grid for somatic fit");
+                fittedPurityFactory.fitRemainingPurities();
+                setCopyNumberFit(fittedPurityFactory.getFittedPurities());
+            }
         }
         catch(Exception e)
         {
@@ -159,8 +168,12 @@ public class PurityPloidyFitter
             e.printStackTrace();
             System.exit(1);
         }
+    }
 
-        mCopyNumberFitCandidates.addAll(fittedPurityFactory.getFittedPurities());
+    private void setCopyNumberFit(final List<FittedPurity> fittedPurities)
+    {
+        mCopyNumberFitCandidates.clear();
+        mCopyNumberFitCandidates.addAll(fittedPurities);
 
         Collections.sort(mCopyNumberFitCandidates);
 
@@ -172,6 +185,15 @@ public class PurityPloidyFitter
         mFitPurityScore = FittedPurityScoreFactory.score(bestFitPerPurityCandidates);
     }
 
+    private boolean somaticFitMayFollow()
+    {
+        // mirrors the conditions under which performSomaticFit uses candidates beyond those in range of the lowest score
+        if(mConfig.tumorOnlyMode() || mTargetedMode)
+            return highlyDiploidSomaticOrPanel(mCopyNumberPurityFit);
+
+        return isHighlyDiploid(mFitPurityScore);
+    }
+
     private void performSomaticFit()
     {
         if(mConfig.tumorOnlyMode() || mTargetedMode)
@@ -351,7 +373,7 @@ public class PurityPloidyFitter
     private static final double PERCENT_RANGE = 0.1;
     private static final double ABS_RANGE = 0.0005;
 
-    private static Predicate<FittedPurity> inRangeOfLowest(final double score)
+    static Predicate<FittedPurity> inRangeOfLowest(final double score)
     {
         return fittedPurity ->
         {
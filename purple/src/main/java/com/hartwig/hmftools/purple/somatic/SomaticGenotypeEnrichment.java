@@ -29,22 +29,30 @@ public class SomaticGenotypeEnrichment
         mTumorSample = tumorSample;
     }
 
-    public void processVariant(final SomaticVariant variant)
+    // remove any fields set by Pave (in regression testing only)
+    public static void removePaveFields(final SomaticVariant variant)
+    {
+        if(variant.context().hasAttribute(REPORTED_FLAG))
+            variant.context().getCommonInfo().removeAttribute(REPORTED_FLAG);
+    }
+
+    // returns the variant with its genotypes, which are taken from the input VCF record, set to reflect the somatic status
+    public VariantContext enrichGenotypes(final SomaticVariant variant, final VariantContext sourceContext)
     {
         VariantContext origContext = variant.context();
         Allele refAllele = origContext.getReference();
 
         if(origContext.getAlleles().size() < 2)
-            return;
+            return new VariantContextBuilder(origContext).genotypes(sourceContext.getGenotypes()).make();
 
         Allele altAllele = origContext.getAlternateAllele(0);
 
         List<Genotype> updatedGenotypes = Lists.newArrayList();
 
         // set the germline status if present
-        if(mGermlineSample != null && !mGermlineSample.isEmpty() && origContext.getGenotype(mGermlineSample) != null)
+        if(mGermlineSample != null && !mGermlineSample.isEmpty() && sourceContext.getGenotype(mGermlineSample) != null)
         {
-            Genotype germlineGT = origContext.getGenotype(mGermlineSample);
+            Genotype germlineGT = sourceContext.getGenotype(mGermlineSample);
 
             List<Allele> germlineAlleles = Lists.newArrayList();
             germlineAlleles.add(refAllele);
@@ -56,7 +64,7 @@ public class SomaticGenotypeEnrichment
         }
 
         // set the tumor status
-        Genotype tumorGT = origContext.getGenotype(mTumorSample);
+        Genotype tumorGT = sourceContext.getGenotype(mTumorSample);
         SomaticGenotypeStatus tumorStatus = variant.biallelic() ? SomaticGenotypeStatus.HOM : SomaticGenotypeStatus.HET;
 
         List<Allele> tumorAlleles = Lists.newArrayList();
@@ -73,13 +81,6 @@ public class SomaticGenotypeEnrichment
         final Genotype tumorGenotype = new GenotypeBuilder(tumorGT).alleles(tumorAlleles).make();
         updatedGenotypes.add(tumorGenotype);
 
-        VariantContextBuilder builder = new VariantContextBuilder(origContext).genotypes(updatedGenotypes);
-
-        // remove any fields set by Pave (in regression testing only)
-        if(variant.context().hasAttribute(REPORTED_FLAG))
-            builder.rmAttribute(REPORTED_FLAG);
-
-        VariantContext newContext = builder.make();
-        variant.setContext(newContext);
+        return new VariantContextBuilder(origContext).genotypes(updatedGenotypes).make();
     }
 }
@@ -2,7 +2,6 @@ package com.hartwig.hmftools.purple.somatic;
 
 import static java.lang.Math.abs;
 
-import static com.hartwig.hmftools.common.variant.CommonVcfTags.getGenotypeAttributeAsDouble;
 import static com.hartwig.hmftools.common.variant.PurpleVcfTags.PANEL_GERMLINE_VAF_DISTANCE;
 import static com.hartwig.hmftools.common.variant.PurpleVcfTags.PANEL_GERMLINE_VAF_DISTANCE_DESC;
 import static com.hartwig.hmftools.common.variant.PurpleVcfTags.PANEL_SOMATIC_LIKELIHOOD;
@@ -14,7 +13,6 @@ import com.hartwig.hmftools.common.variant.GenotypeIds;
 import com.hartwig.hmftools.common.variant.SomaticLikelihood;
 import com.hartwig.hmftools.purple.PurpleConfig;
 
-import htsjdk.variant.vcf.VCFConstants;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLineType;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
@@ -42,8 +40,7 @@ public class SomaticGermlineLikelihood
         if(!mEnabled)
             return;
 
-        double rawAf = getGenotypeAttributeAsDouble(
-                variant.context().getGenotype(mGenotypeIds.TumorOrdinal), VCFConstants.ALLELE_FREQUENCY_KEY, 0);
+        double rawAf = variant.tumorGenotypeAlleleFrequency();
 
         double segmentCn = variant.decorator().adjustedCopyNumber();
         double tumorMinorCn = variant.decorator().minorAlleleCopyNumber();
@@ -15,6 +15,7 @@ import static com.hartwig.hmftools.purple.drivers.SomaticVariantDrivers.addRepor
 import static com.hartwig.hmftools.purple.somatic.SomaticVariantEnrichment.populateHeader;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,6 +23,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -36,12 +38,14 @@ import com.hartwig.hmftools.purple.fitting.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.GeneCopyNumber;
 import com.hartwig.hmftools.common.variant.VariantContextDecorator;
 import com.hartwig.hmftools.common.variant.VariantType;
+import com.hartwig.hmftools.common.variant.VcfFileReader;
 import com.hartwig.hmftools.purple.ReferenceData;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteStatus;
 import com.hartwig.hmftools.common.purple.TumorMutationalStatus;
 import com.hartwig.hmftools.purple.PurpleConfig;
 import com.hartwig.hmftools.purple.plot.RChartData;
 
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
 import htsjdk.variant.vcf.VCFHeader;
@@ -242,11 +246,29 @@ public class SomaticStream
             // should not be required if coding effects have been set correctly for phased variants in Pave
             checkPhasedReportableVariants();
 
-            // write enriched variants to VCF
-            for(SomaticVariant variant : mSomaticVariants.variants())
+            // write enriched variants to VCF, restoring their genotypes from the input VCF - the cached variants are in the same
+            // order as the input VCF, so it is read through once in step with them
+            SomaticGenotypeEnrichment genotypeEnrichment = new SomaticGenotypeEnrichment(mConfig.ReferenceId, mConfig.TumorId);
+            try(VcfFileReader sourceReader = new VcfFileReader(mSomaticVariants.somaticVcf()))
             {
-                if(!tumorOnly || variant.isPass() || mConfig.WriteAllSomatics)
-                    mVcfWriter.add(variant.context());
+                Iterator<VariantContext> sourceIter = sourceReader.iterator();
+
+                for(SomaticVariant variant : mSomaticVariants.variants())
+                {
+                    if(!tumorOnly || variant.isPass() || mConfig.WriteAllSomatics)
+                    {
+                        VariantContext sourceContext = findSourceVariant(sourceIter, variant);
+
+                        // a missing variant would leave the output VCF truncated, so fail the run instead
+                        if(sourceContext == null)
+                        {
+                            throw new IllegalStateException(String.format("variant(%s) not found in somatic VCF(%s)",
+                                    variant, mSomaticVariants.somaticVcf()));
+                        }
+
+                        mVcfWriter.add(genotypeEnrichment.enrichGenotypes(variant, sourceContext));
+                    }
+                }
             }
 
             mVcfWriter.close();
@@ -317,6 +339,25 @@ public class SomaticStream
             || variant.variantImpact().CanonicalEffect.contains(PHASED_MISSENSE.effect());
     }
 
+    @VisibleForTesting
+    static VariantContext findSourceVariant(final Iterator<VariantContext> sourceIter, final SomaticVariant variant)
+    {
+        VariantContext context = variant.context();
+
+        while(sourceIter.hasNext())
+        {
+            VariantContext sourceContext = sourceIter.next();
+
+            if(sourceContext.getStart() == context.getStart() && sourceContext.getContig().equals(context.getContig())
+            && sourceContext.getAlleles().equals(context.getAlleles()))
+            {
+                return sourceContext;
+            }
+        }
+
+        return null;
+    }
+
     private void checkPhasedReportableVariants()
     {
         // any non-reportable variant that forms a phased inframe INDEL with a reportable variant is marked as reportable too
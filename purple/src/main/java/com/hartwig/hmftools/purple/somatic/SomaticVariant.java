@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.purple.somatic;
 
+import static com.hartwig.hmftools.common.variant.CommonVcfTags.getGenotypeAttributeAsDouble;
 import static com.hartwig.hmftools.common.variant.Hotspot.HOTSPOT_FLAG;
 
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
@@ -8,7 +9,10 @@ import com.hartwig.hmftools.common.variant.VariantContextDecorator;
 import com.hartwig.hmftools.common.variant.VariantType;
 import com.hartwig.hmftools.common.variant.impact.VariantImpact;
 
+import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFConstants;
 
 public class SomaticVariant implements GenomePosition
 {
@@ -19,6 +23,7 @@ public class SomaticVariant implements GenomePosition
     private VariantContextDecorator mDecorator;
     private final AllelicDepth mTumorAllelicDepth;
     private final AllelicDepth mReferenceAllelicDepth;
+    private final double mTumorGenotypeAf; // kept since the genotypes may be dropped
 
     public SomaticVariant(final VariantContext context, final String sampleId, final String referenceId)
     {
@@ -29,6 +34,9 @@ public class SomaticVariant implements GenomePosition
         mPosition = mContext.getStart();
         mTumorAllelicDepth = sampleId != null ? mDecorator.allelicDepth(sampleId) :  null;
         mReferenceAllelicDepth = referenceId != null ? mDecorator.allelicDepth(referenceId) :  null;
+
+        Genotype tumorGenotype = sampleId != null ? mContext.getGenotype(sampleId) : null;
+        mTumorGenotypeAf = tumorGenotype != null ? getGenotypeAttributeAsDouble(tumorGenotype, VCFConstants.ALLELE_FREQUENCY_KEY, 0) : 0;
     }
 
     public VariantContext context() { return mContext; }
@@ -39,6 +47,14 @@ public class SomaticVariant implements GenomePosition
         mDecorator = new VariantContextDecorator(mContext);
     }
 
+    // drop the decoded genotypes, which are restored from the input VCF when the variant is written - the INFO fields are kept
+    // since they are read and added to by the enrichment routines
+    public void dropGenotypes()
+    {
+        if(mContext.hasGenotypes())
+            setContext(new VariantContextBuilder(mContext).noGenotypes().make());
+    }
+
     @Override
     public String chromosome() { return mChromosome; }
 
@@ -66,6 +82,7 @@ public class SomaticVariant implements GenomePosition
     public double alleleFrequency() { return mTumorAllelicDepth != null ? mTumorAllelicDepth.alleleFrequency() : 0; }
     public int totalReadCount() { return mTumorAllelicDepth != null ? mTumorAllelicDepth.TotalReadCount : 0; }
     public int alleleReadCount() { return mTumorAllelicDepth != null ? mTumorAllelicDepth.AlleleReadCount : 0; }
+    public double tumorGenotypeAlleleFrequency() { return mTumorGenotypeAf; }
     public int referenceAlleleReadCount() { return mReferenceAllelicDepth != null ? mReferenceAllelicDepth.AlleleReadCount : 0; }
 
     public String toString()
@@ -23,6 +23,7 @@ public class SomaticVariantCache
 
     private final List<SomaticVariant> mVariants;
 
+    private String mSomaticVcf;
     private VCFHeader mVcfHeader;
     private GenotypeIds mGenotypeIds;
 
@@ -37,6 +38,7 @@ public class SomaticVariantCache
         mVariants = Lists.newArrayList();
         mIndelCount = 0;
         mSnpCount = 0;
+        mSomaticVcf = null;
         mVcfHeader = null;
         mGenotypeIds = null;
     }
@@ -53,6 +55,8 @@ public class SomaticVariantCache
         if(somaticVcf.isEmpty())
             return;
 
+        mSomaticVcf = somaticVcf;
+
         final HotspotEnrichment hotspotEnrichment = new HotspotEnrichment(somaticHotspots, true);
 
         VcfFileReader vcfReader = new VcfFileReader(somaticVcf);
@@ -88,7 +92,10 @@ public class SomaticVariantCache
             mVariants.add(variant);
 
             // hotspot status is used in fitting as well as during and for enrichment
-            hotspotEnrichment.processVariant(variantContext);
+            hotspotEnrichment.processVariant(variant.context());
+
+            // genotypes are only needed again when the variant is written, and are then re-read from the VCF
+            variant.dropGenotypes();
 
             if(variant.isPass())
             {
@@ -102,6 +109,7 @@ public class SomaticVariantCache
         PPL_LOGGER.info("loaded {} somatic variants from {}", mVariants.size(), somaticVcf);
     }
 
+    public String somaticVcf() { return mSomaticVcf; }
     public VCFHeader getVcfHeader() { return mVcfHeader; }
 
     public void purityEnrich(final SomaticPurityEnrichment purityEnrichment)
@@ -19,7 +19,6 @@ public class SomaticVariantEnrichment implements Callable
 {
     private final KataegisEnrichment mKataegisEnrichment;
     private final SubclonalLikelihoodEnrichment mSubclonalLikelihoodEnrichment;
-    private final SomaticGenotypeEnrichment mGenotypeEnrichment;
 
     private final PurpleConfig mConfig;
     private final int mTaskId;
@@ -31,7 +30,6 @@ public class SomaticVariantEnrichment implements Callable
     {
         mConfig = config;
         mTaskId = taskId;
-        mGenotypeEnrichment = new SomaticGenotypeEnrichment(mConfig.ReferenceId, mConfig.TumorId);
         mSubclonalLikelihoodEnrichment = new SubclonalLikelihoodEnrichment(CLONALITY_BIN_WIDTH, peakModel);
         mKataegisEnrichment = new KataegisEnrichment(kataegisId);
         mVariants = Lists.newArrayList();
@@ -71,7 +69,7 @@ public class SomaticVariantEnrichment implements Callable
     {
         mKataegisEnrichment.processVariant(variant);
         mSubclonalLikelihoodEnrichment.processVariant(variant);
-        mGenotypeEnrichment.processVariant(variant);
+        SomaticGenotypeEnrichment.removePaveFields(variant);
     }
 
     public void flush()
@@ -46,4 +46,21 @@ public class FittedPurityFactoryTest
         assertEquals(1, fixed.size());
         assertEquals(fixedPloidy, fixed.get(0), EPSILON);
     }
+
+    @Test
+    public void testPurityRange()
+    {
+        final List<Double> purities = FittedPurityFactory.purityRange(0.08, 1.0, 0.01);
+        assertEquals(93, purities.size());
+        assertEquals(0.08, purities.get(0), EPSILON);
+        assertEquals(1.0, purities.get(92), EPSILON);
+
+        final List<Integer> coarseIndices = FittedPurityFactory.coarsePurityIndices(purities.size(), 5);
+        assertEquals(20, coarseIndices.size());
+        assertEquals(0, (int)coarseIndices.get(0));
+        assertEquals(90, (int)coarseIndices.get(18));
+        assertEquals(92, (int)coarseIndices.get(19));
+
+        assertEquals(List.of(0, 5, 10), FittedPurityFactory.coarsePurityIndices(11, 5));
+    }
 }
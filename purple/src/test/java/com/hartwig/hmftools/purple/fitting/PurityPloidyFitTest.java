@@ -2,6 +2,8 @@ package com.hartwig.hmftools.purple.fitting;
 
 import static com.hartwig.hmftools.common.utils.pcf.PCFSource.TUMOR_BAF;
 import static com.hartwig.hmftools.common.utils.pcf.PCFSource.TUMOR_RATIO;
+import static com.hartwig.hmftools.purple.MiscTestUtils.SAMPLE_ID;
+import static com.hartwig.hmftools.purple.MiscTestUtils.createVariant;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.REF_SAMPLE_ID;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.TUMOR_SAMPLE_ID;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.buildCobaltChromosomes;
@@ -10,6 +12,7 @@ import static com.hartwig.hmftools.purple.PurpleTestUtils.createAmberBaf;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.createCobaltRatio;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.createObservedRegion;
 import static com.hartwig.hmftools.purple.PurpleTestUtils.createSegmentation;
+import static com.hartwig.hmftools.purple.FittingConfig.ADAPTIVE_FIT_SEARCH;
 import static com.hartwig.hmftools.purple.FittingConfig.MAX_PLOIDY;
 import static com.hartwig.hmftools.purple.FittingConfig.PURITY_INCREMENT;
 
@@ -20,6 +23,8 @@ import static org.junit.Assert.assertTrue;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
@@ -27,11 +32,16 @@ import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.CobaltChromosomes;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.purple.FittedPurity;
+import com.hartwig.hmftools.common.purple.FittedPurityMethod;
 import com.hartwig.hmftools.common.purple.Gender;
 import com.hartwig.hmftools.common.purple.GermlineStatus;
 import com.hartwig.hmftools.common.purple.ImmutableFittedPurity;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
+import com.hartwig.hmftools.common.variant.CodingEffect;
+import com.hartwig.hmftools.common.variant.Hotspot;
+import com.hartwig.hmftools.common.variant.VariantTier;
+import com.hartwig.hmftools.common.variant.VariantType;
 import com.hartwig.hmftools.purple.PurpleTestUtils;
 import com.hartwig.hmftools.purple.AmberData;
 import com.hartwig.hmftools.purple.CobaltData;
@@ -40,12 +50,17 @@ import com.hartwig.hmftools.purple.ReferenceData;
 import com.hartwig.hmftools.purple.SampleData;
 import com.hartwig.hmftools.purple.region.ObservedRegion;
 import com.hartwig.hmftools.purple.segment.Segmentation;
+import com.hartwig.hmftools.purple.somatic.SomaticVariant;
 import com.hartwig.hmftools.purple.somatic.SomaticVariantCache;
 import com.hartwig.hmftools.purple.sv.SomaticSvCache;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+
 public class PurityPloidyFitTest
 {
     private final PurpleConfig mConfig;
@@ -145,6 +160,114 @@ public class PurityPloidyFitTest
         assertNotNull(fitter.finalFit());
     }
 
+    @Test
+    public void testAdaptiveSearch() throws Exception
+    {
+        // regions with copy number and major allele combinations observed at a known purity
+        double purity = 0.6;
+        int[][] copyNumbers = { {2, 1}, {3, 2}, {1, 1}, {4, 2}, {2, 2}, {3, 3}, {2, 1}, {4, 3} };
+
+        List<ObservedRegion> observedRegions = Lists.newArrayList();
+        String chromosome = HumanChromosome._1.toString();
+
+        for(int i = 0; i < copyNumbers.length; ++i)
+        {
+            int copyNumber = copyNumbers[i][0];
+            int majorAllele = copyNumbers[i][1];
+            double totalCopies = 2 * (1 - purity) + purity * copyNumber;
+            double baf = ((1 - purity) + purity * majorAllele) / totalCopies;
+
+            observedRegions.add(createObservedRegion(
+                    chromosome, i * 1000 + 1, (i + 1) * 1000, baf, totalCopies / 2, GermlineStatus.DIPLOID, copyNumber));
+        }
+
+        List<FittedPurity> exhaustiveFits = runPurityFit(buildDefaultConfigBuilder(), observedRegions);
+
+        ConfigBuilder configBuilder = buildDefaultConfigBuilder();
+        configBuilder.setValue(ADAPTIVE_FIT_SEARCH, true);
+        List<FittedPurity> adaptiveFits = runPurityFit(configBuilder, observedRegions);
+
+        assertTrue(adaptiveFits.size() < exhaustiveFits.size());
+        assertEquals(exhaustiveFits.get(0), adaptiveFits.get(0));
+
+        // every candidate in range of the best score is still found
+        Predicate<FittedPurity> inRange = PurityPloidyFitter.inRangeOfLowest(exhaustiveFits.get(0).score());
+        List<FittedPurity> exhaustiveCandidates = exhaustiveFits.stream().filter(inRange).collect(Collectors.toList());
+        List<FittedPurity> adaptiveCandidates = adaptiveFits.stream().filter(inRange).collect(Collectors.toList());
+        assertEquals(exhaustiveCandidates, adaptiveCandidates);
+    }
+
+    @Test
+    public void testAdaptiveSearchWithSomaticFit() throws Exception
+    {
+        // a highly diploid sample with a hotspot somatic, so the somatic fit reads the most diploid fit at every purity
+        double purity = 0.3;
+        List<ObservedRegion> observedRegions = Lists.newArrayList();
+        String chromosome = HumanChromosome._1.toString();
+
+        for(int i = 0; i < 40; ++i)
+        {
+            observedRegions.add(createObservedRegion(
+                    chromosome, i * 1000 + 1, (i + 1) * 1000, 0.5, 1, GermlineStatus.DIPLOID, 2));
+        }
+
+        double totalCopies = 2 * (1 - purity) + purity * 3;
+        double baf = ((1 - purity) + purity * 2) / totalCopies;
+
+        observedRegions.add(createObservedRegion(
+                chromosome, 40001, 41000, baf, totalCopies / 2, GermlineStatus.DIPLOID, 3));
+
+        // a heterozygous hotspot with a VAF implying a purity of 0.6, away from the copy number fit
+        VariantContext context = new VariantContextBuilder(
+                createVariant(VariantType.SNP, CodingEffect.MISSENSE, 0, Hotspot.HOTSPOT, 0.3).context())
+                .genotypes(new GenotypeBuilder(SAMPLE_ID).AD(new int[] { 70, 30 }).DP(100).make())
+                .attribute(VariantTier.TIER, VariantTier.HOTSPOT.toString())
+                .make();
+
+        SomaticVariant variant = new SomaticVariant(context, SAMPLE_ID, null);
+        mSomaticCache.variants().add(variant);
+
+        ConfigBuilder adaptiveConfigBuilder = buildDefaultConfigBuilder();
+        adaptiveConfigBuilder.setValue(ADAPTIVE_FIT_SEARCH, true);
+
+        // the adaptive search alone skips purities
+        List<FittedPurity> exhaustiveFits = runPurityFit(buildDefaultConfigBuilder(), observedRegions);
+        List<FittedPurity> adaptiveFits = runPurityFit(adaptiveConfigBuilder, observedRegions);
+        assertTrue(adaptiveFits.size() < exhaustiveFits.size());
+
+        BestFit exhaustiveFit = runFitter(buildDefaultConfigBuilder(), observedRegions);
+        BestFit adaptiveFit = runFitter(adaptiveConfigBuilder, observedRegions);
+
+        assertEquals(FittedPurityMethod.SOMATIC, exhaustiveFit.Method);
+        assertEquals(exhaustiveFit.Method, adaptiveFit.Method);
+        assertEquals(exhaustiveFit.Fit, adaptiveFit.Fit);
+
+        // the full purity grid is scored once a somatic fit may follow
+        assertEquals(exhaustiveFit.AllFits, adaptiveFit.AllFits);
+    }
+
+    private BestFit runFitter(final ConfigBuilder configBuilder, final List<ObservedRegion> observedRegions)
+    {
+        PurpleConfig config = PurpleTestUtils.buildPurpleConfig(configBuilder);
+
+        PurityPloidyFitter fitter = new PurityPloidyFitter(
+                config, mReferenceData, mSampleData, null, mRegionFitCalculator, observedRegions, mSegmentation);
+
+        fitter.run();
+        return fitter.finalFit();
+    }
+
+    private List<FittedPurity> runPurityFit(final ConfigBuilder configBuilder, final List<ObservedRegion> observedRegions) throws Exception
+    {
+        PurpleConfig config = PurpleTestUtils.buildPurpleConfig(configBuilder);
+
+        FittedPurityFactory fittedPurityFactory = new FittedPurityFactory(
+                config, null, mCobaltData.CobaltChromosomes, mRegionFitCalculator, observedRegions, Collections.emptyList());
+
+        fittedPurityFactory.fitPurity();
+        return fittedPurityFactory.getFittedPurities();
+    }
+
     @Test
     public void testMostDiploidPurity()
     {
@@ -0,0 +1,117 @@
+package com.hartwig.hmftools.purple.somatic;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.variant.PurpleVcfTags.PURPLE_BIALLELIC_FLAG;
+import static com.hartwig.hmftools.common.variant.PurpleVcfTags.PURPLE_VARIANT_CN;
+import static com.hartwig.hmftools.purple.MiscTestUtils.REF_SAMPLE_ID;
+import static com.hartwig.hmftools.purple.MiscTestUtils.SAMPLE_ID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.vcf.VCFConstants;
+
+public class SomaticGenotypeEnrichmentTest
+{
+    private static final Allele REF_ALLELE = Allele.create("A", true);
+    private static final Allele ALT_ALLELE = Allele.create("T", false);
+
+    @Test
+    public void testDroppedGenotypesRestored()
+    {
+        VariantContext sourceContext = createContext();
+        SomaticVariant variant = new SomaticVariant(createContext(), SAMPLE_ID, REF_SAMPLE_ID);
+
+        variant.dropGenotypes();
+
+        assertFalse(variant.context().hasGenotypes());
+        assertEquals(10, variant.alleleReadCount());
+        assertEquals(40, variant.totalReadCount());
+        assertEquals(2, variant.referenceAlleleReadCount());
+        assertEquals(0.25, variant.tumorGenotypeAlleleFrequency(), 0.001);
+
+        // enrichment after loading is kept when the genotypes are restored
+        variant.context().getCommonInfo().putAttribute(PURPLE_VARIANT_CN, 1.5);
+
+        SomaticGenotypeEnrichment genotypeEnrichment = new SomaticGenotypeEnrichment(REF_SAMPLE_ID, SAMPLE_ID);
+        VariantContext enrichedContext = genotypeEnrichment.enrichGenotypes(variant, sourceContext);
+
+        assertEquals(1.5, enrichedContext.getAttributeAsDouble(PURPLE_VARIANT_CN, 0), 0.001);
+
+        Genotype refGenotype = enrichedContext.getGenotype(REF_SAMPLE_ID);
+        assertEquals(List.of(REF_ALLELE, REF_ALLELE), refGenotype.getAlleles());
+        assertEquals(2, refGenotype.getAD()[1]);
+
+        Genotype tumorGenotype = enrichedContext.getGenotype(SAMPLE_ID);
+        assertEquals(List.of(REF_ALLELE, ALT_ALLELE), tumorGenotype.getAlleles());
+        assertEquals(10, tumorGenotype.getAD()[1]);
+
+        // biallelic variants are marked as homozygous in the tumor
+        variant.context().getCommonInfo().putAttribute(PURPLE_BIALLELIC_FLAG, true);
+        enrichedContext = genotypeEnrichment.enrichGenotypes(variant, sourceContext);
+
+        assertEquals(List.of(ALT_ALLELE, ALT_ALLELE), enrichedContext.getGenotype(SAMPLE_ID).getAlleles());
+        assertTrue(variant.biallelic());
+        assertFalse(variant.context().hasGenotypes());
+    }
+
+    @Test
+    public void testFindSourceVariant()
+    {
+        // the source VCF holds a filtered record which was not cached, ahead of the cached variants
+        VariantContext filteredContext = new VariantContextBuilder(createContext(100)).filters(Set.of("minTumorQual")).make();
+        VariantContext sourceContext1 = createContext(200);
+        VariantContext sourceContext2 = createContext(300);
+
+        Iterator<VariantContext> sourceIter = List.of(filteredContext, sourceContext1, sourceContext2).iterator();
+
+        SomaticVariant variant1 = new SomaticVariant(createContext(200), SAMPLE_ID, REF_SAMPLE_ID);
+        SomaticVariant variant2 = new SomaticVariant(createContext(300), SAMPLE_ID, REF_SAMPLE_ID);
+
+        assertSame(sourceContext1, SomaticStream.findSourceVariant(sourceIter, variant1));
+        assertSame(sourceContext2, SomaticStream.findSourceVariant(sourceIter, variant2));
+
+        // a variant absent from the source VCF is not found
+        SomaticVariant absentVariant = new SomaticVariant(createContext(400), SAMPLE_ID, REF_SAMPLE_ID);
+        assertNull(SomaticStream.findSourceVariant(sourceIter, absentVariant));
+
+        sourceIter = List.of(filteredContext, sourceContext2).iterator();
+        assertNull(SomaticStream.findSourceVariant(sourceIter, variant1));
+    }
+
+    private static VariantContext createContext()
+    {
+        return createContext(100);
+    }
+
+    private static VariantContext createContext(int position)
+    {
+        Genotype refGenotype = new GenotypeBuilder(REF_SAMPLE_ID)
+                .AD(new int[] { 28, 2 }).DP(30).alleles(List.of(Allele.NO_CALL, Allele.NO_CALL)).make();
+
+        Genotype tumorGenotype = new GenotypeBuilder(SAMPLE_ID)
+                .AD(new int[] { 30, 10 }).DP(40).attribute(VCFConstants.ALLELE_FREQUENCY_KEY, 0.25)
+                .alleles(List.of(Allele.NO_CALL, Allele.NO_CALL)).make();
+
+        List<Allele> alleles = List.of(REF_ALLELE, ALT_ALLELE);
+
+        return new VariantContextBuilder()
+                .chr(CHR_1).start(position).alleles(alleles).computeEndFromAlleles(alleles, position)
+                .genotypes(List.of(refGenotype, tumorGenotype))
+                .make();
+    }
+}
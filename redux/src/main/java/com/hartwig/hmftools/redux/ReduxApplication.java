@@ -28,6 +28,7 @@ import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyser;
 import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyserConfig;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.PerformanceCounter;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.redux.common.FragmentStatus;
@@ -38,14 +39,17 @@ import com.hartwig.hmftools.redux.write.BamWriter;
 import com.hartwig.hmftools.redux.write.FileWriterCache;
 
 import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
 
 public class ReduxApplication
 {
     private final ReduxConfig mConfig;
+    private final MetricsRegistry mMetrics;
 
     public ReduxApplication(final ConfigBuilder configBuilder)
     {
         mConfig = new ReduxConfig(configBuilder);
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME, configBuilder);
     }
 
     public void run()
@@ -56,6 +60,7 @@ public class ReduxApplication
         RD_LOGGER.info("sample({}) starting duplicate marking", mConfig.SampleId);
 
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
 
         setReadLength();
 
@@ -70,49 +75,32 @@ public class ReduxApplication
             jitterAnalyser = new JitterAnalyser(jitterConfig, RD_LOGGER);
         }
 
-        FileWriterCache fileWriterCache = new FileWriterCache(mConfig, jitterAnalyser);
+        SamReader inputStream = mConfig.StreamInput ? StreamReader.openInputStream(mConfig) : null;
+
+        FileWriterCache fileWriterCache = new FileWriterCache(
+                mConfig, jitterAnalyser, inputStream != null ? inputStream.getFileHeader() : null);
 
         PartitionDataStore partitionDataStore = new PartitionDataStore(mConfig);
 
-        // partition all chromosomes
-        Queue<ChrBaseRegion> partitions = new ConcurrentLinkedQueue<>();
+        List<PartitionReader> partitionReaders;
+        long unmappedReads;
 
-        for(HumanChromosome chromosome : HumanChromosome.values())
+        if(inputStream != null)
         {
-            String chromosomeStr = mConfig.RefGenVersion.versionedChromosome(chromosome.toString());
+            StreamReader streamReader = new StreamReader(
+                    mConfig, fileWriterCache.getPartitionBamWriter("0"), fileWriterCache.getUnsortedBamWriter(), partitionDataStore);
 
-            if(mConfig.SpecificChrRegions.excludeChromosome(chromosomeStr))
-                continue;
-
-            List<ChrBaseRegion> chrPartitions = partitionChromosome(
-                    chromosomeStr, mConfig.RefGenVersion, mConfig.SpecificChrRegions.Regions, mConfig.PartitionSize);
+            streamReader.processStream(inputStream);
 
-            partitions.addAll(chrPartitions);
+            partitionReaders = Lists.newArrayList(streamReader.partitionReader());
+            unmappedReads = streamReader.unmappedReadCount() + streamReader.nonHumanContigReadCount();
         }
-
-        List<PartitionThread> partitionTasks = Lists.newArrayList();
-        List<Thread> workers = new ArrayList<>();
-
-        int partitionCount = partitions.size();
-
-        for(int i = 0; i < min(partitionCount, mConfig.Threads); ++i)
+        else
         {
-            PartitionThread partitionThread = new PartitionThread(i, mConfig, partitions, fileWriterCache, partitionDataStore);
-            partitionTasks.add(partitionThread);
-            workers.add(partitionThread);
+            partitionReaders = processPartitions(fileWriterCache, partitionDataStore);
+            unmappedReads = writeUnmappedReads(fileWriterCache);
         }
 
-        RD_LOGGER.debug("splitting {} partitions across {} threads", partitionCount, partitionTasks.size());
-
-        if(!runThreadTasks(workers))
-            System.exit(1);
-
-        RD_LOGGER.info("all partition tasks complete");
-
-        long unmappedReads = writeUnmappedReads(fileWriterCache);
-
-        List<PartitionReader> partitionReaders = partitionTasks.stream().map(x -> x.partitionReader()).collect(Collectors.toList());
-
         int maxLogFragments = (mConfig.RunChecks || mConfig.LogFinalCache) ? 100 : 0;
         int totalUnwrittenFragments = 0;
         ConsensusReads consensusReads = new ConsensusReads(mConfig.RefGenome);
@@ -211,9 +199,57 @@ public class ReduxApplication
 
         logPerformanceStats(combinedPerfCounters, partitionDataStore);
 
+        mMetrics.registerTimers(combinedPerfCounters);
+        mMetrics.addCount("TotalReads", combinedStats.TotalReads);
+        mMetrics.addCount("DuplicateReads", combinedStats.DuplicateReads);
+        mMetrics.addCount("DuplicateGroups", combinedStats.DuplicateGroups);
+        mMetrics.addCount("UnmappedReads", unmappedReads);
+        mMetrics.addCount("UnwrittenFragments", totalUnwrittenFragments);
+        mMetrics.writeMetrics(mConfig.OutputDir, mConfig.SampleId);
+
         RD_LOGGER.info("Mark duplicates complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
+    private List<PartitionReader> processPartitions(final FileWriterCache fileWriterCache, final PartitionDataStore partitionDataStore)
+    {
+        // partition all chromosomes
+        Queue<ChrBaseRegion> partitions = new ConcurrentLinkedQueue<>();
+
+        for(HumanChromosome chromosome : HumanChromosome.values())
+        {
+            String chromosomeStr = mConfig.RefGenVersion.versionedChromosome(chromosome.toString());
+
+            if(mConfig.SpecificChrRegions.excludeChromosome(chromosomeStr))
+                continue;
+
+            List<ChrBaseRegion> chrPartitions = partitionChromosome(
+                    chromosomeStr, mConfig.RefGenVersion, mConfig.SpecificChrRegions.Regions, mConfig.PartitionSize);
+
+            partitions.addAll(chrPartitions);
+        }
+
+        List<PartitionThread> partitionTasks = Lists.newArrayList();
+        List<Thread> workers = new ArrayList<>();
+
+        int partitionCount = partitions.size();
+
+        for(int i = 0; i < min(partitionCount, mConfig.Threads); ++i)
+        {
+            PartitionThread partitionThread = new PartitionThread(i, mConfig, partitions, fileWriterCache, partitionDataStore);
+            partitionTasks.add(partitionThread);
+            workers.add(partitionThread);
+        }
+
+        RD_LOGGER.debug("splitting {} partitions across {} threads", partitionCount, partitionTasks.size());
+
+        if(!runThreadTasks(workers))
+            System.exit(1);
+
+        RD_LOGGER.info("all partition tasks complete");
+
+        return partitionTasks.stream().map(x -> x.partitionReader()).collect(Collectors.toList());
+    }
+
     private long writeUnmappedReads(final FileWriterCache fileWriterCache)
     {
         if(mConfig.SpecificChrRegions.hasFilters() || !mConfig.WriteBam)
@@ -235,7 +271,7 @@ public class ReduxApplication
         // do the same for non-human contigs
         bamReader.queryNonHumanContigs((final SAMRecord record) ->
         {
-            processNonHumanContigReads(record, bamWriter);
+            processNonHumanContigRead(mConfig, record, bamWriter);
             nonHumanContigCount.incrementAndGet();
         });
 
@@ -247,7 +283,7 @@ public class ReduxApplication
         return unmappedCount.get() + nonHumanContigCount.get();
     }
 
-    private void processNonHumanContigReads(final SAMRecord record, final BamWriter bamWriter)
+    static void processNonHumanContigRead(final ReduxConfig config, final SAMRecord record, final BamWriter bamWriter)
     {
         // if these have a mate in a human chromosome, then they have been unmapped in that read, so do so here as well
         if(record.getReadPairedFlag() && !record.getMateUnmappedFlag() && HumanChromosome.contains(record.getMateReferenceName()))
@@ -255,7 +291,7 @@ public class ReduxApplication
             if(record.getSupplementaryAlignmentFlag())
                 return; // drop as per standard logic
 
-            boolean mateUnmapped = mConfig.UnmapRegions.mateInUnmapRegion(record);
+            boolean mateUnmapped = config.UnmapRegions.mateInUnmapRegion(record);
 
             // if the human-chromosome mate was unmapped (ie in an unmap region), then this read should also now be unmapped
             // otherwise it should be unmapped but leave its mate attributes as-is
@@ -275,6 +311,14 @@ public class ReduxApplication
         if(mConfig.readLength() > 0) // skip if set in config
             return;
 
+        if(mConfig.StreamInput)
+        {
+            // the stream cannot be sampled ahead of processing
+            RD_LOGGER.info("using default read length({}) for streamed input, set with -read_length", DEFAULT_READ_LENGTH);
+            mConfig.setReadLength(DEFAULT_READ_LENGTH);
+            return;
+        }
+
         // sample the BAM to determine read length
         BamSampler bamSampler = new BamSampler(mConfig.RefGenomeFile);
 
@@ -34,10 +34,12 @@ import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_DUPLEX_UMI_DEL
 import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_PARTITION_SIZE;
 import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_POS_BUFFER_SIZE;
 import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_READ_LENGTH;
+import static com.hartwig.hmftools.redux.common.Constants.DEFAULT_SORT_MAX_RECORDS;
 import static com.hartwig.hmftools.redux.common.Constants.UNMAP_MIN_HIGH_DEPTH;
 import static com.hartwig.hmftools.redux.write.ReadOutput.NONE;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -51,6 +53,7 @@ import com.hartwig.hmftools.common.genome.refgenome.RefGenomeVersion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.common.region.ExcludedRegions;
 import com.hartwig.hmftools.common.region.SpecificRegions;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.config.ConfigUtils;
 import com.hartwig.hmftools.redux.common.FilterReadsType;
@@ -68,6 +71,7 @@ public class ReduxConfig
 {
     public final String SampleId;
     public final List<String> BamFiles;
+    public final boolean StreamInput;
     public final String RefGenomeFile;
     public final RefGenomeVersion RefGenVersion;
     public final RefGenomeInterface RefGenome;
@@ -93,6 +97,8 @@ public class ReduxConfig
     public final int Threads;
 
     public final String BamToolPath;
+    public final boolean NativeSort;
+    public final int SortMaxRecords;
 
     // debug
     public final boolean KeepInterimBams;
@@ -118,6 +124,7 @@ public class ReduxConfig
     // config strings
     private static final String INPUT_BAM = "input_bam";
     private static final String BAM_FILE = "bam_file";
+    private static final String STREAM_INPUT = "stream_input";
     private static final String OUTPUT_BAM = "output_bam";
     private static final String PARTITION_SIZE = "partition_size";
     private static final String BUFFER_SIZE = "buffer_size";
@@ -129,6 +136,8 @@ public class ReduxConfig
     private static final String UNMAP_REGIONS = "unmap_regions";
     private static final String WRITE_STATS = "write_stats";
     private static final String DROP_DUPLICATES = "drop_duplicates";
+    private static final String NATIVE_SORT = "native_sort";
+    private static final String SORT_MAX_RECORDS = "sort_max_records";
 
     // debug
     public static final String KEEP_INTERIM_BAMS = "keep_interim_bams";
@@ -143,13 +152,23 @@ public class ReduxConfig
         mIsValid = true;
         SampleId = configBuilder.getValue(SAMPLE);
 
-        String bamFiles = configBuilder.hasValue(INPUT_BAM) ? configBuilder.getValue(INPUT_BAM) : configBuilder.getValue(BAM_FILE);
-        BamFiles = Arrays.stream(bamFiles.split(CONFIG_FILE_DELIM, -1)).collect(Collectors.toList());
+        StreamInput = configBuilder.hasFlag(STREAM_INPUT);
 
-        if(BamFiles.isEmpty())
+        if(StreamInput)
         {
-            RD_LOGGER.error("no BAM files configured");
-            System.exit(1);
+            BamFiles = Collections.emptyList();
+        }
+        else
+        {
+            String bamFiles = configBuilder.hasValue(INPUT_BAM) ? configBuilder.getValue(INPUT_BAM) : configBuilder.getValue(BAM_FILE);
+
+            if(bamFiles == null)
+            {
+                RD_LOGGER.error("no BAM files configured");
+                System.exit(1);
+            }
+
+            BamFiles = Arrays.stream(bamFiles.split(CONFIG_FILE_DELIM, -1)).collect(Collectors.toList());
         }
 
         RefGenomeFile = configBuilder.getValue(REF_GENOME);
@@ -171,10 +190,14 @@ public class ReduxConfig
         {
             OutputDir = pathFromFile(OutputBam);
         }
-        else
+        else if(!BamFiles.isEmpty())
         {
             OutputDir = pathFromFile(BamFiles.get(0));
         }
+        else
+        {
+            OutputDir = null;
+        }
 
         OutputId = configBuilder.getValue(OUTPUT_ID);
 
@@ -197,6 +220,8 @@ public class ReduxConfig
         mReadLength = configBuilder.getInteger(READ_LENGTH);
 
         BamToolPath = configBuilder.getValue(BAMTOOL_PATH);
+        NativeSort = configBuilder.hasFlag(NATIVE_SORT);
+        SortMaxRecords = configBuilder.getInteger(SORT_MAX_RECORDS);
 
         NoMateCigar = configBuilder.hasFlag(NO_MATE_CIGAR);
         UMIs = UmiConfig.from(configBuilder);
@@ -233,7 +258,7 @@ public class ReduxConfig
         LogReadType = ReadOutput.valueOf(configBuilder.getValue(READ_OUTPUTS, NONE.toString()));
 
         WriteBam = !configBuilder.hasFlag(NO_WRITE_BAM);
-        MultiBam = WriteBam && Threads > 1; // now on automatically
+        MultiBam = WriteBam && (Threads > 1 || StreamInput); // now on automatically, and streaming writes reads in sorted order
         KeepInterimBams = configBuilder.hasFlag(KEEP_INTERIM_BAMS);
 
         LogReadIds = parseLogReadIds(configBuilder);
@@ -252,6 +277,17 @@ public class ReduxConfig
         {
             RD_LOGGER.info("running debug options: read-checks({})", RunChecks);
         }
+
+        if(StreamInput)
+        {
+            RD_LOGGER.info("reading coordinate-sorted input from standard input");
+
+            if(Threads > 1)
+            {
+                RD_LOGGER.info("streamed input is processed by a single partition reader, threads({}) only apply to jitter analysis"
+                        + " and the final BAM sort and merge", Threads);
+            }
+        }
     }
 
     public boolean isValid() { return mIsValid; }
@@ -282,6 +318,7 @@ public class ReduxConfig
         configBuilder.addConfigItem(SAMPLE, true, SAMPLE_DESC);
         configBuilder.addPath(BAM_FILE, false, "BAM filename, deprecated, use 'input_bam' instead");
         configBuilder.addPaths(INPUT_BAM, false, "BAM file path, separated by ',' if multiple");
+        configBuilder.addFlag(STREAM_INPUT, "Read a coordinate-sorted SAM/BAM from standard input instead of an indexed BAM");
         configBuilder.addConfigItem(OUTPUT_BAM, false, "Output BAM filename");
         addRefGenomeConfig(configBuilder, true);
         configBuilder.addInteger(PARTITION_SIZE, "Partition size", DEFAULT_PARTITION_SIZE);
@@ -297,6 +334,8 @@ public class ReduxConfig
         configBuilder.addFlag(KEEP_INTERIM_BAMS, "Do no delete per-thread BAMs");
 
         BamToolName.addConfig(configBuilder);
+        configBuilder.addFlag(NATIVE_SORT, "Sort, merge and index the output BAM in-process instead of with the BAM tool");
+        configBuilder.addInteger(SORT_MAX_RECORDS, "Max reads held in memory across threads by in-process sort", DEFAULT_SORT_MAX_RECORDS);
 
         configBuilder.addFlag(FORM_CONSENSUS, "Form consensus reads from duplicate groups without UMIs");
         configBuilder.addFlag(NO_MATE_CIGAR, "Mate CIGAR not set by aligner, make no attempt to use it");
@@ -315,6 +354,7 @@ public class ReduxConfig
         addSpecificChromosomesRegionsConfig(configBuilder);
         configBuilder.addConfigItem(LOG_READ_IDS, LOG_READ_IDS_DESC);
         configBuilder.addFlag(PERF_DEBUG, PERF_DEBUG_DESC);
+        MetricsRegistry.registerConfig(configBuilder);
         configBuilder.addFlag(RUN_CHECKS, "Run duplicate mismatch checks");
         configBuilder.addFlag(LOG_FINAL_CACHE, "Log cached fragments on completion");
         configBuilder.addConfigItem(SPECIFIC_REGION_FILTER_TYPE, "Used with specific regions, to filter mates or supps");
@@ -329,6 +369,7 @@ public class ReduxConfig
         mIsValid = true;
         SampleId = "";
         BamFiles = Lists.newArrayList();
+        StreamInput = false;
         RefGenomeFile = null;
         OutputBam = null;
         OutputDir = null;
@@ -349,6 +390,8 @@ public class ReduxConfig
         SpecificRegionsFilterType = FilterReadsType.MATE_AND_SUPP;
 
         BamToolPath = null;
+        NativeSort = false;
+        SortMaxRecords = DEFAULT_SORT_MAX_RECORDS;
 
         UnmapRegions = new ReadUnmapper(Maps.newHashMap());
 
@@ -0,0 +1,203 @@
+package com.hartwig.hmftools.redux;
+
+import static com.hartwig.hmftools.common.region.PartitionUtils.partitionChromosome;
+import static com.hartwig.hmftools.redux.ReduxApplication.processNonHumanContigRead;
+import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
+import static com.hartwig.hmftools.redux.common.FragmentUtils.readToString;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+import com.hartwig.hmftools.redux.common.FragmentStatus;
+import com.hartwig.hmftools.redux.write.BamWriter;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamInputResource;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+public class StreamReader
+{
+    // marks duplicates on a coordinate-sorted SAM/BAM read from standard input, eg piped from an aligner's sort step - partitions are
+    // formed as reads arrive and each is processed and flushed by a single partition reader once the stream moves past it, so reads are
+    // written with bounded latency instead of after slicing an indexed BAM
+    // limitations: processing uses one thread regardless of the threads config, and since unmapped, other-contig and cached remaining
+    // reads go to the unsorted BAM, the usual end-of-run sort and merge still runs
+    private final ReduxConfig mConfig;
+    private final PartitionReader mPartitionReader;
+    private final BamWriter mUnsortedWriter;
+
+    private String mCurrentChromosome;
+    private List<ChrBaseRegion> mChromosomePartitions;
+    private int mNextPartitionIndex;
+    private ChrBaseRegion mCurrentPartition;
+    private int mLastPosition;
+    private final Set<String> mCompletedChromosomes;
+
+    private int mPartitionCount;
+    private long mUnmappedReadCount;
+    private long mNonHumanContigReadCount;
+
+    private static final int LOG_PARTITION_COUNT = 100;
+
+    public StreamReader(
+            final ReduxConfig config, final BamWriter bamWriter, final BamWriter unsortedWriter, final PartitionDataStore partitionDataStore)
+    {
+        mConfig = config;
+        mUnsortedWriter = unsortedWriter;
+        mPartitionReader = new PartitionReader(config, null, bamWriter, partitionDataStore);
+
+        mCurrentChromosome = "";
+        mChromosomePartitions = Collections.emptyList();
+        mNextPartitionIndex = 0;
+        mCurrentPartition = null;
+        mLastPosition = 0;
+        mCompletedChromosomes = Sets.newHashSet();
+
+        mPartitionCount = 0;
+        mUnmappedReadCount = 0;
+        mNonHumanContigReadCount = 0;
+    }
+
+    public static SamReader openInputStream(final ReduxConfig config)
+    {
+        return SamReaderFactory.makeDefault()
+                .referenceSequence(new File(config.RefGenomeFile))
+                .validationStringency(config.BamStringency)
+                .open(SamInputResource.of(System.in));
+    }
+
+    public PartitionReader partitionReader() { return mPartitionReader; }
+    public long unmappedReadCount() { return mUnmappedReadCount; }
+    public long nonHumanContigReadCount() { return mNonHumanContigReadCount; }
+
+    public void processStream(final SamReader samReader)
+    {
+        RD_LOGGER.info("reading coordinate-sorted input stream");
+
+        try(SAMRecordIterator iterator = samReader.iterator())
+        {
+            while(iterator.hasNext())
+            {
+                processRecord(iterator.next());
+            }
+        }
+
+        onStreamComplete();
+
+        RD_LOGGER.info("input stream complete, partitions({}) unmapped({}) otherContig({}) reads",
+                mPartitionCount, mUnmappedReadCount, mNonHumanContigReadCount);
+    }
+
+    public void processRecord(final SAMRecord record)
+    {
+        if(record.getReferenceName().equals(SAMRecord.NO_ALIGNMENT_REFERENCE_NAME))
+        {
+            // fully unmapped reads come last in a sorted stream
+            completePartition();
+
+            if(!mConfig.SpecificChrRegions.hasFilters())
+            {
+                mUnsortedWriter.writeRead(record, FragmentStatus.UNSET);
+                ++mUnmappedReadCount;
+            }
+
+            return;
+        }
+
+        String chromosome = record.getReferenceName();
+
+        if(!HumanChromosome.contains(chromosome))
+        {
+            if(!mConfig.SpecificChrRegions.hasFilters())
+            {
+                processNonHumanContigRead(mConfig, record, mUnsortedWriter);
+                ++mNonHumanContigReadCount;
+            }
+
+            return;
+        }
+
+        int position = record.getAlignmentStart();
+
+        if(!chromosome.equals(mCurrentChromosome))
+        {
+            completePartition();
+
+            if(!mCurrentChromosome.isEmpty())
+                mCompletedChromosomes.add(mCurrentChromosome);
+
+            if(mCompletedChromosomes.contains(chromosome))
+                exitUnsorted(record);
+
+            mCurrentChromosome = chromosome;
+            mLastPosition = 0;
+            mNextPartitionIndex = 0;
+
+            mChromosomePartitions = mConfig.SpecificChrRegions.excludeChromosome(chromosome) ?
+                    Collections.emptyList() :
+                    partitionChromosome(chromosome, mConfig.RefGenVersion, mConfig.SpecificChrRegions.Regions, mConfig.PartitionSize);
+        }
+        else if(position < mLastPosition)
+        {
+            exitUnsorted(record);
+        }
+
+        mLastPosition = position;
+
+        if(mCurrentPartition == null || position > mCurrentPartition.end())
+        {
+            completePartition();
+
+            // skip past any partitions without reads, and ignore reads outside the specified regions
+            while(mNextPartitionIndex < mChromosomePartitions.size() && mChromosomePartitions.get(mNextPartitionIndex).end() < position)
+            {
+                ++mNextPartitionIndex;
+            }
+
+            if(mNextPartitionIndex >= mChromosomePartitions.size())
+                return;
+
+            ChrBaseRegion partition = mChromosomePartitions.get(mNextPartitionIndex);
+
+            if(position < partition.start())
+                return;
+
+            ++mNextPartitionIndex;
+            mCurrentPartition = partition;
+            mPartitionReader.setupRegion(partition);
+        }
+
+        mPartitionReader.processRead(record);
+    }
+
+    public void onStreamComplete() { completePartition(); }
+
+    private void completePartition()
+    {
+        if(mCurrentPartition == null)
+            return;
+
+        mPartitionReader.postProcessRegion();
+        mCurrentPartition = null;
+
+        ++mPartitionCount;
+
+        if((mPartitionCount % LOG_PARTITION_COUNT) == 0)
+        {
+            RD_LOGGER.info("processed {} partitions, current chromosome({})", mPartitionCount, mCurrentChromosome);
+        }
+    }
+
+    private void exitUnsorted(final SAMRecord record)
+    {
+        RD_LOGGER.error("input stream is not coordinate-sorted, read: {}", readToString(record));
+        System.exit(1);
+    }
+}
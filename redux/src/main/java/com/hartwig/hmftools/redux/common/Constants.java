@@ -8,6 +8,9 @@ public class Constants
 
     public static final int DEFAULT_READ_LENGTH = 151;
 
+    // in-process sorting of the unsorted BAM, around 2-3GB of heap per 10M reads
+    public static final int DEFAULT_SORT_MAX_RECORDS = 10_000_000;
+
     // UMIs
     public static final int DEFAULT_MAX_UMI_BASE_DIFF = 1;
     public static final int MAX_IMBALANCED_UMI_BASE_DIFF = 4;
@@ -0,0 +1,154 @@
+package com.hartwig.hmftools.redux.common;
+
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.MATE_CIGAR_ATTRIBUTE;
+import static com.hartwig.hmftools.common.bam.SamRecordUtils.NO_POSITION;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.hartwig.hmftools.common.bam.SupplementaryReadData;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+
+// alignment details used by the unmapping checks - each of the read's cigar, mate cigar and supplementary attributes is parsed
+// at most once, and only if a check needs it
+public class ParsedAlignment
+{
+    private final SAMRecord mRead;
+
+    private int mClipLength;
+
+    private int mMateAlignedEnd;
+    private int mMateClipLength;
+
+    private List<SupplementaryReadData> mSupplementaries;
+    private int[] mSuppAlignedEnds;
+    private int[] mSuppClipLengths;
+
+    private static final int UNSET = -1;
+
+    public ParsedAlignment(final SAMRecord read)
+    {
+        mRead = read;
+        mClipLength = UNSET;
+        mMateAlignedEnd = UNSET;
+        mMateClipLength = 0;
+        mSupplementaries = null;
+        mSuppAlignedEnds = null;
+        mSuppClipLengths = null;
+    }
+
+    public SAMRecord read() { return mRead; }
+
+    public int clipLength()
+    {
+        // soft and hard-clipped bases
+        if(mClipLength == UNSET)
+        {
+            mClipLength = 0;
+
+            for(CigarElement element : mRead.getCigar().getCigarElements())
+            {
+                if(element.getOperator() == CigarOperator.S || element.getOperator() == CigarOperator.H)
+                    mClipLength += element.getLength();
+            }
+        }
+
+        return mClipLength;
+    }
+
+    public boolean hasMateCigar() { return mateAlignedEnd() != NO_POSITION; }
+
+    public int mateAlignedEnd()
+    {
+        if(mMateAlignedEnd == UNSET)
+        {
+            String mateCigar = mRead.getStringAttribute(MATE_CIGAR_ATTRIBUTE);
+
+            if(mateCigar != null)
+            {
+                int[] cigarValues = parseCigarStr(mRead.getMateAlignmentStart(), mateCigar);
+                mMateAlignedEnd = cigarValues[CIGAR_ALIGNED_END];
+                mMateClipLength = cigarValues[CIGAR_CLIP_LENGTH];
+            }
+            else
+            {
+                mMateAlignedEnd = NO_POSITION;
+            }
+        }
+
+        return mMateAlignedEnd;
+    }
+
+    public int mateClipLength()
+    {
+        mateAlignedEnd();
+        return mMateClipLength;
+    }
+
+    public List<SupplementaryReadData> supplementaries()
+    {
+        if(mSupplementaries == null)
+        {
+            List<SupplementaryReadData> supplementaries = SupplementaryReadData.extractAlignments(mRead);
+
+            if(supplementaries == null)
+            {
+                mSupplementaries = Collections.emptyList();
+            }
+            else
+            {
+                mSupplementaries = supplementaries;
+                mSuppAlignedEnds = new int[supplementaries.size()];
+                mSuppClipLengths = new int[supplementaries.size()];
+
+                for(int i = 0; i < supplementaries.size(); ++i)
+                {
+                    SupplementaryReadData suppData = supplementaries.get(i);
+                    int[] cigarValues = parseCigarStr(suppData.Position, suppData.Cigar);
+                    mSuppAlignedEnds[i] = cigarValues[CIGAR_ALIGNED_END];
+                    mSuppClipLengths[i] = cigarValues[CIGAR_CLIP_LENGTH];
+                }
+            }
+        }
+
+        return mSupplementaries;
+    }
+
+    public int suppAlignedEnd(int index) { return mSuppAlignedEnds[index]; }
+    public int suppClipLength(int index) { return mSuppClipLengths[index]; }
+
+    private static final int CIGAR_ALIGNED_END = 0;
+    private static final int CIGAR_CLIP_LENGTH = 1;
+
+    private static int[] parseCigarStr(final int alignmentStart, final String cigarStr)
+    {
+        // a single pass over the cigar string for both the aligned end and the soft and hard-clipped bases
+        int currentPosition = alignmentStart;
+        int clipLength = 0;
+        int elementLength = 0;
+
+        for(int i = 0; i < cigarStr.length(); ++i)
+        {
+            char c = cigarStr.charAt(i);
+
+            if(c >= '0' && c <= '9')
+            {
+                elementLength = elementLength * 10 + (c - '0');
+                continue;
+            }
+
+            if(c == 'M' || c == 'D' || c == 'N')
+                currentPosition += elementLength;
+            else if(c == 'S' || c == 'H')
+                clipLength += elementLength;
+
+            elementLength = 0;
+        }
+
+        // always pointing to the start of the next element, so need to move back a base
+        return new int[] { currentPosition - 1, clipLength };
+    }
+}
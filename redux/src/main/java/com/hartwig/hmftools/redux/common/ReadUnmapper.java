@@ -4,7 +4,6 @@ import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import static com.hartwig.hmftools.common.region.BaseRegion.binarySearch;
 import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
 import static com.hartwig.hmftools.common.region.BaseRegion.positionsWithin;
 import static com.hartwig.hmftools.common.region.ChrBaseRegion.getChromosomeFieldIndex;
@@ -43,6 +42,7 @@ import htsjdk.samtools.SAMRecord;
 public class ReadUnmapper
 {
     private final Map<String,List<HighDepthRegion>> mChrLocationsMap; // keyed by chromosome start
+    private final Map<String,UnmapRegionIndex> mChrRegionIndex;
     private boolean mEnabled;
     private final UnmapStats mStats;
 
@@ -62,6 +62,11 @@ public class ReadUnmapper
         mChrLocationsMap = chrLocationsMap;
         mEnabled = mChrLocationsMap != null && !mChrLocationsMap.isEmpty();
         mStats = new UnmapStats();
+
+        mChrRegionIndex = Maps.newHashMap();
+
+        if(mChrLocationsMap != null)
+            mChrLocationsMap.forEach((chromosome, regions) -> mChrRegionIndex.put(chromosome, new UnmapRegionIndex(regions)));
     }
 
     public List<HighDepthRegion> getRegions(final String chromosome)
@@ -92,14 +97,19 @@ public class ReadUnmapper
            - supplementaries - unmap if their primary or another associated supplementary will be, or if they need to be
          */
 
+        // the read's cigar, mate cigar and supplementary alignments are parsed on demand and at most once across the checks below
+        ParsedAlignment alignment = new ParsedAlignment(read);
+
         if(read.getReadPairedFlag())
-            return checkTransformPairedRead(read, regionState);
+            return checkTransformPairedRead(alignment, regionState);
         else
-            return checkTransformUnpairedRead(read, regionState);
+            return checkTransformUnpairedRead(alignment, regionState);
     }
 
-    private boolean checkTransformPairedRead(final SAMRecord read, final UnmapRegionState regionState)
+    private boolean checkTransformPairedRead(final ParsedAlignment alignment, final UnmapRegionState regionState)
     {
+        SAMRecord read = alignment.read();
+
         // first check the read's alignment itself
         boolean readUnmapped = read.getReadUnmappedFlag();
         boolean mateUnmapped = read.getMateUnmappedFlag();
@@ -113,7 +123,7 @@ public class ReadUnmapper
 
         if(!readUnmapped)
         {
-            UnmapReason unmapReason = checkUnmapRead(read, regionState);
+            UnmapReason unmapReason = checkUnmapRead(alignment, regionState);
 
             if(unmapReason != UnmapReason.NONE)
             {
@@ -140,7 +150,7 @@ public class ReadUnmapper
             else if(isSupplementary)
             {
                 // supplementaries are unmapped if their primary, or an associated supplementary, will be unmapped
-                unmapRead = checkUnmapSupplementaryRead(read);
+                unmapRead = checkUnmapSupplementaryRead(alignment);
             }
         }
 
@@ -152,7 +162,7 @@ public class ReadUnmapper
             return true;
         }
 
-        boolean unmapMate = !mateUnmapped && checkUnmapMate(read, regionState);
+        boolean unmapMate = !mateUnmapped && checkUnmapMate(alignment, regionState);
 
         if(unmapRead)
             unmapReadAlignment(read, mateUnmapped, unmapMate);
@@ -177,7 +187,7 @@ public class ReadUnmapper
 
         boolean unmapSuppAlignment = false;
 
-        if(!unmapRead && checkUnmapSupplementaryAlignments(read))
+        if(!unmapRead && checkUnmapSupplementaryAlignments(alignment))
         {
             clearSupplementaryAlignment(read);
             mStats.SuppAlignmentCount.incrementAndGet();
@@ -187,8 +197,10 @@ public class ReadUnmapper
         return unmapRead || unmapMate || unmapSuppAlignment;
     }
 
-    private boolean checkTransformUnpairedRead(final SAMRecord read, final UnmapRegionState regionState)
+    private boolean checkTransformUnpairedRead(final ParsedAlignment alignment, final UnmapRegionState regionState)
     {
+        SAMRecord read = alignment.read();
+
         // first check the read's alignment itself
         if(read.getReadUnmappedFlag())
             return false; // nothing to do and there won't be a supplementary
@@ -197,7 +209,7 @@ public class ReadUnmapper
 
         boolean unmapRead = false;
 
-        UnmapReason unmapReason = checkUnmapRead(read, regionState);
+        UnmapReason unmapReason = checkUnmapRead(alignment, regionState);
 
         if(unmapReason != UnmapReason.NONE)
         {
@@ -220,7 +232,7 @@ public class ReadUnmapper
         else if(isSupplementary)
         {
             // supplementaries are unmapped if their primary, or an associated supplementary, will be unmapped
-            unmapRead = checkUnmapSupplementaryRead(read);
+            unmapRead = checkUnmapSupplementaryRead(alignment);
         }
 
         if(unmapRead && isSupplementary)
@@ -243,7 +255,7 @@ public class ReadUnmapper
 
         boolean unmapSuppAlignment = false;
 
-        if(!unmapRead && checkUnmapSupplementaryAlignments(read))
+        if(!unmapRead && checkUnmapSupplementaryAlignments(alignment))
         {
             clearSupplementaryAlignment(read);
             mStats.SuppAlignmentCount.incrementAndGet();
@@ -261,10 +273,12 @@ public class ReadUnmapper
         NONE;
     }
 
-    private UnmapReason checkUnmapRead(final SAMRecord read, final UnmapRegionState regionState)
+    private UnmapReason checkUnmapRead(final ParsedAlignment alignment, final UnmapRegionState regionState)
     {
+        SAMRecord read = alignment.read();
+
         RegionMatchType matchType = findMaxDepthRegionOverlap(
-                read.getAlignmentStart(), read.getAlignmentEnd(), regionState.PartitionRegions, regionState, true);
+                read.getAlignmentStart(), read.getAlignmentEnd(), regionState.RegionIndex, regionState, true);
 
         if(matchType == RegionMatchType.NONE)
             return UnmapReason.NONE;
@@ -272,7 +286,7 @@ public class ReadUnmapper
         if(matchType == RegionMatchType.HIGH_DEPTH)
             return UnmapReason.HIGH_DEPTH;
 
-        if(getClipLengthFromCigarStr(read.getCigarString()) > UNMAP_MIN_SOFT_CLIP)
+        if(alignment.clipLength() > UNMAP_MIN_SOFT_CLIP)
             return UnmapReason.SOFT_CLIP;
 
         if(read.getReadPairedFlag() && isChimericRead(read, false))
@@ -281,9 +295,11 @@ public class ReadUnmapper
         return UnmapReason.NONE;
     }
 
-    private boolean checkUnmapMate(final SAMRecord read, final UnmapRegionState regionState)
+    private boolean checkUnmapMate(final ParsedAlignment alignment, final UnmapRegionState regionState)
     {
-        RegionMatchType matchType = mateMaxDepthRegionOverlap(read, regionState);
+        SAMRecord read = alignment.read();
+
+        RegionMatchType matchType = mateMaxDepthRegionOverlap(alignment, regionState);
 
         if(matchType == RegionMatchType.NONE)
             return false;
@@ -294,28 +310,18 @@ public class ReadUnmapper
         if(isChimericRead(read, true))
             return true;
 
-        if(read.hasAttribute(MATE_CIGAR_ATTRIBUTE))
-        {
-            final String mateCigar = read.getStringAttribute(MATE_CIGAR_ATTRIBUTE);
-
-            if(getClipLengthFromCigarStr(mateCigar) > UNMAP_MIN_SOFT_CLIP)
-                return true;
-        }
-
-        return false;
+        return alignment.hasMateCigar() && alignment.mateClipLength() > UNMAP_MIN_SOFT_CLIP;
     }
 
-    private boolean checkUnmapSupplementaryRead(final SAMRecord read)
+    private boolean checkUnmapSupplementaryRead(final ParsedAlignment alignment)
     {
         // a supplementary should be dropped if its primary satisfies the unmapping criteria
-        List<SupplementaryReadData> alignments = SupplementaryReadData.extractAlignments(read);
-
-        if(alignments == null)
-            return false;
+        List<SupplementaryReadData> supplementaries = alignment.supplementaries();
 
-        for(SupplementaryReadData suppData : alignments)
+        for(int i = 0; i < supplementaries.size(); ++i)
         {
-            RegionMatchType matchType = supplementaryMaxDepthRegionOverlap(suppData);
+            SupplementaryReadData suppData = supplementaries.get(i);
+            RegionMatchType matchType = supplementaryMaxDepthRegionOverlap(suppData, alignment.suppAlignedEnd(i));
 
             if(matchType == RegionMatchType.NONE)
                 continue;
@@ -323,48 +329,34 @@ public class ReadUnmapper
             if(matchType == RegionMatchType.HIGH_DEPTH)
                 return true;
 
-            if(getClipLengthFromCigarStr(suppData.Cigar) >= UNMAP_MIN_SOFT_CLIP)
+            if(alignment.suppClipLength(i) >= UNMAP_MIN_SOFT_CLIP)
                 return true;
 
-            if(isSupplementaryChimericRead(read, suppData))
+            if(isSupplementaryChimericRead(alignment.read(), suppData))
                 return true;
         }
 
         return false;
     }
 
-    private boolean checkUnmapSupplementaryAlignments(final SAMRecord read)
+    private boolean checkUnmapSupplementaryAlignments(final ParsedAlignment alignment)
     {
         // checks if any supplementary alignment qualifies for unmapping
-        List<SupplementaryReadData> alignments = SupplementaryReadData.extractAlignments(read);
+        List<SupplementaryReadData> supplementaries = alignment.supplementaries();
 
-        if(alignments == null)
-            return false;
-
-        for(SupplementaryReadData suppData : alignments)
+        for(int i = 0; i < supplementaries.size(); ++i)
         {
-            if(checkUnmapSupplementaryAlignment(suppData))
-                return true;
-        }
-
-        return false;
-    }
-
-    private boolean checkUnmapSupplementaryAlignment(final SupplementaryReadData suppData)
-    {
-        if(suppData == null)
-            return false;
-
-        RegionMatchType matchType = supplementaryMaxDepthRegionOverlap(suppData);
+            RegionMatchType matchType = supplementaryMaxDepthRegionOverlap(supplementaries.get(i), alignment.suppAlignedEnd(i));
 
-        if(matchType == RegionMatchType.NONE)
-            return false;
+            if(matchType == RegionMatchType.NONE)
+                continue;
 
-        if(matchType == RegionMatchType.HIGH_DEPTH)
-            return true;
+            if(matchType == RegionMatchType.HIGH_DEPTH)
+                return true;
 
-        if(getClipLengthFromCigarStr(suppData.Cigar) >= UNMAP_MIN_SOFT_CLIP)
-            return true;
+            if(alignment.suppClipLength(i) >= UNMAP_MIN_SOFT_CLIP)
+                return true;
+        }
 
         return false;
     }
@@ -380,20 +372,22 @@ public class ReadUnmapper
 
     public boolean mateInUnmapRegion(final SAMRecord read)
     {
-        return mateMaxDepthRegionOverlap(read, null) != RegionMatchType.NONE;
+        return mateMaxDepthRegionOverlap(new ParsedAlignment(read), null) != RegionMatchType.NONE;
     }
 
-    public RegionMatchType mateMaxDepthRegionOverlap(final SAMRecord read, @Nullable final UnmapRegionState regionState)
+    private RegionMatchType mateMaxDepthRegionOverlap(final ParsedAlignment alignment, @Nullable final UnmapRegionState regionState)
     {
+        SAMRecord read = alignment.read();
+
         // first check for a local mate vs the partition's unmapped regions
         boolean checkLocalRegions = false;
 
-        List<HighDepthRegion> mateRegions;
+        UnmapRegionIndex mateRegions;
 
         if(regionState != null && read.getMateReferenceName().equals(regionState.Partition.chromosome())
         && regionState.Partition.containsPosition(read.getMateAlignmentStart()))
         {
-            mateRegions = regionState.PartitionRegions;
+            mateRegions = regionState.RegionIndex;
             checkLocalRegions = true;
         }
         else
@@ -402,7 +396,7 @@ public class ReadUnmapper
             if(!HumanChromosome.contains(read.getMateReferenceName()))
                 return RegionMatchType.OTHER;
 
-            mateRegions = mChrLocationsMap.get(read.getMateReferenceName());
+            mateRegions = mChrRegionIndex.get(read.getMateReferenceName());
 
             if(mateRegions == null)
                 return RegionMatchType.NONE;
@@ -414,9 +408,9 @@ public class ReadUnmapper
         // coordinate check must be identical to how the mate checks itself, which requires knowledge of aligned bases
         int mateEnd;
 
-        if(read.hasAttribute(MATE_CIGAR_ATTRIBUTE))
+        if(alignment.hasMateCigar())
         {
-            mateEnd = getReadEndFromCigarStr(read.getMateAlignmentStart(), read.getStringAttribute(MATE_CIGAR_ATTRIBUTE));
+            mateEnd = alignment.mateAlignedEnd();
         }
         else
         {
@@ -430,13 +424,13 @@ public class ReadUnmapper
                 checkLocalRegions ? regionState : null, false);
     }
 
-    private RegionMatchType supplementaryMaxDepthRegionOverlap(final SupplementaryReadData suppReadData)
+    private RegionMatchType supplementaryMaxDepthRegionOverlap(final SupplementaryReadData suppReadData, int suppAlignedEnd)
     {
         // links to a non-human chromosome
         if(!HumanChromosome.contains(suppReadData.Chromosome))
             return RegionMatchType.OTHER;
 
-        final List<HighDepthRegion> suppRegions = mChrLocationsMap.get(suppReadData.Chromosome);
+        UnmapRegionIndex suppRegions = mChrRegionIndex.get(suppReadData.Chromosome);
 
         if(suppRegions == null)
             return RegionMatchType.NONE;
@@ -444,62 +438,46 @@ public class ReadUnmapper
         if(!isWithinRegionRange(suppReadData.Position, suppRegions))
             return RegionMatchType.NONE;
 
-        int readEnd = getReadEndFromCigarStr(suppReadData.Position, suppReadData.Cigar);
-        return findMaxDepthRegionOverlap(suppReadData.Position, readEnd, suppRegions, null, false);
+        return findMaxDepthRegionOverlap(suppReadData.Position, suppAlignedEnd, suppRegions, null, false);
     }
 
-    private static boolean isWithinRegionRange(final int readStart, final List<HighDepthRegion> regions)
+    private static boolean isWithinRegionRange(final int readStart, final UnmapRegionIndex regions)
     {
-        int startIndex = binarySearch(readStart, regions);
-        for(int i = startIndex; i < regions.size(); ++i)
-        {
-            HighDepthRegion region = regions.get(i);
-
-            if(positionsOverlap(readStart, readStart + READ_END_APPROX_BUFFER, region.start(), region.end()))
-                return true;
-
-            if(region.start() > readStart + READ_END_APPROX_BUFFER)
-                break;
-        }
-
-        return false;
+        return regions.overlapsRange(readStart, readStart + READ_END_APPROX_BUFFER);
     }
 
     private static final int NO_INDEX_MATCH = -1;
 
     private int checkRegionStateMatch(final int readStart, final int readEnd, final UnmapRegionState regionState)
     {
-        if(regionState == null || regionState.LastMatchedRegionIndex == null || regionState.PartitionRegions.isEmpty())
+        if(regionState == null || regionState.LastMatchedRegionIndex == null || regionState.RegionIndex.isEmpty())
             return NO_INDEX_MATCH;
 
         if(!positionsWithin(readStart, readEnd, regionState.Partition.start(), regionState.Partition.end()))
             return NO_INDEX_MATCH;
 
-        HighDepthRegion region = regionState.PartitionRegions.get(regionState.LastMatchedRegionIndex);
+        UnmapRegionIndex regions = regionState.RegionIndex;
+        int regionIndex = regionState.LastMatchedRegionIndex;
 
-        if(readStart < region.start())
+        if(readStart < regions.start(regionIndex))
         {
-            if(regionState.LastMatchedRegionIndex == 0)
-                return regionState.LastMatchedRegionIndex; // returning the first region is still valid since the read is within the partition
-
-            HighDepthRegion prevRegion = regionState.PartitionRegions.get(regionState.LastMatchedRegionIndex - 1);
+            if(regionIndex == 0)
+                return regionIndex; // returning the first region is still valid since the read is within the partition
 
-            return readStart >= prevRegion.start() ? regionState.LastMatchedRegionIndex - 1 : NO_INDEX_MATCH;
+            return readStart >= regions.start(regionIndex - 1) ? regionIndex - 1 : NO_INDEX_MATCH;
         }
 
-        if(region.containsPosition(readStart))
-            return regionState.LastMatchedRegionIndex;
+        if(regions.containsPosition(regionIndex, readStart))
+            return regionIndex;
 
-        if(regionState.LastMatchedRegionIndex >= regionState.PartitionRegions.size() - 1)
+        if(regionIndex >= regions.size() - 1)
             return NO_INDEX_MATCH;
 
-        HighDepthRegion nextRegion = regionState.PartitionRegions.get(regionState.LastMatchedRegionIndex + 1);
-
-        return readStart < nextRegion.start() ? regionState.LastMatchedRegionIndex : NO_INDEX_MATCH;
+        return readStart < regions.start(regionIndex + 1) ? regionIndex : NO_INDEX_MATCH;
     }
 
     private RegionMatchType findMaxDepthRegionOverlap(
-            final int readStart, final int readEnd, final List<HighDepthRegion> regions,
+            final int readStart, final int readEnd, final UnmapRegionIndex regions,
             @Nullable final UnmapRegionState regionState, boolean updateRegionState)
     {
         if(regions.isEmpty())
@@ -511,7 +489,7 @@ public class ReadUnmapper
 
         if(startIndex == NO_INDEX_MATCH)
         {
-            startIndex = binarySearch(readStart, regions);
+            startIndex = regions.floorIndex(readStart);
 
             if(updateRegionState)
                 regionState.LastMatchedRegionIndex = startIndex;
@@ -520,25 +498,27 @@ public class ReadUnmapper
         // in effect the binary search finds a current overlap or the previous region, so at most 2 regions will be tested
         for(int i = startIndex; i < regions.size(); ++i)
         {
-            HighDepthRegion region = regions.get(i);
-            if(region.start() > readEnd)
+            int regionStart = regions.start(i);
+            int regionEnd = regions.end(i);
+
+            if(regionStart > readEnd)
                 break;
 
-            if(!positionsOverlap(readStart, readEnd, region.start(), region.end()))
+            if(!positionsOverlap(readStart, readEnd, regionStart, regionEnd))
                 continue;
 
-            if(positionsWithin(readStart, readEnd, region.start(), region.end()))
+            if(positionsWithin(readStart, readEnd, regionStart, regionEnd))
             {
-                return region.maxDepth() >= UNMAP_MIN_HIGH_DEPTH ? RegionMatchType.HIGH_DEPTH : RegionMatchType.OTHER;
+                return regions.maxDepth(i) >= UNMAP_MIN_HIGH_DEPTH ? RegionMatchType.HIGH_DEPTH : RegionMatchType.OTHER;
             }
 
-            int overlapBases = min(region.end(), readEnd) - max(region.start(), readStart) + 1;
+            int overlapBases = min(regionEnd, readEnd) - max(regionStart, readStart) + 1;
             int readLength = readEnd - readStart + 1;
             int nonOverlappingBases = readLength - overlapBases;
 
             if(nonOverlappingBases < UNMAP_MAX_NON_OVERLAPPING_BASES)
             {
-                if(region.maxDepth() >= UNMAP_MIN_HIGH_DEPTH)
+                if(regions.maxDepth(i) >= UNMAP_MIN_HIGH_DEPTH)
                     return RegionMatchType.HIGH_DEPTH;
                 else
                     matchType = RegionMatchType.OTHER; // and continue searching for a better match
@@ -548,67 +528,6 @@ public class ReadUnmapper
         return matchType;
     }
 
-    private static int getReadEndFromCigarStr(final int readStart, final String cigarStr)
-    {
-        int currentPosition = readStart;
-        int elementLength = 0;
-
-        for(int i = 0; i < cigarStr.length(); ++i)
-        {
-            final char c = cigarStr.charAt(i);
-            final boolean isAddItem = (c == 'D' || c == 'M' || c == 'N');
-
-            if(isAddItem)
-            {
-                currentPosition += elementLength;
-                elementLength = 0;
-                continue;
-            }
-
-            final int digit = c - '0';
-            if(digit >= 0 && digit <= 9)
-            {
-                elementLength = elementLength * 10 + digit;
-            }
-            else
-            {
-                elementLength = 0;
-            }
-        }
-
-        // always pointing to the start of the next element, so need to move back a base
-        return currentPosition - 1;
-    }
-
-    @VisibleForTesting
-    public static int getClipLengthFromCigarStr(final String cigarStr)
-    {
-        int softClipCount = 0;
-        int elementLength = 0;
-        for(int i = 0; i < cigarStr.length(); ++i)
-        {
-            final char c = cigarStr.charAt(i);
-            if(c == 'S' || c == 'H')
-            {
-                softClipCount += elementLength;
-                elementLength = 0;
-                continue;
-            }
-
-            int digit = c - '0';
-            if(digit >= 0 && digit <= 9)
-            {
-                elementLength = elementLength * 10 + digit;
-            }
-            else
-            {
-                elementLength = 0;
-            }
-        }
-
-        return softClipCount;
-    }
-
     private static boolean isChimericRead(final SAMRecord record, boolean checkForMate)
     {
         boolean readUnmapped = record.getReadUnmappedFlag();
@@ -862,6 +781,7 @@ public class ReadUnmapper
         }
 
         regions.add(region);
+        mChrRegionIndex.put(chromosome, new UnmapRegionIndex(regions));
 
         mEnabled = true;
     }
@@ -0,0 +1,78 @@
+package com.hartwig.hmftools.redux.common;
+
+import java.util.List;
+
+// a chromosome's sorted, non-overlapping unmap regions held as primitive arrays for position lookups
+public class UnmapRegionIndex
+{
+    private final int[] mStarts;
+    private final int[] mEnds;
+    private final int[] mMaxDepths;
+
+    public UnmapRegionIndex(final List<HighDepthRegion> regions)
+    {
+        mStarts = new int[regions.size()];
+        mEnds = new int[regions.size()];
+        mMaxDepths = new int[regions.size()];
+
+        for(int i = 0; i < regions.size(); ++i)
+        {
+            HighDepthRegion region = regions.get(i);
+            mStarts[i] = region.start();
+            mEnds[i] = region.end();
+            mMaxDepths[i] = region.maxDepth();
+        }
+    }
+
+    public int size() { return mStarts.length; }
+    public boolean isEmpty() { return mStarts.length == 0; }
+
+    public int start(int index) { return mStarts[index]; }
+    public int end(int index) { return mEnds[index]; }
+    public int maxDepth(int index) { return mMaxDepths[index]; }
+
+    public boolean containsPosition(int index, int position) { return position >= mStarts[index] && position <= mEnds[index]; }
+
+    // index of the last region starting at or before the position, or zero if all start after it
+    public int floorIndex(int position)
+    {
+        int low = 0;
+        int high = mStarts.length - 1;
+        int floorIndex = 0;
+
+        while(low <= high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if(mStarts[mid] <= position)
+            {
+                floorIndex = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+
+        return floorIndex;
+    }
+
+    public boolean overlapsRange(int posStart, int posEnd)
+    {
+        if(mStarts.length == 0)
+            return false;
+
+        // regions don't overlap, so only the region at or before the start and the one following it can overlap the range
+        for(int i = floorIndex(posStart); i < mStarts.length; ++i)
+        {
+            if(mStarts[i] > posEnd)
+                break;
+
+            if(mEnds[i] >= posStart)
+                return true;
+        }
+
+        return false;
+    }
+}
@@ -10,12 +10,14 @@ public class UnmapRegionState
 {
     public final ChrBaseRegion Partition;
     public final List<HighDepthRegion> PartitionRegions;
+    public final UnmapRegionIndex RegionIndex;
     public Integer LastMatchedRegionIndex;
 
     public UnmapRegionState(final ChrBaseRegion partition, final List<HighDepthRegion> partitionRegions)
     {
         Partition = partition;
         PartitionRegions = partitionRegions;
+        RegionIndex = new UnmapRegionIndex(partitionRegions);
         LastMatchedRegionIndex = null;
     }
 
@@ -3,11 +3,12 @@ package com.hartwig.hmftools.redux.fastq;
 import static java.lang.Math.max;
 
 import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsStr;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.addThreadOptions;
+import static com.hartwig.hmftools.common.utils.TaskExecutor.parseThreads;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.OUTPUT_ID;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.addOutputOptions;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedReader;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createBufferedWriter;
-import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.createGzipBufferedWriter;
 import static com.hartwig.hmftools.common.utils.file.FileWriterUtils.parseOutputDir;
 import static com.hartwig.hmftools.redux.ReduxConfig.APP_NAME;
 import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
@@ -19,12 +20,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.codon.Nucleotides;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.config.ConfigUtils;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class FastqUmiExtracter
 {
@@ -37,6 +42,7 @@ public class FastqUmiExtracter
     private final String mAdapterSequence;
     private final String mAdapterSequenceReversed;
     private final Integer mSpecificRead;
+    private final int mThreads;
 
     private BufferedWriter mWriterR1;
     private BufferedWriter mWriterR2;
@@ -61,6 +67,7 @@ public class FastqUmiExtracter
         mAdapterSequence = configBuilder.getValue(ADAPTER_SEQUENCE);
 
         mSpecificRead = configBuilder.hasValue(SPECIFIC_READ) ? configBuilder.getInteger(SPECIFIC_READ) : null;
+        mThreads = parseThreads(configBuilder);
 
         if(mAdapterSequence != null)
         {
@@ -122,7 +129,7 @@ public class FastqUmiExtracter
     private static final char READ_ID_BREAK = ' ';
     private static final char READ_ID_DELIM = ':';
 
-    private BufferedWriter createOutputWriter(final String inputFile)
+    private BufferedWriter createOutputWriter(final String inputFile, @Nullable final ExecutorService executorService)
     {
         String fastqFile = inputFile.substring(inputFile.lastIndexOf(File.separator) + 1);
         int extensionIndex = fastqFile.contains("fastq") ? fastqFile.lastIndexOf(".fastq") : fastqFile.lastIndexOf(".fq");
@@ -130,7 +137,7 @@ public class FastqUmiExtracter
 
         try
         {
-            return outputFile.endsWith(".gz") ? createGzipBufferedWriter(outputFile) : createBufferedWriter(outputFile);
+            return createBufferedWriter(outputFile, executorService);
         }
         catch(IOException e)
         {
@@ -142,13 +149,17 @@ public class FastqUmiExtracter
 
     private void processFiles(final String r1File, final String r2File)
     {
+        // block-gzipped inputs and outputs are inflated and compressed across the threads
+        ExecutorService executorService = mThreads > 1 ?
+                Executors.newFixedThreadPool(mThreads, new ThreadFactoryBuilder().setNameFormat("fastq-bgzf-%d").build()) : null;
+
         try
         {
-            mWriterR1 = createOutputWriter(r1File);
-            mWriterR2 = createOutputWriter(r2File);
+            mWriterR1 = createOutputWriter(r1File, executorService);
+            mWriterR2 = createOutputWriter(r2File, executorService);
 
-            BufferedReader r1Reader = createBufferedReader(r1File);
-            BufferedReader r2Reader = createBufferedReader(r2File);
+            BufferedReader r1Reader = createBufferedReader(r1File, executorService);
+            BufferedReader r2Reader = createBufferedReader(r2File, executorService);
 
             int lineCount = 0;
 
@@ -192,6 +203,8 @@ public class FastqUmiExtracter
                 }
             }
 
+            r1Reader.close();
+            r2Reader.close();
             mWriterR1.close();
             mWriterR2.close();
         }
@@ -201,6 +214,9 @@ public class FastqUmiExtracter
             e.printStackTrace();
             System.exit(1);
         }
+
+        if(executorService != null)
+            executorService.shutdown();
     }
 
     private boolean processReadBases(final String[] r1ReadBuffer, final String[] r2ReadBuffer)
@@ -337,6 +353,7 @@ public class FastqUmiExtracter
         configBuilder.addInteger(ADAPTER_LENGTH, "Adapter length", 0);
 
         addOutputOptions(configBuilder);
+        addThreadOptions(configBuilder);
         ConfigUtils.addLoggingOptions(configBuilder);
 
         configBuilder.checkAndParseCommandLine(args);
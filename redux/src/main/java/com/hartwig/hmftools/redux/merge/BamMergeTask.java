@@ -1,6 +1,7 @@
 package com.hartwig.hmftools.redux.merge;
 
 import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
+import static com.hartwig.hmftools.redux.merge.BamMerger.openBam;
 
 import java.io.File;
 import java.util.List;
@@ -13,7 +14,6 @@ import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMFileWriter;
 import htsjdk.samtools.SAMFileWriterFactory;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
 
 public class BamMergeTask extends Thread
 {
@@ -176,7 +176,7 @@ public class BamMergeTask extends Thread
     private SAMFileWriter initialiseWriter(final String outputBam)
     {
         String sampleBam = mInputBams.get(0);
-        SamReader samReader = SamReaderFactory.makeDefault().referenceSequence(new File(mRefGenomeFile)).open(new File(sampleBam));
+        SamReader samReader = openBam(mRefGenomeFile, sampleBam, false);
 
         SAMFileHeader fileHeader = samReader.getFileHeader().clone();
 
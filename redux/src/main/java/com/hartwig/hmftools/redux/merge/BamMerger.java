@@ -10,20 +10,27 @@ import static com.hartwig.hmftools.common.utils.file.FileDelimiters.BAM_EXTENSIO
 import static com.hartwig.hmftools.common.utils.file.FileDelimiters.BAM_INDEX_EXTENSION;
 import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
 
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.bam.BamOperations;
 import com.hartwig.hmftools.common.bam.BamToolName;
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeSource;
 
+import htsjdk.samtools.BAMIndexer;
+import htsjdk.samtools.BamFileIoUtils;
 import htsjdk.samtools.QueryInterval;
 import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
 
 public class BamMerger
 {
@@ -57,8 +64,19 @@ public class BamMerger
         buildIndexFiles();
 
         // collect all unique sequences from the BAMs
-        RefGenomeSource refGenome = loadRefGenome(mRefGenomeFile);
-        List<SAMSequenceRecord> sequences = refGenome.refGenomeFile().getSequenceDictionary().getSequences();
+        List<SAMSequenceRecord> sequences;
+
+        if(mRefGenomeFile != null)
+        {
+            RefGenomeSource refGenome = loadRefGenome(mRefGenomeFile);
+            sequences = refGenome.refGenomeFile().getSequenceDictionary().getSequences();
+        }
+        else
+        {
+            SamReader samReader = openBam(mRefGenomeFile, mInputBams.get(0), false);
+            sequences = samReader.getFileHeader().getSequenceDictionary().getSequences();
+            closeBam(samReader);
+        }
 
         int sequenceInfoCount = mThreads;
         List<SequenceInfo> sequenceIntervals = formSequenceIntervals(sequences, mOutputBamPrefix, sequenceInfoCount);
@@ -151,9 +169,6 @@ public class BamMerger
 
     private void buildIndexFiles()
     {
-        if(mBamToolPath == null)
-            return;
-
         List<String> bamMissingIndexFiles = Lists.newArrayList();
 
         for(String inputBam : mInputBams)
@@ -169,6 +184,12 @@ public class BamMerger
 
         RD_LOGGER.debug("building index files for {} files", bamMissingIndexFiles.size());
 
+        if(mBamToolPath == null)
+        {
+            bamMissingIndexFiles.forEach(x -> indexBamInProcess(mRefGenomeFile, x));
+            return;
+        }
+
         BamToolName bamToolName = BamToolName.fromPath(mBamToolPath);
 
         for(String inputBam : bamMissingIndexFiles)
@@ -178,6 +199,37 @@ public class BamMerger
         }
     }
 
+    protected static SamReader openBam(final String refGenomeFile, final String bamFile, boolean includeSource)
+    {
+        SamReaderFactory readerFactory = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT);
+
+        if(refGenomeFile != null)
+            readerFactory.referenceSequence(new File(refGenomeFile));
+
+        if(includeSource)
+            readerFactory.enable(SamReaderFactory.Option.INCLUDE_SOURCE_IN_RECORDS);
+
+        return readerFactory.open(new File(bamFile));
+    }
+
+    private static void indexBamInProcess(final String refGenomeFile, final String bamFile)
+    {
+        // used when no BAM tool is configured
+        SamReader samReader = openBam(refGenomeFile, bamFile, true);
+        BAMIndexer.createIndex(samReader, new File(bamFile + BAM_INDEX_EXTENSION));
+
+        closeBam(samReader);
+    }
+
+    private static void closeBam(final SamReader samReader)
+    {
+        try
+        {
+            samReader.close();
+        }
+        catch(Exception e) {}
+    }
+
     protected static String formBamFilename(final String outputBamPrefix, final String bamFileId)
     {
         return outputBamPrefix + "_seq" + bamFileId + BAM_EXTENSION;
@@ -201,11 +253,22 @@ public class BamMerger
         String unmappedBam = formBamFilename(mOutputBamPrefix, UNMAPPED_READS);
         interimBams.add(unmappedBam);
 
-        BamToolName bamToolName = BamToolName.fromPath(mBamToolPath);
-        BamOperations.concatenateBams(bamToolName, mBamToolPath, finalBam, interimBams, mThreads);
+        if(mBamToolPath == null)
+        {
+            // the interim BAMs cover consecutive regions so their BGZF blocks can be copied without decompression
+            BamFileIoUtils.gatherWithBlockCopying(
+                    interimBams.stream().map(x -> new File(x)).collect(Collectors.toList()), new File(finalBam), false, false);
 
-        if(!BamOperations.indexBam(bamToolName, mBamToolPath, finalBam, mThreads))
-            System.exit(1);
+            indexBamInProcess(mRefGenomeFile, finalBam);
+        }
+        else
+        {
+            BamToolName bamToolName = BamToolName.fromPath(mBamToolPath);
+            BamOperations.concatenateBams(bamToolName, mBamToolPath, finalBam, interimBams, mThreads);
+
+            if(!BamOperations.indexBam(bamToolName, mBamToolPath, finalBam, mThreads))
+                System.exit(1);
+        }
 
         if(!mKeepInterimBams)
         {
@@ -3,8 +3,7 @@ package com.hartwig.hmftools.redux.merge;
 import static java.lang.String.format;
 
 import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
-
-import static htsjdk.samtools.ValidationStringency.SILENT;
+import static com.hartwig.hmftools.redux.merge.BamMerger.openBam;
 
 import java.io.File;
 
@@ -12,7 +11,6 @@ import htsjdk.samtools.QueryInterval;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SAMRecordIterator;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
 
 public class BamSequenceReader
 {
@@ -30,9 +28,7 @@ public class BamSequenceReader
     {
         File file = new File(bamFile);
         mFilename = file.getName();
-        mSamReader = SamReaderFactory.makeDefault()
-                .validationStringency(SILENT)
-                .referenceSequence(new File(refGenomeFile)).open(file);
+        mSamReader = openBam(refGenomeFile, bamFile, false);
 
         mSequenceInfo = sequenceInfo;
 
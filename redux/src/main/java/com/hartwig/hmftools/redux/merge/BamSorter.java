@@ -0,0 +1,235 @@
+package com.hartwig.hmftools.redux.merge;
+
+import static java.lang.Math.max;
+
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.BAM_EXTENSION;
+import static com.hartwig.hmftools.common.utils.file.FileDelimiters.BAM_INDEX_EXTENSION;
+import static com.hartwig.hmftools.redux.ReduxConfig.RD_LOGGER;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordCoordinateComparator;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReader;
+
+public class BamSorter
+{
+    private final String mUnsortedBam;
+    private final List<String> mSortedBams; // already coordinate-sorted BAMs, merged in with the sorted spill files
+    private final String mOutputBam;
+    private final String mRefGenomeFile;
+    private final int mThreads;
+    private final int mMaxRecords;
+    private final boolean mKeepInterimBams;
+
+    private final List<String> mSpillBams;
+    private long mRecordCount;
+
+    private static final SAMRecordCoordinateComparator READ_COMPARATOR = new SAMRecordCoordinateComparator();
+
+    // spill files are short-lived so favour speed over size
+    private static final int SPILL_COMPRESSION_LEVEL = 1;
+
+    private static final int LOG_COUNT = 10_000_000;
+
+    public BamSorter(
+            final String unsortedBam, final List<String> sortedBams, final String outputBam, final String refGenomeFile,
+            int threads, int maxRecords, boolean keepInterimBams)
+    {
+        mUnsortedBam = unsortedBam;
+        mSortedBams = sortedBams;
+        mOutputBam = outputBam;
+        mRefGenomeFile = refGenomeFile;
+        mThreads = max(threads, 1);
+        mMaxRecords = maxRecords;
+        mKeepInterimBams = keepInterimBams;
+
+        mSpillBams = Lists.newArrayList();
+        mRecordCount = 0;
+    }
+
+    public boolean sortAndMerge()
+    {
+        try
+        {
+            RD_LOGGER.debug("sorting unsorted BAM({}) with maxRecords({}) threads({})",
+                    mUnsortedBam, mMaxRecords, mThreads);
+
+            if(!writeSortedSpillBams())
+                return false;
+
+            RD_LOGGER.debug("merging {} sorted spill BAMs and {} sorted BAMs, total unsorted reads({})",
+                    mSpillBams.size(), mSortedBams.size(), mRecordCount);
+
+            List<String> inputBams = Lists.newArrayList(mSpillBams);
+            inputBams.addAll(mSortedBams);
+
+            // the spill BAMs are indexed as they are written, so they can be merged by region in parallel like the per-thread BAMs
+            BamMerger bamMerger = new BamMerger(mOutputBam, inputBams, mRefGenomeFile, null, mThreads, mKeepInterimBams);
+
+            if(!bamMerger.merge())
+                return false;
+        }
+        catch(Exception e)
+        {
+            RD_LOGGER.error("in-process BAM sort-merge failed: {}", e.toString());
+            e.printStackTrace();
+            return false;
+        }
+        finally
+        {
+            if(!mKeepInterimBams)
+                deleteSpillBams();
+        }
+
+        RD_LOGGER.debug("in-process BAM sort-merge complete");
+
+        return true;
+    }
+
+    private boolean writeSortedSpillBams() throws Exception
+    {
+        // memory is bounded by the max records across the batches being sorted and written, plus the batch being filled
+        int batchSize = max(mMaxRecords / mThreads, 1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                mThreads, new ThreadFactoryBuilder().setNameFormat("bam-sort-%d").build());
+
+        Semaphore batchPermits = new Semaphore(mThreads);
+        List<Future<?>> spillTasks = Lists.newArrayList();
+
+        SamReader samReader = BamMerger.openBam(mRefGenomeFile, mUnsortedBam, false);
+        SAMFileHeader spillHeader = samReader.getFileHeader().clone();
+        spillHeader.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+
+        List<SAMRecord> records = Lists.newArrayListWithCapacity(batchSize);
+
+        try
+        {
+            SAMRecordIterator iter = samReader.iterator();
+
+            while(iter.hasNext())
+            {
+                records.add(iter.next());
+                ++mRecordCount;
+
+                if((mRecordCount % LOG_COUNT) == 0)
+                {
+                    RD_LOGGER.debug("sort reads processed({}) spillFiles({})", mRecordCount, mSpillBams.size());
+                }
+
+                if(records.size() >= batchSize)
+                {
+                    batchPermits.acquire();
+                    spillTasks.add(executorService.submit(new SpillTask(records, spillHeader, nextSpillBam(), batchPermits)));
+                    records = Lists.newArrayListWithCapacity(batchSize);
+                }
+            }
+
+            iter.close();
+            samReader.close();
+
+            if(!records.isEmpty() || mSpillBams.isEmpty())
+            {
+                batchPermits.acquire();
+                spillTasks.add(executorService.submit(new SpillTask(records, spillHeader, nextSpillBam(), batchPermits)));
+            }
+
+            for(Future<?> future : spillTasks)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executorService.shutdown();
+        }
+
+        return true;
+    }
+
+    private String nextSpillBam()
+    {
+        String outputPrefix = mOutputBam.substring(0, mOutputBam.indexOf(BAM_EXTENSION));
+        String spillBam = outputPrefix + ".sort_spill_" + mSpillBams.size() + BAM_EXTENSION;
+        mSpillBams.add(spillBam);
+        return spillBam;
+    }
+
+    private class SpillTask implements Callable<Void>
+    {
+        private final List<SAMRecord> mRecords;
+        private final SAMFileHeader mHeader;
+        private final String mSpillBam;
+        private final Semaphore mBatchPermits;
+
+        public SpillTask(final List<SAMRecord> records, final SAMFileHeader header, final String spillBam, final Semaphore batchPermits)
+        {
+            mRecords = records;
+            mHeader = header;
+            mSpillBam = spillBam;
+            mBatchPermits = batchPermits;
+        }
+
+        @Override
+        public Void call() throws Exception
+        {
+            try
+            {
+                // each spill file is compressed by its own thread
+                mRecords.sort(READ_COMPARATOR);
+
+                SAMFileWriter writer = new SAMFileWriterFactory()
+                        .setCompressionLevel(SPILL_COMPRESSION_LEVEL)
+                        .setCreateIndex(true)
+                        .makeBAMWriter(mHeader, true, new File(mSpillBam));
+
+                mRecords.forEach(x -> writer.addAlignment(x));
+                writer.close();
+
+                // htsjdk names the index by replacing the BAM extension, so align it with the convention of the BAM tools
+                String spillPrefix = mSpillBam.substring(0, mSpillBam.indexOf(BAM_EXTENSION));
+                Files.move(Paths.get(spillPrefix + BAM_INDEX_EXTENSION), Paths.get(mSpillBam + BAM_INDEX_EXTENSION),
+                        StandardCopyOption.REPLACE_EXISTING);
+
+                RD_LOGGER.trace("wrote sorted spill BAM({}) reads({})", mSpillBam, mRecords.size());
+
+                mRecords.clear();
+                return null;
+            }
+            finally
+            {
+                mBatchPermits.release();
+            }
+        }
+    }
+
+    private void deleteSpillBams()
+    {
+        for(String spillBam : mSpillBams)
+        {
+            try
+            {
+                Files.deleteIfExists(Paths.get(spillBam));
+                Files.deleteIfExists(Paths.get(spillBam + BAM_INDEX_EXTENSION));
+            }
+            catch(Exception e) {}
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hartwig.hmftools.redux.merge;
 
 import static com.hartwig.hmftools.redux.merge.BamMerger.UNMAPPED_READS;
 import static com.hartwig.hmftools.redux.merge.BamMerger.formBamFilename;
+import static com.hartwig.hmftools.redux.merge.BamMerger.openBam;
 
 import java.io.File;
 import java.util.List;
@@ -11,7 +12,6 @@ import htsjdk.samtools.SAMFileWriter;
 import htsjdk.samtools.SAMFileWriterFactory;
 import htsjdk.samtools.SAMRecordIterator;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
 
 public class UnmappedMergeTask extends Thread
 {
@@ -33,7 +33,7 @@ public class UnmappedMergeTask extends Thread
     public void run()
     {
         String sampleBam = mInputBams.get(0);
-        SamReader samReader = SamReaderFactory.makeDefault().referenceSequence(new File(mRefGenomeFile)).open(new File(sampleBam));
+        SamReader samReader = openBam(mRefGenomeFile, sampleBam, false);
 
         String unmappedBam = formBamFilename(mOutputBamPrefix, UNMAPPED_READS);
 
@@ -45,7 +45,7 @@ public class UnmappedMergeTask extends Thread
 
         for(String inputBam : mInputBams)
         {
-            SamReader bamReader = SamReaderFactory.makeDefault().referenceSequence(new File(mRefGenomeFile)).open(new File(inputBam));
+            SamReader bamReader = openBam(mRefGenomeFile, inputBam, false);
 
             SAMRecordIterator iterator = bamReader.queryUnmapped();
             while(iterator.hasNext())
@@ -10,6 +10,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.bam.BamOperations;
@@ -17,6 +18,7 @@ import com.hartwig.hmftools.common.bam.BamToolName;
 import com.hartwig.hmftools.common.basequal.jitter.JitterAnalyser;
 import com.hartwig.hmftools.redux.ReduxConfig;
 import com.hartwig.hmftools.redux.merge.BamMerger;
+import com.hartwig.hmftools.redux.merge.BamSorter;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -37,15 +39,23 @@ public class FileWriterCache
     private final BamWriter mSharedUnsortedWriter;
 
     private final JitterAnalyser mJitterAnalyser;
+    private final SAMFileHeader mInputHeader; // set when the input is streamed and so cannot be re-opened
 
     private static final String BAM_FILE_ID = "redux";
     private static final String SORTED_ID = "sorted";
     private static final String UNSORTED_ID = "unsorted";
 
     public FileWriterCache(final ReduxConfig config, @Nullable final JitterAnalyser jitterAnalyser)
+    {
+        this(config, jitterAnalyser, null);
+    }
+
+    public FileWriterCache(
+            final ReduxConfig config, @Nullable final JitterAnalyser jitterAnalyser, @Nullable final SAMFileHeader inputHeader)
     {
         mConfig = config;
         mJitterAnalyser = jitterAnalyser;
+        mInputHeader = inputHeader;
 
         mReadDataWriter = new ReadDataWriter(mConfig);
 
@@ -152,6 +162,21 @@ public class FileWriterCache
     }
 
     private SAMFileWriter initialiseSamFileWriter(final String filename, boolean isSorted)
+    {
+        SAMFileHeader fileHeader = mInputHeader != null ? mInputHeader.clone() : readInputHeader();
+
+        // note that while the sort order may be set to coordinate, the BAM writer is marked as presorted so
+        // the BAM will not actually be sorted by the SAMTools library
+        if(isSorted)
+            fileHeader.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        else
+            fileHeader.setSortOrder(SAMFileHeader.SortOrder.unsorted);
+
+        boolean presorted = isSorted;
+        return new SAMFileWriterFactory().makeBAMWriter(fileHeader, presorted, new File(filename));
+    }
+
+    private SAMFileHeader readInputHeader()
     {
         SamReader samReader = SamReaderFactory.makeDefault().referenceSequence(new File(mConfig.RefGenomeFile))
                 .open(new File(mConfig.BamFiles.get(0)));
@@ -178,18 +203,10 @@ public class FileWriterCache
             }
         }
 
-        // note that while the sort order may be set to coordinate, the BAM writer is marked as presorted so
-        // the BAM will not actually be sorted by the SAMTools library
-        if(isSorted)
-            fileHeader.setSortOrder(SAMFileHeader.SortOrder.coordinate);
-        else
-            fileHeader.setSortOrder(SAMFileHeader.SortOrder.unsorted);
-
-        boolean presorted = isSorted;
-        return new SAMFileWriterFactory().makeBAMWriter(fileHeader, presorted, new File(filename));
+        return fileHeader;
     }
 
-    public boolean runSortMergeIndex() { return mConfig.BamToolPath != null; }
+    public boolean runSortMergeIndex() { return mConfig.BamToolPath != null || mConfig.NativeSort; }
 
     private BamToolName bamToolName() { return BamToolName.fromPath(mConfig.BamToolPath); }
     private String bamToolPath() { return mConfig.BamToolPath; }
@@ -233,6 +250,25 @@ public class FileWriterCache
             }
         }
 
+        if(mConfig.NativeSort)
+        {
+            // sort the unsorted BAM via spill files and merge these directly with the per-thread sorted BAMs
+            List<String> sortedThreadBams = mBamWriters.stream()
+                    .filter(x -> x.isSorted()).map(x -> x.filename()).collect(Collectors.toList());
+
+            BamSorter bamSorter = new BamSorter(
+                    unsortedBamFilename, sortedThreadBams, finalBamFilename, mConfig.RefGenomeFile, mConfig.Threads,
+                    mConfig.SortMaxRecords, mConfig.KeepInterimBams);
+
+            if(!bamSorter.sortAndMerge())
+                return false;
+
+            if(!mConfig.KeepInterimBams)
+                deleteInterimBams(interimBams);
+
+            return true;
+        }
+
         // sort the unsorted sync'ed BAM
         SortBamTask sortBamTask = new SortBamTask(unsortedBamFilename, sortedBamFilename, mConfig.Threads);
         sortBamTask.call();
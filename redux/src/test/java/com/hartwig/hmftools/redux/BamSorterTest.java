@@ -0,0 +1,130 @@
+package com.hartwig.hmftools.redux;
+
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.SAM_DICTIONARY_V37;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.createSamRecord;
+import static com.hartwig.hmftools.redux.TestUtils.TEST_READ_BASES;
+import static com.hartwig.hmftools.redux.TestUtils.TEST_READ_CIGAR;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.redux.merge.BamSorter;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+public class BamSorterTest
+{
+    @Test
+    public void testSortAndMergeBams() throws Exception
+    {
+        Path tempDir = Files.createTempDirectory("redux_sort_test");
+
+        SAMFileHeader header = new SAMFileHeader();
+        header.setSequenceDictionary(SAM_DICTIONARY_V37);
+
+        Random random = new Random(0);
+
+        String unsortedBam = tempDir.resolve("unsorted.bam").toString();
+        header.setSortOrder(SAMFileHeader.SortOrder.unsorted);
+        SAMFileWriter writer = new SAMFileWriterFactory().makeBAMWriter(header, false, new File(unsortedBam));
+
+        int unsortedCount = 1000;
+
+        for(int i = 0; i < unsortedCount; ++i)
+        {
+            String chromosome = String.valueOf(1 + random.nextInt(3));
+            SAMRecord read = createSamRecord(
+                    "READ_" + i, chromosome, 1 + random.nextInt(10000), TEST_READ_BASES, TEST_READ_CIGAR, chromosome, 100,
+                    false, false, null);
+            read.setHeader(header);
+            writer.addAlignment(read);
+        }
+
+        int unmappedCount = 5;
+
+        for(int i = 0; i < unmappedCount; ++i)
+        {
+            SAMRecord read = createSamRecord(
+                    "UNMAPPED_" + i, "1", 100, TEST_READ_BASES, TEST_READ_CIGAR, "1", 100, false, false, null);
+            read.setHeader(header);
+            read.setReadUnmappedFlag(true);
+            read.setReferenceIndex(SAMRecord.NO_ALIGNMENT_REFERENCE_INDEX);
+            read.setAlignmentStart(SAMRecord.NO_ALIGNMENT_START);
+            read.setCigarString(SAMRecord.NO_ALIGNMENT_CIGAR);
+            read.setMateReferenceIndex(SAMRecord.NO_ALIGNMENT_REFERENCE_INDEX);
+            read.setMateAlignmentStart(SAMRecord.NO_ALIGNMENT_START);
+            read.setMateUnmappedFlag(true);
+            writer.addAlignment(read);
+        }
+
+        writer.close();
+
+        // a second BAM already sorted, as written by a per-thread sorted BAM writer
+        String sortedBam = tempDir.resolve("sorted.bam").toString();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        writer = new SAMFileWriterFactory().makeBAMWriter(header, true, new File(sortedBam));
+
+        int sortedCount = 100;
+
+        for(int i = 0; i < sortedCount; ++i)
+        {
+            SAMRecord read = createSamRecord(
+                    "SORTED_" + i, "2", 1 + i * 10, TEST_READ_BASES, TEST_READ_CIGAR, "2", 100, false, false, null);
+            read.setHeader(header);
+            writer.addAlignment(read);
+        }
+
+        writer.close();
+
+        String outputBam = tempDir.resolve("output.bam").toString();
+
+        // force multiple spill files
+        BamSorter bamSorter = new BamSorter(unsortedBam, List.of(sortedBam), outputBam, null, 2, 150, false);
+        assertTrue(bamSorter.sortAndMerge());
+
+        SamReader samReader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT).open(new File(outputBam));
+        assertTrue(samReader.hasIndex());
+
+        List<SAMRecord> reads = Lists.newArrayList();
+        samReader.iterator().forEachRemaining(reads::add);
+        samReader.close();
+
+        assertEquals(unsortedCount + sortedCount + unmappedCount, reads.size());
+
+        // unmapped reads are written after all mapped reads
+        assertEquals(unmappedCount, reads.stream().filter(x -> x.getReadUnmappedFlag()).count());
+        reads.subList(reads.size() - unmappedCount, reads.size()).forEach(x -> assertTrue(x.getReadUnmappedFlag()));
+        reads = reads.subList(0, reads.size() - unmappedCount);
+
+        Comparator<SAMRecord> positionComparator = Comparator.comparingInt(SAMRecord::getReferenceIndex)
+                .thenComparingInt(SAMRecord::getAlignmentStart);
+
+        for(int i = 1; i < reads.size(); ++i)
+        {
+            assertTrue(positionComparator.compare(reads.get(i - 1), reads.get(i)) <= 0);
+        }
+
+        // spill and merge interim files are removed
+        assertFalse(Files.list(tempDir).anyMatch(x -> x.toString().contains("spill") || x.toString().contains("_seq")));
+
+        Files.list(tempDir).forEach(x -> x.toFile().delete());
+        Files.deleteIfExists(tempDir);
+    }
+}
@@ -0,0 +1,73 @@
+package com.hartwig.hmftools.redux;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.common.test.SamRecordTestUtils.createSamRecord;
+import static com.hartwig.hmftools.redux.TestUtils.REF_BASES_REPEAT_40;
+import static com.hartwig.hmftools.redux.TestUtils.TEST_READ_BASES;
+import static com.hartwig.hmftools.redux.TestUtils.TEST_READ_CIGAR;
+
+import static org.junit.Assert.assertEquals;
+
+import com.hartwig.hmftools.common.test.MockRefGenome;
+import com.hartwig.hmftools.common.test.ReadIdGenerator;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class StreamReaderTest
+{
+    private final ReadIdGenerator mReadIdGen;
+    private final TestBamWriter mWriter;
+    private final StreamReader mStreamReader;
+
+    public StreamReaderTest()
+    {
+        mReadIdGen = new ReadIdGenerator();
+        MockRefGenome refGenome = new MockRefGenome();
+        refGenome.RefGenomeMap.put(CHR_1, REF_BASES_REPEAT_40);
+        refGenome.ChromosomeLengths.put(CHR_1, REF_BASES_REPEAT_40.length());
+
+        ReduxConfig config = new ReduxConfig(1000, 1000, refGenome, false, false, false);
+
+        mWriter = new TestBamWriter(config);
+        mStreamReader = new StreamReader(config, mWriter, new TestBamWriter(config), new PartitionDataStore(config));
+    }
+
+    @Test
+    public void testStreamedDuplicates()
+    {
+        // two duplicate fragments in the first partition and a non-duplicate in the next
+        SAMRecord read1 = createRead(mReadIdGen.nextId(), 100, 200, false);
+        SAMRecord read2 = createRead(mReadIdGen.nextId(), 100, 200, false);
+        SAMRecord mate1 = createRead(read1.getReadName(), 200, 100, true);
+        SAMRecord mate2 = createRead(read2.getReadName(), 200, 100, true);
+
+        SAMRecord read3 = createRead(mReadIdGen.nextId(), 1500, 1600, false);
+        SAMRecord mate3 = createRead(read3.getReadName(), 1600, 1500, true);
+
+        mStreamReader.processRecord(read1);
+        mStreamReader.processRecord(read2);
+        mStreamReader.processRecord(mate1);
+        mStreamReader.processRecord(mate2);
+
+        // moving into the next partition flushes the first one
+        mStreamReader.processRecord(read3);
+
+        assertEquals(4, mWriter.WrittenRecords.size());
+        assertEquals(2, mWriter.WrittenRecords.stream().filter(x -> x.getDuplicateReadFlag()).count());
+
+        mStreamReader.processRecord(mate3);
+        mStreamReader.onStreamComplete();
+
+        assertEquals(6, mWriter.WrittenRecords.size());
+        assertEquals(2, mWriter.WrittenRecords.stream().filter(x -> x.getDuplicateReadFlag()).count());
+    }
+
+    private static SAMRecord createRead(final String readId, int readStart, int mateStart, boolean isReversed)
+    {
+        return createSamRecord(
+                readId, CHR_1, readStart, TEST_READ_BASES, TEST_READ_CIGAR, CHR_1, mateStart, isReversed, false,
+                null, !isReversed, TEST_READ_CIGAR);
+    }
+}
@@ -27,7 +27,9 @@ import com.hartwig.hmftools.common.bam.SupplementaryReadData;
 import com.hartwig.hmftools.common.test.MockRefGenome;
 import com.hartwig.hmftools.common.test.SamRecordTestUtils;
 import com.hartwig.hmftools.redux.common.HighDepthRegion;
+import com.hartwig.hmftools.redux.common.ParsedAlignment;
 import com.hartwig.hmftools.redux.common.ReadUnmapper;
+import com.hartwig.hmftools.redux.common.UnmapRegionIndex;
 import com.hartwig.hmftools.redux.common.UnmapRegionState;
 import com.hartwig.hmftools.redux.consensus.ConsensusReadInfo;
 import com.hartwig.hmftools.redux.consensus.ConsensusReads;
@@ -63,13 +65,28 @@ public class UnmapReadsTest
     }
 
     @Test
-    public void testGetSoftClipCountFromCigarStr()
+    public void testParsedAlignmentClipLengths()
     {
-        assertEquals(0, ReadUnmapper.getClipLengthFromCigarStr("151M"));
-        assertEquals(10, ReadUnmapper.getClipLengthFromCigarStr("10S141M"));
-        assertEquals(10, ReadUnmapper.getClipLengthFromCigarStr("141M10S"));
-        assertEquals(12, ReadUnmapper.getClipLengthFromCigarStr("2S138M10S"));
-        assertEquals(12, ReadUnmapper.getClipLengthFromCigarStr("2H138M10H"));
+        assertEquals(0, mateClipLength("151M"));
+        assertEquals(10, mateClipLength("10S141M"));
+        assertEquals(10, mateClipLength("141M10S"));
+        assertEquals(12, mateClipLength("2S138M10S"));
+        assertEquals(12, mateClipLength("2H138M10H"));
+
+        SAMRecord read = SamRecordTestUtils.createSamRecord(
+                READ_ID, CHR_1, 100, READ_BASES, "2S88M10S", CHR_2, 600, false,
+                false, null, true, READ_CIGAR);
+
+        assertEquals(12, new ParsedAlignment(read).clipLength());
+    }
+
+    private static int mateClipLength(final String mateCigar)
+    {
+        SAMRecord read = SamRecordTestUtils.createSamRecord(
+                READ_ID, CHR_1, 100, READ_BASES, READ_CIGAR, CHR_2, 600, false,
+                false, null, true, mateCigar);
+
+        return new ParsedAlignment(read).mateClipLength();
     }
 
     @Test
@@ -621,6 +638,41 @@ public class UnmapReadsTest
         assertFalse(consensusReadInfo.ConsensusRead.getReadPairedFlag());
     }
 
+    @Test
+    public void testRegionIndexAndParsedAlignment()
+    {
+        UnmapRegionIndex regionIndex = new UnmapRegionIndex(CHR_LOCATION_MAP.get(CHR_4));
+
+        assertEquals(0, regionIndex.floorIndex(500));
+        assertEquals(0, regionIndex.floorIndex(2500));
+        assertEquals(1, regionIndex.floorIndex(3000));
+        assertEquals(3, regionIndex.floorIndex(10000));
+
+        assertTrue(regionIndex.overlapsRange(900, 1000));
+        assertTrue(regionIndex.overlapsRange(2500, 3100));
+        assertFalse(regionIndex.overlapsRange(2001, 2999));
+        assertFalse(regionIndex.overlapsRange(8001, 9000));
+
+        SAMRecord read = SamRecordTestUtils.createSamRecord(
+                READ_ID, CHR_1, 100, READ_BASES, "10S80M10H", CHR_2, 1000, false,
+                false, null, true, "5S50M10D45M");
+
+        read.setAttribute(SUPPLEMENTARY_ATTRIBUTE, "3,500,+,30S70M,60,0;4,2000,-,60M40S,60,0");
+
+        ParsedAlignment alignment = new ParsedAlignment(read);
+
+        assertEquals(20, alignment.clipLength());
+        assertTrue(alignment.hasMateCigar());
+        assertEquals(1104, alignment.mateAlignedEnd());
+        assertEquals(5, alignment.mateClipLength());
+
+        assertEquals(2, alignment.supplementaries().size());
+        assertEquals(569, alignment.suppAlignedEnd(0));
+        assertEquals(30, alignment.suppClipLength(0));
+        assertEquals(2059, alignment.suppAlignedEnd(1));
+        assertEquals(40, alignment.suppClipLength(1));
+    }
+
     private boolean checkTransformRead(final SAMRecord read, final String chromosome)
     {
         UnmapRegionState regionState = new UnmapRegionState(new ChrBaseRegion(
@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.sage;
 
+import static com.hartwig.hmftools.common.utils.PerformanceCounter.nanosToSeconds;
 import static com.hartwig.hmftools.common.utils.PerformanceCounter.runTimeMinsStr;
 import static com.hartwig.hmftools.common.utils.version.VersionInfo.appVersionFile;
 import static com.hartwig.hmftools.common.utils.version.VersionInfo.fromAppName;
@@ -12,12 +13,14 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 import com.hartwig.hmftools.sage.coverage.Coverage;
 import com.hartwig.hmftools.sage.evidence.FragmentLengths;
 import com.hartwig.hmftools.sage.phase.PhaseSetCounter;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
+import com.hartwig.hmftools.sage.pipeline.RegionResults;
 import com.hartwig.hmftools.sage.bqr.BaseQualityRecalibration;
 import com.hartwig.hmftools.sage.bqr.BqrRecordMap;
 import com.hartwig.hmftools.sage.quality.MsiJitterCalcs;
@@ -37,6 +40,7 @@ public class SageApplication implements AutoCloseable
     private final PhaseSetCounter mPhaseSetCounter;
     private final VcfWriter mVcfWriter;
     private final FragmentLengths mFragmentLengths;
+    private final MetricsRegistry mMetrics;
 
     private SageApplication(final ConfigBuilder configBuilder)
     {
@@ -63,20 +67,28 @@ public class SageApplication implements AutoCloseable
 
         mFragmentLengths = new FragmentLengths(mConfig.Common);
 
+        mMetrics = MetricsRegistry.fromConfig(APP_NAME, configBuilder);
+
         SG_LOGGER.info("writing to file: {}", mConfig.Common.OutputFile);
     }
 
     private void run() throws IOException
     {
         long startTimeMs = System.currentTimeMillis();
+        mMetrics.startResourceSampling();
+
         final Coverage coverage = new Coverage(mConfig.TumorIds, mRefData.CoveragePanel.values(), mConfig.Common);
 
         SageCommon.setReadLength(mConfig.Common, mRefData.PanelWithHotspots, mConfig.TumorBams.get(0));
 
+        long bqrStartNanos = System.nanoTime();
+
         BaseQualityRecalibration baseQualityRecalibration = new BaseQualityRecalibration(
                 mConfig.Common, mRefData.RefGenome, mConfig.PanelBed, mConfig.TumorIds, mConfig.TumorBams);
         baseQualityRecalibration.produceRecalibrationMap();
 
+        mMetrics.recordTime("BaseQualityRecalibration", nanosToSeconds(bqrStartNanos, System.nanoTime()));
+
         if(!baseQualityRecalibration.isValid())
             System.exit(1);
 
@@ -104,11 +116,19 @@ public class SageApplication implements AutoCloseable
                     chromosome, mConfig, mRefData, recalibrationMap, msiJitterCalcs, coverage, mPhaseSetCounter, mVcfWriter, mFragmentLengths);
 
             pipeline.process();
+
+            RegionResults regionResults = pipeline.regionResults();
+            mMetrics.registerTimers(regionResults.perfCounters());
+            mMetrics.addCount("Reads", regionResults.totalReads());
+            mMetrics.addCount("Candidates", regionResults.totalCandidates());
+            mMetrics.addCount("Variants", regionResults.totalVariants());
         }
 
         coverage.writeFiles(mConfig.Common.OutputFile);
         mFragmentLengths.close();
 
+        mMetrics.writeMetrics(mConfig.Common.outputDir(), mConfig.TumorIds.get(0));
+
         SG_LOGGER.info("Sage complete, mins({})", runTimeMinsStr(startTimeMs));
     }
 
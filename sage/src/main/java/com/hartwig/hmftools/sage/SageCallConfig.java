@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.MetricsRegistry;
 import com.hartwig.hmftools.common.utils.config.ConfigBuilder;
 
 import org.apache.logging.log4j.util.Strings;
@@ -120,6 +121,7 @@ public class SageCallConfig
         configBuilder.addFlag(PANEL_ONLY, "Only examine panel for variants");
 
         registerCommonConfig(configBuilder);
+        MetricsRegistry.registerConfig(configBuilder);
         addEnsemblDir(configBuilder);
     }
 
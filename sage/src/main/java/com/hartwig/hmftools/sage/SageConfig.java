@@ -77,6 +77,7 @@ public class SageConfig
     public final int MaxReadDepthPanel;
     public final int ReadContextFlankLength;
     public final int MaxPartitionSlices;
+    public final int ReadCacheMb;
     public final ValidationStringency BamStringency;
     public final SequencingConfig Sequencing;
 
@@ -110,6 +111,7 @@ public class SageConfig
     private static final String NO_FRAGMENT_SYNC = "no_fragment_sync";
     private static final String WRITE_FRAG_LENGTHS = "write_frag_lengths";
     private static final String MAX_PARTITION_SLICES = "max_partition_slices";
+    private static final String READ_CACHE_MB = "read_cache_mb";
     private static final String JITTER_PARAMS_DIR = "jitter_param_dir";
 
     private static final String SPECIFIC_POSITIONS = "specific_positions";
@@ -157,6 +159,7 @@ public class SageConfig
         mReadLength = configBuilder.getInteger(READ_LENGTH);
 
         MaxPartitionSlices = configBuilder.getInteger(MAX_PARTITION_SLICES);
+        ReadCacheMb = configBuilder.getInteger(READ_CACHE_MB);
         SyncFragments = !configBuilder.hasFlag(NO_FRAGMENT_SYNC);
 
         Filter = new FilterConfig(configBuilder);
@@ -324,6 +327,9 @@ public class SageConfig
         configBuilder.addInteger(SLICE_SIZE, "Slice size", DEFAULT_SLICE_SIZE);
         configBuilder.addInteger(MAX_PARTITION_SLICES, "Max slices per partition", DEFAULT_MAX_PARTITION_SLICES);
 
+        configBuilder.addInteger(
+                READ_CACHE_MB, "Memory budget (MB) per region to keep tumor reads from the candidate stage for evidence, 0 = disabled", 0);
+
         configBuilder.addInteger(MAX_READ_DEPTH, "Max depth to look for evidence", DEFAULT_MAX_READ_DEPTH);
         configBuilder.addInteger(MAX_READ_DEPTH_PANEL, "Max depth to look for evidence in panel", DEFAULT_MAX_READ_DEPTH_PANEL);
         configBuilder.addFlag(NO_FRAGMENT_SYNC, "Disable fragment reads sync in evidence phase");
@@ -372,6 +378,7 @@ public class SageConfig
         ReadContextFlankLength = DEFAULT_FLANK_LENGTH;
         mReadLength = DEFAULT_READ_LENGTH;
         MaxPartitionSlices = 1;
+        ReadCacheMb = 0;
         RefGenomeFile = "refGenome";
         OutputFile = "out.vcf";
         Version = "1.0";
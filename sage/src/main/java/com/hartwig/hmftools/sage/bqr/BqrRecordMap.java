@@ -1,7 +1,11 @@
 package com.hartwig.hmftools.sage.bqr;
 
+import static java.lang.Math.max;
+
+import static com.hartwig.hmftools.common.codon.Nucleotides.baseIndex;
 import static com.hartwig.hmftools.sage.SageCommon.SG_LOGGER;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -12,32 +16,102 @@ import com.hartwig.hmftools.common.qual.BqrRecord;
 
 public class BqrRecordMap
 {
-    // recalibration results per sampleId
-    private final Map<BqrKey, BqrRecord> mMap;
+    // recalibrated qualities in a dense table indexed by ref, alt, trinucleotide context, quality and read type, with keys which
+    // cannot be indexed (eg non-ACGT bases) held in a map
+    private final double[] mRecalibratedQuals;
+    private final int mQualityCount;
+    private final Map<BqrKey,BqrRecord> mNonIndexedRecords;
+
+    private static final int BASE_COUNT = 4;
+    private static final int CONTEXT_COUNT = BASE_COUNT * BASE_COUNT * BASE_COUNT * BASE_COUNT * BASE_COUNT; // ref, alt and trinucleotide
+    private static final int READ_TYPE_COUNT = BqrReadType.values().length;
+
+    private static final double NO_RECORD = Double.NaN;
 
     public BqrRecordMap(final List<BqrRecord> records)
     {
-        mMap = Maps.newHashMap();
+        int maxQuality = 0;
 
         for(BqrRecord record : records)
         {
-            if(mMap.containsKey(record.Key))
+            maxQuality = max(maxQuality, record.Key.Quality);
+        }
+
+        mQualityCount = records.isEmpty() ? 0 : maxQuality + 1;
+        mRecalibratedQuals = new double[CONTEXT_COUNT * mQualityCount * READ_TYPE_COUNT];
+        Arrays.fill(mRecalibratedQuals, NO_RECORD);
+
+        mNonIndexedRecords = Maps.newHashMap();
+
+        for(BqrRecord record : records)
+        {
+            BqrKey key = record.Key;
+            int index = tableIndex(key.Ref, key.Alt, key.TrinucleotideContext, key.Quality, key.ReadType);
+
+            boolean isDuplicate;
+
+            if(index >= 0)
             {
-                BqrRecord existing = mMap.get(record.Key);
-                SG_LOGGER.error("duplicate key({}) with existing key({}) count({})", record.Key, existing.Key, existing.Count);
+                isDuplicate = !Double.isNaN(mRecalibratedQuals[index]);
+
+                if(!isDuplicate)
+                    mRecalibratedQuals[index] = record.RecalibratedQuality;
             }
             else
             {
-                mMap.put(record.Key, record);
+                isDuplicate = mNonIndexedRecords.containsKey(key);
+
+                if(!isDuplicate)
+                    mNonIndexedRecords.put(key, record);
             }
+
+            if(isDuplicate)
+                SG_LOGGER.error("duplicate key({})", key);
         }
     }
 
+    private int tableIndex(byte ref, byte alt, final byte[] trinucleotideContext, byte qual, final BqrReadType readType)
+    {
+        // any key outside the table's bounds is not indexed, and falls back to the map
+        if(qual < 0 || qual >= mQualityCount || readType == null)
+            return -1;
+
+        if(trinucleotideContext == null || trinucleotideContext.length != 3)
+            return -1;
+
+        int refIndex = baseIndex(ref);
+        int altIndex = baseIndex(alt);
+        int tri0Index = baseIndex(trinucleotideContext[0]);
+        int tri1Index = baseIndex(trinucleotideContext[1]);
+        int tri2Index = baseIndex(trinucleotideContext[2]);
+
+        if(!validBaseIndex(refIndex) || !validBaseIndex(altIndex)
+        || !validBaseIndex(tri0Index) || !validBaseIndex(tri1Index) || !validBaseIndex(tri2Index))
+        {
+            return -1;
+        }
+
+        int contextIndex = (((refIndex * BASE_COUNT + altIndex) * BASE_COUNT + tri0Index) * BASE_COUNT + tri1Index) * BASE_COUNT + tri2Index;
+
+        return (contextIndex * mQualityCount + qual) * READ_TYPE_COUNT + readType.ordinal();
+    }
+
+    private static boolean validBaseIndex(int baseIndex) { return baseIndex >= 0 && baseIndex < BASE_COUNT; }
+
     public double getQualityAdjustment(byte ref, byte alt, byte[] trinucleotideContext, byte qual, BqrReadType readType)
     {
-        final BqrKey key = new BqrKey(ref, alt, trinucleotideContext, qual, readType);
+        int index = tableIndex(ref, alt, trinucleotideContext, qual, readType);
+
+        if(index >= 0)
+        {
+            double recalibratedQual = mRecalibratedQuals[index];
+            return Double.isNaN(recalibratedQual) ? qual : recalibratedQual;
+        }
+
+        if(mNonIndexedRecords.isEmpty() || readType == null)
+            return qual;
 
-        BqrRecord record = mMap.get(key);
+        BqrRecord record = mNonIndexedRecords.get(new BqrKey(ref, alt, trinucleotideContext, qual, readType));
         return record != null ? record.RecalibratedQuality : qual;
     }
 }
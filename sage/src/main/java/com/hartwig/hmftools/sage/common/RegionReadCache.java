@@ -0,0 +1,137 @@
+package com.hartwig.hmftools.sage.common;
+
+import static com.hartwig.hmftools.common.region.BaseRegion.positionsOverlap;
+import static com.hartwig.hmftools.common.region.BaseRegion.positionsWithin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import htsjdk.samtools.SAMRecord;
+
+public class RegionReadCache
+{
+    // keeps the reads sliced for candidate discovery so the evidence stage can replay them rather than decode the same BAM
+    // region again - a sample whose reads exceed the memory budget is dropped and the evidence stage re-slices as before
+    private final long mMaxBytes;
+    private final Map<String,SampleReads> mSampleReads;
+
+    private long mCachedBytes;
+
+    // approximate cost of a decoded record beyond its bases and qualities
+    private static final int READ_OVERHEAD_BYTES = 400;
+
+    public RegionReadCache(int maxMb)
+    {
+        mMaxBytes = maxMb * 1024L * 1024L;
+        mSampleReads = Maps.newHashMap();
+        mCachedBytes = 0;
+    }
+
+    public Consumer<SAMRecord> cacheReads(final String sampleId, final List<ChrBaseRegion> sliceRegions, final Consumer<SAMRecord> consumer)
+    {
+        SampleReads sampleReads = new SampleReads(sliceRegions);
+        mSampleReads.put(sampleId, sampleReads);
+
+        return record ->
+        {
+            if(sampleReads.Valid)
+            {
+                long readBytes = estimatedSize(record);
+
+                if(mCachedBytes + readBytes > mMaxBytes)
+                {
+                    mCachedBytes -= sampleReads.Bytes;
+                    sampleReads.clear();
+                }
+                else
+                {
+                    mCachedBytes += readBytes;
+                    sampleReads.add(record, readBytes);
+                }
+            }
+
+            consumer.accept(record);
+        };
+    }
+
+    @Nullable
+    public SamSlicerInterface getSamSlicer(final String sampleId, final List<ChrBaseRegion> regions)
+    {
+        SampleReads sampleReads = mSampleReads.get(sampleId);
+
+        if(sampleReads == null || !sampleReads.Valid || !sampleReads.covers(regions))
+            return null;
+
+        return consumer -> sampleReads.replay(regions, consumer);
+    }
+
+    public void clear()
+    {
+        mSampleReads.clear();
+        mCachedBytes = 0;
+    }
+
+    private static long estimatedSize(final SAMRecord record)
+    {
+        return 2L * record.getReadLength() + READ_OVERHEAD_BYTES;
+    }
+
+    private static class SampleReads
+    {
+        public final List<ChrBaseRegion> Regions;
+        public final List<SAMRecord> Reads;
+        public long Bytes;
+        public boolean Valid;
+
+        public SampleReads(final List<ChrBaseRegion> regions)
+        {
+            Regions = regions;
+            Reads = Lists.newArrayList();
+            Bytes = 0;
+            Valid = true;
+        }
+
+        public void add(final SAMRecord record, long readBytes)
+        {
+            Reads.add(record);
+            Bytes += readBytes;
+        }
+
+        public void clear()
+        {
+            Valid = false;
+            Reads.clear();
+            Bytes = 0;
+        }
+
+        public boolean covers(final List<ChrBaseRegion> regions)
+        {
+            return regions.stream().allMatch(region -> Regions.stream().anyMatch(x -> x.Chromosome.equals(region.Chromosome)
+                    && positionsWithin(region.start(), region.end(), x.start(), x.end())));
+        }
+
+        public void replay(final List<ChrBaseRegion> regions, final Consumer<SAMRecord> consumer)
+        {
+            // matches a BAM slice of the same regions without supplementaries - reads are held in coordinate order and each is
+            // passed on once if it overlaps any of the regions
+            for(SAMRecord record : Reads)
+            {
+                if(record.getSupplementaryAlignmentFlag())
+                    continue;
+
+                int readStart = record.getAlignmentStart();
+                int readEnd = record.getAlignmentEnd();
+
+                if(regions.stream().anyMatch(x -> positionsOverlap(readStart, readEnd, x.start(), x.end())))
+                    consumer.accept(record);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ public class EvidenceStats
     public int PartitionCount;
     public int SliceCount;
     public int SliceLength;
+    public int CachedSliceCount; // partitions whose reads were replayed from the candidate stage
 
     public EvidenceStats()
     {
@@ -21,6 +22,7 @@ public class EvidenceStats
         PartitionCount = 0;
         SliceCount = 0;
         SliceLength = 0;
+        CachedSliceCount = 0;
         SupportCounts = new long[ReadMatchType.values().length];
     }
 
@@ -31,6 +33,7 @@ public class EvidenceStats
         PartitionCount += other.PartitionCount;
         SliceCount += other.SliceCount;
         SliceLength += other.SliceLength;
+        CachedSliceCount += other.CachedSliceCount;
 
         for(int i = 0; i < SupportCounts.length; ++i)
         {
@@ -40,7 +43,7 @@ public class EvidenceStats
 
     public String toString()
     {
-        return format("partitions(%s) slices(%d totalLen=%d) reads(%d noVar=%s) readTypeCounts(%s)",
-                PartitionCount, SliceCount, SliceLength, ReadCount, NoVariantReadCount, ReadMatchType.countsToString(SupportCounts));
+        return format("partitions(%s cached=%d) slices(%d totalLen=%d) reads(%d noVar=%s) readTypeCounts(%s)",
+                PartitionCount, CachedSliceCount, SliceCount, SliceLength, ReadCount, NoVariantReadCount, ReadMatchType.countsToString(SupportCounts));
     }
 }
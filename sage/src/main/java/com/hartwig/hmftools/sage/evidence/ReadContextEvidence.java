@@ -27,6 +27,7 @@ import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.SageConfig;
+import com.hartwig.hmftools.sage.common.RegionReadCache;
 import com.hartwig.hmftools.sage.common.SamSlicerFactory;
 import com.hartwig.hmftools.sage.common.SamSlicerInterface;
 import com.hartwig.hmftools.sage.phase.VariantPhaser;
@@ -81,7 +82,8 @@ public class ReadContextEvidence implements FragmentSyncReadHandler
     private static final int SLICE_SOFT_CLIP_BUFFER = 30;
 
     public List<ReadContextCounter> collectEvidence(
-            final List<Candidate> candidates, final String sample, final SamSlicerFactory samSlicerFactory, final VariantPhaser variantPhaser)
+            final List<Candidate> candidates, final String sample, final SamSlicerFactory samSlicerFactory,
+            @Nullable final RegionReadCache readCache, final VariantPhaser variantPhaser)
     {
         if(candidates.isEmpty())
             return Collections.emptyList();
@@ -130,7 +132,14 @@ public class ReadContextEvidence implements FragmentSyncReadHandler
                 readContextCounter.setMaxCandidateDeleteLength(maxCloseDel);
         }
 
-        final SamSlicerInterface samSlicer = samSlicerFactory.getSamSlicer(sample, sliceRegions, false);
+        // replay the candidate stage's reads if they cover these regions, otherwise slice the BAM again
+        SamSlicerInterface samSlicer = readCache != null ? readCache.getSamSlicer(sample, sliceRegions) : null;
+
+        if(samSlicer != null)
+            ++mStats.CachedSliceCount;
+        else
+            samSlicer = samSlicerFactory.getSamSlicer(sample, sliceRegions, false);
+
         samSlicer.slice(this::processReadRecord);
 
         mFragmentSync.emptyCachedReads();
@@ -5,6 +5,8 @@ import static com.hartwig.hmftools.sage.pipeline.ChromosomePartition.getPanelReg
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.region.BaseRegion;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
@@ -12,6 +14,7 @@ import com.hartwig.hmftools.sage.SageCallConfig;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.candidate.Candidates;
 import com.hartwig.hmftools.sage.candidate.AltContext;
+import com.hartwig.hmftools.sage.common.RegionReadCache;
 import com.hartwig.hmftools.sage.common.SamSlicerFactory;
 import com.hartwig.hmftools.sage.common.SamSlicerInterface;
 import com.hartwig.hmftools.sage.common.SimpleVariant;
@@ -27,17 +30,19 @@ public class CandidateStage
     private final CandidateEvidence mCandidateEvidence;
     private final List<BaseRegion> mHighConfidenceRegions;
     private final SamSlicerFactory mSamSlicerFactory;
+    @Nullable private final RegionReadCache mReadCache;
 
     public CandidateStage(
             final SageCallConfig config, final List<SimpleVariant> hotspots,
             final List<BaseRegion> panelRegions, final List<BaseRegion> highConfidenceRegions, final Coverage coverage,
-            final SamSlicerFactory samSlicerFactory)
+            final SamSlicerFactory samSlicerFactory, @Nullable final RegionReadCache readCache)
     {
         mConfig = config;
         mHotspots = hotspots;
         mPanelRegions = panelRegions;
         mHighConfidenceRegions = highConfidenceRegions;
         mSamSlicerFactory = samSlicerFactory;
+        mReadCache = readCache;
 
         mCandidateEvidence = new CandidateEvidence(config.Common, hotspots, panelRegions, coverage);
     }
@@ -56,6 +61,13 @@ public class CandidateStage
 
             SamSlicerInterface samSlicer = mSamSlicerFactory.getSamSlicer(sample, sliceRegions, true);
 
+            if(mReadCache != null)
+            {
+                // keep the reads for the evidence stage
+                final SamSlicerInterface bamSlicer = samSlicer;
+                samSlicer = consumer -> bamSlicer.slice(mReadCache.cacheReads(sample, sliceRegions, consumer));
+            }
+
             List<AltContext> altContexts = mCandidateEvidence.readBam(sample, samSlicer, refSequence, region);
 
             if(mConfig.TumorIds.size() == 1)
@@ -110,6 +110,8 @@ public class ChromosomePipeline implements AutoCloseable
         return mChromosome;
     }
 
+    public RegionResults regionResults() { return mRegionResults; }
+
     public void process()
     {
         int regionCount = mPartitions.size();
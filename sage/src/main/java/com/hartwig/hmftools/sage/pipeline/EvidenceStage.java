@@ -5,10 +5,13 @@ import static com.hartwig.hmftools.sage.SageCommon.SG_LOGGER;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import com.hartwig.hmftools.common.genome.refgenome.RefGenomeInterface;
 import com.hartwig.hmftools.common.region.ChrBaseRegion;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.SageConfig;
+import com.hartwig.hmftools.sage.common.RegionReadCache;
 import com.hartwig.hmftools.sage.common.SamSlicerFactory;
 import com.hartwig.hmftools.sage.evidence.EvidenceStats;
 import com.hartwig.hmftools.sage.evidence.ReadContextEvidence;
@@ -23,6 +26,7 @@ public class EvidenceStage
 {
     private final SageConfig mConfig;
     private final SamSlicerFactory mSamSlicerFactory;
+    @Nullable private final RegionReadCache mReadCache;
 
     private final ReadContextEvidence mReadContextEvidence;
     private final VariantPhaser mVariantPhaser;
@@ -30,9 +34,18 @@ public class EvidenceStage
     public EvidenceStage(
             final SageConfig config, final RefGenomeInterface refGenome, final Map<String, BqrRecordMap> qualityRecalibrationMap,
             final MsiJitterCalcs msiJitterCalcs, final PhaseSetCounter phaseSetCounter, final SamSlicerFactory samSlicerFactory)
+    {
+        this(config, refGenome, qualityRecalibrationMap, msiJitterCalcs, phaseSetCounter, samSlicerFactory, null);
+    }
+
+    public EvidenceStage(
+            final SageConfig config, final RefGenomeInterface refGenome, final Map<String, BqrRecordMap> qualityRecalibrationMap,
+            final MsiJitterCalcs msiJitterCalcs, final PhaseSetCounter phaseSetCounter, final SamSlicerFactory samSlicerFactory,
+            @Nullable final RegionReadCache readCache)
     {
         mConfig = config;
         mSamSlicerFactory = samSlicerFactory;
+        mReadCache = readCache;
 
         mReadContextEvidence = new ReadContextEvidence(config, refGenome, qualityRecalibrationMap, msiJitterCalcs);
         mVariantPhaser = new VariantPhaser(phaseSetCounter);
@@ -55,7 +68,7 @@ public class EvidenceStage
             boolean collectPhasingGroups = checkPhasing && (i == 0);
 
             List<ReadContextCounter> readCounters = mReadContextEvidence.collectEvidence(
-                    candidates, sample, mSamSlicerFactory, collectPhasingGroups ? mVariantPhaser : null);
+                    candidates, sample, mSamSlicerFactory, mReadCache, collectPhasingGroups ? mVariantPhaser : null);
 
             readContextCounters.addCounters(readCounters, sampleCount);
         }
@@ -83,6 +83,8 @@ public class RegionResults
     public int totalCandidates() { return mCandidates; }
     public int totalVariants() { return mTotaVariants; }
 
+    public List<PerformanceCounter> perfCounters() { return mPerfCounters; }
+
     public void logPerfCounters()
     {
         mPerfCounters.forEach(x -> x.logStats());
@@ -20,6 +20,7 @@ import com.hartwig.hmftools.sage.SageCallConfig;
 import com.hartwig.hmftools.sage.bqr.BqrRecordMap;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.common.RefSequence;
+import com.hartwig.hmftools.sage.common.RegionReadCache;
 import com.hartwig.hmftools.sage.common.SageVariant;
 import com.hartwig.hmftools.sage.common.SamSlicerFactory;
 import com.hartwig.hmftools.sage.common.SimpleVariant;
@@ -45,6 +46,7 @@ public class RegionTask
     private final SageCallConfig mConfig;
     private final RefGenomeInterface mRefGenome;
 
+    private final RegionReadCache mReadCache;
     private final CandidateStage mCandidateState;
     private final EvidenceStage mEvidenceStage;
 
@@ -74,10 +76,13 @@ public class RegionTask
         mRefGenome = refGenome;
         mFragmentLengths = fragmentLengths;
 
-        mCandidateState = new CandidateStage(config, hotspots, panelRegions, highConfidenceRegions, coverage, samSlicerFactory);
+        mReadCache = config.Common.ReadCacheMb > 0 ? new RegionReadCache(config.Common.ReadCacheMb) : null;
+
+        mCandidateState = new CandidateStage(
+                config, hotspots, panelRegions, highConfidenceRegions, coverage, samSlicerFactory, mReadCache);
 
         mEvidenceStage = new EvidenceStage(
-                config.Common, refGenome, qualityRecalibrationMap, msiJitterCalcs, phaseSetCounter, samSlicerFactory);
+                config.Common, refGenome, qualityRecalibrationMap, msiJitterCalcs, phaseSetCounter, samSlicerFactory, mReadCache);
 
         mVariantFilters = new VariantFilters(mConfig.Common);
 
@@ -113,6 +118,9 @@ public class RegionTask
 
         if(initialCandidates.isEmpty())
         {
+            if(mReadCache != null)
+                mReadCache.clear();
+
             SG_LOGGER.trace("{}: region({}) complete with no candidates", mTaskId, mRegion);
             return;
         }
@@ -126,6 +134,10 @@ public class RegionTask
         ReadContextCounters tumorEvidence = mEvidenceStage.findEvidence(
                 mRegion, "tumor", mConfig.TumorIds, initialCandidates, true);
 
+        // only tumor reads are cached, so release them before the reference samples are sliced
+        if(mReadCache != null)
+            mReadCache.clear();
+
         List<Candidate> finalCandidates = tumorEvidence.filterCandidates();
 
         ReadContextCounters referenceEvidence = mEvidenceStage.findEvidence
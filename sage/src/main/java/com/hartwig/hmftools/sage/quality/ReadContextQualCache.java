@@ -2,9 +2,6 @@ package com.hartwig.hmftools.sage.quality;
 
 import static com.hartwig.hmftools.sage.quality.QualityCalculator.INVALID_BASE_QUAL;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import com.hartwig.hmftools.common.qual.BaseQualAdjustment;
 import com.hartwig.hmftools.common.qual.BqrReadType;
 import com.hartwig.hmftools.sage.common.VariantReadContext;
@@ -13,27 +10,22 @@ import com.hartwig.hmftools.sage.quality.QualityCalculator;
 public class ReadContextQualCache
 {
     private final int mVariantPosition;
-    private final String mVariantAlt;
-    private final Map<String,Double>[] mQualMapByIndex;
+    private final byte[] mAltBases;
+    private final byte[][] mTrinucleotideContexts; // cached per alt base, populated on first use
     private final QualityCalculator mQualityCalculator;
     private final double mMsiIndelErrorQual;
 
     public ReadContextQualCache(final VariantReadContext readContext, final QualityCalculator qualityCalculator, final String sampleId)
     {
         mVariantPosition = readContext.variant().Position;
-        mVariantAlt = readContext.variant().alt();
+        mAltBases = readContext.variant().alt().getBytes();
 
         mQualityCalculator = qualityCalculator;
 
         double errorRate = qualityCalculator.msiJitterCalcs().calcErrorRate(readContext, sampleId);
         mMsiIndelErrorQual = errorRate > 0 ? BaseQualAdjustment.probabilityToPhredQual(errorRate) : INVALID_BASE_QUAL;
 
-        mQualMapByIndex = new HashMap[mVariantAlt.length()];
-
-        for(int i = 0; i < mVariantAlt.length(); ++i)
-        {
-            mQualMapByIndex[i] = new HashMap<>();
-        }
+        mTrinucleotideContexts = new byte[mAltBases.length][];
     }
 
     public double msiIndelErrorQual() { return mMsiIndelErrorQual; }
@@ -41,19 +33,14 @@ public class ReadContextQualCache
 
     public double getQual(final byte baseQual, final BqrReadType readType, final int refIndex)
     {
-        String key = String.valueOf(baseQual) + "_" + readType.ordinal();
-        Double bqrQual = mQualMapByIndex[refIndex].get(key);
-
-        if(bqrQual != null)
-            return bqrQual;
+        byte[] trinucleotideContext = mTrinucleotideContexts[refIndex];
 
-        byte[] trinucleotideContext = mQualityCalculator.getTrinucleotideContext(mVariantPosition + refIndex);
-
-        double bqrValue = mQualityCalculator.lookupRecalibrateQuality(
-                trinucleotideContext, (byte)mVariantAlt.charAt(refIndex), baseQual, readType);
-
-        mQualMapByIndex[refIndex].put(key, bqrValue);
+        if(trinucleotideContext == null)
+        {
+            trinucleotideContext = mQualityCalculator.getTrinucleotideContext(mVariantPosition + refIndex);
+            mTrinucleotideContexts[refIndex] = trinucleotideContext;
+        }
 
-        return bqrValue;
+        return mQualityCalculator.lookupRecalibrateQuality(trinucleotideContext, mAltBases[refIndex], baseQual, readType);
     }
 }
@@ -208,4 +208,40 @@ public class BaseQualityRecalibrationTest
         BqrRecord rec2 = bqrRecords.stream().filter(x -> x.Key.equals(aAltKey)).findFirst().orElse(null);
         assertEquals(37, rec2.RecalibratedQuality, 0.1);
     }
+
+    @Test
+    public void testRecordMapLookup()
+    {
+        byte aBase = DNA_BASE_BYTES[0];
+        byte cBase = DNA_BASE_BYTES[1];
+        byte tBase = DNA_BASE_BYTES[3];
+        byte nBase = 'N';
+
+        byte[] triNucContext = new byte[] {tBase, aBase, cBase};
+        byte[] triNucContextN = new byte[] {nBase, aBase, cBase};
+
+        List<BqrRecord> records = List.of(
+                new BqrRecord(new BqrKey(aBase, cBase, triNucContext, (byte)37, BqrReadType.NONE), 100, 32.5),
+                new BqrRecord(new BqrKey(aBase, cBase, triNucContext, (byte)37, BqrReadType.DUAL), 100, 40.2),
+                new BqrRecord(new BqrKey(aBase, cBase, triNucContextN, (byte)25, BqrReadType.NONE), 100, 18.1));
+
+        BqrRecordMap recordMap = new BqrRecordMap(records);
+
+        assertEquals(32.5, recordMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)37, BqrReadType.NONE), 0.001);
+        assertEquals(40.2, recordMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)37, BqrReadType.DUAL), 0.001);
+        assertEquals(18.1, recordMap.getQualityAdjustment(aBase, cBase, triNucContextN, (byte)25, BqrReadType.NONE), 0.001);
+
+        // missing keys and qualities beyond those recorded return the raw quality
+        assertEquals(37, recordMap.getQualityAdjustment(aBase, tBase, triNucContext, (byte)37, BqrReadType.NONE), 0.001);
+        assertEquals(37, recordMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)37, BqrReadType.SINGLE), 0.001);
+        assertEquals(45, recordMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)45, BqrReadType.NONE), 0.001);
+
+        // out-of-range qualities and malformed contexts are not indexed
+        assertEquals(-5, recordMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)-5, BqrReadType.NONE), 0.001);
+        assertEquals(37, recordMap.getQualityAdjustment(aBase, cBase, new byte[] {tBase, aBase}, (byte)37, BqrReadType.NONE), 0.001);
+        assertEquals(37, recordMap.getQualityAdjustment(aBase, cBase, null, (byte)37, BqrReadType.NONE), 0.001);
+
+        BqrRecordMap emptyMap = new BqrRecordMap(Collections.emptyList());
+        assertEquals(30, emptyMap.getQualityAdjustment(aBase, cBase, triNucContext, (byte)30, BqrReadType.NONE), 0.001);
+    }
 }
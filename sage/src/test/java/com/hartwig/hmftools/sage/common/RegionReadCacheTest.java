@@ -0,0 +1,86 @@
+package com.hartwig.hmftools.sage.common;
+
+import static com.hartwig.hmftools.common.test.GeneTestUtils.CHR_1;
+import static com.hartwig.hmftools.sage.common.RegionTaskTester.TEST_TUMOR_ID;
+import static com.hartwig.hmftools.sage.common.TestUtils.buildSamRecord;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.region.ChrBaseRegion;
+
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class RegionReadCacheTest
+{
+    private static final String READ_BASES = "A".repeat(50);
+
+    @Test
+    public void testReplayReads()
+    {
+        MockSamSlicer bamSlicer = new MockSamSlicer();
+
+        SAMRecord read1 = buildSamRecord(100, "50M", READ_BASES);
+        SAMRecord read2 = buildSamRecord(300, "50M", READ_BASES);
+        SAMRecord supplementary = buildSamRecord(310, "50M", READ_BASES);
+        supplementary.setSupplementaryAlignmentFlag(true);
+        SAMRecord read3 = buildSamRecord(500, "50M", READ_BASES);
+        SAMRecord read4 = buildSamRecord(900, "50M", READ_BASES);
+
+        bamSlicer.ReadRecords.addAll(List.of(read1, read2, supplementary, read3, read4));
+
+        RegionReadCache readCache = new RegionReadCache(1);
+
+        List<ChrBaseRegion> candidateRegions = List.of(new ChrBaseRegion(CHR_1, 1, 1000));
+
+        List<SAMRecord> candidateReads = Lists.newArrayList();
+        bamSlicer.slice(readCache.cacheReads(TEST_TUMOR_ID, candidateRegions, candidateReads::add));
+        assertEquals(5, candidateReads.size());
+
+        // replay only non-supplementary reads overlapping the evidence regions, each once
+        List<ChrBaseRegion> evidenceRegions = List.of(new ChrBaseRegion(CHR_1, 120, 320), new ChrBaseRegion(CHR_1, 340, 520));
+
+        SamSlicerInterface cachedSlicer = readCache.getSamSlicer(TEST_TUMOR_ID, evidenceRegions);
+        assertNotNull(cachedSlicer);
+
+        List<SAMRecord> evidenceReads = Lists.newArrayList();
+        cachedSlicer.slice(evidenceReads::add);
+        assertEquals(List.of(read1, read2, read3), evidenceReads);
+
+        // regions extending beyond the candidate slice or for other samples fall back to the BAM
+        assertNull(readCache.getSamSlicer(TEST_TUMOR_ID, List.of(new ChrBaseRegion(CHR_1, 980, 1030))));
+        assertNull(readCache.getSamSlicer("OTHER", evidenceRegions));
+
+        readCache.clear();
+        assertNull(readCache.getSamSlicer(TEST_TUMOR_ID, evidenceRegions));
+    }
+
+    @Test
+    public void testMemoryBudget()
+    {
+        MockSamSlicer bamSlicer = new MockSamSlicer();
+
+        // each read is estimated at a few hundred bytes, so 1MB is exceeded after a few thousand reads
+        for(int i = 0; i < 5000; ++i)
+        {
+            bamSlicer.ReadRecords.add(buildSamRecord(100 + i / 10, "50M", READ_BASES));
+        }
+
+        RegionReadCache readCache = new RegionReadCache(1);
+
+        List<ChrBaseRegion> candidateRegions = List.of(new ChrBaseRegion(CHR_1, 1, 1000));
+
+        List<SAMRecord> candidateReads = Lists.newArrayList();
+        bamSlicer.slice(readCache.cacheReads(TEST_TUMOR_ID, candidateRegions, candidateReads::add));
+
+        // the candidate stage still sees every read
+        assertEquals(5000, candidateReads.size());
+        assertNull(readCache.getSamSlicer(TEST_TUMOR_ID, List.of(new ChrBaseRegion(CHR_1, 100, 200))));
+    }
+}
@@ -1,7 +1,5 @@
 package com.hartwig.hmftools.teal.util
 
-import com.hartwig.hmftools.common.aligner.*
-
 import com.hartwig.hmftools.teal.TealConstants
 import org.apache.logging.log4j.LogManager
 
@@ -11,8 +9,13 @@ object TelomereMatcher
 {
     private val LOGGER = LogManager.getLogger(javaClass)
 
-    // we use same score for mismatch and gap, tailored for aligning to TTAGGG template
-    private val sAligner = LocalSequenceAligner(1, -1, -1, -1)
+    // same score for mismatch and gap, tailored for aligning to TTAGGG template
+    private const val MATCH_SCORE = 1
+    private const val MISMATCH_SCORE = -1
+    private const val GAP_SCORE = -1
+
+    private val G_HEXAMER = TealConstants.CANONICAL_TELOMERE_SEQ.toCharArray()
+    private val C_HEXAMER = TealConstants.CANONICAL_TELOMERE_SEQ_REV.toCharArray()
 
     data class TelomereMatch(val matchStart: Int, val matchEnd: Int, val numMatchedBases: Int, val matchedSequence: String)
 
@@ -32,38 +35,105 @@ object TelomereMatcher
         // we want to allow some insertion / deletion plus a full hexamer
         val telomereTemplateLength = (seq.length * 1.2).toInt() + 6
 
-        // we provide a template that is 1.5x as long as the original sequence
-        val alignment: LocalSequenceAligner.Alignment = sAligner.alignSequence(seq, generateTelomereTemplate(telomereTemplateLength, gRich))
+        // Smith-Waterman local alignment against a repeating hexamer template, which is never built. Only one row of scores is
+        // kept, and each cell carries the alignment start and match count of the path it extends, so the result is the same as
+        // a traceback from the highest scoring cell in LocalSequenceAligner, using the same tie-break order
+        val hexamer = if (gRich) G_HEXAMER else C_HEXAMER
+        val numCols = telomereTemplateLength + 1
 
-        val numMatch = alignment.operators.count({ op -> op == AlignmentOperator.MATCH })
+        val scores = IntArray(numCols)
+        val starts = IntArray(numCols)
+        val matches = IntArray(numCols)
+
+        var highestScore = 0
+        var alignStart = 0
+        var alignEnd = 0
+        var numMatch = 0
+
+        for (x in 1..seq.length)
+        {
+            val base = seq[x - 1]
+
+            // cell (x - 1, y - 1), starting with the first column where alignments end
+            var diagScore = 0
+            var diagStart = x - 1
+            var diagMatches = 0
+
+            starts[0] = x
+
+            var hexamerIndex = 0
+
+            for (y in 1 until numCols)
+            {
+                // cell (x - 1, y) before it is overwritten
+                val upScore = scores[y]
+                val upStart = starts[y]
+                val upMatches = matches[y]
+
+                val isMatch = base == hexamer[hexamerIndex]
+                val diagCandidate = diagScore + if (isMatch) MATCH_SCORE else MISMATCH_SCORE
+                val leftCandidate = scores[y - 1] + GAP_SCORE
+                val upCandidate = upScore + GAP_SCORE
+
+                val score: Int
+                if (diagCandidate >= leftCandidate && diagCandidate >= upCandidate)
+                {
+                    score = diagCandidate
+                    starts[y] = diagStart
+                    matches[y] = if (isMatch) diagMatches + 1 else diagMatches
+                }
+                else if (diagCandidate < leftCandidate && leftCandidate >= upCandidate)
+                {
+                    score = leftCandidate
+                    starts[y] = starts[y - 1]
+                    matches[y] = matches[y - 1]
+                }
+                else
+                {
+                    score = upCandidate
+                    starts[y] = upStart
+                    matches[y] = upMatches
+                }
+
+                if (score <= 0)
+                {
+                    // alignment restarts after this base
+                    scores[y] = 0
+                    starts[y] = x
+                    matches[y] = 0
+                }
+                else
+                {
+                    scores[y] = score
+
+                    if (score > highestScore)
+                    {
+                        highestScore = score
+                        alignStart = starts[y]
+                        alignEnd = x
+                        numMatch = matches[y]
+                    }
+                }
+
+                diagScore = upScore
+                diagStart = upStart
+                diagMatches = upMatches
+
+                if (++hexamerIndex == hexamer.size)
+                    hexamerIndex = 0
+            }
+        }
 
         // at least need to match 12 (2 x TTAGGG)
         if (numMatch < TealConstants.MIN_TELOMERE_MATCH_BASES)
             return null
 
-        val matchRatio = numMatch / alignment.firstSequenceAlignLength
-        val matchSeq = seq.substring(alignment.firstSequenceAlignStart, alignment.firstSequenceAlignEnd)
+        val matchRatio = numMatch / (alignEnd - alignStart)
+        val matchSeq = seq.substring(alignStart, alignEnd)
 
         LOGGER.trace("seq({}) matchSegmentLength({}) numMatch({}) matchSegment({}) ratio({}) threshold({})",
-            seq, alignment.firstSequenceAlignLength, numMatch, matchSeq, matchRatio, matchThreshold)
-        return TelomereMatch(alignment.firstSequenceAlignStart, alignment.firstSequenceAlignEnd, numMatch, matchSeq)
-    }
-
-    private fun generateTelomereTemplate(length: Int, gRich: Boolean): String
-    {
-        val canonicalHexamer = if (gRich) TealConstants.CANONICAL_TELOMERE_SEQ else TealConstants.CANONICAL_TELOMERE_SEQ_REV
-        val b = StringBuilder(length)
-        val numFullHexamers = length / canonicalHexamer.length
-        for (i in 0 until numFullHexamers)
-        {
-            b.append(canonicalHexamer)
-        }
-        val residualLength = length % canonicalHexamer.length
-        if (residualLength > 0)
-        {
-            b.append(canonicalHexamer, 0, residualLength)
-        }
-        return b.toString()
+            seq, alignEnd - alignStart, numMatch, matchSeq, matchRatio, matchThreshold)
+        return TelomereMatch(alignStart, alignEnd, numMatch, matchSeq)
     }
 
     fun matchesGTelomere(seq: String, telomereMatchThreshold: Double, minTelomereMatchLength: Int): Boolean
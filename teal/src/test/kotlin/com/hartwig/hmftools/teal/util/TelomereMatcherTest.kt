@@ -1,6 +1,10 @@
 package com.hartwig.hmftools.teal.util
 
+import com.hartwig.hmftools.common.aligner.AlignmentOperator
+import com.hartwig.hmftools.common.aligner.LocalSequenceAligner
+import com.hartwig.hmftools.teal.TealConstants
 import org.junit.Before
+import kotlin.random.Random
 import kotlin.test.*
 
 internal class TelomereMatcherTest
@@ -102,4 +106,54 @@ internal class TelomereMatcherTest
 
         assertTrue(TelomereMatcher.matchesGTelomere(seq, 0.9, 12))
     }
+
+    @Test
+    fun testMatchesLocalAlignment()
+    {
+        // compare against a full local alignment to the telomere template, on telomeric sequences with random errors
+        val aligner = LocalSequenceAligner(1, -1, -1, -1)
+        val random = Random(1)
+        val bases = "ACGT"
+
+        for (i in 0 until 500)
+        {
+            val gRich = random.nextBoolean()
+            val hexamer = if (gRich) TealConstants.CANONICAL_TELOMERE_SEQ else TealConstants.CANONICAL_TELOMERE_SEQ_REV
+            val length = random.nextInt(10, 160)
+            val errorRate = random.nextDouble(0.0, 0.4)
+
+            val b = StringBuilder()
+            var hexIndex = random.nextInt(6)
+            while (b.length < length)
+            {
+                val r = random.nextDouble()
+                if (r < errorRate / 3)
+                    b.append(bases[random.nextInt(4)]) // insert or substitute
+                else if (r < errorRate * 2 / 3)
+                    hexIndex++ // delete
+                else
+                    b.append(hexamer[hexIndex++ % 6])
+            }
+            val seq = b.toString()
+
+            val templateLength = (seq.length * 1.2).toInt() + 6
+            val template = hexamer.repeat(templateLength / 6 + 1).substring(0, templateLength)
+            val alignment = aligner.alignSequence(seq, template)
+            val numMatch = alignment.operators.count { op -> op == AlignmentOperator.MATCH }
+
+            val telomereMatch = if (gRich) TelomereMatcher.findGTelomereSegment(seq, 0.9)
+                else TelomereMatcher.findCTelomereSegment(seq, 0.9)
+
+            if (numMatch < TealConstants.MIN_TELOMERE_MATCH_BASES)
+            {
+                assertNull(telomereMatch, seq)
+                continue
+            }
+
+            assertNotNull(telomereMatch, seq)
+            assertEquals(alignment.firstSequenceAlignStart, telomereMatch.matchStart, seq)
+            assertEquals(alignment.firstSequenceAlignEnd, telomereMatch.matchEnd, seq)
+            assertEquals(numMatch, telomereMatch.numMatchedBases, seq)
+        }
+    }
 }